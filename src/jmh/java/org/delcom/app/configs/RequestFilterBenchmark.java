@@ -0,0 +1,104 @@
+package org.delcom.app.configs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Overhead per request dari filter pencatat: tanpa filter, RequestLoggingFilter
+ * (ring buffer + thread penulis), RequestMetricsFilter, dan salinan cara lama
+ * (stack walk + String.format + println sinkron, ke stream kosong).
+ *
+ * Jalankan: ./mvnw -Pjmh test -Djmh.includes=RequestFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RequestFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private RequestLogWriter writer;
+    private RequestLoggingFilter loggingFilter;
+    private RequestMetricsFilter metricsFilter;
+    private PrintStream nullOut;
+
+    @State(Scope.Thread)
+    public static class Exchange {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setup() {
+            request = new MockHttpServletRequest("GET", "/plants/6f1c2a9e-0000-0000-0000-000000000001");
+            request.setRemoteAddr("127.0.0.1");
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/plants/{id}");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        // Sink kosong: yang diukur biaya di thread request, bukan I/O log
+        writer = new RequestLogWriter("text", 8192, line -> { });
+        writer.start();
+        loggingFilter = new RequestLoggingFilter(writer);
+        metricsFilter = new RequestMetricsFilter(Duration.ofSeconds(60));
+        nullOut = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @TearDown
+    public void tearDown() {
+        writer.shutdown();
+    }
+
+    @Benchmark
+    public void noFilter(Exchange exchange) throws ServletException, IOException {
+        NO_OP_CHAIN.doFilter(exchange.request, exchange.response);
+    }
+
+    @Benchmark
+    public void requestLoggingFilter(Exchange exchange) throws ServletException, IOException {
+        loggingFilter.doFilterInternal(exchange.request, exchange.response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public void requestMetricsFilter(Exchange exchange) throws ServletException, IOException {
+        metricsFilter.doFilterInternal(exchange.request, exchange.response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public void legacyStackWalkLogging(Exchange exchange) throws ServletException, IOException {
+        // Salinan RequestLoggingFilter sebelum ring buffer
+        long start = System.currentTimeMillis();
+        NO_OP_CHAIN.doFilter(exchange.request, exchange.response);
+        long duration = System.currentTimeMillis() - start;
+
+        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+        StackTraceElement origin = Arrays.stream(stack)
+                .filter(s -> s.getClassName().startsWith("org.delcom"))
+                .findFirst()
+                .orElse(stack[stack.length - 1]);
+        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
+
+        nullOut.println(String.format("%s%-6s %s %d %dms%s [%s] from %s",
+                "\u001B[32m", exchange.request.getMethod(), exchange.request.getRequestURI(),
+                exchange.response.getStatus(), duration, "\u001B[0m", originInfo,
+                exchange.request.getRemoteAddr()));
+    }
+}
@@ -0,0 +1,130 @@
+package org.delcom.app.configs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Pool thread Tomcat biasa (200 platform thread) dibanding virtual thread per
+ * request, untuk beban yang banyak menunggu I/O. Satu operasi = satu
+ * gelombang request bersamaan; tiap request menyalin upload uploadKb ke disk,
+ * meminjam koneksi lewat ConnectionLimitingDataSource (10 koneksi, seperti
+ * pool Hikari) untuk "query" dbMillis, lalu menunggu I/O lain ioMillis
+ * (layanan luar, disk lambat) tanpa memegang koneksi.
+ *
+ * Jalankan: ./mvnw -Pjmh test -Djmh.includes=VirtualThreadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+
+    @Param({ "platform", "virtual" })
+    public String mode;
+
+    @Param({ "1000" })
+    public int requests;
+
+    @Param({ "0", "64" })
+    public int uploadKb;
+
+    @Param({ "2" })
+    public int dbMillis;
+
+    @Param({ "20", "100" })
+    public int ioMillis;
+
+    private ExecutorService executor;
+    private ConnectionLimitingDataSource dataSource;
+    private Path dir;
+    private Path upload;
+
+    @Setup
+    public void setup() throws IOException {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        dataSource = new ConnectionLimitingDataSource(new NoOpDataSource(), POOL_SIZE, 60_000);
+        dir = Files.createTempDirectory("vt-bench");
+        upload = dir.resolve("upload.bin");
+        byte[] content = new byte[uploadKb * 1024];
+        ThreadLocalRandom.current().nextBytes(content);
+        Files.write(upload, content);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public long burst() throws Exception {
+        List<Future<Long>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(this::handleRequest));
+        }
+        long bytes = 0;
+        for (Future<Long> future : futures) {
+            bytes += future.get();
+        }
+        return bytes;
+    }
+
+    private long handleRequest() throws Exception {
+        long copied = uploadKb > 0 ? storeUpload() : 0;
+        try (Connection connection = dataSource.getConnection()) {
+            Thread.sleep(dbMillis);
+        }
+        Thread.sleep(ioMillis);
+        return copied;
+    }
+
+    private long storeUpload() throws IOException {
+        Path target = Files.createTempFile(dir, "stored-", ".bin");
+        try (InputStream in = Files.newInputStream(upload); OutputStream out = Files.newOutputStream(target)) {
+            return in.transferTo(out);
+        } finally {
+            Files.delete(target);
+        }
+    }
+
+    // Pengganti pool koneksi: koneksinya tidak melakukan apa-apa
+    private static final class NoOpDataSource extends AbstractDataSource {
+        @Override
+        public Connection getConnection() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
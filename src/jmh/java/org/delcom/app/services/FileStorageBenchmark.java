@@ -0,0 +1,78 @@
+package org.delcom.app.services;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.delcom.app.repositories.UploadBlobRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Throughput penyimpanan upload: storeFile (nama tetap, ditimpa) dan
+ * storeImage untuk isi yang sudah ada (hash + dedupe, repository di-mock
+ * sehingga yang terukur hanya I/O & SHA-256). Folder upload di temp dir.
+ *
+ * Jalankan: ./mvnw -Pjmh test -Djmh.includes=FileStorageBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    @Param({ "16384", "1048576" })
+    public int sizeBytes;
+
+    private Path uploadDir;
+    private FileStorageService storage;
+    private MockMultipartFile file;
+    private UUID coverId;
+
+    @Setup
+    public void setup() throws IOException {
+        uploadDir = Files.createTempDirectory("jmh-uploads");
+        UploadBlobRepository blobRepository = mock(UploadBlobRepository.class);
+        when(blobRepository.incrementRefCount(anyString())).thenReturn(1);
+        storage = new FileStorageService(blobRepository);
+        storage.uploadDir = uploadDir.toString();
+
+        // Header JPEG agar lolos pengecekan magic byte, sisanya acak
+        byte[] content = new byte[sizeBytes];
+        new Random(42).nextBytes(content);
+        content[0] = (byte) 0xFF;
+        content[1] = (byte) 0xD8;
+        content[2] = (byte) 0xFF;
+        file = new MockMultipartFile("file", "photo.jpg", "image/jpeg", content);
+        coverId = UUID.randomUUID();
+        storage.storeImage(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(uploadDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String storeFile() throws IOException {
+        return storage.storeFile(file, coverId);
+    }
+
+    @Benchmark
+    public FileStorageService.StoredFile storeImageDuplicate() throws IOException {
+        return storage.storeImage(file);
+    }
+}
@@ -0,0 +1,44 @@
+package org.delcom.app.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Biaya BCrypt per login/registrasi pada strength yang dipakai aplikasi
+ * (BCryptPasswordEncoder default di SecurityConfig = 10). Tambahkan nilai di
+ * @Param untuk membandingkan sebelum menaikkan strength.
+ *
+ * Jalankan: ./mvnw -Pjmh test -Djmh.includes=PasswordHashingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({ "10" })
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("rahasia123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("rahasia123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("rahasia123", hash);
+    }
+}
@@ -0,0 +1,141 @@
+package org.delcom.app.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.PageSlice;
+import org.delcom.app.dto.PlantStats;
+import org.delcom.app.entities.Plant;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.PlantRepository;
+import org.delcom.app.repositories.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Statistik tanaman untuk "/" (HomeView.home) dan "/plants"
+ * (PlantController.listPlants) pada 10 s/d 100k tanaman per user, di H2
+ * in-memory (konfigurasi src/test/resources):
+ * <ul>
+ * <li>legacyInMemoryStats: perhitungan stream lama atas list sintetis (CPU saja)</li>
+ * <li>legacyLoadAndCompute: cara lama lengkap, muat semua tanaman lalu hitung</li>
+ * <li>aggregateQuery: PlantRepository.getPlantStats (dipakai refresh &amp; rekonsiliasi)</li>
+ * <li>dashboardStats: DashboardService.getStats (lookup user_stats per request)</li>
+ * <li>firstPage: satu halaman daftar tanaman</li>
+ * </ul>
+ *
+ * Jalankan: ./mvnw -Pjmh test -Djmh.includes=PlantStatsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlantStatsBenchmark {
+    private static final int SEED_BATCH = 1000;
+
+    @Param({ "10", "1000", "100000" })
+    public int plantCount;
+
+    private ConfigurableApplicationContext context;
+    private PlantRepository plantRepository;
+    private PlantService plantService;
+    private DashboardService dashboardService;
+    private User user;
+    private List<Plant> syntheticPlants;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + SEED_BATCH,
+                        "spring.jpa.properties.hibernate.order_inserts=true")
+                .run();
+        plantRepository = context.getBean(PlantRepository.class);
+        plantService = context.getBean(PlantService.class);
+        dashboardService = context.getBean(DashboardService.class);
+
+        user = context.getBean(UserRepository.class).save(new User("Bench", "bench@plantcare.test", "-"));
+        syntheticPlants = syntheticPlants(user, plantCount);
+        for (int from = 0; from < syntheticPlants.size(); from += SEED_BATCH) {
+            plantRepository.saveAll(syntheticPlants.subList(from, Math.min(from + SEED_BATCH, syntheticPlants.size())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Sebaran tanggal siram & spesies yang mirip data nyata
+    static List<Plant> syntheticPlants(User owner, int count) {
+        LocalDate today = LocalDate.now();
+        List<Plant> plants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Plant plant = new Plant();
+            plant.setName("Tanaman " + i);
+            plant.setSpecies("Spesies " + (i % 50));
+            plant.setWateringFrequency(1 + i % 7);
+            plant.setLastWatered(today.minusDays(i % 10));
+            plant.setUser(owner);
+            plants.add(plant);
+        }
+        return plants;
+    }
+
+    @Benchmark
+    public void legacyInMemoryStats(Blackhole bh) {
+        computeLegacyStats(syntheticPlants, bh);
+    }
+
+    @Benchmark
+    public void legacyLoadAndCompute(Blackhole bh) {
+        computeLegacyStats(plantService.getPlantsByUser(user), bh);
+    }
+
+    @Benchmark
+    public PlantStats aggregateQuery() {
+        return plantRepository.getPlantStats(user.getId(), LocalDate.now());
+    }
+
+    @Benchmark
+    public Object dashboardStats() {
+        return dashboardService.getStats(user);
+    }
+
+    @Benchmark
+    public PageSlice<Plant> firstPage() {
+        return plantService.getPlantsPage(user, 0, 20, null);
+    }
+
+    // Salinan perhitungan HomeView.home & PlantController.listPlants sebelum agregasi di DB
+    private static void computeLegacyStats(List<Plant> plants, Blackhole bh) {
+        int totalPlants = plants.size();
+        LocalDate today = LocalDate.now();
+        long needsWater = plants.stream().filter(p -> {
+            if (p.getLastWatered() == null || p.getWateringFrequency() == null) return false;
+            return !p.getLastWatered().plusDays(p.getWateringFrequency()).isAfter(today);
+        }).count();
+        long uniqueSpecies = plants.stream()
+                .map(p -> p.getSpecies() != null ? p.getSpecies().toLowerCase() : "lainnya")
+                .distinct().count();
+        int wellWatered = 0;
+        for (Plant p : plants) {
+            if (p.getLastWatered() != null && p.getWateringFrequency() != null
+                    && !p.getLastWatered().plusDays(p.getWateringFrequency()).isBefore(today)) {
+                wellWatered++;
+            }
+        }
+        bh.consume(totalPlants - needsWater);
+        bh.consume(uniqueSpecies);
+        bh.consume(totalPlants > 0 ? (int) ((double) wellWatered / totalPlants * 100) : 0);
+    }
+}
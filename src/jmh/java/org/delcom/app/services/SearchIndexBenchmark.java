@@ -0,0 +1,76 @@
+package org.delcom.app.services;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.dto.SearchResult;
+import org.delcom.app.services.SearchIndex.Field;
+import org.delcom.app.utils.IndonesianTokenizer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Waktu jawab SearchIndex (dipakai /search) untuk index satu user berisi
+ * 100 s/d 10k dokumen sintetis: kata utuh, kata berimbuhan (lewat kata
+ * dasar), awalan saat mengetik, dan dua kata sekaligus. Target: di bawah
+ * 1 ms per pencarian.
+ *
+ * Jalankan: ./mvnw -Pjmh test -Djmh.includes=SearchIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchIndexBenchmark {
+    private static final String[] NAMES = { "Monstera", "Sirih Gading", "Lidah Mertua", "Kaktus", "Anggrek Bulan",
+            "Aglonema", "Kuping Gajah", "Calathea", "Peace Lily", "Janda Bolong" };
+    private static final String[] TEXTS = { "Daun menguning karena terlalu sering disiram",
+            "Butuh pemupukan sebulan sekali saat musim kemarau", "Letakkan di tempat teduh, hindari matahari terik",
+            "Akar busuk, kurangi penyiraman dan ganti media tanam", "Tumbuh subur setelah dipindahkan ke pot besar" };
+
+    @Param({ "100", "1000", "10000" })
+    public int documents;
+
+    private SearchIndex index;
+    private List<String> word;
+    private List<String> stemmed;
+    private List<String> prefix;
+    private List<String> twoWords;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        index = new SearchIndex();
+        for (int i = 0; i < documents; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + i;
+            index.put(new SearchResult(SearchResult.PLANT, String.valueOf(i), name, null, "/plants/" + i, 0),
+                    List.of(new Field(name, 3f), new Field(TEXTS[random.nextInt(TEXTS.length)], 1f)));
+        }
+        word = IndonesianTokenizer.tokenize("monstera");
+        stemmed = IndonesianTokenizer.tokenize("menyiram");
+        prefix = IndonesianTokenizer.tokenize("angg");
+        twoWords = IndonesianTokenizer.tokenize("daun menguning");
+    }
+
+    @Benchmark
+    public List<SearchResult> word() {
+        return index.search(word, SearchService.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<SearchResult> stemmed() {
+        return index.search(stemmed, SearchService.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<SearchResult> prefix() {
+        return index.search(prefix, SearchService.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<SearchResult> twoWords() {
+        return index.search(twoWords, SearchService.DEFAULT_LIMIT);
+    }
+}
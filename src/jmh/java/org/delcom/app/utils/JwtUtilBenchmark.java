@@ -0,0 +1,79 @@
+package org.delcom.app.utils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Membandingkan jalur lama AuthInterceptor (validateToken lalu extractUserId,
+ * masing-masing membangun parser baru) dengan JwtUtil.parseToken, ditambah
+ * biaya generateToken saat login.
+ *
+ * Jalankan: ./mvnw -Pjmh test -Djmh.includes=JwtUtilBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtUtilBenchmark {
+
+    private String token;
+    private UUID userId;
+
+    @Setup
+    public void setup() {
+        userId = UUID.randomUUID();
+        token = JwtUtil.generateToken(userId);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(userId);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return JwtUtil.validateToken(token, true);
+    }
+
+    @Benchmark
+    public UUID extractUserId() {
+        return JwtUtil.extractUserId(token);
+    }
+
+    @Benchmark
+    public void legacyValidateThenExtract(Blackhole bh) {
+        // Salinan jalur sebelum parseToken: dua kali build parser + dua kali verifikasi HMAC
+        boolean valid;
+        try {
+            Jwts.parser().verifyWith(JwtUtil.getKey()).build().parseSignedClaims(token);
+            valid = true;
+        } catch (Exception e) {
+            valid = false;
+        }
+        bh.consume(valid);
+
+        Claims claims = Jwts.parser().verifyWith(JwtUtil.getKey()).build()
+                .parseSignedClaims(token).getPayload();
+        bh.consume(UUID.fromString(claims.getSubject()));
+    }
+
+    @Benchmark
+    public void sharedParserValidateThenExtract(Blackhole bh) {
+        bh.consume(JwtUtil.validateToken(token, true));
+        bh.consume(JwtUtil.extractUserId(token));
+    }
+
+    @Benchmark
+    public JwtUtil.ParsedToken singleParse() {
+        return JwtUtil.parseToken(token);
+    }
+}
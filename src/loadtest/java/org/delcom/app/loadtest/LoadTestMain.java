@@ -0,0 +1,194 @@
+package org.delcom.app.loadtest;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.delcom.app.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test end-to-end tanpa server eksternal: aplikasi dijalankan di port
+ * acak dengan H2 in-memory (konfigurasi src/test/resources), diisi data
+ * besar, lalu sejumlah klien virtual thread menjalankan campuran skenario
+ * (dashboard, daftar tanaman, siram, login, login API, upload).
+ *
+ * Jalankan: ./mvnw -Ploadtest test
+ *   -Dloadtest.users=200 -Dloadtest.plantsPerUser=50 -Dloadtest.clients=100
+ *   -Dloadtest.warmupSeconds=10 -Dloadtest.durationSeconds=30
+ *   -Dloadtest.mix=dashboard=30,plants=30,water=15,login=10,api-login=10,upload=5
+ *   -Dloadtest.maxErrorRate=0.01 -Dloadtest.resultFile=target/loadtest-result.json
+ *   -Dloadtest.virtualThreads=true   (bandingkan dengan false: pool thread Tomcat biasa)
+ *
+ * Keluar dengan kode 1 jika rasio error melebihi loadtest.maxErrorRate.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 200);
+        int plantsPerUser = Integer.getInteger("loadtest.plantsPerUser", 50);
+        int clients = Integer.getInteger("loadtest.clients", 100);
+        int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 10);
+        int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 30);
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+        String mix = System.getProperty("loadtest.mix", "");
+        boolean virtualThreads = Boolean.getBoolean("loadtest.virtualThreads");
+        Path resultFile = Paths.get(System.getProperty("loadtest.resultFile", "target/loadtest-result.json"));
+        Map<Scenario, Integer> weights = Scenario.parseMix(mix);
+
+        // DevTools ikut di classpath test; restart-nya membuat context kedua
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Path uploadDir = Files.createTempDirectory("loadtest-uploads");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.org.delcom.app.configs.RequestLogWriter=WARN",
+                        "app.upload.dir=" + uploadDir,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+                        "spring.jpa.properties.hibernate.order_inserts=true")
+                .run(args);
+        int exitCode = 0;
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            long seedStart = System.nanoTime();
+            List<LoadTestSeeder.SeededUser> accounts = new LoadTestSeeder(context).seed(users, plantsPerUser);
+            System.out.printf("Seed: %d user x %d tanaman dalam %d ms%n", users, plantsPerUser,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            byte[] image = samplePng();
+            List<VirtualUser> virtualUsers = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                virtualUsers.add(new VirtualUser(baseUrl, accounts.get(i % accounts.size()), image));
+            }
+            int loggedIn = loginAll(virtualUsers);
+            System.out.printf("Login: %d/%d klien%n", loggedIn, clients);
+
+            runPhase(virtualUsers, weights, warmupSeconds, new LoadTestReport());
+            LoadTestReport report = new LoadTestReport();
+            long start = System.nanoTime();
+            runPhase(virtualUsers, weights, durationSeconds, report);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%nHasil %d klien, %d detik, %s thread:%n", clients, durationSeconds,
+                    virtualThreads ? "virtual" : "platform");
+            report.print(System.out, seconds);
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("users", users);
+            settings.put("plantsPerUser", plantsPerUser);
+            settings.put("clients", clients);
+            settings.put("warmupSeconds", warmupSeconds);
+            settings.put("durationSeconds", durationSeconds);
+            settings.put("virtualThreads", virtualThreads);
+            weights.forEach((scenario, weight) -> settings.put("mix." + scenario.slug(), weight));
+            report.writeJson(resultFile, settings, seconds);
+            System.out.println("Hasil JSON: " + resultFile.toAbsolutePath());
+
+            if (loggedIn < clients || report.errorRate() > maxErrorRate) {
+                System.out.printf("GAGAL: rasio error %.2f%% melebihi batas %.2f%%%n",
+                        report.errorRate() * 100, maxErrorRate * 100);
+                exitCode = 1;
+            }
+        } finally {
+            context.close();
+            deleteRecursively(uploadDir);
+        }
+        System.exit(exitCode);
+    }
+
+    private static int loginAll(List<VirtualUser> virtualUsers) {
+        AtomicInteger loggedIn = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (VirtualUser virtualUser : virtualUsers) {
+                executor.submit(() -> {
+                    if (virtualUser.login()) {
+                        loggedIn.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+        return loggedIn.get();
+    }
+
+    // Setiap klien mengulang skenario acak (sesuai bobot) sampai waktu habis
+    private static void runPhase(List<VirtualUser> virtualUsers, Map<Scenario, Integer> weights, int seconds,
+            LoadTestReport report) {
+        Scenario[] picks = weightedPicks(weights);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (VirtualUser virtualUser : virtualUsers) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Scenario scenario = picks[ThreadLocalRandom.current().nextInt(picks.length)];
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = virtualUser.run(scenario);
+                        } catch (IOException e) {
+                            ok = false;
+                        }
+                        report.record(scenario, System.nanoTime() - start, ok);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static Scenario[] weightedPicks(Map<Scenario, Integer> weights) {
+        List<Scenario> picks = new ArrayList<>();
+        weights.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                picks.add(scenario);
+            }
+        });
+        if (picks.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix tidak berisi skenario dengan bobot > 0");
+        }
+        return picks.toArray(new Scenario[0]);
+    }
+
+    // Gambar PNG kecil yang valid agar upload melewati pengecekan & pembuatan thumbnail
+    private static byte[] samplePng() throws IOException {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(46, 125, 50));
+        graphics.fillOval(120, 60, 400, 360);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.delcom.app.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.delcom.app.configs.LatencyHistogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Hasil per skenario: latensi (histogram yang sama dengan /metrics),
+ * jumlah request & error. Dicetak sebagai tabel dan disimpan sebagai JSON.
+ */
+class LoadTestReport {
+    private static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
+
+    private final Map<Scenario, LatencyHistogram> latency = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> errors = new EnumMap<>(Scenario.class);
+
+    LoadTestReport() {
+        for (Scenario scenario : Scenario.values()) {
+            latency.put(scenario, new LatencyHistogram());
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    void record(Scenario scenario, long durationNanos, boolean ok) {
+        latency.get(scenario).recordNanos(durationNanos);
+        if (!ok) {
+            errors.get(scenario).increment();
+        }
+    }
+
+    long totalRequests() {
+        return latency.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    double errorRate() {
+        long total = totalRequests();
+        return total == 0 ? 0 : (double) totalErrors() / total;
+    }
+
+    List<Map<String, Object>> rows(double seconds) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Scenario scenario : Scenario.values()) {
+            LatencyHistogram histogram = latency.get(scenario);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("scenario", scenario.slug());
+            row.put("requests", histogram.getCount());
+            row.put("errors", errors.get(scenario).sum());
+            row.put("throughputPerSecond", round(histogram.getCount() / seconds));
+            for (double quantile : QUANTILES) {
+                row.put("p" + (int) (quantile * 100) + "Ms",
+                        round(LatencyHistogram.percentileMicros(quantile, histogram) / 1000.0));
+            }
+            row.put("maxMs", round(histogram.getMaxMicros() / 1000.0));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf(Locale.ROOT, "%-10s %9s %7s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map<String, Object> row : rows(seconds)) {
+            out.printf(Locale.ROOT, "%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.get("scenario"), row.get("requests"), row.get("errors"), row.get("throughputPerSecond"),
+                    row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs"));
+        }
+        out.printf(Locale.ROOT, "total: %d request, %d error (%.2f%%), %.1f req/s%n",
+                totalRequests(), totalErrors(), errorRate() * 100, totalRequests() / seconds);
+    }
+
+    void writeJson(Path file, Map<String, Object> settings, double seconds) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("settings", settings);
+        json.put("durationSeconds", round(seconds));
+        json.put("totalRequests", totalRequests());
+        json.put("totalErrors", totalErrors());
+        json.put("scenarios", rows(seconds));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,74 @@
+package org.delcom.app.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.Plant;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.PlantRepository;
+import org.delcom.app.repositories.UserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Mengisi H2 dengan user & tanaman untuk load test. Semua user memakai
+ * password yang sama dan hash BCrypt-nya dihitung sekali saja.
+ */
+class LoadTestSeeder {
+    static final String PASSWORD = "loadtest123";
+    private static final int BATCH = 1000;
+
+    record SeededUser(String email, List<UUID> plantIds) {
+    }
+
+    private final UserRepository userRepository;
+    private final PlantRepository plantRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    LoadTestSeeder(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.plantRepository = context.getBean(PlantRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+    }
+
+    List<SeededUser> seed(int users, int plantsPerUser) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        LocalDate today = LocalDate.now();
+        List<SeededUser> seeded = new ArrayList<>(users);
+        List<Plant> batch = new ArrayList<>(BATCH);
+        List<List<UUID>> owners = new ArrayList<>(BATCH); // daftar id milik pemilik tiap tanaman di batch
+
+        for (int u = 0; u < users; u++) {
+            User user = userRepository.save(new User("Load User " + u, "load-user-" + u + "@plantcare.test", hash));
+            List<UUID> ids = new ArrayList<>(plantsPerUser);
+            seeded.add(new SeededUser(user.getEmail(), ids));
+            for (int p = 0; p < plantsPerUser; p++) {
+                Plant plant = new Plant();
+                plant.setName("Tanaman " + p);
+                plant.setSpecies("Spesies " + (p % 40));
+                plant.setWateringFrequency(1 + p % 7);
+                plant.setLastWatered(today.minusDays(p % 10));
+                plant.setUser(user);
+                batch.add(plant);
+                owners.add(ids);
+                if (batch.size() == BATCH) {
+                    flush(batch, owners);
+                }
+            }
+        }
+        flush(batch, owners);
+        return seeded;
+    }
+
+    // saveAll mengembalikan entity dengan urutan yang sama seperti input
+    private void flush(List<Plant> batch, List<List<UUID>> owners) {
+        List<Plant> saved = plantRepository.saveAll(batch);
+        for (int i = 0; i < saved.size(); i++) {
+            owners.get(i).add(saved.get(i).getId());
+        }
+        batch.clear();
+        owners.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package org.delcom.app.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Jenis request yang dijalankan virtual user, dengan bobot default
+ * campuran beban (bisa diubah lewat -Dloadtest.mix=dashboard=50,plants=50).
+ */
+enum Scenario {
+    DASHBOARD("dashboard", 30),   // GET /            (HomeView)
+    PLANTS("plants", 30),         // GET /plants      (PlantController.listPlants)
+    WATER("water", 15),           // GET /plants/{id}/water
+    LOGIN("login", 10),           // POST /login      (form login, BCrypt)
+    API_LOGIN("api-login", 10),   // POST /api/auth/login (UserController)
+    UPLOAD("upload", 5);          // POST /plants/save dengan gambar
+
+    private final String slug;
+    private final int defaultWeight;
+
+    Scenario(String slug, int defaultWeight) {
+        this.slug = slug;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String slug() {
+        return slug;
+    }
+
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        if (mix == null || mix.isBlank()) {
+            for (Scenario scenario : values()) {
+                weights.put(scenario, scenario.defaultWeight);
+            }
+            return weights;
+        }
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            Scenario scenario = fromSlug(kv[0].trim());
+            if (scenario == null || kv.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix tidak valid: " + part);
+            }
+            weights.put(scenario, Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    private static Scenario fromSlug(String slug) {
+        for (Scenario scenario : values()) {
+            if (scenario.slug.equals(slug)) {
+                return scenario;
+            }
+        }
+        return null;
+    }
+}
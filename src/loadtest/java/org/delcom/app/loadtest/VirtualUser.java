@@ -0,0 +1,138 @@
+package org.delcom.app.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Satu klien dengan session sendiri (cookie JSESSIONID), dijalankan di
+ * virtual thread. Redirect tidak diikuti: 302 ke halaman tujuan dianggap
+ * sukses, 302 ke /auth/login berarti session/credential gagal.
+ */
+class VirtualUser {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LoadTestSeeder.SeededUser account;
+    private final byte[] uploadImage;
+    private final HttpClient client;
+
+    VirtualUser(String baseUrl, LoadTestSeeder.SeededUser account, byte[] uploadImage) {
+        this.baseUrl = baseUrl;
+        this.account = account;
+        this.uploadImage = uploadImage;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    boolean login() throws IOException, InterruptedException {
+        String form = "email=" + URLEncoder.encode(account.email(), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(LoadTestSeeder.PASSWORD, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = send(request("/login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)));
+        return response.statusCode() == 302 && !redirectsToLogin(response);
+    }
+
+    boolean run(Scenario scenario) throws IOException, InterruptedException {
+        return switch (scenario) {
+            case DASHBOARD -> ok(send(request("/").GET()));
+            case PLANTS -> ok(send(request("/plants").GET()));
+            case WATER -> ok(send(request("/plants/" + randomPlant() + "/water").GET()));
+            case LOGIN -> login();
+            case API_LOGIN -> ok(send(request("/api/auth/login")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + account.email()
+                            + "\",\"password\":\"" + LoadTestSeeder.PASSWORD + "\"}"))));
+            case UPLOAD -> upload();
+        };
+    }
+
+    private boolean upload() throws IOException, InterruptedException {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        byte[] body = Multipart.of(boundary)
+                .field("name", "Upload " + ThreadLocalRandom.current().nextInt(1_000_000))
+                .field("species", "Monstera")
+                .field("wateringFrequency", "3")
+                .file("imageFile", "leaf.png", "image/png", uploadImage)
+                .build();
+        HttpResponse<Void> response = send(request("/plants/save")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body)));
+        // Gagal simpan diarahkan kembali ke form dengan ?error=
+        return ok(response) && response.headers().firstValue("Location").map(l -> !l.contains("error=")).orElse(true);
+    }
+
+    private UUID randomPlant() {
+        List<UUID> ids = account.plantIds();
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+    }
+
+    private HttpResponse<Void> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return client.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static boolean ok(HttpResponse<Void> response) {
+        int status = response.statusCode();
+        return (status >= 200 && status < 300) || (status >= 300 && status < 400 && !redirectsToLogin(response));
+    }
+
+    private static boolean redirectsToLogin(HttpResponse<Void> response) {
+        return response.headers().firstValue("Location").map(l -> l.contains("/auth/login")).orElse(false);
+    }
+
+    // Body multipart/form-data sederhana untuk satu request upload
+    private static final class Multipart {
+        private final String boundary;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        private Multipart(String boundary) {
+            this.boundary = boundary;
+        }
+
+        static Multipart of(String boundary) {
+            return new Multipart(boundary);
+        }
+
+        Multipart field(String name, String value) {
+            write("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                    + value + "\r\n");
+            return this;
+        }
+
+        Multipart file(String name, String filename, String contentType, byte[] content) {
+            write("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\""
+                    + filename + "\"\r\nContent-Type: " + contentType + "\r\n\r\n");
+            out.writeBytes(content);
+            write("\r\n");
+            return this;
+        }
+
+        byte[] build() {
+            write("--" + boundary + "--\r\n");
+            return out.toByteArray();
+        }
+
+        private void write(String text) {
+            out.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package org.delcom.app.configs;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.imageio.ImageIO;
+
+import org.delcom.app.entities.Plant;
+import org.delcom.app.repositories.UploadBlobRepository;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.ImageVariantService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Data sintetis dalam jumlah besar untuk capacity planning dan reproduksi
+ * query lambat: N user, masing-masing dengan M tanaman, jadwal, dan log
+ * kesehatan, plus beberapa gambar placeholder yang dipakai bergantian.
+ *
+ * Insert lewat JDBC batch (bukan entity JPA): id schedules & log kesehatan
+ * memakai IDENTITY sehingga Hibernate tidak bisa mem-batch-nya, dan jutaan
+ * entity di persistence context hanya menghabiskan memori. User dibagi per
+ * chunk; tiap chunk satu transaksi dan dikerjakan paralel. Isi data
+ * ditentukan random-seed, jadi dataset yang sama bisa dibuat ulang.
+ */
+@Component
+public class BulkDataSeeder {
+    private static final Logger log = LoggerFactory.getLogger(BulkDataSeeder.class);
+
+    static final String EMAIL_PREFIX = "seed-user-";
+    static final String EMAIL_DOMAIN = "@plantcare.test";
+
+    private static final String[] SPECIES = { "Monstera deliciosa", "Ficus lyrata", "Sansevieria trifasciata",
+            "Epipremnum aureum", "Aloe vera", "Calathea orbifolia", "Zamioculcas zamiifolia", "Spathiphyllum",
+            "Anthurium andraeanum", "Phalaenopsis", "Chlorophytum comosum", "Dracaena marginata" };
+    private static final String[] ACTIVITIES = { "Siram", "Pupuk", "Pangkas", "Ganti pot", "Semprot hama" };
+    private static final String[] ISSUES = { "Daun menguning", "Ujung daun kering", "Bercak coklat", "Kutu putih",
+            "Akar busuk", "Layu" };
+    private static final String[] STATUSES = { "Perawatan", "Kritis", "Sembuh" };
+
+    private static final String INSERT_USER = "INSERT INTO users (id, name, email, password, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PLANT = "INSERT INTO plants (id, name, species, description, image_path,"
+            + " watering_frequency, last_watered, next_watering_date, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SCHEDULE = "INSERT INTO schedules (schedule_date, activity, plant_name,"
+            + " user_id, is_generated) VALUES (?, ?, ?, ?, FALSE)";
+    private static final String INSERT_HEALTH_LOG = "INSERT INTO plant_health_logs (plant_name, issue, diagnosis,"
+            + " status, date, image_path, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final UploadBlobRepository blobRepository;
+    private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.seed.bulk.enabled:false}")
+    boolean enabled;
+
+    @Value("${app.seed.bulk.users:1000}")
+    int users = 1000;
+
+    @Value("${app.seed.bulk.plants-per-user:20}")
+    int plantsPerUser = 20;
+
+    @Value("${app.seed.bulk.schedules-per-user:5}")
+    int schedulesPerUser = 5;
+
+    @Value("${app.seed.bulk.health-logs-per-user:5}")
+    int healthLogsPerUser = 5;
+
+    @Value("${app.seed.bulk.images:8}")
+    int images = 8;
+
+    @Value("${app.seed.bulk.password:seed12345}")
+    String password = "seed12345";
+
+    @Value("${app.seed.bulk.chunk-size:200}")
+    int chunkSize = 200;
+
+    @Value("${app.seed.bulk.batch-size:1000}")
+    int batchSize = 1000;
+
+    @Value("${app.seed.bulk.threads:4}")
+    int threads = 4;
+
+    @Value("${app.seed.bulk.random-seed:42}")
+    long randomSeed = 42;
+
+    public BulkDataSeeder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            UserRepository userRepository, UploadBlobRepository blobRepository,
+            FileStorageService fileStorageService, ImageVariantService imageVariantService,
+            PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.blobRepository = blobRepository;
+        this.fileStorageService = fileStorageService;
+        this.imageVariantService = imageVariantService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Isi database sesuai konfigurasi app.seed.bulk.*. Dilewati jika user
+     * seed pertama sudah ada (dataset dari run sebelumnya). Mengembalikan
+     * jumlah baris yang di-insert.
+     */
+    public long seed() throws IOException {
+        if (users <= 0 || userRepository.findFirstByEmail(email(0)).isPresent()) {
+            log.info("BulkDataSeeder: data seed sudah ada, dilewati");
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<FileStorageService.StoredFile> placeholders = storePlaceholderImages();
+        List<String> imagePaths = placeholders.stream().map(FileStorageService.StoredFile::getFilename).toList();
+        AtomicLongArray imageRefs = new AtomicLongArray(imagePaths.size());
+        // Hash BCrypt sengaja lambat: hitung sekali, dipakai semua user seed
+        String passwordHash = passwordEncoder.encode(password);
+
+        List<Future<Long>> chunks = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            for (int from = 0; from < users; from += chunkSize) {
+                int first = from;
+                int last = Math.min(users, from + chunkSize);
+                chunks.add(executor.submit(() -> transactionTemplate.execute(
+                        status -> seedChunk(first, last, passwordHash, imagePaths, imageRefs))));
+            }
+            long rows = 0;
+            for (Future<Long> chunk : chunks) {
+                rows += chunk.get();
+            }
+            for (int i = 0; i < placeholders.size(); i++) {
+                // storeImage sudah menghitung satu pemakai
+                long references = imageRefs.get(i);
+                if (references == 0) {
+                    fileStorageService.releaseFile(placeholders.get(i).getFilename());
+                } else if (references > 1) {
+                    blobRepository.addReferences(placeholders.get(i).getSha256(), references - 1);
+                }
+            }
+            log.info("BulkDataSeeder: {} baris ({} user) dalam {} ms", rows, users,
+                    (System.nanoTime() - start) / 1_000_000);
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding dibatalkan", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding gagal: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // User [first, last) beserta tanaman, jadwal, dan log kesehatannya
+    private long seedChunk(int first, int last, String passwordHash, List<String> imagePaths,
+            AtomicLongArray imageRefs) {
+        Random random = new Random(randomSeed + first);
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> userIds = new ArrayList<>(last - first);
+        List<Object[]> userRows = new ArrayList<>(last - first);
+        List<Object[]> plantRows = new ArrayList<>(batchSize);
+        List<Object[]> scheduleRows = new ArrayList<>(batchSize);
+        List<Object[]> healthRows = new ArrayList<>(batchSize);
+        long rows = 0;
+
+        for (int u = first; u < last; u++) {
+            UUID userId = UUID.randomUUID();
+            userIds.add(userId);
+            userRows.add(new Object[] { userId, "Seed User " + u, email(u), passwordHash, now, now });
+        }
+        rows += insert(INSERT_USER, userRows);
+
+        for (UUID userId : userIds) {
+            String[] plantNames = new String[plantsPerUser];
+            for (int p = 0; p < plantsPerUser; p++) {
+                String species = SPECIES[random.nextInt(SPECIES.length)];
+                plantNames[p] = species.split(" ")[0] + " " + (p + 1);
+                String imagePath = null;
+                if (!imagePaths.isEmpty()) {
+                    int image = random.nextInt(imagePaths.size());
+                    imageRefs.incrementAndGet(image);
+                    imagePath = imagePaths.get(image);
+                }
+                int frequency = 1 + random.nextInt(14);
+                LocalDate lastWatered = today.minusDays(random.nextInt(21));
+                plantRows.add(new Object[] { UUID.randomUUID(), plantNames[p], species, "Data seed", imagePath,
+                        frequency, lastWatered, Plant.computeNextWateringDate(lastWatered, frequency), userId });
+                rows += flushIfFull(INSERT_PLANT, plantRows);
+            }
+            for (int s = 0; s < schedulesPerUser; s++) {
+                scheduleRows.add(new Object[] { today.plusDays(random.nextInt(30)),
+                        ACTIVITIES[random.nextInt(ACTIVITIES.length)],
+                        pick(plantNames, random), userId });
+                rows += flushIfFull(INSERT_SCHEDULE, scheduleRows);
+            }
+            for (int h = 0; h < healthLogsPerUser; h++) {
+                String issue = ISSUES[random.nextInt(ISSUES.length)];
+                healthRows.add(new Object[] { pick(plantNames, random), issue,
+                        "Diagnosis otomatis: " + issue.toLowerCase(), STATUSES[random.nextInt(STATUSES.length)],
+                        today.minusDays(random.nextInt(90)), null, userId });
+                rows += flushIfFull(INSERT_HEALTH_LOG, healthRows);
+            }
+        }
+        rows += insert(INSERT_PLANT, plantRows);
+        rows += insert(INSERT_SCHEDULE, scheduleRows);
+        rows += insert(INSERT_HEALTH_LOG, healthRows);
+        return rows;
+    }
+
+    private static String pick(String[] plantNames, Random random) {
+        return plantNames.length == 0 ? "Tanaman" : plantNames[random.nextInt(plantNames.length)];
+    }
+
+    private long flushIfFull(String sql, List<Object[]> rows) {
+        return rows.size() >= batchSize ? insert(sql, rows) : 0;
+    }
+
+    private long insert(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+        long inserted = rows.size();
+        rows.clear();
+        return inserted;
+    }
+
+    // Gambar PNG polos berwarna beda-beda, disimpan lewat jalur upload biasa
+    private List<FileStorageService.StoredFile> storePlaceholderImages() throws IOException {
+        List<FileStorageService.StoredFile> stored = new ArrayList<>(Math.max(0, images));
+        for (int i = 0; i < images; i++) {
+            BufferedImage image = new BufferedImage(320, 240, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(Color.getHSBColor((float) i / images, 0.45f, 0.85f));
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.setColor(new Color(46, 125, 50));
+            graphics.fillOval(80, 40, 160, 160);
+            graphics.dispose();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+
+            FileStorageService.StoredFile file = fileStorageService.storeImage(new ByteArrayInputStream(out.toByteArray()));
+            imageVariantService.generate(file.getFilename());
+            stored.add(file);
+        }
+        return stored;
+    }
+
+    static String email(int index) {
+        return EMAIL_PREFIX + index + EMAIL_DOMAIN;
+    }
+}
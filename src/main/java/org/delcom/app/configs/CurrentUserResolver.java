@@ -0,0 +1,47 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.services.UserService;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Mengambil User yang sedang login untuk controller MVC. User dimuat paling
+ * banyak sekali per request (disimpan di request attribute), dan lookup email
+ * memakai cache singkat di UserService.getPrincipalUser.
+ */
+@Component
+public class CurrentUserResolver {
+
+    static final String REQUEST_ATTRIBUTE = CurrentUserResolver.class.getName() + ".USER";
+
+    private final UserService userService;
+
+    public CurrentUserResolver(UserService userService) {
+        this.userService = userService;
+    }
+
+    public User getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return null;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object cached = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof User user) {
+                return user;
+            }
+        }
+
+        User user = userService.getPrincipalUser(auth.getName());
+        if (attributes != null && user != null) {
+            attributes.setAttribute(REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+}
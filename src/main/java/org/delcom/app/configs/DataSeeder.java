@@ -11,10 +11,13 @@ public class DataSeeder implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final BulkDataSeeder bulkDataSeeder;
 
-    public DataSeeder(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public DataSeeder(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            BulkDataSeeder bulkDataSeeder) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.bulkDataSeeder = bulkDataSeeder;
     }
 
     @Override
@@ -37,5 +40,10 @@ public class DataSeeder implements CommandLineRunner {
             System.out.println("🔑 Password: admin123");
             System.out.println("---------------------------------------------");
         }
+
+        // Dataset besar untuk uji kapasitas (app.seed.bulk.enabled=true)
+        if (bulkDataSeeder.isEnabled()) {
+            bulkDataSeeder.seed();
+        }
     }
 }
\ No newline at end of file
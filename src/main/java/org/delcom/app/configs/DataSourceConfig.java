@@ -0,0 +1,49 @@
+package org.delcom.app.configs;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Membungkus DataSource dengan ConnectionLimitingDataSource. Aktif otomatis
+ * bersama spring.threads.virtual.enabled; batas default mengikuti ukuran
+ * pool Hikari sehingga antrean terjadi di semaphore, bukan di dalam Hikari.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    // static: BeanPostProcessor harus dibuat sebelum bean lain
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource
+                        || !isEnabled(environment)) {
+                    return bean;
+                }
+                int maxConnections = environment.getProperty("app.datasource.connection-limit.max-connections",
+                        Integer.class, environment.getProperty("spring.datasource.hikari.maximum-pool-size",
+                                Integer.class, 10));
+                long acquireTimeoutMillis = environment.getProperty(
+                        "app.datasource.connection-limit.acquire-timeout-ms", Long.class,
+                        environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+                log.info("DataSource '{}': maks {} koneksi bersamaan, tunggu maks {} ms", beanName,
+                        maxConnections, acquireTimeoutMillis);
+                return new ConnectionLimitingDataSource(dataSource, maxConnections, acquireTimeoutMillis);
+            }
+        };
+    }
+
+    static boolean isEnabled(Environment environment) {
+        return environment.getProperty("app.datasource.connection-limit.enabled", Boolean.class,
+                environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+    }
+}
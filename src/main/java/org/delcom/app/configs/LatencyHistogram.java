@@ -0,0 +1,86 @@
+package org.delcom.app.configs;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram latensi gaya HdrHistogram dalam mikrodetik: bucket linear untuk
+ * 0..63 µs, lalu tiap pangkat dua dibagi 32 sub-bucket sehingga galat relatif
+ * paling besar ~3% sampai 60 detik. Ukurannya tetap (704 counter) dan
+ * record() hanya satu increment atomik, tanpa lock & tanpa alokasi.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;     // 32
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;         // 64
+    static final long MAX_TRACKABLE_MICROS = 60_000_000L;            // 60 detik
+    private static final int BUCKETS = indexOf(MAX_TRACKABLE_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(nanos / 1_000, 0), MAX_TRACKABLE_MICROS);
+        counts.incrementAndGet(indexOf(micros));
+        count.increment();
+        if (micros > max.get()) {
+            max.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMaxMicros() {
+        return max.get();
+    }
+
+    /**
+     * Nilai persentil (0 &lt; quantile &lt;= 1) dalam mikrodetik dari gabungan
+     * beberapa histogram, misalnya jendela sekarang dan sebelumnya.
+     * Hasilnya batas atas bucket, tidak pernah melebihi nilai maksimum.
+     */
+    public static long percentileMicros(double quantile, LatencyHistogram... histograms) {
+        long total = 0;
+        long max = 0;
+        for (LatencyHistogram histogram : histograms) {
+            total += histogram.getCount();
+            max = Math.max(max, histogram.getMaxMicros());
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            for (LatencyHistogram histogram : histograms) {
+                seen += histogram.counts.get(i);
+            }
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), max);
+            }
+        }
+        return max; // record yang sedang berjalan bisa membuat count > isi bucket
+    }
+
+    static int indexOf(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (int) ((micros >>> shift) - SUB_BUCKETS);
+    }
+
+    // Nilai terbesar yang masih jatuh ke bucket index
+    static long highestEquivalent(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,44 @@
+package org.delcom.app.configs;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menghitung statement SQL yang disiapkan Hibernate selama satu request.
+ * RequestMetricsFilter memanggil begin() & end() di thread request; query
+ * di luar request (scheduler, seeder) tidak dihitung.
+ */
+@Component
+public class QueryCountInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = CURRENT.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+
+    public static void begin() {
+        CURRENT.set(new int[1]);
+    }
+
+    // Jumlah query sejak begin(), lalu hentikan penghitungan di thread ini
+    public static int end() {
+        int[] counter = CURRENT.get();
+        CURRENT.remove();
+        return counter != null ? counter[0] : 0;
+    }
+}
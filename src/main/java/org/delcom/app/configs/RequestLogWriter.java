@@ -0,0 +1,210 @@
+package org.delcom.app.configs;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Penulis log request di background. Thread request hanya menaruh event ke
+ * ring buffer berukuran tetap (tanpa lock, tanpa format string); satu thread
+ * "request-log" memformat event sebagai key=value atau JSON lalu menulisnya
+ * ke logger. Jika buffer penuh event dibuang dan dihitung, request tidak
+ * pernah menunggu penulisan log. Dimiliki & dihidupkan RequestLoggingFilter.
+ */
+public class RequestLogWriter {
+    private static final Logger log = LoggerFactory.getLogger(RequestLogWriter.class);
+
+    // Jeda thread penulis saat buffer kosong
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * Satu request yang selesai. handler adalah HandlerMethod/handler dari
+     * Spring MVC (atau null); namanya baru dibentuk di thread penulis.
+     */
+    public record Event(long timestampMillis, String method, String uri, String route, int status,
+            long durationNanos, Object handler, String remoteAddr) {
+    }
+
+    private final boolean json;
+    private final Consumer<String> sink;
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    // tail diklaim producer lewat CAS; head hanya dimajukan thread penulis
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public RequestLogWriter(String format, int bufferSize) {
+        this(format, bufferSize, log::info);
+    }
+
+    RequestLogWriter(String format, int bufferSize, Consumer<String> sink) {
+        this.json = "json".equalsIgnoreCase(format);
+        this.sink = sink;
+        // Kapasitas dibulatkan ke pangkat dua agar indeks cukup di-mask
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "request-log");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void shutdown() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+    }
+
+    public boolean isEnabled() {
+        return log.isInfoEnabled();
+    }
+
+    /**
+     * Taruh event ke buffer tanpa menunggu. Mengembalikan false (dan menambah
+     * hitungan dropped) jika buffer penuh.
+     */
+    public boolean offer(Event event) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head.get() >= slots.length()) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.lazySet((int) claimed & mask, event);
+        return true;
+    }
+
+    // Tulis semua event yang sudah dipublikasikan; dipanggil satu thread saja
+    int drain() {
+        int written = 0;
+        long next = head.get();
+        while (next < tail.get()) {
+            int index = (int) next & mask;
+            Event event = slots.get(index);
+            if (event == null) {
+                break; // slot sudah diklaim tapi producer belum selesai menulis
+            }
+            slots.set(index, null);
+            head.lazySet(++next);
+            sink.accept(format(event));
+            written++;
+        }
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            sink.accept(json ? "{\"event\":\"request_log_dropped\",\"count\":" + lost + "}"
+                    : "event=request_log_dropped count=" + lost);
+        }
+        return written;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (drain() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                log.warn("RequestLogWriter: gagal menulis log request", e);
+            }
+        }
+    }
+
+    String format(Event event) {
+        StringBuilder line = new StringBuilder(160);
+        String time = Instant.ofEpochMilli(event.timestampMillis()).toString();
+        // Durasi dalam mikrodetik, cukup presisi tanpa angka nanodetik yang bising
+        long micros = TimeUnit.NANOSECONDS.toMicros(event.durationNanos());
+        if (json) {
+            line.append('{');
+            appendJson(line, "time", time).append(',');
+            appendJson(line, "method", event.method()).append(',');
+            appendJson(line, "uri", event.uri()).append(',');
+            appendJson(line, "route", event.route()).append(',');
+            line.append("\"status\":").append(event.status()).append(',');
+            line.append("\"duration_us\":").append(micros).append(',');
+            appendJson(line, "handler", handlerName(event.handler())).append(',');
+            appendJson(line, "remote", event.remoteAddr());
+            return line.append('}').toString();
+        }
+        appendKeyValue(line, "time", time);
+        appendKeyValue(line, "method", event.method());
+        appendKeyValue(line, "uri", event.uri());
+        appendKeyValue(line, "route", event.route());
+        line.append(" status=").append(event.status());
+        line.append(" duration_us=").append(micros);
+        appendKeyValue(line, "handler", handlerName(event.handler()));
+        appendKeyValue(line, "remote", event.remoteAddr());
+        return line.toString();
+    }
+
+    static String handlerName(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return handler != null ? handler.getClass().getSimpleName() : null;
+    }
+
+    private static void appendKeyValue(StringBuilder line, String key, String value) {
+        if (!line.isEmpty()) {
+            line.append(' ');
+        }
+        line.append(key).append('=');
+        if (value == null) {
+            line.append('-');
+        } else if (value.indexOf(' ') >= 0 || value.indexOf('"') >= 0 || value.isEmpty()) {
+            line.append('"').append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        } else {
+            line.append(value);
+        }
+    }
+
+    private static StringBuilder appendJson(StringBuilder line, String key, String value) {
+        line.append('"').append(key).append("\":");
+        if (value == null) {
+            return line.append("null");
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        return line.append('"');
+    }
+}
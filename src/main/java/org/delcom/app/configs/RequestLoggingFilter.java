@@ -4,27 +4,43 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.Arrays;
 
+/**
+ * Mencatat setiap request (method, URI, route, status, durasi, handler).
+ * Handler diambil dari atribut request yang diisi Spring MVC, bukan dari
+ * stacktrace; format & penulisan dikerjakan RequestLogWriter di background.
+ */
 @Component
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-    private static final String RESET = "\u001B[0m";
-    private static final String GREEN = "\u001B[32m";
-    private static final String YELLOW = "\u001B[33m";
-    private static final String RED = "\u001B[31m";
-    private static final String CYAN = "\u001B[36m";
+    private final RequestLogWriter requestLogWriter;
 
-    @Value("${server.port:8080}")
-    private int port;
+    @Autowired
+    public RequestLoggingFilter(@Value("${app.request-log.format:text}") String format,
+            @Value("${app.request-log.buffer-size:8192}") int bufferSize) {
+        this(new RequestLogWriter(format, bufferSize));
+    }
+
+    RequestLoggingFilter(RequestLogWriter requestLogWriter) {
+        this.requestLogWriter = requestLogWriter;
+    }
 
-    @Value("${spring.devtools.livereload.enabled:false}")
-    private boolean livereload;
+    @Override
+    protected void initFilterBean() {
+        requestLogWriter.start();
+    }
+
+    @Override
+    public void destroy() {
+        requestLogWriter.shutdown();
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,45 +48,25 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
-        filterChain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
-
-        int status = response.getStatus();
-        String color;
-        if (status >= 500) {
-            color = RED;
-        } else if (status >= 400) {
-            color = YELLOW;
-        } else if (status >= 200) {
-            color = GREEN;
-        } else {
-            color = CYAN;
-        }
-
-        // Ambil asal kode dari stacktrace
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        StackTraceElement origin = Arrays.stream(stack)
-                .filter(s -> s.getClassName().startsWith("org.delcom"))
-                .findFirst()
-                .orElse(stack[stack.length - 1]);
-        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
-
-        String remoteAddr = request.getRemoteAddr();
-
-        String log = String.format(
-                "%s%-6s %s %d %dms%s [%s] from %s",
-                color,
-                request.getMethod(),
-                request.getRequestURI(),
-                status,
-                duration,
-                RESET,
-                originInfo,
-                remoteAddr);
-
-        if (!request.getRequestURI().startsWith("/.well-known")) {
-            System.out.println(log);
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long duration = System.nanoTime() - start;
+            String uri = request.getRequestURI();
+            if ((uri == null || !uri.startsWith("/.well-known")) && requestLogWriter.isEnabled()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                requestLogWriter.offer(new RequestLogWriter.Event(
+                        timestamp,
+                        request.getMethod(),
+                        uri,
+                        route != null ? route.toString() : null,
+                        response.getStatus(),
+                        duration,
+                        request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE),
+                        request.getRemoteAddr()));
+            }
         }
     }
 }
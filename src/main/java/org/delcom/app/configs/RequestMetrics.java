@@ -0,0 +1,183 @@
+package org.delcom.app.configs;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrik per route (method + pola handler Spring, mis. "GET /plants/{id}"):
+ * histogram latensi, jumlah request per kelas status, error, dan jumlah
+ * query DB per request. Persentil dihitung dari jendela waktu terakhir
+ * (sekarang + sebelumnya) agar regresi saat beban tinggi langsung terlihat;
+ * counter bersifat kumulatif seperti lazimnya Prometheus.
+ */
+public class RequestMetrics {
+    static final String UNMATCHED_ROUTE = "UNMATCHED";
+    private static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
+    private static final String PREFIX = "plantcare_http_server_";
+
+    private final ConcurrentMap<RouteKey, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    public RequestMetrics(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    RequestMetrics(Duration window, LongSupplier nanoClock) {
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    private record RouteKey(String method, String route) {
+    }
+
+    public void record(String method, String route, int status, long durationNanos, int queries) {
+        RouteKey key = new RouteKey(method, route != null ? route : UNMATCHED_ROUTE);
+        RouteMetrics metrics = routes.get(key);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(key, k -> new RouteMetrics(nanoClock.getAsLong()));
+        }
+        metrics.record(status, durationNanos, queries, nanoClock.getAsLong(), windowNanos);
+    }
+
+    /** Tulis semua metrik dalam format teks Prometheus (versi 0.0.4). */
+    public void writePrometheus(Writer out) throws IOException {
+        List<RouteKey> keys = new ArrayList<>(routes.keySet());
+        keys.sort(Comparator.comparing(RouteKey::route).thenComparing(RouteKey::method));
+        long now = nanoClock.getAsLong();
+        for (RouteKey key : keys) {
+            routes.get(key).rotateIfDue(now, windowNanos);
+        }
+
+        header(out, "request_duration_seconds", "summary",
+                "Request latency per route over the recent window (HDR-style buckets, ~3% precision).");
+        for (RouteKey key : keys) {
+            RouteMetrics metrics = routes.get(key);
+            LatencyHistogram[] window = metrics.window();
+            for (double quantile : QUANTILES) {
+                sample(out, "request_duration_seconds", key, "quantile", String.valueOf(quantile),
+                        seconds(LatencyHistogram.percentileMicros(quantile, window)));
+            }
+            sample(out, "request_duration_seconds_sum", key, null, null, seconds(metrics.totalMicros.sum()));
+            sample(out, "request_duration_seconds_count", key, null, null, String.valueOf(metrics.count.sum()));
+        }
+
+        header(out, "request_duration_seconds_max", "gauge", "Slowest request per route over the recent window.");
+        for (RouteKey key : keys) {
+            LatencyHistogram[] window = routes.get(key).window();
+            long max = Math.max(window[0].getMaxMicros(), window[1].getMaxMicros());
+            sample(out, "request_duration_seconds_max", key, null, null, seconds(max));
+        }
+
+        header(out, "requests_total", "counter", "Requests per route and status class.");
+        for (RouteKey key : keys) {
+            LongAdder[] byStatus = routes.get(key).byStatusClass;
+            for (int i = 1; i < byStatus.length; i++) {
+                long value = byStatus[i].sum();
+                if (value > 0) {
+                    sample(out, "requests_total", key, "status", i + "xx", String.valueOf(value));
+                }
+            }
+        }
+
+        header(out, "errors_total", "counter", "Requests per route that ended in a 5xx status or an exception.");
+        for (RouteKey key : keys) {
+            sample(out, "errors_total", key, null, null, String.valueOf(routes.get(key).errors.sum()));
+        }
+
+        header(out, "db_queries_total", "counter", "SQL statements executed while handling requests per route.");
+        for (RouteKey key : keys) {
+            sample(out, "db_queries_total", key, null, null, String.valueOf(routes.get(key).queries.sum()));
+        }
+
+        header(out, "db_queries_max", "gauge", "Most SQL statements executed by a single request per route.");
+        for (RouteKey key : keys) {
+            sample(out, "db_queries_max", key, null, null, String.valueOf(routes.get(key).maxQueries.get()));
+        }
+    }
+
+    private static void header(Writer out, String name, String type, String help) throws IOException {
+        out.write("# HELP " + PREFIX + name + " " + help + "\n");
+        out.write("# TYPE " + PREFIX + name + " " + type + "\n");
+    }
+
+    private static void sample(Writer out, String name, RouteKey key, String extraLabel, String extraValue,
+            String value) throws IOException {
+        StringBuilder line = new StringBuilder(96).append(PREFIX).append(name)
+                .append("{method=\"").append(escape(key.method()))
+                .append("\",route=\"").append(escape(key.route())).append('"');
+        if (extraLabel != null) {
+            line.append(',').append(extraLabel).append("=\"").append(extraValue).append('"');
+        }
+        out.write(line.append("} ").append(value).append('\n').toString());
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    private static final class RouteMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        // Indeks 1..5 untuk 1xx..5xx
+        private final LongAdder[] byStatusClass = new LongAdder[6];
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final AtomicLong maxQueries = new AtomicLong();
+
+        private final AtomicLong rotatedAt;
+        private volatile LatencyHistogram current = new LatencyHistogram();
+        private volatile LatencyHistogram previous = new LatencyHistogram();
+
+        RouteMetrics(long now) {
+            this.rotatedAt = new AtomicLong(now);
+            for (int i = 0; i < byStatusClass.length; i++) {
+                byStatusClass[i] = new LongAdder();
+            }
+        }
+
+        void record(int status, long durationNanos, int queryCount, long now, long windowNanos) {
+            rotateIfDue(now, windowNanos);
+            current.recordNanos(durationNanos);
+            count.increment();
+            totalMicros.add(durationNanos / 1_000);
+            byStatusClass[Math.min(Math.max(status / 100, 0), 5)].increment();
+            if (status >= 500) {
+                errors.increment();
+            }
+            queries.add(queryCount);
+            if (queryCount > maxQueries.get()) {
+                maxQueries.accumulateAndGet(queryCount, Math::max);
+            }
+        }
+
+        // Satu thread yang menang CAS menggeser jendela; record yang masih
+        // masuk ke histogram lama tetap terhitung sebagai jendela sebelumnya
+        void rotateIfDue(long now, long windowNanos) {
+            long last = rotatedAt.get();
+            if (now - last >= windowNanos && rotatedAt.compareAndSet(last, now)) {
+                // Jendela yang sudah lewat dua kali tidak relevan lagi
+                previous = now - last >= 2 * windowNanos ? new LatencyHistogram() : current;
+                current = new LatencyHistogram();
+            }
+        }
+
+        LatencyHistogram[] window() {
+            return new LatencyHistogram[] { previous, current };
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Mengukur setiap request ke dalam RequestMetrics: latensi, status dan
+ * jumlah query DB, dikelompokkan per pola route Spring MVC. Dipasang paling
+ * luar agar waktu filter lain (security, logging) ikut terukur.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final RequestMetrics requestMetrics;
+
+    @Autowired
+    public RequestMetricsFilter(@Value("${app.metrics.window:60s}") Duration window) {
+        this(new RequestMetrics(window));
+    }
+
+    RequestMetricsFilter(RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
+    public RequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        QueryCountInspector.begin();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long duration = System.nanoTime() - start;
+            int queries = QueryCountInspector.end();
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            requestMetrics.record(request.getMethod(), route != null ? route.toString() : null,
+                    failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(),
+                    duration, queries);
+        }
+    }
+}
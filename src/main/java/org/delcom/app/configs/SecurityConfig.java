@@ -31,6 +31,8 @@ public class SecurityConfig {
                 // Menambahkan path static yang umum agar layout tidak pecah
                 .requestMatchers("/assets/**", "/css/**", "/js/**", "/images/**").permitAll()
                 .requestMatchers("/auth/**", "/error", "/h2-console/**").permitAll()
+                // Scrape Prometheus; dibatasi sendiri oleh MetricsController (localhost / token)
+                .requestMatchers("/metrics").permitAll()
                 
                 // Semua request lainnya WAJIB login
                 .anyRequest().authenticated()
@@ -1,25 +0,0 @@
-package org.delcom.app.configs;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
-@Configuration
-public class WebMvcConfig implements WebMvcConfigurer {
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Mapping agar folder "uploads" bisa diakses via URL /uploads/**
-        Path uploadDir = Paths.get("./uploads");
-        String uploadPath = uploadDir.toFile().getAbsolutePath();
-
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:/" + uploadPath + "/");
-        
-        // Mapping untuk static assets (css/js/images bawaan)
-        registry.addResourceHandler("/**")
-                .addResourceLocations("classpath:/static/");
-    }
-}
\ No newline at end of file
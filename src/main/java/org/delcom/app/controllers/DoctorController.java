@@ -1,10 +1,9 @@
 package org.delcom.app.controllers;
 
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.dto.PageSlice;
 import org.delcom.app.entities.PlantHealth;
 import org.delcom.app.services.PlantHealthService;
-import org.delcom.app.services.UserService;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -14,21 +13,26 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("/doctor")
 public class DoctorController {
     private final PlantHealthService service;
-    private final UserService userService;
+    private final CurrentUserResolver currentUserResolver;
 
-    public DoctorController(PlantHealthService service, UserService userService) {
+    public DoctorController(PlantHealthService service, CurrentUserResolver currentUserResolver) {
         this.service = service;
-        this.userService = userService;
+        this.currentUserResolver = currentUserResolver;
     }
 
     private org.delcom.app.entities.User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userService.getUserByEmail(auth.getName());
+        return currentUserResolver.getCurrentUser();
     }
 
     @GetMapping
-    public String listDoctor(Model model) {
-        model.addAttribute("logs", service.getLogsByUser(getCurrentUser()));
+    public String listDoctor(@RequestParam(required = false) Integer page,
+                             @RequestParam(required = false) Integer size,
+                             @RequestParam(required = false) Long after,
+                             Model model) {
+        PageSlice<PlantHealth> pageData = service.getLogsPage(getCurrentUser(),
+                PageSlice.normalizePage(page), PageSlice.normalizeSize(size), after);
+        model.addAttribute("logs", pageData.getContent());
+        model.addAttribute("pageData", pageData);
         return "pages/doctor"; 
     }
 
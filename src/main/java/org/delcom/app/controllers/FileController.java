@@ -0,0 +1,171 @@
+package org.delcom.app.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.services.FileAccessService;
+import org.delcom.app.services.FileStorageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Unduhan file upload (/uploads/{path}) dengan cek akses per user, ETag /
+ * If-None-Match (304) dan HTTP Range (206). Di Tomcat, file besar dikirim
+ * lewat sendfile: isi file tidak melewati heap Java dan pengirimannya ke
+ * klien lambat ditangani poller Tomcat, bukan thread request ini.
+ */
+@Controller
+public class FileController {
+    // Sama dengan batas sendfile DefaultServlet Tomcat; file kecil lebih murah disalin
+    static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    private static final long TRANSFER_CHUNK_BYTES = 64 * 1024;
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FileStorageService fileStorageService;
+    private final FileAccessService fileAccessService;
+    private final CurrentUserResolver currentUserResolver;
+    private final Duration cacheMaxAge;
+
+    public FileController(FileStorageService fileStorageService, FileAccessService fileAccessService,
+                          CurrentUserResolver currentUserResolver,
+                          @Value("${app.upload.cache-max-age:365d}") Duration cacheMaxAge) {
+        this.fileStorageService = fileStorageService;
+        this.fileAccessService = fileAccessService;
+        this.currentUserResolver = currentUserResolver;
+        this.cacheMaxAge = cacheMaxAge;
+    }
+
+    @GetMapping("/uploads/{*path}")
+    public void download(@PathVariable String path, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        String imagePath = path.startsWith("/") ? path.substring(1) : path;
+        Path file = fileStorageService.resolveFile(imagePath);
+        // File orang lain dijawab 404 juga, agar keberadaannya tidak bocor
+        if (file == null || !Files.isRegularFile(file)
+                || !fileAccessService.canRead(currentUserResolver.getCurrentUser(), imagePath)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        // ETag gaya nginx (waktu ubah + ukuran): tidak perlu membaca/hash isi file
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+
+        // Upload content-addressed tidak pernah berubah; nama lama direvalidasi
+        CacheControl cacheControl = FileStorageService.isContentAddressed(imagePath)
+                ? CacheControl.maxAge(cacheMaxAge).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return; // 304, ETag & Last-Modified sudah ditulis
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        long start = 0;
+        long count = length;
+        HttpRange range = requestedRange(request, etag, lastModified);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                count = range.getRangeEnd(length) - start + 1;
+                if (start >= length || count <= 0) {
+                    throw new IllegalArgumentException("Range di luar ukuran file");
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + (start + count - 1) + "/" + length);
+        }
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        transfer(file, start, count, response);
+    }
+
+    /**
+     * Satu range dari header Range, atau null jika tidak ada / tidak dipakai
+     * (lebih dari satu range, atau If-Range tidak cocok): kirim file utuh.
+     */
+    private HttpRange requestedRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            // If-Range berisi ETag atau tanggal; resolusi tanggal HTTP hanya detik
+            try {
+                boolean matches = ifRange.startsWith("\"")
+                        ? ifRange.equals(etag)
+                        : request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+                if (!matches) {
+                    return null;
+                }
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Tanpa sendfile: salin per potongan lewat FileChannel, buffer tetap kecil
+    private void transfer(Path file, long start, long count, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, Math.min(remaining, TRANSFER_CHUNK_BYTES), out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.services.FileAccessService;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.ImageVariantService;
+import org.delcom.app.services.ImageVariantService.Variant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Gambar ukuran kecil untuk daftar & detail: /media/thumb/{path} dan
+ * /media/medium/{path}, dengan {path} sama seperti di /uploads/{path}.
+ * Jika varian belum jadi, redirect ke file asli dan jadwalkan pembuatannya.
+ * Hanya untuk user yang boleh membaca file aslinya (FileAccessService).
+ */
+@Controller
+@RequestMapping("/media")
+public class MediaController {
+    private final ImageVariantService imageVariantService;
+    private final FileAccessService fileAccessService;
+    private final CurrentUserResolver currentUserResolver;
+    private final Duration cacheMaxAge;
+
+    public MediaController(ImageVariantService imageVariantService, FileAccessService fileAccessService,
+                           CurrentUserResolver currentUserResolver,
+                           @Value("${app.upload.cache-max-age:365d}") Duration cacheMaxAge) {
+        this.imageVariantService = imageVariantService;
+        this.fileAccessService = fileAccessService;
+        this.currentUserResolver = currentUserResolver;
+        this.cacheMaxAge = cacheMaxAge;
+    }
+
+    @GetMapping("/{variant}/{*path}")
+    public ResponseEntity<Resource> getVariant(@PathVariable String variant, @PathVariable String path) {
+        Variant size = Variant.fromSlug(variant);
+        String imagePath = path.startsWith("/") ? path.substring(1) : path;
+        if (size == null || imagePath.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Aturan akses sama dengan file aslinya di /uploads
+        if (!fileAccessService.canRead(currentUserResolver.getCurrentUser(), imagePath)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Path file = imageVariantService.findVariant(imagePath, size);
+        if (file != null) {
+            // Varian dari upload content-addressed tidak pernah berubah; nama lama
+            // direvalidasi via Last-Modified (304 ditangani Spring dari header ini)
+            CacheControl cacheControl = FileStorageService.isContentAddressed(imagePath)
+                    ? CacheControl.maxAge(cacheMaxAge).cachePrivate().immutable()
+                    : CacheControl.noCache().cachePrivate();
+            FileSystemResource resource = new FileSystemResource(file);
+            try {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .cacheControl(cacheControl)
+                        .lastModified(resource.lastModified())
+                        .body(resource);
+            } catch (IOException e) {
+                return ResponseEntity.notFound().build();
+            }
+        }
+
+        // Jangan di-cache: begitu varian jadi, request berikutnya harus mendapatkannya
+        imageVariantService.generateAsync(imagePath);
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .cacheControl(CacheControl.noStore())
+                .location(UriComponentsBuilder.fromPath("/uploads/").path(imagePath).build().encode().toUri())
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package org.delcom.app.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.delcom.app.configs.LatencyHistogram;
+import org.delcom.app.configs.RequestMetricsFilter;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Endpoint scrape Prometheus (/metrics). Tanpa app.metrics.scrape-token hanya
+ * bisa diakses dari localhost; jika diisi, scraper wajib mengirim
+ * "Authorization: Bearer &lt;token&gt;".
+ */
+@RestController
+public class MetricsController {
+    static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+    private static final String PREFIX = "plantcare_";
+    private static final double[] QUANTILES = { 0.5, 0.95, 0.99 };
+
+    private final RequestMetricsFilter requestMetricsFilter;
+    private final AuthTokenService authTokenService;
+    private final PasswordHashingService passwordHashingService;
+    private final String scrapeToken;
+
+    public MetricsController(RequestMetricsFilter requestMetricsFilter, AuthTokenService authTokenService,
+            PasswordHashingService passwordHashingService,
+            @Value("${app.metrics.scrape-token:}") String scrapeToken) {
+        this.requestMetricsFilter = requestMetricsFilter;
+        this.authTokenService = authTokenService;
+        this.passwordHashingService = passwordHashingService;
+        this.scrapeToken = scrapeToken;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> scrape(HttpServletRequest request) throws IOException {
+        if (!isAllowed(request)) {
+            // 404 agar keberadaan endpoint tidak terlihat dari luar
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        StringWriter out = new StringWriter(4096);
+        requestMetricsFilter.getRequestMetrics().writePrometheus(out);
+        writeAuthTokenCache(out);
+        writePasswordHashing(out);
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(out.toString());
+    }
+
+    private void writeAuthTokenCache(Writer out) throws IOException {
+        Map<String, Long> stats = authTokenService.getCacheStats();
+        metric(out, "auth_token_cache_hits_total", "counter",
+                "Token lookups answered from the verified-token cache.", stats.get("hits"));
+        metric(out, "auth_token_cache_misses_total", "counter",
+                "Token lookups that missed the cache and were verified against the database.", stats.get("misses"));
+        metric(out, "auth_token_cache_evictions_total", "counter",
+                "Cache entries dropped because the cache was full or the entry expired.", stats.get("evictions"));
+        metric(out, "auth_token_cache_size", "gauge", "Verified tokens currently cached.", stats.get("size"));
+    }
+
+    private void writePasswordHashing(Writer out) throws IOException {
+        metric(out, "password_hash_queue_depth", "gauge",
+                "Password hashing tasks waiting for a free hashing thread.", passwordHashingService.getQueueDepth());
+        metric(out, "password_hash_active", "gauge",
+                "Password hashing tasks currently running.", passwordHashingService.getActiveCount());
+        metric(out, "password_hash_rejected_total", "counter",
+                "Password hashing tasks rejected because the pool was full or the wait timed out.",
+                passwordHashingService.getRejectedCount());
+
+        String name = PREFIX + "password_hash_duration_seconds";
+        LatencyHistogram latency = passwordHashingService.getLatencyHistogram();
+        out.write("# HELP " + name + " BCrypt encode/matches latency since startup (HDR-style buckets, ~3% precision).\n");
+        out.write("# TYPE " + name + " summary\n");
+        for (double quantile : QUANTILES) {
+            out.write(name + "{quantile=\"" + quantile + "\"} "
+                    + seconds(LatencyHistogram.percentileMicros(quantile, latency)) + "\n");
+        }
+        out.write(name + "_sum " + seconds(passwordHashingService.getTotalLatencyMicros()) + "\n");
+        out.write(name + "_count " + latency.getCount() + "\n");
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    // Metrik tanpa label: HELP, TYPE, lalu satu sampel
+    private static void metric(Writer out, String name, String type, String help, Object value) throws IOException {
+        out.write("# HELP " + PREFIX + name + " " + help + "\n");
+        out.write("# TYPE " + PREFIX + name + " " + type + "\n");
+        out.write(PREFIX + name + " " + value + "\n");
+    }
+
+    private boolean isAllowed(HttpServletRequest request) {
+        if (scrapeToken == null || scrapeToken.isEmpty()) {
+            return isLoopback(request.getRemoteAddr());
+        }
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        // Perbandingan waktu-konstan
+        return MessageDigest.isEqual(header.substring(7).getBytes(StandardCharsets.UTF_8),
+                scrapeToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isLoopback(String remoteAddr) {
+        try {
+            return remoteAddr != null && InetAddress.getByName(remoteAddr).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package org.delcom.app.controllers;
 
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.dto.PageSlice;
+import org.delcom.app.dto.PlantStats;
+import org.delcom.app.dto.WaterPlantsRequest;
 import org.delcom.app.entities.Plant;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.PlantService;
-import org.delcom.app.services.UserService;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -13,46 +17,51 @@ import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Controller
 @RequestMapping("/plants")
 public class PlantController {
+    private static final int CARE_HISTORY_LIMIT = 20;
+    private static final int DUE_SOON_DAYS = 7;
+    private static final int DUE_SOON_LIMIT = 10;
+
     private final PlantService plantService;
-    private final UserService userService;
+    private final CurrentUserResolver currentUserResolver;
 
-    public PlantController(PlantService plantService, UserService userService) {
+    public PlantController(PlantService plantService, CurrentUserResolver currentUserResolver) {
         this.plantService = plantService;
-        this.userService = userService;
+        this.currentUserResolver = currentUserResolver;
     }
 
     private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userService.getUserByEmail(auth.getName());
+        return currentUserResolver.getCurrentUser();
     }
 
     @GetMapping
-    public String listPlants(Model model) {
+    public String listPlants(@RequestParam(required = false) Integer page,
+                             @RequestParam(required = false) Integer size,
+                             @RequestParam(required = false) UUID after,
+                             Model model) {
         try { 
             User user = getCurrentUser();
-            List<Plant> plants = plantService.getPlantsByUser(user); // Data Spesifik User
-            model.addAttribute("plants", plants);
+            // Data Spesifik User, satu halaman saja
+            PageSlice<Plant> pageData = plantService.getPlantsPage(user,
+                    PageSlice.normalizePage(page), PageSlice.normalizeSize(size), after);
+            model.addAttribute("plants", pageData.getContent());
+            model.addAttribute("pageData", pageData);
             
-            // Statistik
-            int totalPlants = plants.size();
-            LocalDate today = LocalDate.now();
-            long needsWater = plants.stream().filter(p -> {
-                if (p.getLastWatered() == null || p.getWateringFrequency() == null) return false;
-                LocalDate nextWatering = p.getLastWatered().plusDays(p.getWateringFrequency());
-                return !nextWatering.isAfter(today);
-            }).count();
-            long healthy = totalPlants - needsWater;
-            long uniqueSpecies = plants.stream().map(p -> p.getSpecies() != null ? p.getSpecies().toLowerCase() : "lainnya").distinct().count();
-
-            model.addAttribute("totalPlants", totalPlants);
-            model.addAttribute("needsWater", needsWater);
-            model.addAttribute("healthy", healthy);
-            model.addAttribute("uniqueSpecies", uniqueSpecies);
+            // Statistik (dihitung di database, bukan dari list di atas)
+            PlantStats stats = plantService.getPlantStats(user);
+            model.addAttribute("totalPlants", stats.getTotalPlants());
+            model.addAttribute("needsWater", stats.getNeedsWater());
+            model.addAttribute("healthy", stats.getHealthy());
+            model.addAttribute("uniqueSpecies", stats.getUniqueSpecies());
+
+            // Jatuh tempo dalam seminggu, dari index (user_id, next_watering_date)
+            model.addAttribute("dueSoon", plantService.getDuePlants(user,
+                    LocalDate.now().plusDays(DUE_SOON_DAYS), DUE_SOON_LIMIT));
         } catch (Exception e) { 
             model.addAttribute("plants", Collections.emptyList());
         }
@@ -80,6 +89,7 @@ public class PlantController {
         Plant plant = plantService.getPlantById(id);
         if (plant == null) return "redirect:/plants?error=Data tidak ditemukan";
         model.addAttribute("plant", plant);
+        model.addAttribute("careLogs", plantService.getCareHistory(id, CARE_HISTORY_LIMIT));
         return "pages/plants/detail"; 
     }
 
@@ -99,7 +109,46 @@ public class PlantController {
 
     @GetMapping("/{id}/water")
     public String waterPlantNow(@PathVariable UUID id) {
-        plantService.waterPlantNow(id);
+        if (plantService.waterPlants(getCurrentUser(), List.of(id)) == 0) {
+            return "redirect:/plants?error=Data tidak ditemukan";
+        }
         return "redirect:/plants?success=Segar! Tanaman berhasil disiram.";
     }
+
+    // Siram massal dari halaman daftar: tanaman yang dicentang, atau semua yang perlu disiram
+    @PostMapping("/water")
+    public String waterPlants(@RequestParam(required = false) List<UUID> ids,
+                              @RequestParam(defaultValue = "false") boolean due) {
+        User user = getCurrentUser();
+        if (!due && (ids == null || ids.isEmpty())) {
+            return "redirect:/plants?error=Pilih tanaman yang akan disiram";
+        }
+        int watered = due ? plantService.waterDuePlants(user) : plantService.waterPlants(user, ids);
+        return "redirect:/plants?success=Segar! " + watered + " tanaman berhasil disiram.";
+    }
+
+    @PostMapping(value = "/water", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> waterPlantsApi(@RequestBody WaterPlantsRequest request) {
+        User user = getCurrentUser();
+        if (user == null) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Data tidak valid", null));
+        }
+        if (!request.isDue() && (request.getIds() == null || request.getIds().isEmpty())) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Daftar tanaman kosong", null));
+        }
+        int watered = request.isDue() ? plantService.waterDuePlants(user)
+                : plantService.waterPlants(user, request.getIds());
+        return ResponseEntity.ok(new ApiResponse<>("success", "Tanaman berhasil disiram", Map.of("watered", watered)));
+    }
+
+    // Catat pupuk / ganti pot (jenis: FERTILIZING, REPOTTING, WATERING)
+    @PostMapping("/{id}/care")
+    public String logCare(@PathVariable UUID id, @RequestParam String type,
+                          @RequestParam(required = false) String notes) {
+        if (!plantService.logCare(getCurrentUser(), id, type, notes)) {
+            return "redirect:/plants/" + id + "?error=Perawatan gagal dicatat";
+        }
+        return "redirect:/plants/" + id + "?success=Perawatan berhasil dicatat";
+    }
 }
\ No newline at end of file
@@ -1,57 +1,121 @@
 package org.delcom.app.controllers;
 
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.dto.PageSlice;
+import org.delcom.app.dto.ScheduleItem;
 import org.delcom.app.entities.Schedule;
+import org.delcom.app.entities.User;
 import org.delcom.app.services.ScheduleService;
-import org.delcom.app.services.UserService;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 
 @Controller
-@RequestMapping("/schedule")
 public class ScheduleController {
     private final ScheduleService scheduleService;
-    private final UserService userService;
+    private final CurrentUserResolver currentUserResolver;
 
-    public ScheduleController(ScheduleService scheduleService, UserService userService) {
+    public ScheduleController(ScheduleService scheduleService, CurrentUserResolver currentUserResolver) {
         this.scheduleService = scheduleService;
-        this.userService = userService;
+        this.currentUserResolver = currentUserResolver;
     }
 
-    private org.delcom.app.entities.User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        return userService.getUserByEmail(auth.getName());
+    private User getCurrentUser() {
+        return currentUserResolver.getCurrentUser();
     }
 
-    @GetMapping
-    public String listSchedules(Model model) {
-        model.addAttribute("scheduleList", scheduleService.getSchedulesByUser(getCurrentUser()));
+    @GetMapping("/schedule")
+    public String listSchedules(@RequestParam(required = false) Integer page,
+                                @RequestParam(required = false) Integer size,
+                                @RequestParam(required = false) Long after,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                Model model) {
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.with(DayOfWeek.MONDAY);
+        model.addAttribute("weekFrom", weekStart);
+        model.addAttribute("weekTo", weekStart.plusDays(6));
+        model.addAttribute("monthFrom", today.withDayOfMonth(1));
+        model.addAttribute("monthTo", today.withDayOfMonth(today.lengthOfMonth()));
+
+        // Tampilan kalender: hanya jadwal dalam rentang, urut tanggal
+        if (from != null && to != null) {
+            if (to.isBefore(from)) return "redirect:/schedule?error=Rentang tanggal tidak valid";
+            LocalDate until = ScheduleService.rangeEnd(from, to);
+            long days = ChronoUnit.DAYS.between(from, until) + 1;
+            model.addAttribute("scheduleList", scheduleService.getSchedulesInRange(getCurrentUser(), from, until));
+            model.addAttribute("from", from);
+            model.addAttribute("to", until);
+            model.addAttribute("prevFrom", from.minusDays(days));
+            model.addAttribute("prevTo", from.minusDays(1));
+            model.addAttribute("nextFrom", until.plusDays(1));
+            model.addAttribute("nextTo", until.plusDays(days));
+            return "pages/schedule";
+        }
+
+        PageSlice<Schedule> pageData = scheduleService.getSchedulesPage(getCurrentUser(),
+                PageSlice.normalizePage(page), PageSlice.normalizeSize(size), after);
+        model.addAttribute("scheduleList", pageData.getContent());
+        model.addAttribute("pageData", pageData);
         return "pages/schedule";
     }
 
-    @GetMapping("/new")
+    // Versi JSON untuk kalender di sisi klien: GET /api/schedule?from=2026-05-01&to=2026-05-31.
+    // Path sendiri: Accept browser ("..., */*") juga cocok dengan JSON, jadi
+    // tidak bisa berbagi /schedule?from=&to= dengan halaman kalender
+    @GetMapping(value = "/api/schedule", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<ApiResponse<Map<String, Object>>> listSchedulesApi(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        User user = getCurrentUser();
+        if (user == null) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Data tidak valid", null));
+        }
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Rentang tanggal tidak valid", null));
+        }
+        LocalDate until = ScheduleService.rangeEnd(from, to);
+        List<ScheduleItem> schedules = scheduleService.getSchedulesInRange(user, from, until).stream()
+                .map(ScheduleItem::from).toList();
+        return ResponseEntity.ok(new ApiResponse<>("success", "Berhasil mengambil jadwal",
+                Map.of("from", from, "to", until, "schedules", schedules)));
+    }
+
+    @GetMapping("/schedule/new")
     public String newScheduleForm(Model model) {
         model.addAttribute("schedule", new Schedule());
         return "pages/schedule-form";
     }
 
-    @GetMapping("/{id}/edit")
+    @GetMapping("/schedule/{id}/edit")
     public String editScheduleForm(@PathVariable Long id, Model model) {
         Schedule schedule = scheduleService.getScheduleById(id);
         if (schedule == null) return "redirect:/schedule?error=Data tidak ditemukan";
+        // Jadwal otomatis mengikuti frekuensi siram tanaman; ubah tanamannya, bukan jadwalnya
+        if (schedule.isGenerated()) return "redirect:/schedule?error=Jadwal otomatis tidak dapat diubah";
         model.addAttribute("schedule", schedule);
         return "pages/schedule-form";
     }
 
-    @PostMapping("/save")
+    @PostMapping("/schedule/save")
     public String saveSchedule(@ModelAttribute Schedule schedule) {
-        scheduleService.saveSchedule(schedule, getCurrentUser());
+        if (!scheduleService.saveSchedule(schedule, getCurrentUser())) {
+            return "redirect:/schedule?error=Jadwal tidak dapat disimpan";
+        }
         return "redirect:/schedule?success=Jadwal berhasil disimpan";
     }
 
-    @GetMapping("/{id}/delete")
+    @GetMapping("/schedule/{id}/delete")
     public String deleteSchedule(@PathVariable Long id) {
         scheduleService.deleteSchedule(id);
         return "redirect:/schedule?success=Jadwal berhasil dihapus";
@@ -0,0 +1,58 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.dto.SearchResult;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.SearchService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+public class SearchController {
+    private final SearchService searchService;
+    private final CurrentUserResolver currentUserResolver;
+
+    public SearchController(SearchService searchService, CurrentUserResolver currentUserResolver) {
+        this.searchService = searchService;
+        this.currentUserResolver = currentUserResolver;
+    }
+
+    private User getCurrentUser() {
+        return currentUserResolver.getCurrentUser();
+    }
+
+    @GetMapping("/search")
+    public String search(@RequestParam(required = false) String q,
+                         @RequestParam(required = false) Integer limit,
+                         Model model) {
+        model.addAttribute("q", q);
+        model.addAttribute("results", q == null || q.isBlank() ? List.of()
+                : searchService.search(getCurrentUser(), q, limit != null ? limit : SearchService.DEFAULT_LIMIT));
+        return "pages/search";
+    }
+
+    // Versi JSON, mis. untuk saran saat mengetik. Path sendiri: Accept browser
+    // ("..., */*") juga cocok dengan JSON, jadi tidak bisa berbagi /search
+    @GetMapping(value = "/api/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchApi(@RequestParam String q,
+                                                                      @RequestParam(required = false) Integer limit) {
+        User user = getCurrentUser();
+        if (user == null) {
+            return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Data tidak valid", null));
+        }
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Kata kunci kosong", null));
+        }
+        List<SearchResult> results = searchService.search(user, q,
+                limit != null ? limit : SearchService.DEFAULT_LIMIT);
+        return ResponseEntity.ok(new ApiResponse<>("success", "Berhasil mencari",
+                Map.of("query", q, "results", results)));
+    }
+}
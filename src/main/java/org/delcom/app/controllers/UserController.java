@@ -2,17 +2,20 @@ package org.delcom.app.controllers;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -20,10 +23,13 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
     private final UserService userService;
     private final AuthTokenService authTokenService;
+    private final PasswordHashingService passwordHashingService;
 
-    public UserController(UserService userService, AuthTokenService authTokenService) {
+    public UserController(UserService userService, AuthTokenService authTokenService,
+            PasswordHashingService passwordHashingService) {
         this.userService = userService;
         this.authTokenService = authTokenService;
+        this.passwordHashingService = passwordHashingService;
     }
 
     @Autowired
@@ -49,7 +55,12 @@ public class UserController {
                             null));
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(reqUser.getPassword());
+        String hashPassword;
+        try {
+            hashPassword = passwordHashingService.encode(reqUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            return serverBusy();
+        }
 
         User createdUser = userService.createUser(
                 reqUser.getName(),
@@ -77,8 +88,12 @@ public class UserController {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(reqUser.getPassword(), existingUser.getPassword());
+        boolean isPasswordMatch;
+        try {
+            isPasswordMatch = passwordHashingService.matches(reqUser.getPassword(), existingUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            return serverBusy();
+        }
         if (!isPasswordMatch) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
@@ -144,6 +159,9 @@ public class UserController {
             return ResponseEntity.status(404).body(response);
         }
 
+        // Snapshot user di cache token sudah tidak sesuai
+        authTokenService.invalidateCache(authUser.getId());
+
         ApiResponse<User> response = new ApiResponse<>("success", "User berhasil diupdate", null);
         return ResponseEntity.ok(response);
     }
@@ -170,15 +188,20 @@ public class UserController {
                     .body(new ApiResponse<>("fail", "Password lama dan baru wajib diisi", null));
         }
 
-        // Validasi password lama
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(oldPassword, authUser.getPassword());
-        if (!isPasswordMatch) {
-            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
+        // Validasi password lama lalu hash password baru
+        String hashPassword;
+        try {
+            boolean isPasswordMatch = passwordHashingService.matches(oldPassword, authUser.getPassword());
+            if (!isPasswordMatch) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
+            }
+            hashPassword = passwordHashingService.encode(newPassword);
+        } catch (RejectedExecutionException e) {
+            return serverBusy();
         }
 
         // Update password baru
-        String hashPassword = new BCryptPasswordEncoder().encode(newPassword);
         User updatedUser = userService.updatePassword(authUser.getId(), hashPassword);
         if (updatedUser == null) {
             ApiResponse<Void> response = new ApiResponse<>("fail", "User tidak ditemukan", null);
@@ -191,4 +214,10 @@ public class UserController {
         return ResponseEntity.ok(new ApiResponse<>("success", "Password berhasil diupdate", null));
     }
 
+    // Pool hashing password penuh, minta client mencoba lagi
+    private <T> ResponseEntity<ApiResponse<T>> serverBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ApiResponse<>("fail", "Server sedang sibuk, silakan coba lagi nanti", null));
+    }
 }
@@ -0,0 +1,41 @@
+package org.delcom.app.dto;
+
+/**
+ * Angka yang ditampilkan di dashboard (HomeView). Skor dihitung dari hasil
+ * agregasi, tanpa memuat entity ke memori.
+ */
+public class DashboardStats {
+
+    private final PlantStats plantStats;
+    private final long sickLogs;   // log kesehatan dengan status selain "Sembuh"
+    private final long schedules;
+
+    public DashboardStats(PlantStats plantStats, long sickLogs, long schedules) {
+        this.plantStats = plantStats;
+        this.sickLogs = sickLogs;
+        this.schedules = schedules;
+    }
+
+    public PlantStats getPlantStats() { return plantStats; }
+    public long getSickLogs() { return sickLogs; }
+    public long getSchedules() { return schedules; }
+
+    public int getHealthScore() {
+        long total = plantStats.getTotalPlants();
+        if (total == 0) return 0;
+        int penalty = (int) ((double) sickLogs / total * 100);
+        return Math.max(0, 100 - penalty);
+    }
+
+    public int getWaterScore() {
+        long total = plantStats.getTotalPlants();
+        if (total == 0) return 0;
+        return (int) ((double) plantStats.getWellWatered() / total * 100);
+    }
+
+    public int getScheduleScore() {
+        long total = plantStats.getTotalPlants();
+        if (total == 0) return 0;
+        return Math.min(100, (int) ((double) schedules / total * 100));
+    }
+}
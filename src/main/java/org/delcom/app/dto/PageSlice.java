@@ -0,0 +1,59 @@
+package org.delcom.app.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Satu halaman data untuk template list. Halaman berikutnya selalu diminta
+ * lewat parameter "after" (keyset), sehingga biayanya tetap walau koleksi
+ * user sudah besar; "page" (offset) tetap didukung untuk lompat langsung.
+ */
+public class PageSlice<T> {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> content;
+    private final int page;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextAfter;
+    private final boolean keyset;
+
+    public PageSlice(List<T> content, int page, int size, boolean hasNext, String nextAfter, boolean keyset) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextAfter = nextAfter;
+        this.keyset = keyset;
+    }
+
+    // key: nilai "after" untuk item terakhir (biasanya id)
+    public static <T> PageSlice<T> of(Slice<T> slice, boolean keyset, Function<T, String> key) {
+        List<T> content = slice.getContent();
+        String nextAfter = slice.hasNext() && !content.isEmpty() ? key.apply(content.get(content.size() - 1)) : null;
+        return new PageSlice<>(content, keyset ? 0 : slice.getNumber(), slice.getSize(), slice.hasNext(), nextAfter, keyset);
+    }
+
+    // Ukuran halaman dari query string: kosong -> default, dibatasi 1..MAX_SIZE
+    public static int normalizeSize(Integer size) {
+        if (size == null) return DEFAULT_SIZE;
+        return Math.max(1, Math.min(MAX_SIZE, size));
+    }
+
+    public static int normalizePage(Integer page) {
+        return page == null ? 0 : Math.max(0, page);
+    }
+
+    public List<T> getContent() { return content; }
+    public int getPage() { return page; }
+    public int getSize() { return size; }
+    public boolean hasNext() { return hasNext; }
+    public String getNextAfter() { return nextAfter; }
+    public boolean isKeyset() { return keyset; }
+
+    // Halaman keyset selalu bisa kembali ke awal; halaman offset jika page > 0
+    public boolean hasPrevious() { return keyset || page > 0; }
+}
@@ -0,0 +1,33 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Jadwal siram berulang satu tanaman: nextWateringDate, lalu setiap
+ * wateringFrequency hari. generatedUntil = batas jadwal yang sudah dibuat
+ * (null jika belum pernah).
+ */
+public record PlantRecurrence(UUID plantId, UUID userId, String plantName, LocalDate nextWateringDate,
+        int wateringFrequency, LocalDate generatedUntil) {
+
+    // Tanggal siram dalam [from, until], mengikuti pola nextWateringDate + k * frekuensi
+    public List<LocalDate> occurrences(LocalDate from, LocalDate until) {
+        List<LocalDate> dates = new ArrayList<>();
+        if (nextWateringDate == null || wateringFrequency <= 0 || until.isBefore(from)) {
+            return dates;
+        }
+        LocalDate date = nextWateringDate;
+        if (date.isBefore(from)) {
+            long behind = from.toEpochDay() - date.toEpochDay();
+            long steps = (behind + wateringFrequency - 1) / wateringFrequency;
+            date = date.plusDays(steps * wateringFrequency);
+        }
+        for (; !date.isAfter(until); date = date.plusDays(wateringFrequency)) {
+            dates.add(date);
+        }
+        return dates;
+    }
+}
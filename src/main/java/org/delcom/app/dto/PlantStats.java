@@ -0,0 +1,33 @@
+package org.delcom.app.dto;
+
+/**
+ * Ringkasan jumlah tanaman milik satu user, dihitung langsung di database
+ * (lihat PlantRepository.getPlantStats).
+ */
+public class PlantStats {
+
+    private final long totalPlants;
+    private final long needsWater;   // lastWatered + wateringFrequency <= hari ini
+    private final long wellWatered;  // lastWatered + wateringFrequency >= hari ini
+    private final long uniqueSpecies;
+
+    // SUM() bernilai null jika user belum punya tanaman
+    public PlantStats(Long totalPlants, Long needsWater, Long wellWatered, Long uniqueSpecies) {
+        this.totalPlants = totalPlants != null ? totalPlants : 0;
+        this.needsWater = needsWater != null ? needsWater : 0;
+        this.wellWatered = wellWatered != null ? wellWatered : 0;
+        this.uniqueSpecies = uniqueSpecies != null ? uniqueSpecies : 0;
+    }
+
+    public static PlantStats empty() {
+        return new PlantStats(0L, 0L, 0L, 0L);
+    }
+
+    public long getTotalPlants() { return totalPlants; }
+    public long getNeedsWater() { return needsWater; }
+    public long getWellWatered() { return wellWatered; }
+    public long getUniqueSpecies() { return uniqueSpecies; }
+
+    // Tanaman yang tidak sedang haus
+    public long getHealthy() { return totalPlants - needsWater; }
+}
@@ -0,0 +1,20 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.delcom.app.entities.Schedule;
+
+/**
+ * Satu jadwal untuk respons JSON kalender. Entity Schedule tidak diserialisasi
+ * langsung karena relasi user/plant-nya LAZY.
+ */
+public record ScheduleItem(Long id, LocalDate date, String activity, String plantName, UUID plantId,
+        boolean generated) {
+
+    // plant.getId() pada proxy LAZY tidak memicu query
+    public static ScheduleItem from(Schedule schedule) {
+        return new ScheduleItem(schedule.getId(), schedule.getDate(), schedule.getActivity(), schedule.getPlantName(),
+                schedule.getPlant() != null ? schedule.getPlant().getId() : null, schedule.isGenerated());
+    }
+}
@@ -0,0 +1,15 @@
+package org.delcom.app.dto;
+
+/**
+ * Satu hasil pencarian /search. type: PLANT, HEALTH_LOG atau ENCYCLOPEDIA;
+ * url menuju halaman data tersebut.
+ */
+public record SearchResult(String type, String id, String title, String snippet, String url, double score) {
+    public static final String PLANT = "PLANT";
+    public static final String HEALTH_LOG = "HEALTH_LOG";
+    public static final String ENCYCLOPEDIA = "ENCYCLOPEDIA";
+
+    public SearchResult withScore(double score) {
+        return new SearchResult(type, id, title, snippet, url, score);
+    }
+}
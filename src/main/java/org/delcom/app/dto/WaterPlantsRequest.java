@@ -0,0 +1,31 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Body JSON POST /plants/water: daftar id tanaman, atau due=true untuk semua yang perlu disiram
+public class WaterPlantsRequest {
+
+    private List<UUID> ids;
+
+    private boolean due;
+
+    public WaterPlantsRequest() {
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public boolean isDue() {
+        return due;
+    }
+
+    public void setDue(boolean due) {
+        this.due = due;
+    }
+}
@@ -3,12 +3,18 @@ package org.delcom.app.entities;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.delcom.app.utils.JwtUtil;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "auth_tokens")
+@Table(name = "auth_tokens", indexes = {
+        @Index(name = "idx_auth_tokens_user_hash", columnList = "user_id, token_hash"),
+        @Index(name = "idx_auth_tokens_created_at", columnList = "created_at")
+})
 @JsonPropertyOrder({ "id", "token", "userId", "createdAt" })
 public class AuthToken {
     @Id
@@ -19,6 +25,11 @@ public class AuthToken {
     @Column(name = "token", nullable = false, columnDefinition = "TEXT")
     private String token;
 
+    // SHA-256 dari token, dipakai untuk lookup (lihat JwtUtil.hashToken)
+    @JsonIgnore
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
@@ -31,6 +42,7 @@ public class AuthToken {
     public AuthToken(UUID userId, String token) {
         this.userId = userId;
         this.token = token;
+        this.tokenHash = JwtUtil.hashToken(token);
         this.createdAt = LocalDateTime.now();
     }
 
@@ -48,6 +60,11 @@ public class AuthToken {
 
     public void setToken(String token) {
         this.token = token;
+        this.tokenHash = JwtUtil.hashToken(token);
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
     }
 
     public UUID getUserId() {
@@ -66,5 +83,8 @@ public class AuthToken {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (tokenHash == null) {
+            tokenHash = JwtUtil.hashToken(token);
+        }
     }
 }
@@ -3,7 +3,16 @@ package org.delcom.app.entities;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+/**
+ * Satu kejadian perawatan tanaman (siram, pupuk, ganti pot). Disimpan
+ * append-only di tabel care_logs (dipartisi per bulan di PostgreSQL) lewat
+ * CareLogWriter; bukan entity JPA karena tabelnya dikelola CareLogPartitioner.
+ */
 public class CareLog {
+    public static final String WATERING = "WATERING";
+    public static final String FERTILIZING = "FERTILIZING";
+    public static final String REPOTTING = "REPOTTING";
+
     private UUID id;
     private UUID plantId;
     private String activityType; 
@@ -12,6 +21,19 @@ public class CareLog {
 
     public CareLog() {}
 
+    public CareLog(UUID plantId, String activityType, String notes, LocalDateTime logDate) {
+        this.id = UUID.randomUUID();
+        this.plantId = plantId;
+        this.activityType = activityType;
+        this.notes = notes;
+        this.logDate = logDate;
+    }
+
+    public static boolean isKnownActivity(String activityType) {
+        return WATERING.equals(activityType) || FERTILIZING.equals(activityType)
+                || REPOTTING.equals(activityType);
+    }
+
     // --- GETTERS AND SETTERS ---
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -3,7 +3,9 @@ package org.delcom.app.entities;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "encyclopedias")
+@Table(name = "encyclopedias", indexes = {
+        @Index(name = "idx_encyclopedias_image_path", columnList = "image_path")
+})
 public class Encyclopedia {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -5,7 +5,12 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "plants")
+@Table(name = "plants", indexes = {
+        @Index(name = "idx_plants_user_name_id", columnList = "user_id, name, id"),
+        @Index(name = "idx_plants_image_path", columnList = "image_path"),
+        // Tanaman yang jatuh tempo per user, urut tanggal: range scan, bukan hitung ulang per baris
+        @Index(name = "idx_plants_user_next_watering", columnList = "user_id, next_watering_date")
+})
 public class Plant {
     @Id
     @GeneratedValue(generator = "UUID")
@@ -20,6 +25,14 @@ public class Plant {
     private Integer wateringFrequency; 
     private LocalDate lastWatered;
 
+    // lastWatered + wateringFrequency; diisi otomatis setiap kali disimpan
+    private LocalDate nextWateringDate;
+
+    // Batas jadwal otomatis yang sudah dibuat; hanya ditulis ScheduleGenerator (JDBC),
+    // jadi tidak ikut tertimpa saat form edit tanaman disimpan
+    @Column(insertable = false, updatable = false)
+    private LocalDate schedulesGeneratedUntil;
+
     // RELASI KE USER
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
@@ -42,6 +55,20 @@ public class Plant {
     public void setWateringFrequency(Integer wateringFrequency) { this.wateringFrequency = wateringFrequency; }
     public LocalDate getLastWatered() { return lastWatered; }
     public void setLastWatered(LocalDate lastWatered) { this.lastWatered = lastWatered; }
+    public LocalDate getNextWateringDate() { return nextWateringDate; }
+    public void setNextWateringDate(LocalDate nextWateringDate) { this.nextWateringDate = nextWateringDate; }
+    public LocalDate getSchedulesGeneratedUntil() { return schedulesGeneratedUntil; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        nextWateringDate = computeNextWateringDate(lastWatered, wateringFrequency);
+    }
+
+    public static LocalDate computeNextWateringDate(LocalDate lastWatered, Integer wateringFrequency) {
+        if (lastWatered == null || wateringFrequency == null) return null;
+        return lastWatered.plusDays(wateringFrequency);
+    }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "plant_health_logs")
+@Table(name = "plant_health_logs", indexes = {
+        @Index(name = "idx_plant_health_logs_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_plant_health_logs_image_path", columnList = "image_path")
+})
 public class PlantHealth {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,33 +1,62 @@
 package org.delcom.app.entities;
 
 import jakarta.persistence.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
 
 @Entity
-@Table(name = "schedules")
+@Table(name = "schedules", indexes = {
+        @Index(name = "idx_schedules_user_id", columnList = "user_id, id"),
+        // Tampilan kalender (minggu/bulan): range scan per user, sudah urut tanggal
+        @Index(name = "idx_schedules_user_date", columnList = "user_id, schedule_date, id"),
+        // Hapus/buat ulang jadwal otomatis satu tanaman mulai tanggal tertentu
+        @Index(name = "idx_schedules_plant_generated", columnList = "plant_id, is_generated, schedule_date")
+})
 public class Schedule {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private String date;
+    // Kolom baru: kolom teks "date" yang lama dipindahkan oleh ScheduleDateMigrator
+    @Column(name = "schedule_date")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate date;
     private String activity;
     private String plantName;
 
+    // Teks tanggal lama yang tidak bisa dibaca sebagai tanggal (mis. "Besok Pagi")
+    private String dateNote;
+
     // RELASI KE USER
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    // Hanya diisi untuk jadwal yang dibuat ScheduleGenerator dari frekuensi siram tanaman
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "plant_id")
+    private Plant plant;
+
+    @Column(name = "is_generated", nullable = false)
+    private boolean generated;
+
     public Schedule() {}
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
-    public String getDate() { return date; }
-    public void setDate(String date) { this.date = date; }
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
     public String getActivity() { return activity; }
     public void setActivity(String activity) { this.activity = activity; }
     public String getPlantName() { return plantName; }
     public void setPlantName(String plantName) { this.plantName = plantName; }
+    public String getDateNote() { return dateNote; }
+    public void setDateNote(String dateNote) { this.dateNote = dateNote; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
+    public Plant getPlant() { return plant; }
+    public void setPlant(Plant plant) { this.plant = plant; }
+    public boolean isGenerated() { return generated; }
+    public void setGenerated(boolean generated) { this.generated = generated; }
 }
\ No newline at end of file
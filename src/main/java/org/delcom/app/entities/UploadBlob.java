@@ -0,0 +1,52 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Satu file gambar di folder upload, dikunci oleh hash SHA-256 isinya.
+ * refCount = jumlah tanaman/log/ensiklopedia yang memakai file ini; file
+ * baru dihapus dari disk saat refCount turun ke nol.
+ */
+@Entity
+@Table(name = "upload_blobs")
+public class UploadBlob {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private String path;
+
+    private long size;
+    private String contentType;
+    private long refCount;
+    private LocalDateTime createdAt;
+
+    public UploadBlob() {}
+
+    public UploadBlob(String sha256, String path, long size, String contentType) {
+        this.sha256 = sha256;
+        this.path = path;
+        this.size = size;
+        this.contentType = contentType;
+        this.refCount = 1;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public long getRefCount() { return refCount; }
+    public void setRefCount(long refCount) { this.refCount = refCount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
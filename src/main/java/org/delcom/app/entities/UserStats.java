@@ -0,0 +1,63 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Statistik dashboard per user yang disimpan (materialized) dan diperbarui
+ * setiap kali tanaman, log kesehatan, atau jadwal berubah. Jumlah yang
+ * bergantung pada tanggal (needsWater, wellWatered) berlaku untuk computedOn.
+ */
+@Entity
+@Table(name = "user_stats", indexes = {
+        @Index(name = "idx_user_stats_computed_on", columnList = "computed_on")
+})
+public class UserStats {
+    @Id
+    @Column(name = "user_id", columnDefinition = "uuid")
+    private UUID userId;
+
+    private long totalPlants;
+    private long needsWater;
+    private long wellWatered;
+    private long uniqueSpecies;
+    private long sickLogs;
+    private long schedules;
+
+    @Column(name = "computed_on")
+    private LocalDate computedOn;
+
+    private LocalDateTime updatedAt;
+
+    public UserStats() {}
+
+    public UserStats(UUID userId) {
+        this.userId = userId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+    public long getTotalPlants() { return totalPlants; }
+    public void setTotalPlants(long totalPlants) { this.totalPlants = totalPlants; }
+    public long getNeedsWater() { return needsWater; }
+    public void setNeedsWater(long needsWater) { this.needsWater = needsWater; }
+    public long getWellWatered() { return wellWatered; }
+    public void setWellWatered(long wellWatered) { this.wellWatered = wellWatered; }
+    public long getUniqueSpecies() { return uniqueSpecies; }
+    public void setUniqueSpecies(long uniqueSpecies) { this.uniqueSpecies = uniqueSpecies; }
+    public long getSickLogs() { return sickLogs; }
+    public void setSickLogs(long sickLogs) { this.sickLogs = sickLogs; }
+    public long getSchedules() { return schedules; }
+    public void setSchedules(long schedules) { this.schedules = schedules; }
+    public LocalDate getComputedOn() { return computedOn; }
+    public void setComputedOn(LocalDate computedOn) { this.computedOn = computedOn; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -45,14 +45,27 @@ public class AuthInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Validasi format token JWT
-        if (!JwtUtil.validateToken(token, true)) {
+        // Token yang sudah pernah diverifikasi langsung diambil dari cache
+        User cachedUser = authTokenService.findCachedUser(token);
+        if (cachedUser != null) {
+            authContext.setAuthUser(cachedUser);
+            return true;
+        }
+
+        // Validasi format token JWT (signature diverifikasi satu kali)
+        JwtUtil.ParsedToken parsedToken = JwtUtil.parseToken(token);
+        if (!parsedToken.isValid(true)) {
             sendErrorResponse(response, 401, "Token autentikasi tidak valid");
             return false;
         }
 
-        // Ekstrak userId dari token
-        UUID userId = JwtUtil.extractUserId(token);
+        if (parsedToken.isExpired()) {
+            sendErrorResponse(response, 401, "Token autentikasi sudah expired");
+            return false;
+        }
+
+        // Ambil userId dari hasil parsing
+        UUID userId = parsedToken.getUserId();
         if (userId == null) {
             sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
             return false;
@@ -72,7 +85,8 @@ public class AuthInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Set user ke auth context
+        // Simpan ke cache lalu set user ke auth context
+        authTokenService.cacheUser(token, authUser, parsedToken.getExpiration());
         authContext.setAuthUser(authUser);
         return true;
     }
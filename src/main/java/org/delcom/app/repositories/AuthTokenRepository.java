@@ -1,8 +1,11 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,8 +14,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AuthTokenRepository extends JpaRepository<AuthToken, UUID> {
-    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.token = ?2")
-    AuthToken findUserToken(UUID userId, String token);
+    // Memakai index (user_id, token_hash)
+    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.tokenHash = ?2")
+    AuthToken findUserTokenByHash(UUID userId, String tokenHash);
+
+    @Query("SELECT at.id FROM AuthToken at WHERE at.createdAt < ?1")
+    List<UUID> findExpiredIds(LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuthToken at WHERE at.id IN ?1")
+    int deleteByIds(List<UUID> ids);
 
     @Modifying
     @Transactional
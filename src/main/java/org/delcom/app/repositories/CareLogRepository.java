@@ -0,0 +1,63 @@
+package org.delcom.app.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.CareLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Akses tabel care_logs lewat JDBC. Primary key (plant_id, log_date, id)
+ * sekaligus index untuk riwayat per tanaman; di PostgreSQL index itu juga
+ * memuat activity_type & notes (INCLUDE) sehingga findByPlant cukup
+ * index-only scan pada partisi bulan yang tercakup rentang tanggalnya.
+ */
+@Repository
+public class CareLogRepository {
+    private static final String INSERT = "INSERT INTO care_logs (id, plant_id, activity_type, notes, log_date)"
+            + " VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_PLANT = "SELECT id, plant_id, activity_type, notes, log_date"
+            + " FROM care_logs WHERE plant_id = ? AND log_date >= ? AND log_date < ?"
+            + " ORDER BY log_date DESC, id DESC LIMIT ?";
+
+    private static final RowMapper<CareLog> ROW_MAPPER = (rs, rowNum) -> {
+        CareLog log = new CareLog();
+        log.setId(rs.getObject("id", UUID.class));
+        log.setPlantId(rs.getObject("plant_id", UUID.class));
+        log.setActivityType(rs.getString("activity_type"));
+        log.setNotes(rs.getString("notes"));
+        log.setLogDate(rs.getTimestamp("log_date").toLocalDateTime());
+        return log;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CareLogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Satu batch JDBC untuk semua log
+    public void insertAll(List<CareLog> logs) {
+        jdbcTemplate.batchUpdate(INSERT, logs, logs.size(), (ps, log) -> {
+            ps.setObject(1, log.getId());
+            ps.setObject(2, log.getPlantId());
+            ps.setString(3, log.getActivityType());
+            ps.setString(4, log.getNotes());
+            ps.setTimestamp(5, Timestamp.valueOf(log.getLogDate()));
+        });
+    }
+
+    // Riwayat satu tanaman dalam [from, to), terbaru dulu
+    public List<CareLog> findByPlant(UUID plantId, LocalDateTime from, LocalDateTime to, int limit) {
+        return jdbcTemplate.query(SELECT_BY_PLANT, ROW_MAPPER, plantId, Timestamp.valueOf(from),
+                Timestamp.valueOf(to), limit);
+    }
+
+    public int deleteByPlant(UUID plantId) {
+        return jdbcTemplate.update("DELETE FROM care_logs WHERE plant_id = ?", plantId);
+    }
+}
@@ -6,5 +6,6 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface EncyclopediaRepository extends JpaRepository<Encyclopedia, Long> {
-    // Kosong saja, Spring Boot otomatis menyediakan fungsi database
+    // Gambar ensiklopedia boleh dilihat semua user yang login
+    boolean existsByImagePath(String imagePath);
 }
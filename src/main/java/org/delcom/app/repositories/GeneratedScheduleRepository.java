@@ -0,0 +1,138 @@
+package org.delcom.app.repositories;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.PlantRecurrence;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Akses JDBC untuk jadwal yang dibuat ScheduleGenerator. Insert memakai batch
+ * JDBC; Schedule memakai id IDENTITY sehingga saveAll Hibernate tidak bisa
+ * di-batch.
+ */
+@Repository
+public class GeneratedScheduleRepository {
+    private static final String SELECT_RECURRENCE = "SELECT id, user_id, name, next_watering_date,"
+            + " watering_frequency, schedules_generated_until FROM plants";
+    // Satu jadwal otomatis per tanaman per tanggal; balapan yang lolos dari
+    // kunci baris gagal keras alih-alih menggandakan kalender
+    static final String UNIQUE_INDEX = "ux_schedules_generated_plant_date";
+    private static final String INSERT = "INSERT INTO schedules (schedule_date, activity, plant_name, user_id,"
+            + " plant_id, is_generated) VALUES (?, ?, ?, ?, ?, TRUE)";
+
+    private static final RowMapper<PlantRecurrence> ROW_MAPPER = (rs, rowNum) -> {
+        Date next = rs.getDate("next_watering_date");
+        Date generatedUntil = rs.getDate("schedules_generated_until");
+        return new PlantRecurrence(rs.getObject("id", UUID.class), rs.getObject("user_id", UUID.class),
+                rs.getString("name"), next != null ? next.toLocalDate() : null, rs.getInt("watering_frequency"),
+                generatedUntil != null ? generatedUntil.toLocalDate() : null);
+    };
+
+    /** Satu jadwal yang akan dibuat. */
+    public record Occurrence(LocalDate date, String activity, PlantRecurrence plant) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GeneratedScheduleRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Baca ulang dan kunci baris tanaman sampai transaksi selesai; urut id agar
+    // dua transaksi yang mengunci tanaman yang sama tidak saling deadlock
+    public List<PlantRecurrence> lockRecurrences(Collection<UUID> plantIds) {
+        if (plantIds.isEmpty()) return List.of();
+        return jdbcTemplate.query(SELECT_RECURRENCE + " WHERE id IN (" + placeholders(plantIds.size())
+                + ") ORDER BY id FOR UPDATE", ROW_MAPPER, plantIds.toArray());
+    }
+
+    // Tanaman user ini yang jadwalnya belum sampai "until"
+    public List<PlantRecurrence> findBehindByUser(UUID userId, LocalDate until) {
+        return jdbcTemplate.query(SELECT_RECURRENCE + " WHERE user_id = ? AND watering_frequency > 0"
+                + " AND (schedules_generated_until IS NULL OR schedules_generated_until < ?)",
+                ROW_MAPPER, userId, Date.valueOf(until));
+    }
+
+    // Semua tanaman yang jadwalnya belum sampai "until", keyset per id
+    public List<PlantRecurrence> findBehind(LocalDate until, UUID afterId, int limit) {
+        String where = " WHERE watering_frequency > 0"
+                + " AND (schedules_generated_until IS NULL OR schedules_generated_until < ?)";
+        if (afterId == null) {
+            return jdbcTemplate.query(SELECT_RECURRENCE + where + " ORDER BY id LIMIT ?", ROW_MAPPER,
+                    Date.valueOf(until), limit);
+        }
+        return jdbcTemplate.query(SELECT_RECURRENCE + where + " AND id > ? ORDER BY id LIMIT ?", ROW_MAPPER,
+                Date.valueOf(until), afterId, limit);
+    }
+
+    // Jadwal otomatis mulai tanggal "from"; jadwal yang lewat tetap sebagai riwayat
+    public int deleteFrom(Collection<UUID> plantIds, LocalDate from) {
+        if (plantIds.isEmpty()) return 0;
+        List<Object> args = new ArrayList<>(plantIds);
+        args.add(Date.valueOf(from));
+        return jdbcTemplate.update("DELETE FROM schedules WHERE plant_id IN (" + placeholders(plantIds.size())
+                + ") AND is_generated = TRUE AND schedule_date >= ?", args.toArray());
+    }
+
+    // Semua jadwal yang menunjuk tanaman ini (sebelum tanamannya dihapus)
+    public int deleteByPlant(UUID plantId) {
+        return jdbcTemplate.update("DELETE FROM schedules WHERE plant_id = ?", plantId);
+    }
+
+    public void insertAll(List<Occurrence> occurrences) {
+        jdbcTemplate.batchUpdate(INSERT, occurrences, occurrences.size(), (ps, occurrence) -> {
+            ps.setDate(1, Date.valueOf(occurrence.date()));
+            ps.setString(2, occurrence.activity());
+            ps.setString(3, occurrence.plant().plantName());
+            ps.setObject(4, occurrence.plant().userId());
+            ps.setObject(5, occurrence.plant().plantId());
+        });
+    }
+
+    public int markGeneratedUntil(Collection<UUID> plantIds, LocalDate until) {
+        if (plantIds.isEmpty()) return 0;
+        List<Object> args = new ArrayList<>();
+        args.add(Date.valueOf(until));
+        args.addAll(plantIds);
+        return jdbcTemplate.update("UPDATE plants SET schedules_generated_until = ? WHERE id IN ("
+                + placeholders(plantIds.size()) + ")", args.toArray());
+    }
+
+    /**
+     * Pasang index unik (plant_id, schedule_date) untuk jadwal otomatis.
+     * PostgreSQL memakai partial index WHERE is_generated; database lain (H2
+     * untuk test) tidak mendukungnya, tetapi plant_id hanya diisi pada jadwal
+     * otomatis dan NULL tidak dianggap sama, jadi index biasa setara. Duplikat
+     * lama dibuang dulu (yang id-nya terkecil dipertahankan). Idempoten.
+     *
+     * @return jumlah jadwal ganda yang dihapus
+     */
+    public int ensureUniqueIndex() {
+        int removed = jdbcTemplate.update("DELETE FROM schedules WHERE is_generated = TRUE AND EXISTS"
+                + " (SELECT 1 FROM schedules d WHERE d.plant_id = schedules.plant_id"
+                + " AND d.schedule_date = schedules.schedule_date AND d.is_generated = TRUE AND d.id < schedules.id)");
+        String where = isPostgres() ? " WHERE is_generated" : "";
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + UNIQUE_INDEX
+                + " ON schedules (plant_id, schedule_date)" + where);
+        return removed;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((Connection connection) -> connection.getMetaData()
+                .getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -2,11 +2,27 @@ package org.delcom.app.repositories;
 
 import org.delcom.app.entities.PlantHealth;
 import org.delcom.app.entities.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface PlantHealthRepository extends JpaRepository<PlantHealth, Long> {
     List<PlantHealth> findByUser(User user);
+
+    // Halaman offset dan keyset, urut id (index idx_plant_health_logs_user_id)
+    Slice<PlantHealth> findByUserOrderByIdAsc(User user, Pageable pageable);
+
+    Slice<PlantHealth> findByUserAndIdGreaterThanOrderByIdAsc(User user, Long id, Pageable pageable);
+
+    // Log yang belum berstatus "Sembuh" (status kosong dianggap belum sembuh)
+    @Query("SELECT COUNT(ph) FROM PlantHealth ph WHERE ph.user = ?1"
+            + " AND (ph.status IS NULL OR LOWER(ph.status) <> 'sembuh')")
+    long countSickByUser(User user);
+
+    // Cek akses file upload: apakah user punya log dengan foto ini
+    boolean existsByUserAndImagePath(User user, String imagePath);
 }
\ No newline at end of file
@@ -1,13 +1,93 @@
 package org.delcom.app.repositories;
 
+import org.delcom.app.dto.PlantStats;
 import org.delcom.app.entities.Plant;
 import org.delcom.app.entities.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface PlantRepository extends JpaRepository<Plant, UUID> {
     List<Plant> findByUser(User user);
+
+    // Halaman offset, urut nama lalu id (index idx_plants_user_name_id)
+    @Query("SELECT p FROM Plant p WHERE p.user = ?1 ORDER BY p.name, p.id")
+    Slice<Plant> findPageByUser(User user, Pageable pageable);
+
+    // Keyset: tanaman sesudah (name, id) terakhir yang sudah ditampilkan
+    @Query("SELECT p FROM Plant p WHERE p.user = ?1"
+            + " AND (p.name > ?2 OR (p.name = ?2 AND p.id > ?3)) ORDER BY p.name, p.id")
+    Slice<Plant> findPageByUserAfter(User user, String name, UUID id, Pageable pageable);
+
+    long countByUser(User user);
+
+    // Cek akses file upload: apakah user punya tanaman dengan gambar ini
+    boolean existsByUserAndImagePath(User user, String imagePath);
+
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    // Dari id yang diberikan, mana yang milik user ini
+    @Query("SELECT p.id FROM Plant p WHERE p.user.id = ?1 AND p.id IN ?2")
+    List<UUID> findIdsByUserAndIdIn(UUID userId, Collection<UUID> ids);
+
+    // Tanaman yang sudah waktunya disiram (kriteria sama dengan needsWater di getPlantStats)
+    @Query("SELECT p.id FROM Plant p WHERE p.user.id = ?1 AND p.nextWateringDate <= ?2")
+    List<UUID> findDueIdsByUser(UUID userId, LocalDate today);
+
+    // Jatuh tempo sampai tanggal tertentu, paling mendesak dulu (idx_plants_user_next_watering)
+    @Query("SELECT p FROM Plant p WHERE p.user = ?1 AND p.nextWateringDate <= ?2"
+            + " ORDER BY p.nextWateringDate ASC, p.id ASC")
+    List<Plant> findDueByUser(User user, LocalDate until, Pageable pageable);
+
+    // Siram banyak tanaman dalam satu UPDATE; hanya tanaman milik user ini.
+    // Bulk UPDATE melewati @PreUpdate, jadi nextWateringDate ikut dihitung di sini
+    @Modifying
+    @Transactional
+    @Query("UPDATE Plant p SET p.lastWatered = ?3, p.nextWateringDate = ?3 + (p.wateringFrequency) day"
+            + " WHERE p.user.id = ?1 AND p.id IN ?2")
+    int updateLastWatered(UUID userId, Collection<UUID> ids, LocalDate date);
+
+    // Write-behind (WateringBuffer): tanaman milik user yang terakhir disiram
+    // sebelum tanggal itu, dikunci sampai transaksi selesai. Journal yang
+    // diputar ulang setelah batch-nya commit tidak menemukan apa-apa lagi
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Plant p WHERE p.user.id = ?1 AND p.id IN ?2"
+            + " AND (p.lastWatered IS NULL OR p.lastWatered < ?3)")
+    List<UUID> lockIdsWateredBefore(UUID userId, Collection<UUID> ids, LocalDate date);
+
+    // Seperti updateLastWatered tetapi tidak pernah memundurkan lastWatered
+    @Modifying
+    @Transactional
+    @Query("UPDATE Plant p SET p.lastWatered = ?3, p.nextWateringDate = ?3 + (p.wateringFrequency) day"
+            + " WHERE p.user.id = ?1 AND p.id IN ?2 AND (p.lastWatered IS NULL OR p.lastWatered < ?3)")
+    int updateLastWateredIfOlder(UUID userId, Collection<UUID> ids, LocalDate date);
+
+    // Baris lama (sebelum kolom next_watering_date ada) diisi sekali saat startup
+    @Modifying
+    @Transactional
+    @Query("UPDATE Plant p SET p.nextWateringDate = p.lastWatered + (p.wateringFrequency) day"
+            + " WHERE p.nextWateringDate IS NULL AND p.lastWatered IS NOT NULL AND p.wateringFrequency IS NOT NULL")
+    int backfillNextWateringDate();
+
+    // Semua statistik tanaman dalam satu query agregasi
+    @Query("SELECT new org.delcom.app.dto.PlantStats("
+            + " COUNT(p),"
+            + " SUM(CASE WHEN p.nextWateringDate <= ?2 THEN 1 ELSE 0 END),"
+            + " SUM(CASE WHEN p.nextWateringDate >= ?2 THEN 1 ELSE 0 END),"
+            + " COUNT(DISTINCT LOWER(COALESCE(p.species, 'lainnya'))))"
+            + " FROM Plant p WHERE p.user.id = ?1")
+    PlantStats getPlantStats(UUID userId, LocalDate today);
 }
\ No newline at end of file
@@ -2,11 +2,27 @@ package org.delcom.app.repositories;
 
 import org.delcom.app.entities.Schedule;
 import org.delcom.app.entities.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
     List<Schedule> findByUser(User user);
+
+    // Halaman offset dan keyset, urut id (index idx_schedules_user_id)
+    Slice<Schedule> findByUserOrderByIdAsc(User user, Pageable pageable);
+
+    Slice<Schedule> findByUserAndIdGreaterThanOrderByIdAsc(User user, Long id, Pageable pageable);
+
+    // Jadwal dalam rentang tanggal (inklusif), urut tanggal (index idx_schedules_user_date)
+    List<Schedule> findByUserAndDateBetweenOrderByDateAscIdAsc(User user, LocalDate from, LocalDate to);
+
+    long countByUser(User user);
+
+    long countByUserId(UUID userId);
 }
\ No newline at end of file
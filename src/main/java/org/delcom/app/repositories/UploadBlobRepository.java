@@ -0,0 +1,36 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.UploadBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    // Update atomik di database, bukan baca-ubah-simpan, agar upload/hapus
+    // yang bersamaan tidak kehilangan hitungan
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount + 1 WHERE b.sha256 = ?1")
+    int incrementRefCount(String sha256);
+
+    // Tambah banyak pemakai sekaligus (seeding massal)
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount + ?2 WHERE b.sha256 = ?1")
+    int addReferences(String sha256, long count);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadBlob b SET b.refCount = b.refCount - 1 WHERE b.sha256 = ?1 AND b.refCount > 0")
+    int decrementRefCount(String sha256);
+
+    // Hanya menghapus jika memang tidak dipakai lagi; 0 = masih ada pemakai
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UploadBlob b WHERE b.sha256 = ?1 AND b.refCount <= 0")
+    int deleteIfUnreferenced(String sha256);
+}
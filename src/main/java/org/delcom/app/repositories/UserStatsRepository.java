@@ -0,0 +1,45 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.UserStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, UUID> {
+
+    // User yang jumlah "perlu disiram"-nya dihitung sebelum tanggal tertentu,
+    // urut userId agar bisa dipaging dengan keyset (lihat findStaleUserIdsAfter)
+    @Query("SELECT s.userId FROM UserStats s WHERE s.computedOn IS NULL OR s.computedOn < ?1 ORDER BY s.userId")
+    List<UUID> findStaleUserIds(LocalDate today, Pageable pageable);
+
+    @Query("SELECT s.userId FROM UserStats s WHERE (s.computedOn IS NULL OR s.computedOn < ?1) AND s.userId > ?2"
+            + " ORDER BY s.userId")
+    List<UUID> findStaleUserIdsAfter(LocalDate today, UUID lastSeen, Pageable pageable);
+
+    // Update per kolom (bukan save seluruh entity) agar perubahan tanaman,
+    // log, dan jadwal yang bersamaan tidak saling menimpa
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserStats s SET s.totalPlants = ?2, s.needsWater = ?3, s.wellWatered = ?4,"
+            + " s.uniqueSpecies = ?5, s.computedOn = ?6, s.updatedAt = ?7 WHERE s.userId = ?1")
+    int updatePlantStats(UUID userId, long totalPlants, long needsWater, long wellWatered,
+                         long uniqueSpecies, LocalDate computedOn, LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserStats s SET s.sickLogs = ?2, s.updatedAt = ?3 WHERE s.userId = ?1")
+    int updateSickLogs(UUID userId, long sickLogs, LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserStats s SET s.schedules = ?2, s.updatedAt = ?3 WHERE s.userId = ?1")
+    int updateSchedules(UUID userId, long schedules, LocalDateTime updatedAt);
+}
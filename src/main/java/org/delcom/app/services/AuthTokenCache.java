@@ -0,0 +1,176 @@
+package org.delcom.app.services;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.entities.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache in-process untuk token yang sudah diverifikasi oleh AuthInterceptor.
+ * Token yang ada di cache tidak perlu di-parse ulang dan tidak perlu query
+ * ke tabel auth_tokens maupun users selama entry belum kedaluwarsa.
+ */
+@Component
+public class AuthTokenCache {
+
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // accessOrder = true agar entry tertua (LRU) dibuang saat penuh
+    private final LinkedHashMap<String, Entry> entries;
+
+    public AuthTokenCache(@Value("${app.auth.token-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.auth.token-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > AuthTokenCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Ambil entry untuk token. Mengembalikan null jika tidak ada atau sudah
+     * melewati TTL.
+     */
+    public Entry get(String token) {
+        if (token == null || maxSize <= 0) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        synchronized (entries) {
+            Entry entry = entries.get(token);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.isExpired(System.currentTimeMillis())) {
+                entries.remove(token);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry;
+        }
+    }
+
+    public void put(String token, User user) {
+        put(token, user, null);
+    }
+
+    /**
+     * Simpan token terverifikasi. Jika tokenExpiration diisi, entry tidak akan
+     * bertahan melewati waktu expired token tersebut.
+     */
+    public void put(String token, User user, Date tokenExpiration) {
+        if (token == null || user == null || maxSize <= 0) {
+            return;
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+
+        Entry entry = new Entry(user.getId(), expiresAt, new User(user));
+        synchronized (entries) {
+            entries.put(token, entry);
+        }
+    }
+
+    // Hapus semua token milik user (logout, ganti password, ubah profil)
+    public void invalidate(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                if (userId.equals(it.next().getUserId())) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public Map<String, Long> getStats() {
+        return Map.of(
+                "hits", getHits(),
+                "misses", getMisses(),
+                "evictions", getEvictions(),
+                "size", (long) size());
+    }
+
+    public static class Entry {
+        private final UUID userId;
+        private final long expiresAt;
+        private final User user;
+
+        public Entry(UUID userId, long expiresAt, User user) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+            this.user = user;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        // Selalu kembalikan salinan agar perubahan di request (mis. setPassword(null))
+        // tidak merusak snapshot yang tersimpan di cache
+        public User getUser() {
+            return new User(user);
+        }
+
+        public boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package org.delcom.app.services;
 
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthTokenService {
     private final AuthTokenRepository authTokenRepository;
+    private final AuthTokenCache authTokenCache;
 
-    public AuthTokenService(AuthTokenRepository authTokenRepository) {
+    public AuthTokenService(AuthTokenRepository authTokenRepository, AuthTokenCache authTokenCache) {
         this.authTokenRepository = authTokenRepository;
+        this.authTokenCache = authTokenCache;
     }
 
     @Transactional(readOnly = true)
     public AuthToken findUserToken(UUID userId, String token) {
-        return authTokenRepository.findUserToken(userId, token);
+        return authTokenRepository.findUserTokenByHash(userId, JwtUtil.hashToken(token));
     }
 
     @Transactional
@@ -28,5 +37,50 @@ public class AuthTokenService {
     @Transactional
     public void deleteAuthToken(UUID userId) {
         authTokenRepository.deleteByUserId(userId);
+        authTokenCache.invalidate(userId);
+    }
+
+    /**
+     * Hapus token yang dibuat sebelum cutoff dalam batch berukuran tetap agar
+     * satu transaksi tidak mengunci terlalu banyak baris.
+     *
+     * @return jumlah baris yang dihapus
+     */
+    public int deleteExpiredTokens(LocalDateTime cutoff, int batchSize, int maxBatches) {
+        int deleted = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            List<UUID> ids = authTokenRepository.findExpiredIds(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            deleted += authTokenRepository.deleteByIds(ids);
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    // --- CACHE TOKEN TERVERIFIKASI ---
+    public User findCachedUser(String token) {
+        AuthTokenCache.Entry entry = authTokenCache.get(token);
+        return entry != null ? entry.getUser() : null;
+    }
+
+    public void cacheUser(String token, User user) {
+        authTokenCache.put(token, user);
+    }
+
+    public void cacheUser(String token, User user, Date tokenExpiration) {
+        authTokenCache.put(token, user, tokenExpiration);
+    }
+
+    // Buang token user dari cache tanpa menghapus dari database
+    public void invalidateCache(UUID userId) {
+        authTokenCache.invalidate(userId);
+    }
+
+    public Map<String, Long> getCacheStats() {
+        return authTokenCache.getStats();
     }
 }
@@ -0,0 +1,45 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.delcom.app.utils.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job berkala yang membersihkan baris auth_tokens yang JWT-nya sudah expired,
+ * agar tabel tetap kecil walaupun jumlah login terus bertambah.
+ */
+@Component
+public class AuthTokenSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenSweeper.class);
+
+    private final AuthTokenService authTokenService;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public AuthTokenSweeper(AuthTokenService authTokenService,
+            @Value("${app.auth.token-sweeper.batch-size:500}") int batchSize,
+            @Value("${app.auth.token-sweeper.max-batches:100}") int maxBatches) {
+        this.authTokenService = authTokenService;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(initialDelayString = "${app.auth.token-sweeper.initial-delay-ms:60000}",
+            fixedDelayString = "${app.auth.token-sweeper.interval-ms:600000}")
+    public int sweep() {
+        // Token dianggap expired jika dibuat lebih lama dari masa berlaku JWT
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(JwtUtil.getExpirationTime()));
+        int deleted = authTokenService.deleteExpiredTokens(cutoff, batchSize, maxBatches);
+        if (deleted > 0) {
+            log.info("AuthTokenSweeper: {} token expired dihapus", deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,101 @@
+package org.delcom.app.services;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Membuat tabel care_logs dan menjaga partisi bulanannya. Di PostgreSQL
+ * tabelnya PARTITION BY RANGE (log_date) dengan satu partisi per bulan
+ * (bulan ini + partitions-ahead ke depan) dan partisi DEFAULT sebagai
+ * jaring pengaman; di database lain (H2 untuk test) tabel biasa.
+ *
+ * Tabel ini tidak dikelola Hibernate (ddl-auto tidak bisa membuat tabel
+ * terpartisi), jadi skemanya ada di sini. Semua DDL idempoten.
+ */
+@Component
+public class CareLogPartitioner {
+
+    private static final Logger log = LoggerFactory.getLogger(CareLogPartitioner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int partitionsAhead;
+
+    public CareLogPartitioner(JdbcTemplate jdbcTemplate,
+            @Value("${app.care-log.partitions-ahead:3}") int partitionsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionsAhead = partitionsAhead;
+    }
+
+    @PostConstruct
+    public void createSchema() {
+        boolean postgres = isPostgres();
+        for (String sql : schemaStatements(postgres)) {
+            jdbcTemplate.execute(sql);
+        }
+        if (postgres) {
+            ensurePartitions();
+        }
+    }
+
+    // Harian, supaya partisi bulan depan selalu sudah ada sebelum dibutuhkan
+    @Scheduled(cron = "${app.care-log.partition-cron:0 15 0 * * *}")
+    public int ensurePartitions() {
+        if (!isPostgres()) {
+            return 0;
+        }
+        List<String> statements = partitionStatements(YearMonth.from(LocalDate.now()), partitionsAhead);
+        for (String sql : statements) {
+            jdbcTemplate.execute(sql);
+        }
+        log.debug("CareLogPartitioner: {} partisi dipastikan ada", statements.size());
+        return statements.size();
+    }
+
+    static List<String> schemaStatements(boolean postgres) {
+        String columns = "id uuid NOT NULL, plant_id uuid NOT NULL, activity_type varchar(32) NOT NULL,"
+                + " notes varchar(500), log_date timestamp NOT NULL";
+        if (!postgres) {
+            return List.of("CREATE TABLE IF NOT EXISTS care_logs (" + columns
+                    + ", PRIMARY KEY (plant_id, log_date, id))");
+        }
+        // Kunci partisi wajib ada di primary key; INCLUDE membuat riwayat
+        // per tanaman bisa dibaca dari index saja
+        return List.of(
+                "CREATE TABLE IF NOT EXISTS care_logs (" + columns
+                        + ", PRIMARY KEY (plant_id, log_date, id) INCLUDE (activity_type, notes))"
+                        + " PARTITION BY RANGE (log_date)",
+                "CREATE TABLE IF NOT EXISTS care_logs_default PARTITION OF care_logs DEFAULT");
+    }
+
+    static List<String> partitionStatements(YearMonth from, int ahead) {
+        List<String> statements = new ArrayList<>();
+        for (int i = 0; i <= Math.max(0, ahead); i++) {
+            YearMonth month = from.plusMonths(i);
+            statements.add(String.format("CREATE TABLE IF NOT EXISTS care_logs_%d_%02d PARTITION OF care_logs"
+                    + " FOR VALUES FROM ('%s') TO ('%s')", month.getYear(), month.getMonthValue(),
+                    month.atDay(1), month.plusMonths(1).atDay(1)));
+        }
+        return statements;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            return metaData.getDatabaseProductName();
+        });
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
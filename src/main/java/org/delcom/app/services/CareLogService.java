@@ -0,0 +1,84 @@
+package org.delcom.app.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.entities.CareLog;
+import org.delcom.app.repositories.CareLogRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Riwayat perawatan per tanaman. Pencatatan asinkron lewat CareLogWriter
+ * sehingga klik "Siram" tidak menunggu insert; pembacaan langsung dari
+ * care_logs per rentang tanggal.
+ */
+@Service
+public class CareLogService {
+    static final int MAX_NOTES_LENGTH = 500;
+
+    private final CareLogWriter careLogWriter;
+    private final CareLogRepository careLogRepository;
+
+    public CareLogService(CareLogWriter careLogWriter, CareLogRepository careLogRepository) {
+        this.careLogWriter = careLogWriter;
+        this.careLogRepository = careLogRepository;
+    }
+
+    public void record(UUID plantId, String activityType, String notes) {
+        recordAll(List.of(plantId), activityType, notes);
+    }
+
+    // Satu kejadian yang sama untuk banyak tanaman (mis. siram massal)
+    public void recordAll(Collection<UUID> plantIds, String activityType, String notes) {
+        if (plantIds.isEmpty()) {
+            return;
+        }
+        if (!CareLog.isKnownActivity(activityType)) {
+            throw new IllegalArgumentException("Jenis perawatan tidak dikenal: " + activityType);
+        }
+        String trimmed = trimNotes(notes);
+        LocalDateTime now = LocalDateTime.now();
+        List<CareLog> logs = new ArrayList<>(plantIds.size());
+        for (UUID plantId : plantIds) {
+            logs.add(new CareLog(plantId, activityType, trimmed, now));
+        }
+        careLogWriter.writeAll(logs);
+    }
+
+    // Tiap tanaman dengan waktunya sendiri (mis. penyiraman yang ditunda WateringBuffer)
+    public void recordAt(Map<UUID, LocalDateTime> occurredAt, String activityType) {
+        if (occurredAt.isEmpty()) {
+            return;
+        }
+        if (!CareLog.isKnownActivity(activityType)) {
+            throw new IllegalArgumentException("Jenis perawatan tidak dikenal: " + activityType);
+        }
+        List<CareLog> logs = new ArrayList<>(occurredAt.size());
+        occurredAt.forEach((plantId, at) -> logs.add(new CareLog(plantId, activityType, null, at)));
+        careLogWriter.writeAll(logs);
+    }
+
+    // Riwayat terbaru dulu, dalam [from, to)
+    public List<CareLog> getHistory(UUID plantId, LocalDateTime from, LocalDateTime to, int limit) {
+        return careLogRepository.findByPlant(plantId, from, to, limit);
+    }
+
+    // Log yang masih antre dibuang dulu agar tidak tersimpan setelah delete
+    public int deleteHistory(UUID plantId) {
+        careLogWriter.discard(plantId);
+        return careLogRepository.deleteByPlant(plantId);
+    }
+
+    // Catatan dibatasi agar muat di index riwayat (INCLUDE notes)
+    private static String trimNotes(String notes) {
+        if (notes == null || notes.isBlank()) {
+            return null;
+        }
+        String trimmed = notes.strip();
+        return trimmed.length() > MAX_NOTES_LENGTH ? trimmed.substring(0, MAX_NOTES_LENGTH) : trimmed;
+    }
+}
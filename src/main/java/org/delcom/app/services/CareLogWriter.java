@@ -0,0 +1,204 @@
+package org.delcom.app.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.entities.CareLog;
+import org.delcom.app.repositories.CareLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Menulis CareLog di background. Request hanya menaruh log ke antrean; satu
+ * thread "care-log-writer" mengambil sebanyak mungkin (maks batch-size) dan
+ * menyimpannya dalam satu batch JDBC, jadi makin ramai makin besar batch-nya.
+ *
+ * Riwayat perawatan tidak boleh hilang diam-diam: jika antrean penuh, log
+ * yang tidak muat ditulis langsung di thread pemanggil. Saat shutdown sisa
+ * antrean dituliskan dulu.
+ *
+ * Tidak ada foreign key dari care_logs ke plants, jadi saat tanaman dihapus
+ * log yang masih antre untuk tanaman itu dibuang lewat discard() sebelum
+ * riwayatnya dihapus; kalau tidak, log itu tersimpan setelah delete dan
+ * menjadi yatim selamanya.
+ */
+@Component
+public class CareLogWriter {
+    private static final Logger log = LoggerFactory.getLogger(CareLogWriter.class);
+
+    // Seberapa sering thread penulis memeriksa tanda berhenti saat antrean kosong
+    private static final long POLL_MILLIS = 200;
+    // Tanaman yang baru dihapus; log yang masuk antrean belakangan (request
+    // yang berpacu dengan delete) tetap dibuang
+    private static final int MAX_DISCARDED_PLANTS = 1024;
+
+    private final CareLogRepository careLogRepository;
+    private final BlockingQueue<CareLog> queue;
+    private final int batchSize;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writtenInline = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    // Dipegang selama satu batch disaring dan disimpan, supaya discard() tidak
+    // selesai sementara batch berisi tanaman itu sedang ditulis
+    private final Object flushLock = new Object();
+    private final Map<UUID, Boolean> discardedPlants = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+            return size() > MAX_DISCARDED_PLANTS;
+        }
+    };
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public CareLogWriter(CareLogRepository careLogRepository,
+            @Value("${app.care-log.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.care-log.batch-size:500}") int batchSize) {
+        this.careLogRepository = careLogRepository;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "care-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drain();
+    }
+
+    public void write(CareLog careLog) {
+        writeAll(List.of(careLog));
+    }
+
+    public void writeAll(List<CareLog> logs) {
+        List<CareLog> overflow = null;
+        for (CareLog careLog : logs) {
+            if (!queue.offer(careLog)) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(careLog);
+            }
+        }
+        if (overflow != null) {
+            // Backpressure: lebih baik pemanggil sedikit lambat daripada riwayat hilang
+            flush(overflow);
+            writtenInline.addAndGet(overflow.size());
+        }
+    }
+
+    /**
+     * Buang log tanaman yang masih antre atau sedang ditulis. Setelah kembali,
+     * tidak ada lagi log tanaman ini yang akan tersimpan, sehingga pemanggil
+     * aman menghapus riwayatnya.
+     *
+     * @return jumlah log antrean yang dibuang
+     */
+    public int discard(UUID plantId) {
+        if (plantId == null) {
+            return 0;
+        }
+        synchronized (flushLock) {
+            discardedPlants.put(plantId, Boolean.TRUE);
+            int before = queue.size();
+            queue.removeIf(careLog -> plantId.equals(careLog.getPlantId()));
+            return Math.max(0, before - queue.size());
+        }
+    }
+
+    private void run() {
+        List<CareLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CareLog first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Tulis semua yang masih di antrean di thread pemanggil
+    void drain() {
+        List<CareLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<CareLog> batch) {
+        synchronized (flushLock) {
+            List<CareLog> kept = batch;
+            if (!discardedPlants.isEmpty()) {
+                kept = new ArrayList<>(batch.size());
+                for (CareLog careLog : batch) {
+                    if (!discardedPlants.containsKey(careLog.getPlantId())) {
+                        kept.add(careLog);
+                    }
+                }
+                if (kept.isEmpty()) {
+                    return;
+                }
+            }
+            try {
+                careLogRepository.insertAll(kept);
+                written.addAndGet(kept.size());
+            } catch (RuntimeException e) {
+                failed.addAndGet(kept.size());
+                log.error("CareLogWriter: {} log perawatan gagal disimpan: {}", kept.size(), e.getMessage());
+            }
+        }
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getWrittenInline() {
+        return writtenInline.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+}
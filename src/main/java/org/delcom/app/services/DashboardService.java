@@ -0,0 +1,184 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.DashboardStats;
+import org.delcom.app.dto.PlantStats;
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.UserStats;
+import org.delcom.app.repositories.PlantHealthRepository;
+import org.delcom.app.repositories.PlantRepository;
+import org.delcom.app.repositories.ScheduleRepository;
+import org.delcom.app.repositories.UserStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Statistik dashboard disimpan per user di tabel user_stats. Membuka dashboard
+ * cukup satu lookup primary key; PlantService, PlantHealthService, dan
+ * ScheduleService memanggil refresh* setelah data berubah sehingga hanya
+ * bagian yang terdampak yang dihitung ulang.
+ */
+@Service
+public class DashboardService {
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    private final PlantRepository plantRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final PlantHealthRepository plantHealthRepository;
+    private final UserStatsRepository userStatsRepository;
+
+    public DashboardService(PlantRepository plantRepository, ScheduleRepository scheduleRepository,
+                            PlantHealthRepository plantHealthRepository, UserStatsRepository userStatsRepository) {
+        this.plantRepository = plantRepository;
+        this.scheduleRepository = scheduleRepository;
+        this.plantHealthRepository = plantHealthRepository;
+        this.userStatsRepository = userStatsRepository;
+    }
+
+    public DashboardStats getStats(User user) {
+        if (user == null || user.getId() == null) {
+            return new DashboardStats(PlantStats.empty(), 0, 0);
+        }
+
+        LocalDate today = LocalDate.now();
+        UserStats stats = userStatsRepository.findById(user.getId()).orElse(null);
+        if (stats == null) {
+            // Pertama kali dibuka: hitung lengkap lalu simpan
+            stats = new UserStats(user.getId());
+            applyPlantStats(stats, computePlantStats(user.getId(), today), today);
+            stats.setSickLogs(plantHealthRepository.countSickByUser(user));
+            stats.setSchedules(scheduleRepository.countByUser(user));
+            save(stats);
+        } else if (!today.equals(stats.getComputedOn())) {
+            // Job rekonsiliasi belum berjalan hari ini
+            applyPlantStats(stats, computePlantStats(user.getId(), today), today);
+            save(stats);
+        }
+        return toDashboardStats(stats);
+    }
+
+    public void refreshPlants(User user) {
+        if (user == null) return;
+        refreshPlantsById(user.getId());
+    }
+
+    public void refreshPlantsById(UUID userId) {
+        if (userId == null) return;
+        try {
+            writePlantStats(userId, LocalDate.now());
+        } catch (RuntimeException e) {
+            evict(userId, e);
+        }
+    }
+
+    public void refreshHealthLogs(User user) {
+        if (user == null || user.getId() == null) return;
+        try {
+            userStatsRepository.updateSickLogs(user.getId(),
+                    plantHealthRepository.countSickByUser(user), LocalDateTime.now());
+        } catch (RuntimeException e) {
+            evict(user.getId(), e);
+        }
+    }
+
+    public void refreshSchedules(User user) {
+        if (user == null || user.getId() == null) return;
+        try {
+            userStatsRepository.updateSchedules(user.getId(),
+                    scheduleRepository.countByUser(user), LocalDateTime.now());
+        } catch (RuntimeException e) {
+            evict(user.getId(), e);
+        }
+    }
+
+    // Untuk job yang hanya memegang id user (ScheduleGenerator)
+    public void refreshSchedulesById(UUID userId) {
+        if (userId == null) return;
+        try {
+            userStatsRepository.updateSchedules(userId, scheduleRepository.countByUserId(userId),
+                    LocalDateTime.now());
+        } catch (RuntimeException e) {
+            evict(userId, e);
+        }
+    }
+
+    /**
+     * Hitung ulang jumlah yang bergantung tanggal untuk semua baris yang
+     * computedOn-nya sebelum hari ini. Mengembalikan jumlah user yang diproses.
+     */
+    public int reconcile(LocalDate today, int batchSize, int maxBatches) {
+        int refreshed = 0;
+        // Keyset pada userId: user yang terus gagal tetap basi, tetapi batch
+        // berikutnya melompatinya dan tidak membaca halaman yang sama lagi
+        UUID lastSeen = null;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            PageRequest page = PageRequest.of(0, batchSize);
+            List<UUID> userIds = lastSeen == null
+                    ? userStatsRepository.findStaleUserIds(today, page)
+                    : userStatsRepository.findStaleUserIdsAfter(today, lastSeen, page);
+            if (userIds.isEmpty()) break;
+            lastSeen = userIds.get(userIds.size() - 1);
+
+            for (UUID userId : userIds) {
+                try {
+                    writePlantStats(userId, today);
+                    refreshed++;
+                } catch (RuntimeException e) {
+                    log.warn("Gagal rekonsiliasi statistik user {}: {}", userId, e.getMessage());
+                }
+            }
+            if (userIds.size() < batchSize) break;
+        }
+        return refreshed;
+    }
+
+    private void writePlantStats(UUID userId, LocalDate today) {
+        PlantStats plantStats = computePlantStats(userId, today);
+        // Baris belum ada (dashboard belum pernah dibuka): tidak perlu apa-apa,
+        // getStats akan menghitung lengkap saat pertama kali dibaca
+        userStatsRepository.updatePlantStats(userId, plantStats.getTotalPlants(), plantStats.getNeedsWater(),
+                plantStats.getWellWatered(), plantStats.getUniqueSpecies(), today, LocalDateTime.now());
+    }
+
+    private PlantStats computePlantStats(UUID userId, LocalDate today) {
+        PlantStats plantStats = plantRepository.getPlantStats(userId, today);
+        return plantStats != null ? plantStats : PlantStats.empty();
+    }
+
+    private void applyPlantStats(UserStats stats, PlantStats plantStats, LocalDate today) {
+        stats.setTotalPlants(plantStats.getTotalPlants());
+        stats.setNeedsWater(plantStats.getNeedsWater());
+        stats.setWellWatered(plantStats.getWellWatered());
+        stats.setUniqueSpecies(plantStats.getUniqueSpecies());
+        stats.setComputedOn(today);
+    }
+
+    private void save(UserStats stats) {
+        try {
+            userStatsRepository.save(stats);
+        } catch (RuntimeException e) {
+            // Mis. dua request pertama bersamaan; angka yang dihitung tetap dipakai
+            log.debug("Statistik user {} tidak tersimpan: {}", stats.getUserId(), e.getMessage());
+        }
+    }
+
+    // Jika update gagal, hapus baris agar dihitung ulang lengkap saat dibaca
+    private void evict(UUID userId, RuntimeException cause) {
+        log.warn("Gagal memperbarui statistik user {}: {}", userId, cause.getMessage());
+        try {
+            userStatsRepository.deleteById(userId);
+        } catch (RuntimeException ignored) {}
+    }
+
+    private DashboardStats toDashboardStats(UserStats stats) {
+        PlantStats plantStats = new PlantStats(stats.getTotalPlants(), stats.getNeedsWater(),
+                stats.getWellWatered(), stats.getUniqueSpecies());
+        return new DashboardStats(plantStats, stats.getSickLogs(), stats.getSchedules());
+    }
+}
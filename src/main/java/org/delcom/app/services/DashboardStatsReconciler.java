@@ -0,0 +1,41 @@
+package org.delcom.app.services;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job harian yang memperbarui jumlah "perlu disiram" di user_stats. Angka itu
+ * berubah karena tanggal berganti, bukan karena data diubah, sehingga tidak
+ * tertangkap oleh refresh di service.
+ */
+@Component
+public class DashboardStatsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsReconciler.class);
+
+    private final DashboardService dashboardService;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public DashboardStatsReconciler(DashboardService dashboardService,
+            @Value("${app.stats.reconcile.batch-size:200}") int batchSize,
+            @Value("${app.stats.reconcile.max-batches:500}") int maxBatches) {
+        this.dashboardService = dashboardService;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${app.stats.reconcile.cron:0 5 0 * * *}")
+    public int reconcile() {
+        int refreshed = dashboardService.reconcile(LocalDate.now(), batchSize, maxBatches);
+        if (refreshed > 0) {
+            log.info("DashboardStatsReconciler: statistik {} user diperbarui", refreshed);
+        }
+        return refreshed;
+    }
+}
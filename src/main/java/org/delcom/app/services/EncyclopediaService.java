@@ -6,24 +6,22 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.*;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class EncyclopediaService {
 
     private final EncyclopediaRepository repository;
-    private final String UPLOAD_DIR = "./uploads/";
+    private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final SearchService searchService;
 
-    public EncyclopediaService(EncyclopediaRepository repository) {
+    public EncyclopediaService(EncyclopediaRepository repository, FileStorageService fileStorageService,
+                               ImageVariantService imageVariantService, SearchService searchService) {
         this.repository = repository;
-        createUploadDir();
-    }
-
-    private void createUploadDir() {
-        try { Files.createDirectories(Paths.get(UPLOAD_DIR)); } 
-        catch (IOException e) { e.printStackTrace(); }
+        this.fileStorageService = fileStorageService;
+        this.imageVariantService = imageVariantService;
+        this.searchService = searchService;
     }
 
     public List<Encyclopedia> getAllEntries() { return repository.findAll(); }
@@ -31,29 +29,41 @@ public class EncyclopediaService {
     public Encyclopedia getEntryById(Long id) { return repository.findById(id).orElse(null); }
 
     public void saveEntry(Encyclopedia entry, MultipartFile file) throws IOException {
+        // Gambar lama diambil dari database, bukan dari field hidden di form
+        String previousImage = entry.getId() == null ? null
+                : repository.findById(entry.getId()).map(Encyclopedia::getImagePath).orElse(null);
+        String storedImage = null;
         if (file != null && !file.isEmpty()) {
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path filePath = Paths.get(UPLOAD_DIR + fileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            
-            // Hapus gambar lama saat edit
-            if (entry.getImagePath() != null && !entry.getImagePath().isEmpty()) {
-                try { Files.deleteIfExists(Paths.get(UPLOAD_DIR + entry.getImagePath())); } 
-                catch (Exception ignored) {}
-            }
-            entry.setImagePath(fileName);
+            storedImage = fileStorageService.storeImage(file).getFilename();
+            entry.setImagePath(storedImage);
+        } else {
+            entry.setImagePath(previousImage);
+        }
+        try {
+            repository.save(entry);
+        } catch (RuntimeException e) {
+            if (storedImage != null) fileStorageService.releaseFile(storedImage);
+            throw e;
         }
-        repository.save(entry);
+        // Lepas gambar lama saat edit
+        if (storedImage != null && previousImage != null && !previousImage.isEmpty()) {
+            fileStorageService.releaseFile(previousImage);
+        }
+        if (storedImage != null) {
+            // Thumbnail dibuat di background, tidak menahan request
+            imageVariantService.generateAsync(storedImage);
+        }
+        searchService.indexEncyclopedia(entry);
     }
 
     public void deleteEntry(Long id) {
         Encyclopedia entry = getEntryById(id);
         if (entry != null) {
+            repository.deleteById(id);
+            searchService.removeEncyclopedia(id);
             if (entry.getImagePath() != null) {
-                try { Files.deleteIfExists(Paths.get(UPLOAD_DIR + entry.getImagePath())); } 
-                catch (Exception ignored) {}
+                fileStorageService.releaseFile(entry.getImagePath());
             }
-            repository.deleteById(id);
         }
     }
 }
\ No newline at end of file
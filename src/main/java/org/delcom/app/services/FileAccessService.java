@@ -0,0 +1,38 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.EncyclopediaRepository;
+import org.delcom.app.repositories.PlantHealthRepository;
+import org.delcom.app.repositories.PlantRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Menentukan siapa yang boleh mengunduh file upload. Foto tanaman & log
+ * kesehatan hanya untuk pemiliknya; foto ensiklopedia untuk semua user.
+ * File yang sama (content-addressed) boleh dibaca siapa pun yang memakainya.
+ */
+@Service
+public class FileAccessService {
+    private final PlantRepository plantRepository;
+    private final PlantHealthRepository plantHealthRepository;
+    private final EncyclopediaRepository encyclopediaRepository;
+
+    public FileAccessService(PlantRepository plantRepository, PlantHealthRepository plantHealthRepository,
+                             EncyclopediaRepository encyclopediaRepository) {
+        this.plantRepository = plantRepository;
+        this.plantHealthRepository = plantHealthRepository;
+        this.encyclopediaRepository = encyclopediaRepository;
+    }
+
+    public boolean canRead(User user, String path) {
+        if (path == null || path.isEmpty()) {
+            return false;
+        }
+        if (user != null && user.getId() != null
+                && (plantRepository.existsByUserAndImagePath(user, path)
+                    || plantHealthRepository.existsByUserAndImagePath(user, path))) {
+            return true;
+        }
+        return encyclopediaRepository.existsByImagePath(path);
+    }
+}
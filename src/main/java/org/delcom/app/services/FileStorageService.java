@@ -1,53 +1,294 @@
 package org.delcom.app.services;
 
+import org.delcom.app.entities.UploadBlob;
+import org.delcom.app.repositories.UploadBlobRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
+/**
+ * Satu-satunya jalur penyimpanan file upload. Gambar di-stream dari request
+ * ke file sementara di folder upload sambil dicek ukurannya dan di-hash,
+ * lalu dipindahkan ke nama akhirnya secara atomik. Jenis file ditentukan dari
+ * magic bytes di blok pertama, bukan dari nama atau Content-Type kiriman klien.
+ *
+ * Gambar disimpan berdasarkan isi (content-addressed): path-nya
+ * "ab/cd/&lt;sha256&gt;.ext", sehingga foto yang sama hanya tersimpan sekali.
+ * Pemakaian dihitung di tabel upload_blobs; pemanggil wajib memanggil
+ * releaseFile untuk setiap path yang tidak dipakai lagi.
+ */
 @Service
 public class FileStorageService {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int LOCK_STRIPES = 64;
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}");
+
     @Value("${app.upload.dir:./uploads}")
     protected String uploadDir;
 
-    public String storeFile(MultipartFile file, UUID todoId) throws IOException {
-        // Buat directory jika belum ada
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+    @Value("${app.upload.max-image-bytes:5242880}")
+    protected long maxImageBytes = 5L * 1024 * 1024;
+
+    private final UploadBlobRepository blobRepository;
+
+    // Simpan/lepas untuk hash yang sama harus berurutan: jangan sampai file
+    // dihapus tepat setelah upload lain memutuskan untuk memakainya ulang.
+    // ReentrantLock, bukan synchronized: di dalamnya ada I/O file & query,
+    // dan virtual thread yang blocking di dalam synchronized menahan carrier-nya
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public FileStorageService(UploadBlobRepository blobRepository) {
+        this.blobRepository = blobRepository;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Simpan gambar secara content-addressed dan tambah hitungan pemakainya.
+     * Jika isi yang sama sudah ada, file baru dibuang dan path lama dipakai.
+     */
+    public StoredFile storeImage(MultipartFile file) throws IOException {
+        Path uploadPath = getUploadPath();
+        return storeContentAddressed(receive(file, uploadPath), uploadPath);
+    }
+
+    /**
+     * Sama seperti storeImage(MultipartFile) untuk gambar yang tidak datang
+     * dari request (mis. gambar placeholder BulkDataSeeder).
+     */
+    public StoredFile storeImage(InputStream in) throws IOException {
+        Path uploadPath = getUploadPath();
+        return storeContentAddressed(receive(in, uploadPath), uploadPath);
+    }
+
+    private StoredFile storeContentAddressed(TempUpload upload, Path uploadPath) throws IOException {
+        try {
+            String relative = blobPath(upload.sha256(), upload.type());
+            Path target = uploadPath.resolve(relative);
+            ReentrantLock lock = lockFor(upload.sha256());
+            lock.lock();
+            try {
+                if (!Files.exists(target)) {
+                    Files.createDirectories(target.getParent());
+                    moveIntoPlace(upload.temp(), target);
+                }
+                acquire(upload, relative);
+            } finally {
+                lock.unlock();
+            }
+            return new StoredFile(relative, upload.size(), upload.sha256(), upload.type());
+        } finally {
+            Files.deleteIfExists(upload.temp());
         }
+    }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+    /**
+     * Simpan gambar sebagai baseName + ekstensi sesuai jenisnya, di luar
+     * penyimpanan content-addressed (tanpa hitungan pemakai). Melempar
+     * UploadRejectedException jika kosong, terlalu besar, atau bukan gambar;
+     * dalam kasus itu tidak ada file yang tertinggal di folder upload.
+     */
+    public StoredFile storeImage(MultipartFile file, String baseName) throws IOException {
+        Path uploadPath = getUploadPath();
+        TempUpload upload = receive(file, uploadPath);
+        try {
+            String filename = baseName + "." + upload.type().getExtension();
+            moveIntoPlace(upload.temp(), uploadPath.resolve(filename));
+            return new StoredFile(filename, upload.size(), upload.sha256(), upload.type());
+        } finally {
+            // Sukses: temp sudah dipindah. Gagal: jangan tinggalkan sisa di disk
+            Files.deleteIfExists(upload.temp());
         }
+    }
 
-        String filename = "cover_" + todoId.toString() + fileExtension;
+    /**
+     * Lepas satu pemakaian path hasil storeImage. File dihapus dari disk
+     * hanya jika tidak ada lagi yang memakainya. Path lama (sebelum
+     * content-addressed) yang tidak tercatat langsung dihapus seperti dulu.
+     */
+    public boolean releaseFile(String path) {
+        String sha256 = blobHash(path);
+        if (sha256 == null || !blobRepository.existsById(sha256)) {
+            return deleteWithVariants(path);
+        }
+        ReentrantLock lock = lockFor(sha256);
+        lock.lock();
+        try {
+            blobRepository.decrementRefCount(sha256);
+            if (blobRepository.deleteIfUnreferenced(sha256) > 0) {
+                deleteWithVariants(path);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
 
-        // Simpan file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    private void acquire(TempUpload upload, String relative) {
+        if (blobRepository.incrementRefCount(upload.sha256()) > 0) {
+            return;
+        }
+        try {
+            blobRepository.save(new UploadBlob(upload.sha256(), relative, upload.size(), upload.type().getContentType()));
+        } catch (DataIntegrityViolationException e) {
+            // Instance lain baru saja mencatat hash yang sama
+            blobRepository.incrementRefCount(upload.sha256());
+        }
+    }
+
+    private TempUpload receive(MultipartFile file, Path uploadPath) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new UploadRejectedException("File kosong");
+        }
+        // Tolak sebelum membaca satu byte pun jika ukuran yang dilaporkan sudah melebihi batas
+        if (file.getSize() > maxImageBytes) {
+            throw new UploadRejectedException("Ukuran file melebihi batas " + (maxImageBytes / 1024) + " KB");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return receive(in, uploadPath);
+        }
+    }
+
+    private TempUpload receive(InputStream in, Path uploadPath) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read = in.readNBytes(buffer, 0, buffer.length);
+
+        ImageType type = ImageType.sniff(buffer, read);
+        if (type == null) {
+            throw new UploadRejectedException("Format file tidak didukung (hanya JPEG, PNG, GIF, WebP)");
+        }
+
+        MessageDigest digest = sha256();
+        long size = 0;
+        Path temp = Files.createTempFile(uploadPath, ".upload-", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            while (read > 0) {
+                size += read;
+                if (size > maxImageBytes) {
+                    throw new UploadRejectedException("Ukuran file melebihi batas " + (maxImageBytes / 1024) + " KB");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+                read = in.read(buffer);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return new TempUpload(temp, size, HexFormat.of().formatHex(digest.digest()), type);
+    }
+
+    // "ab/cd/abcd...ef.png": dua tingkat subfolder agar tidak ada folder raksasa
+    static String blobPath(String sha256, ImageType type) {
+        return blobPath(sha256, type.getExtension());
+    }
+
+    // Path "ab/cd/<sha256>.ext" (termasuk varian "<sha256>.thumb.jpg") isinya
+    // tidak pernah berubah, jadi aman di-cache selamanya
+    public static boolean isContentAddressed(String path) {
+        return blobHash(path) != null;
+    }
+
+    // Hash dari path content-addressed, atau null untuk path lama/URL luar
+    static String blobHash(String path) {
+        if (path == null) {
+            return null;
+        }
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        String hash = dot < 0 ? name : name.substring(0, dot);
+        return BLOB_NAME.matcher(hash).matches() && path.equals(blobPath(hash, name.substring(dot + 1))) ? hash : null;
+    }
+
+    private static String blobPath(String sha256, String extension) {
+        return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + "." + extension;
+    }
 
-        return filename;
+    private ReentrantLock lockFor(String sha256) {
+        return locks[Integer.parseInt(sha256.substring(0, 2), 16) % locks.length];
+    }
+
+    private void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    private Path getUploadPath() throws IOException {
+        Path uploadPath = Paths.get(uploadDir);
+        if (!Files.exists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+        }
+        return uploadPath;
+    }
+
+    public String storeFile(MultipartFile file, UUID todoId) throws IOException {
+        return storeImage(file, "cover_" + todoId.toString()).getFilename();
     }
 
     public boolean deleteFile(String filename) {
+        Path filePath = resolveFile(filename);
+        if (filePath == null) {
+            return false;
+        }
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
             return Files.deleteIfExists(filePath);
         } catch (IOException e) {
             return false;
         }
     }
 
+    /**
+     * Path di dalam folder upload untuk nama file kiriman luar, atau null jika
+     * kosong atau keluar dari folder upload (mis. "../x").
+     */
+    public Path resolveFile(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            return null;
+        }
+        Path base = Paths.get(uploadDir).normalize();
+        Path filePath = base.resolve(filename).normalize();
+        return filePath.startsWith(base) ? filePath : null;
+    }
+
+    // Hapus file asli beserta thumbnail/varian yang dibuat dari file tersebut
+    private boolean deleteWithVariants(String path) {
+        boolean deleted = deleteFile(path);
+        if (ImageVariantService.isSupported(path)) {
+            for (ImageVariantService.Variant variant : ImageVariantService.Variant.values()) {
+                deleteFile(ImageVariantService.variantPath(path, variant));
+            }
+        }
+        return deleted;
+    }
+
     public Path loadFile(String filename) {
         return Paths.get(uploadDir).resolve(filename);
     }
@@ -55,4 +296,74 @@ public class FileStorageService {
     public boolean fileExists(String filename) {
         return Files.exists(loadFile(filename));
     }
+
+    public String getUploadDir() {
+        return uploadDir;
+    }
+
+    public enum ImageType {
+        JPEG("jpg", "image/jpeg"),
+        PNG("png", "image/png"),
+        GIF("gif", "image/gif"),
+        WEBP("webp", "image/webp");
+
+        private final String extension;
+        private final String contentType;
+
+        ImageType(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() { return extension; }
+        public String getContentType() { return contentType; }
+
+        // Kenali jenis gambar dari byte awal file
+        public static ImageType sniff(byte[] head, int length) {
+            if (startsWith(head, length, 0xFF, 0xD8, 0xFF)) return JPEG;
+            if (startsWith(head, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return PNG;
+            if (startsWith(head, length, 'G', 'I', 'F', '8')) return GIF;
+            if (length >= 12 && startsWith(head, length, 'R', 'I', 'F', 'F')
+                    && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return WEBP;
+            return null;
+        }
+
+        private static boolean startsWith(byte[] head, int length, int... magic) {
+            if (length < magic.length) return false;
+            for (int i = 0; i < magic.length; i++) {
+                if ((head[i] & 0xFF) != magic[i]) return false;
+            }
+            return true;
+        }
+    }
+
+    // File sementara yang sudah lolos validasi, belum dipindah ke tempatnya
+    private record TempUpload(Path temp, long size, String sha256, ImageType type) {}
+
+    // Hasil upload yang berhasil disimpan
+    public static class StoredFile {
+        private final String filename;
+        private final long size;
+        private final String sha256;
+        private final ImageType type;
+
+        public StoredFile(String filename, long size, String sha256, ImageType type) {
+            this.filename = filename;
+            this.size = size;
+            this.sha256 = sha256;
+            this.type = type;
+        }
+
+        public String getFilename() { return filename; }
+        public long getSize() { return size; }
+        public String getSha256() { return sha256; }
+        public ImageType getType() { return type; }
+    }
+
+    // Upload ditolak karena isinya, bukan karena gangguan I/O
+    public static class UploadRejectedException extends IOException {
+        public UploadRejectedException(String message) {
+            super(message);
+        }
+    }
 }
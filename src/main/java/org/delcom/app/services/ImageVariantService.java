@@ -0,0 +1,278 @@
+package org.delcom.app.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Membuat versi kecil (thumbnail & medium) dari gambar upload di pool thread
+ * tersendiri, disimpan di samping file aslinya sebagai "&lt;nama&gt;.thumb.jpg"
+ * dan "&lt;nama&gt;.medium.jpg". Selama varian belum ada, /media/** mengarahkan
+ * ke file asli dan menjadwalkan pembuatannya.
+ */
+@Service
+public class ImageVariantService {
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor executor;
+    private final float jpegQuality;
+
+    // Path yang sedang/akan diproses, agar satu halaman berisi banyak kartu
+    // yang sama tidak mengantrekan pekerjaan berulang
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(FileStorageService fileStorageService,
+            @Value("${app.images.variants.pool-size:1}") int poolSize,
+            @Value("${app.images.variants.queue-capacity:200}") int queueCapacity,
+            @Value("${app.images.variants.jpeg-quality:0.8}") float jpegQuality) {
+        this.fileStorageService = fileStorageService;
+        this.jpegQuality = jpegQuality;
+
+        // Tetap platform thread walau spring.threads.virtual.enabled: resize
+        // gambar murni CPU, dan pool kecil ini yang membatasi pemakaian CPU-nya
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Jadwalkan pembuatan varian tanpa menunggu hasilnya. Jika antrean penuh
+     * permintaan dibuang; varian akan dijadwalkan lagi saat pertama diminta.
+     */
+    public void generateAsync(String path) {
+        if (!isSupported(path) || !pending.add(path)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(path);
+                } finally {
+                    pending.remove(path);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(path);
+            log.debug("ImageVariantService: antrean penuh, {} dilewati", path);
+        }
+    }
+
+    // Buat semua varian yang belum ada untuk satu gambar (blocking)
+    public void generate(String path) {
+        Path original = fileStorageService.resolveFile(path);
+        if (original == null || !Files.isRegularFile(original)) {
+            return;
+        }
+        List<Variant> missing = new ArrayList<>();
+        for (Variant variant : Variant.values()) {
+            if (!Files.exists(fileStorageService.resolveFile(variantPath(path, variant)))) {
+                missing.add(variant);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        try {
+            int largest = missing.stream().mapToInt(Variant::getWidth).max().getAsInt();
+            BufferedImage source = read(original, largest);
+            if (source == null) {
+                return;
+            }
+            for (Variant variant : missing) {
+                BufferedImage scaled = scaleToWidth(source, variant.getWidth());
+                write(scaled, fileStorageService.resolveFile(variantPath(path, variant)));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("ImageVariantService: gagal membuat varian untuk {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * File varian yang sudah jadi, atau null jika belum ada (pemanggil
+     * sebaiknya memakai file asli dan memanggil generateAsync).
+     */
+    public Path findVariant(String path, Variant variant) {
+        if (!isSupported(path)) {
+            return null;
+        }
+        Path file = fileStorageService.resolveFile(variantPath(path, variant));
+        return file != null && Files.isRegularFile(file) ? file : null;
+    }
+
+    // Hanya JPEG & PNG: GIF bisa animasi, WebP tidak dibaca ImageIO bawaan
+    public static boolean isSupported(String path) {
+        if (path == null || path.isEmpty() || path.contains("://")) {
+            return false;
+        }
+        String lower = path.toLowerCase(Locale.ROOT);
+        for (Variant variant : Variant.values()) {
+            if (lower.endsWith("." + variant.getSlug() + ".jpg")) {
+                return false;
+            }
+        }
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+    }
+
+    // "ab/cd/hash.png" -> "ab/cd/hash.thumb.jpg"
+    public static String variantPath(String path, Variant variant) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        String base = dot > slash ? path.substring(0, dot) : path;
+        return base + "." + variant.getSlug() + ".jpg";
+    }
+
+    // Decode dengan subsampling agar foto 6000px tidak dimuat penuh ke memori
+    private BufferedImage read(Path original, int targetWidth) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, reader.getWidth(0) / (targetWidth * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Perkecil bertahap (setengah demi setengah) agar hasil tidak pecah;
+    // gambar yang sudah lebih kecil dari target tidak diperbesar
+    static BufferedImage scaleToWidth(BufferedImage source, int targetWidth) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        BufferedImage current = source;
+        do {
+            int nextWidth = Math.max(targetWidth, width / 2);
+            if (width <= targetWidth) {
+                nextWidth = width;
+            }
+            int nextHeight = Math.max(1, (int) Math.round((double) height * nextWidth / width));
+            current = draw(current, nextWidth, nextHeight);
+            width = nextWidth;
+            height = nextHeight;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    // Gambar ulang ke RGB dengan latar putih (JPEG tidak punya transparansi)
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // Tulis ke file sementara lalu pindahkan, agar /media tidak pernah melayani file setengah jadi
+    private void write(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public enum Variant {
+        THUMB("thumb", 320),
+        MEDIUM("medium", 800);
+
+        private final String slug;
+        private final int width;
+
+        Variant(String slug, int width) {
+            this.slug = slug;
+            this.width = width;
+        }
+
+        public String getSlug() { return slug; }
+        public int getWidth() { return width; }
+
+        public static Variant fromSlug(String slug) {
+            for (Variant variant : values()) {
+                if (variant.slug.equals(slug)) {
+                    return variant;
+                }
+            }
+            return null;
+        }
+    }
+}
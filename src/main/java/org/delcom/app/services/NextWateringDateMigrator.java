@@ -0,0 +1,34 @@
+package org.delcom.app.services;
+
+import org.delcom.app.repositories.PlantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Mengisi plants.next_watering_date untuk tanaman yang disimpan sebelum
+ * kolom itu ada. Hanya baris yang masih NULL yang diisi, jadi job ini
+ * idempoten dan tidak melakukan apa-apa setelah startup pertama.
+ */
+@Component
+public class NextWateringDateMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(NextWateringDateMigrator.class);
+
+    private final PlantRepository plantRepository;
+
+    public NextWateringDateMigrator(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    @PostConstruct
+    public int migrate() {
+        int filled = plantRepository.backfillNextWateringDate();
+        if (filled > 0) {
+            log.info("NextWateringDateMigrator: next_watering_date {} tanaman diisi", filled);
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,142 @@
+package org.delcom.app.services;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.configs.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Menjalankan hashing BCrypt di pool thread tersendiri dengan ukuran dan
+ * antrean terbatas, sehingga lonjakan login tidak menghabiskan thread servlet.
+ * Jika pool penuh, encode/matches melempar RejectedExecutionException dan
+ * pemanggil sebaiknya membalas "coba lagi nanti".
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMillis;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    // Kumulatif sejak start; diekspor ke /metrics sebagai persentil
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+            @Value("${app.auth.hashing.pool-size:4}") int poolSize,
+            @Value("${app.auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.auth.hashing.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+
+        // Platform thread juga dalam mode virtual thread: BCrypt murni CPU;
+        // request (virtual) yang menunggu hasilnya tidak menahan thread OS
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    recordLatency(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Hashing password melebihi batas waktu", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing password terinterupsi", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Hashing password gagal", e.getCause());
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        totalLatencyNanos.addAndGet(nanos);
+        latency.recordNanos(nanos);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    public long getTotalLatencyMicros() {
+        return totalLatencyNanos.get() / 1000;
+    }
+
+    public Map<String, Long> getStats() {
+        long done = latency.getCount();
+        return Map.of(
+                "poolSize", (long) executor.getCorePoolSize(),
+                "active", (long) getActiveCount(),
+                "queueDepth", (long) getQueueDepth(),
+                "completed", done,
+                "rejected", rejected.get(),
+                "avgLatencyMicros", done > 0 ? totalLatencyNanos.get() / done / 1000 : 0L,
+                "maxLatencyMicros", latency.getMaxMicros());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
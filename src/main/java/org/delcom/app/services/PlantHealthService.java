@@ -1,54 +1,89 @@
 package org.delcom.app.services;
 
+import org.delcom.app.dto.PageSlice;
 import org.delcom.app.entities.PlantHealth;
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.PlantHealthRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.nio.file.*;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 public class PlantHealthService {
     private final PlantHealthRepository repository;
-    private final String UPLOAD_DIR = "./uploads/";
+    private final DashboardService dashboardService;
+    private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final SearchService searchService;
 
-    public PlantHealthService(PlantHealthRepository repository) {
+    public PlantHealthService(PlantHealthRepository repository, DashboardService dashboardService,
+                              FileStorageService fileStorageService,
+                              ImageVariantService imageVariantService,
+                              SearchService searchService) {
         this.repository = repository;
-        try { Files.createDirectories(Paths.get(UPLOAD_DIR)); } 
-        catch (IOException e) { e.printStackTrace(); }
+        this.dashboardService = dashboardService;
+        this.fileStorageService = fileStorageService;
+        this.imageVariantService = imageVariantService;
+        this.searchService = searchService;
     }
 
     public List<PlantHealth> getLogsByUser(User user) {
         return repository.findByUser(user);
     }
 
+    // Per halaman, urut id; "after" = id log terakhir yang sudah tampil
+    public PageSlice<PlantHealth> getLogsPage(User user, int page, int size, Long after) {
+        if (after != null) {
+            return PageSlice.of(repository.findByUserAndIdGreaterThanOrderByIdAsc(user, after, PageRequest.of(0, size)),
+                    true, log -> String.valueOf(log.getId()));
+        }
+        return PageSlice.of(repository.findByUserOrderByIdAsc(user, PageRequest.of(page, size)),
+                false, log -> String.valueOf(log.getId()));
+    }
+
     public PlantHealth getLogById(Long id) { return repository.findById(id).orElse(null); }
 
     public void saveLog(PlantHealth log, MultipartFile file, User user) throws IOException {
         log.setUser(user); // Set Pemilik
 
+        // Gambar lama diambil dari database, bukan dari field hidden di form
+        String previousImage = log.getId() == null ? null
+                : repository.findById(log.getId()).map(PlantHealth::getImagePath).orElse(null);
+        String storedImage = null;
         if (file != null && !file.isEmpty()) {
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path filePath = Paths.get(UPLOAD_DIR + fileName);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            if (log.getImagePath() != null && !log.getImagePath().isEmpty()) {
-                try { Files.deleteIfExists(Paths.get(UPLOAD_DIR + log.getImagePath())); } catch (Exception ignored) {}
-            }
-            log.setImagePath(fileName);
+            storedImage = fileStorageService.storeImage(file).getFilename();
+            log.setImagePath(storedImage);
+        } else {
+            log.setImagePath(previousImage);
+        }
+        try {
+            repository.save(log);
+        } catch (RuntimeException e) {
+            if (storedImage != null) fileStorageService.releaseFile(storedImage);
+            throw e;
         }
-        repository.save(log);
+        if (storedImage != null && previousImage != null && !previousImage.isEmpty()) {
+            fileStorageService.releaseFile(previousImage);
+        }
+        if (storedImage != null) {
+            // Thumbnail dibuat di background, tidak menahan request
+            imageVariantService.generateAsync(storedImage);
+        }
+        dashboardService.refreshHealthLogs(user);
+        searchService.indexHealthLog(log);
     }
 
     public void deleteLog(Long id) {
         PlantHealth log = getLogById(id);
         if (log != null) {
+            repository.deleteById(id);
             if (log.getImagePath() != null) {
-                try { Files.deleteIfExists(Paths.get(UPLOAD_DIR + log.getImagePath())); } catch (Exception ignored) {}
+                fileStorageService.releaseFile(log.getImagePath());
             }
-            repository.deleteById(id);
+            dashboardService.refreshHealthLogs(log.getUser());
+            searchService.removeHealthLog(log.getUser(), id);
         }
     }
 }
\ No newline at end of file
@@ -1,25 +1,52 @@
     package org.delcom.app.services;
 
+    import org.delcom.app.dto.PageSlice;
+    import org.delcom.app.dto.PlantStats;
+    import org.delcom.app.entities.CareLog;
     import org.delcom.app.entities.Plant;
     import org.delcom.app.entities.User;
     import org.delcom.app.repositories.PlantRepository;
+    import org.springframework.data.domain.PageRequest;
     import org.springframework.stereotype.Service;
     import org.springframework.web.multipart.MultipartFile;
     import java.io.IOException;
-    import java.nio.file.*;
     import java.time.LocalDate;
+    import java.time.LocalDateTime;
+    import java.util.ArrayList;
+    import java.util.Collection;
+    import java.util.LinkedHashSet;
     import java.util.List;
     import java.util.UUID;
 
     @Service
     public class PlantService {
+        // Batas id per statement (daftar IN), jauh di bawah batas parameter JDBC
+        static final int MAX_IDS_PER_STATEMENT = 1000;
+
         private final PlantRepository plantRepository;
-        private final String UPLOAD_DIR = "./uploads/";
+        private final DashboardService dashboardService;
+        private final FileStorageService fileStorageService;
+        private final ImageVariantService imageVariantService;
+        private final CareLogService careLogService;
+        private final WateringBuffer wateringBuffer;
+        private final ScheduleGenerator scheduleGenerator;
+        private final SearchService searchService;
 
-        public PlantService(PlantRepository plantRepository) {
+        public PlantService(PlantRepository plantRepository, DashboardService dashboardService,
+                            FileStorageService fileStorageService,
+                            ImageVariantService imageVariantService,
+                            CareLogService careLogService,
+                            WateringBuffer wateringBuffer,
+                            ScheduleGenerator scheduleGenerator,
+                            SearchService searchService) {
             this.plantRepository = plantRepository;
-            try { Files.createDirectories(Paths.get(UPLOAD_DIR)); } 
-            catch (IOException e) { e.printStackTrace(); }
+            this.dashboardService = dashboardService;
+            this.fileStorageService = fileStorageService;
+            this.imageVariantService = imageVariantService;
+            this.careLogService = careLogService;
+            this.wateringBuffer = wateringBuffer;
+            this.scheduleGenerator = scheduleGenerator;
+            this.searchService = searchService;
         }
 
         // LIST BY USER
@@ -27,40 +54,160 @@
             return plantRepository.findByUser(user);
         }
 
+        // Statistik halaman daftar tanaman, dibaca dari user_stats
+        public PlantStats getPlantStats(User user) {
+            return dashboardService.getStats(user).getPlantStats();
+        }
+
+        // LIST BY USER, PER HALAMAN (urut nama, lalu id)
+        public PageSlice<Plant> getPlantsPage(User user, int page, int size, UUID after) {
+            if (after != null) {
+                Plant anchor = getPlantById(after);
+                if (anchor != null) {
+                    return PageSlice.of(plantRepository.findPageByUserAfter(user, anchor.getName(), anchor.getId(),
+                            PageRequest.of(0, size)), true, p -> p.getId().toString());
+                }
+                // Tanaman acuan sudah dihapus: mulai lagi dari halaman pertama
+                page = 0;
+            }
+            return PageSlice.of(plantRepository.findPageByUser(user, PageRequest.of(page, size)),
+                    false, p -> p.getId().toString());
+        }
+
         public Plant getPlantById(UUID id) { return plantRepository.findById(id).orElse(null); }
 
+        // Jatuh tempo sampai "until" (termasuk yang terlewat), paling mendesak dulu
+        public List<Plant> getDuePlants(User user, LocalDate until, int limit) {
+            if (user == null) return List.of();
+            return plantRepository.findDueByUser(user, until, PageRequest.of(0, limit));
+        }
+
         // SAVE WITH USER
         public void savePlant(Plant plant, MultipartFile file, User user) throws IOException {
             plant.setUser(user); // Set Pemilik
 
+            // Gambar lama diambil dari database, bukan dari field hidden di form
+            String previousImage = plant.getId() == null ? null
+                    : plantRepository.findById(plant.getId()).map(Plant::getImagePath).orElse(null);
+            String storedImage = null;
             if (file != null && !file.isEmpty()) {
-                String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                Path filePath = Paths.get(UPLOAD_DIR + fileName);
-                Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-                if (plant.getImagePath() != null && !plant.getImagePath().isEmpty() && !plant.getImagePath().equals(fileName)) {
-                    try { Files.deleteIfExists(Paths.get(UPLOAD_DIR + plant.getImagePath())); } catch (Exception ignored) {}
-                }
-                plant.setImagePath(fileName);
+                // Validasi jenis & ukuran dilakukan saat streaming; gagal = IOException
+                storedImage = fileStorageService.storeImage(file).getFilename();
+                plant.setImagePath(storedImage);
+            } else {
+                plant.setImagePath(previousImage);
             }
             if (plant.getLastWatered() == null) plant.setLastWatered(LocalDate.now());
-            plantRepository.save(plant);
+            try {
+                plantRepository.save(plant);
+            } catch (RuntimeException e) {
+                if (storedImage != null) fileStorageService.releaseFile(storedImage);
+                throw e;
+            }
+            if (storedImage != null && previousImage != null && !previousImage.isEmpty()) {
+                fileStorageService.releaseFile(previousImage);
+            }
+            if (storedImage != null) {
+                // Thumbnail dibuat di background, tidak menahan request
+                imageVariantService.generateAsync(storedImage);
+            }
+            dashboardService.refreshPlants(user);
+            searchService.indexPlant(plant);
+            // Frekuensi/tanggal siram bisa berubah: jadwal otomatis disusun ulang
+            if (plant.getId() != null) scheduleGenerator.regenerate(List.of(plant.getId()));
         }
 
         public void deletePlant(UUID id) {
             Plant plant = getPlantById(id);
             if (plant != null) {
+                // Jadwal otomatis menunjuk plant_id, jadi dihapus lebih dulu
+                boolean hadSchedules = scheduleGenerator.deleteForPlant(id) > 0;
+                plantRepository.deleteById(id);
+                careLogService.deleteHistory(id);
+                searchService.removePlant(plant.getUser(), id);
+                if (hadSchedules) dashboardService.refreshSchedules(plant.getUser());
                 if (plant.getImagePath() != null) {
-                    try { Files.deleteIfExists(Paths.get(UPLOAD_DIR + plant.getImagePath())); } catch (Exception ignored) {}
+                    fileStorageService.releaseFile(plant.getImagePath());
                 }
-                plantRepository.deleteById(id);
+                dashboardService.refreshPlants(plant.getUser());
             }
         }
 
-        public void waterPlantNow(UUID id) {
-            Plant plant = getPlantById(id);
-            if (plant != null) {
-                plant.setLastWatered(LocalDate.now());
-                plantRepository.save(plant);
+        /**
+         * Siram tanaman milik user dengan satu UPDATE massal per 1000 id, tanpa
+         * memuat entity-nya. Id milik user lain / yang sudah dihapus diabaikan.
+         * Mengembalikan jumlah tanaman yang disiram. Dengan write-behind aktif
+         * hanya kepemilikan yang dicek (SELECT); UPDATE-nya dilakukan WateringBuffer.
+         */
+        public int waterPlants(User user, Collection<UUID> ids) {
+            if (user == null || user.getId() == null || ids == null || ids.isEmpty()) return 0;
+            List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+            if (wateringBuffer.isEnabled()) {
+                List<UUID> owned = new ArrayList<>();
+                for (List<UUID> chunk : chunks(distinct)) {
+                    owned.addAll(plantRepository.findIdsByUserAndIdIn(user.getId(), chunk));
+                }
+                if (wateringBuffer.add(user.getId(), owned, LocalDateTime.now())) return owned.size();
+            }
+            LocalDate today = LocalDate.now();
+            List<UUID> watered = new ArrayList<>();
+            for (List<UUID> chunk : chunks(distinct)) {
+                int updated = plantRepository.updateLastWatered(user.getId(), chunk, today);
+                if (updated == chunk.size()) {
+                    watered.addAll(chunk);
+                } else if (updated > 0) {
+                    // Sebagian bukan milik user: catat riwayat hanya untuk yang benar-benar disiram
+                    watered.addAll(plantRepository.findIdsByUserAndIdIn(user.getId(), chunk));
+                }
+            }
+            afterWatering(user, watered);
+            return watered.size();
+        }
+
+        // Siram semua tanaman user yang sudah waktunya disiram
+        public int waterDuePlants(User user) {
+            if (user == null || user.getId() == null) return 0;
+            LocalDate today = LocalDate.now();
+            List<UUID> due = plantRepository.findDueIdsByUser(user.getId(), today);
+            if (wateringBuffer.isEnabled() && wateringBuffer.add(user.getId(), due, LocalDateTime.now())) {
+                return due.size();
+            }
+            for (List<UUID> chunk : chunks(due)) {
+                plantRepository.updateLastWatered(user.getId(), chunk, today);
+            }
+            afterWatering(user, due);
+            return due.size();
+        }
+
+        // Catat pupuk/ganti pot/siram untuk satu tanaman milik user
+        public boolean logCare(User user, UUID plantId, String activityType, String notes) {
+            if (user == null || user.getId() == null || !CareLog.isKnownActivity(activityType)) return false;
+            if (CareLog.WATERING.equals(activityType)) {
+                return waterPlants(user, List.of(plantId)) > 0;
+            }
+            if (!plantRepository.existsByIdAndUserId(plantId, user.getId())) return false;
+            careLogService.record(plantId, activityType, notes);
+            return true;
+        }
+
+        // Riwayat perawatan setahun terakhir, terbaru dulu
+        public List<CareLog> getCareHistory(UUID plantId, int limit) {
+            LocalDateTime now = LocalDateTime.now();
+            return careLogService.getHistory(plantId, now.minusYears(1), now.plusMinutes(1), limit);
+        }
+
+        private void afterWatering(User user, List<UUID> watered) {
+            if (watered.isEmpty()) return;
+            careLogService.recordAll(watered, CareLog.WATERING, null);
+            dashboardService.refreshPlants(user);
+            scheduleGenerator.regenerate(watered);
+        }
+
+        static List<List<UUID>> chunks(List<UUID> ids) {
+            List<List<UUID>> chunks = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+                chunks.add(ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT)));
             }
+            return chunks;
         }
     }
\ No newline at end of file
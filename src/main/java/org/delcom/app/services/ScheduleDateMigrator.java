@@ -0,0 +1,119 @@
+package org.delcom.app.services;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Memindahkan tanggal jadwal lama (kolom teks "date") ke kolom schedule_date
+ * bertipe DATE. Teks yang bisa dibaca sebagai tanggal diubah; sisanya
+ * (mis. "Besok Pagi") disimpan di date_note. Baris yang sudah dipindahkan
+ * dikosongkan kolom lamanya, jadi job ini idempoten dan berhenti sendiri.
+ * Kolom lama tidak di-drop (ddl-auto=update tidak menghapus kolom).
+ */
+@Component
+public class ScheduleDateMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleDateMigrator.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Locale INDONESIAN = Locale.forLanguageTag("id");
+
+    // Format yang dicoba berurutan; contoh placeholder di form lama: "12 Des 2024"
+    private static final List<DateTimeFormatter> FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            pattern("d/M/uuuu", Locale.ROOT),
+            pattern("d-M-uuuu", Locale.ROOT),
+            pattern("d MMM uuuu", INDONESIAN),
+            pattern("d MMMM uuuu", INDONESIAN),
+            pattern("d MMM uuuu", Locale.ENGLISH),
+            pattern("d MMMM uuuu", Locale.ENGLISH));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScheduleDateMigrator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public int migrate() {
+        if (!hasLegacyColumn()) {
+            return 0;
+        }
+        int migrated = 0;
+        List<Object[]> rows;
+        do {
+            rows = jdbcTemplate.query("SELECT id, date FROM schedules WHERE date IS NOT NULL LIMIT ?",
+                    (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getString(2) }, BATCH_SIZE);
+            jdbcTemplate.batchUpdate("UPDATE schedules SET schedule_date = ?, date_note = ?, date = NULL WHERE id = ?",
+                    rows, rows.size(), (ps, row) -> {
+                        String text = (String) row[1];
+                        LocalDate date = parseLegacyDate(text);
+                        ps.setDate(1, date != null ? Date.valueOf(date) : null);
+                        ps.setString(2, date != null ? null : text);
+                        ps.setLong(3, (Long) row[0]);
+                    });
+            migrated += rows.size();
+        } while (rows.size() == BATCH_SIZE);
+        if (migrated > 0) {
+            log.info("ScheduleDateMigrator: tanggal {} jadwal dipindahkan ke schedule_date", migrated);
+        }
+        return migrated;
+    }
+
+    static LocalDate parseLegacyDate(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String value = text.strip();
+        for (DateTimeFormatter format : FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                // coba format berikutnya
+            }
+        }
+        try {
+            return LocalDateTime.parse(value).toLocalDate();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private boolean hasLegacyColumn() {
+        Boolean exists = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            return hasColumn(metaData, "schedules", "date") || hasColumn(metaData, "SCHEDULES", "DATE");
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private static boolean hasColumn(DatabaseMetaData metaData, String table, String column) throws SQLException {
+        try (ResultSet columns = metaData.getColumns(null, null, table, column)) {
+            return columns.next();
+        }
+    }
+
+    private static DateTimeFormatter pattern(String pattern, Locale locale) {
+        // STRICT: "31/02/2024" tidak digeser menjadi 29 Februari, tapi masuk date_note
+        return new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(pattern).toFormatter(locale)
+                .withResolverStyle(ResolverStyle.STRICT);
+    }
+}
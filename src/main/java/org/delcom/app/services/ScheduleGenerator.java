@@ -0,0 +1,169 @@
+package org.delcom.app.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.dto.PlantRecurrence;
+import org.delcom.app.repositories.GeneratedScheduleRepository;
+import org.delcom.app.repositories.GeneratedScheduleRepository.Occurrence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Membuat jadwal "Siram" dari frekuensi siram tiap tanaman, hanya sampai
+ * horizon-days ke depan (tidak bertahun-tahun). Batas yang sudah dibuat
+ * disimpan di plants.schedules_generated_until, sehingga:
+ * - tanaman berubah (disimpan/disiram): jadwal otomatis mulai hari ini dibuat ulang (regenerate)
+ * - job harian: horizon digeser, hanya hari-hari baru yang ditambahkan (extendAll)
+ * - halaman Jadwal dibuka: tanaman user yang tertinggal dilengkapi dulu (ensureGenerated);
+ *   untuk rentang kalender sesudah horizon, dilengkapi sampai akhir rentang itu
+ *   (paling jauh max-ahead-days ke depan)
+ * Semua insert memakai batch JDBC, per batch tanaman dalam satu transaksi.
+ * Transaksi itu mengunci baris tanaman (FOR UPDATE) dan membaca ulang
+ * batasnya, jadi regenerate/extend bersamaan untuk tanaman yang sama
+ * (klik "Siram" dua kali, job harian vs simpan) berjalan bergantian.
+ */
+@Component
+public class ScheduleGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleGenerator.class);
+
+    private final GeneratedScheduleRepository repository;
+    private final DashboardService dashboardService;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int maxAheadDays;
+    private final int batchSize;
+
+    public ScheduleGenerator(GeneratedScheduleRepository repository, DashboardService dashboardService,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.schedule.generate.horizon-days:30}") int horizonDays,
+            @Value("${app.schedule.generate.max-ahead-days:366}") int maxAheadDays,
+            @Value("${app.schedule.generate.batch-size:500}") int batchSize) {
+        this.repository = repository;
+        this.dashboardService = dashboardService;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonDays = Math.max(1, horizonDays);
+        this.maxAheadDays = Math.max(this.horizonDays, maxAheadDays);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @PostConstruct
+    public void createIndexes() {
+        int removed = repository.ensureUniqueIndex();
+        if (removed > 0) {
+            log.warn("ScheduleGenerator: {} jadwal siram ganda dihapus", removed);
+        }
+    }
+
+    @Scheduled(cron = "${app.schedule.generate.cron:0 0 1 * * *}")
+    public int extendAll() {
+        int created = extend(LocalDate.now());
+        if (created > 0) {
+            log.info("ScheduleGenerator: {} jadwal siram dibuat", created);
+        }
+        return created;
+    }
+
+    int extend(LocalDate today) {
+        LocalDate until = today.plusDays(horizonDays);
+        int created = 0;
+        UUID after = null;
+        List<PlantRecurrence> batch;
+        do {
+            batch = repository.findBehind(until, after, batchSize);
+            if (batch.isEmpty()) break;
+            created += write(plantIds(batch), today, until, false);
+            after = batch.get(batch.size() - 1).plantId();
+        } while (batch.size() == batchSize);
+        return created;
+    }
+
+    // Dipanggil sebelum jadwal user ditampilkan; murah jika semuanya sudah sampai horizon
+    public int ensureGenerated(UUID userId) {
+        return ensureGenerated(userId, null);
+    }
+
+    /**
+     * Lengkapi jadwal tanaman user sampai max(until, hari ini + horizon),
+     * dibatasi max-ahead-days; untuk kalender yang dibuka jauh ke depan.
+     */
+    public int ensureGenerated(UUID userId, LocalDate until) {
+        if (userId == null) return 0;
+        LocalDate today = LocalDate.now();
+        LocalDate target = today.plusDays(horizonDays);
+        if (until != null && until.isAfter(target)) {
+            LocalDate max = today.plusDays(maxAheadDays);
+            target = until.isAfter(max) ? max : until;
+        }
+        List<PlantRecurrence> behind = repository.findBehindByUser(userId, target);
+        int created = 0;
+        for (int from = 0; from < behind.size(); from += batchSize) {
+            created += write(plantIds(behind.subList(from, Math.min(behind.size(), from + batchSize))), today,
+                    target, false);
+        }
+        return created;
+    }
+
+    // Tanggal siram tanaman ini berubah: jadwal otomatis mulai hari ini dibuat ulang
+    public int regenerate(Collection<UUID> plantIds) {
+        if (plantIds == null || plantIds.isEmpty()) return 0;
+        LocalDate today = LocalDate.now();
+        int created = 0;
+        for (List<UUID> chunk : PlantService.chunks(new ArrayList<>(new LinkedHashSet<>(plantIds)))) {
+            created += write(chunk, today, today.plusDays(horizonDays), true);
+        }
+        return created;
+    }
+
+    // Sebelum tanaman dihapus: jadwal otomatisnya menunjuk plant_id
+    public int deleteForPlant(UUID plantId) {
+        return repository.deleteByPlant(plantId);
+    }
+
+    private int write(List<UUID> plantIds, LocalDate today, LocalDate until, boolean rebuild) {
+        if (plantIds.isEmpty()) return 0;
+        Set<UUID> users = new LinkedHashSet<>();
+        Integer created = transactionTemplate.execute(status -> {
+            List<UUID> ids = new ArrayList<>(plantIds.size());
+            List<UUID> reset = new ArrayList<>();
+            List<Occurrence> occurrences = new ArrayList<>();
+            // Dibaca setelah dikunci: transaksi lain yang lebih dulu sudah commit
+            for (PlantRecurrence plant : repository.lockRecurrences(plantIds)) {
+                LocalDate generatedUntil = plant.generatedUntil();
+                // Sudah dilengkapi transaksi lain selama menunggu kunci
+                if (!rebuild && generatedUntil != null && !generatedUntil.isBefore(until)) continue;
+                ids.add(plant.plantId());
+                users.add(plant.userId());
+                // Belum pernah dibuat (atau batasnya hilang): bersihkan sisa lama agar tidak dobel
+                boolean fromToday = rebuild || generatedUntil == null;
+                if (fromToday) reset.add(plant.plantId());
+                LocalDate from = fromToday || generatedUntil.isBefore(today) ? today : generatedUntil.plusDays(1);
+                for (LocalDate date : plant.occurrences(from, until)) {
+                    occurrences.add(new Occurrence(date, ScheduleService.WATERING_ACTIVITY, plant));
+                }
+            }
+            repository.deleteFrom(reset, today);
+            if (!occurrences.isEmpty()) repository.insertAll(occurrences);
+            repository.markGeneratedUntil(ids, until);
+            return occurrences.size();
+        });
+        users.forEach(dashboardService::refreshSchedulesById);
+        return created != null ? created : 0;
+    }
+
+    private static List<UUID> plantIds(List<PlantRecurrence> plants) {
+        return plants.stream().map(PlantRecurrence::plantId).toList();
+    }
+}
@@ -1,28 +1,97 @@
 package org.delcom.app.services;
 
+import org.delcom.app.dto.PageSlice;
 import org.delcom.app.entities.Schedule;
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.ScheduleRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
 import java.util.List;
 
 @Service
 public class ScheduleService {
+    public static final String WATERING_ACTIVITY = "Siram";
+    // Cukup untuk tampilan bulan (6 minggu); rentang lebih panjang dipotong
+    public static final int MAX_RANGE_DAYS = 62;
+
     private final ScheduleRepository repository;
+    private final DashboardService dashboardService;
+    private final ScheduleGenerator scheduleGenerator;
 
-    public ScheduleService(ScheduleRepository repository) {
+    public ScheduleService(ScheduleRepository repository, DashboardService dashboardService,
+                           ScheduleGenerator scheduleGenerator) {
         this.repository = repository;
+        this.dashboardService = dashboardService;
+        this.scheduleGenerator = scheduleGenerator;
     }
 
     public List<Schedule> getSchedulesByUser(User user) {
         return repository.findByUser(user);
     }
 
-    public void saveSchedule(Schedule schedule, User user) {
-        schedule.setUser(user);
-        repository.save(schedule);
+    // Per halaman, urut id; "after" = id jadwal terakhir yang sudah tampil
+    public PageSlice<Schedule> getSchedulesPage(User user, int page, int size, Long after) {
+        if (after == null && page == 0 && user != null) {
+            // Jadwal siram otomatis dilengkapi sampai horizon saat halaman pertama dibuka
+            scheduleGenerator.ensureGenerated(user.getId());
+        }
+        if (after != null) {
+            return PageSlice.of(repository.findByUserAndIdGreaterThanOrderByIdAsc(user, after, PageRequest.of(0, size)),
+                    true, s -> String.valueOf(s.getId()));
+        }
+        return PageSlice.of(repository.findByUserOrderByIdAsc(user, PageRequest.of(page, size)),
+                false, s -> String.valueOf(s.getId()));
+    }
+
+    // Jadwal dalam [from, to] (inklusif), urut tanggal; hanya rentang itu yang dibaca
+    public List<Schedule> getSchedulesInRange(User user, LocalDate from, LocalDate to) {
+        if (user == null || from == null || to == null || to.isBefore(from)) return List.of();
+        LocalDate until = rangeEnd(from, to);
+        if (!until.isBefore(LocalDate.now())) {
+            // Rentang sesudah horizon (mis. "berikutnya" di tampilan bulan) ikut dibuat
+            scheduleGenerator.ensureGenerated(user.getId(), until);
+        }
+        return repository.findByUserAndDateBetweenOrderByDateAscIdAsc(user, from, until);
+    }
+
+    // Akhir rentang setelah dibatasi MAX_RANGE_DAYS hari
+    public static LocalDate rangeEnd(LocalDate from, LocalDate to) {
+        LocalDate max = from.plusDays(MAX_RANGE_DAYS - 1);
+        return to.isAfter(max) ? max : to;
+    }
+
+    // Edit: hanya field form (tanggal, tanaman, aktivitas) yang disalin ke baris yang ada,
+    // sehingga plant_id/is_generated/date_note tidak hilang. Jadwal otomatis tidak bisa
+    // diedit (dibuat ulang dari frekuensi siram); hasil false jika ditolak/tidak ditemukan
+    public boolean saveSchedule(Schedule schedule, User user) {
+        Schedule target = schedule;
+        if (schedule.getId() != null) {
+            target = getScheduleById(schedule.getId());
+            if (target == null || target.isGenerated() || !isOwner(target, user)) return false;
+            target.setDate(schedule.getDate());
+            target.setPlantName(schedule.getPlantName());
+            target.setActivity(schedule.getActivity());
+        } else {
+            target.setGenerated(false);
+            target.setPlant(null);
+        }
+        target.setUser(user);
+        repository.save(target);
+        dashboardService.refreshSchedules(user);
+        return true;
+    }
+
+    private static boolean isOwner(Schedule schedule, User user) {
+        return schedule.getUser() == null || user == null
+                || schedule.getUser().getId().equals(user.getId());
     }
 
     public Schedule getScheduleById(Long id) { return repository.findById(id).orElse(null); }
-    public void deleteSchedule(Long id) { repository.deleteById(id); }
+
+    public void deleteSchedule(Long id) {
+        Schedule schedule = getScheduleById(id);
+        repository.deleteById(id);
+        if (schedule != null) dashboardService.refreshSchedules(schedule.getUser());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package org.delcom.app.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.delcom.app.dto.SearchResult;
+import org.delcom.app.utils.IndonesianTokenizer;
+
+/**
+ * Inverted index in-memory untuk satu bagian data (tanaman &amp; catatan
+ * kesehatan satu user, atau ensiklopedia). Setiap kata disimpan dalam bentuk
+ * aslinya dan kata dasarnya; istilah diurutkan (TreeMap) sehingga pencocokan
+ * awalan cukup satu range scan. Awalan hanya untuk kata terakhir kueri (yang
+ * sedang diketik); kata sebelumnya harus utuh atau sama kata dasarnya. Semua
+ * kata kueri harus cocok (AND), skor = bobot field x jenis kecocokan x idf.
+ *
+ * Dokumen diberi nomor slot dan posting disimpan sebagai array primitif,
+ * sehingga pencarian atas ribuan dokumen cocok tidak membuat objek per
+ * dokumen; hanya limit hasil terbaik yang dijadikan SearchResult.
+ */
+public class SearchIndex {
+
+    // Jenis kecocokan: kata sama, kata dasar sama, atau awalan kata
+    static final float EXACT = 1.0f;
+    static final float STEM = 0.8f;
+    static final float PREFIX = 0.5f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // Awalan pendek ("s") bisa cocok ke ribuan istilah; cukup ambil sebagian
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    /** Teks yang diindeks beserta bobotnya (mis. nama lebih penting dari deskripsi). */
+    public record Field(String text, float weight) {
+    }
+
+    private record Document(SearchResult result, Map<String, Float> terms) {
+    }
+
+    // Slot dokumen + bobotnya untuk satu istilah; urutan tidak penting
+    private static final class Posting {
+        private int[] slots = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int slot, float weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Posting> postings = new TreeMap<>();
+    private final Map<String, Integer> slotsByKey = new HashMap<>();
+    // Indeks = slot; null jika slot kosong (dipakai ulang lewat freeSlots)
+    private final List<Document> documents = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+    public static String key(String type, Object id) {
+        return type + ":" + id;
+    }
+
+    // Tambah atau ganti dokumen; result berisi data tampilan (skor diabaikan)
+    public void put(SearchResult result, List<Field> fields) {
+        Map<String, Float> terms = new HashMap<>();
+        for (Field field : fields) {
+            for (String token : IndonesianTokenizer.tokenize(field.text())) {
+                terms.merge(token, field.weight() * EXACT, Float::sum);
+                String stem = IndonesianTokenizer.stem(token);
+                if (!stem.equals(token)) {
+                    terms.merge(stem, field.weight() * STEM, Float::sum);
+                }
+            }
+        }
+        String key = key(result.type(), result.id());
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(key);
+            int slot;
+            if (freeSlots.isEmpty()) {
+                slot = documents.size();
+                documents.add(new Document(result, terms));
+            } else {
+                slot = freeSlots.pop();
+                documents.set(slot, new Document(result, terms));
+            }
+            slotsByKey.put(key, slot);
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new Posting()).add(slot, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String type, Object id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(key(type, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SearchResult> search(List<String> queryTokens, int limit) {
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int count = slotsByKey.size();
+            if (count == 0) {
+                return List.of();
+            }
+            int capacity = documents.size();
+            // Bobot terbaik per slot untuk kata yang sedang diproses, dan slot yang cocok
+            float[] best = new float[capacity];
+            int[] hits = new int[capacity];
+            double[] scores = new double[capacity];
+            int[] candidates = null;
+            int candidateCount = 0;
+
+            int last = queryTokens.size() - 1;
+            for (int i = 0; i <= last; i++) {
+                int matched = matches(queryTokens.get(i), i == last, best, hits);
+                if (matched == 0) {
+                    return List.of();
+                }
+                double idf = Math.log(1 + (double) count / matched);
+                if (candidates == null) {
+                    candidates = Arrays.copyOf(hits, matched);
+                    candidateCount = matched;
+                    for (int slot : candidates) {
+                        scores[slot] = Math.log1p(best[slot]) * idf;
+                    }
+                } else {
+                    // AND: hanya dokumen yang sudah cocok dengan kata sebelumnya
+                    int kept = 0;
+                    for (int c = 0; c < candidateCount; c++) {
+                        int slot = candidates[c];
+                        if (best[slot] > 0) {
+                            scores[slot] += Math.log1p(best[slot]) * idf;
+                            candidates[kept++] = slot;
+                        }
+                    }
+                    candidateCount = kept;
+                }
+                for (int h = 0; h < matched; h++) {
+                    best[hits[h]] = 0;
+                }
+                if (candidateCount == 0) {
+                    return List.of();
+                }
+            }
+            return top(candidates, candidateCount, scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Dipakai SearchService: partisi baru dikunci selama diisi dari database
+    void beginLoad() {
+        lock.writeLock().lock();
+    }
+
+    void endLoad() {
+        lock.writeLock().unlock();
+    }
+
+    // Isi best/hits untuk satu kata kueri; hasil: jumlah dokumen yang cocok
+    private int matches(String token, boolean prefix, float[] best, int[] hits) {
+        int matched = collect(postings.get(token), EXACT, best, hits, 0);
+        String stem = IndonesianTokenizer.stem(token);
+        if (!stem.equals(token)) {
+            matched = collect(postings.get(stem), STEM, best, hits, matched);
+        }
+        if (prefix && token.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (Posting posting : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                if (++expanded > MAX_PREFIX_TERMS) break;
+                matched = collect(posting, PREFIX, best, hits, matched);
+            }
+        }
+        return matched;
+    }
+
+    private static int collect(Posting posting, float factor, float[] best, int[] hits, int matched) {
+        if (posting == null) return matched;
+        for (int i = 0; i < posting.size; i++) {
+            int slot = posting.slots[i];
+            float weight = posting.weights[i] * factor;
+            if (best[slot] == 0) {
+                hits[matched++] = slot;
+                best[slot] = weight;
+            } else if (weight > best[slot]) {
+                best[slot] = weight;
+            }
+        }
+        return matched;
+    }
+
+    // Hanya limit hasil terbaik yang dipilih dan dibuatkan SearchResult. Skor
+    // sama saat memilih: slot lebih kecil (diindeks lebih dulu) menang, supaya
+    // ribuan dokumen bernilai sama tidak perlu dibandingkan judulnya
+    private List<SearchResult> top(int[] candidates, int candidateCount, double[] scores, int limit) {
+        Comparator<Integer> rank = (a, b) -> {
+            int byScore = Double.compare(scores[b], scores[a]);
+            return byScore != 0 ? byScore : Integer.compare(a, b);
+        };
+        // Puncak heap = hasil terburuk yang masih masuk, agar mudah diganti
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, rank.reversed());
+        for (int c = 0; c < candidateCount; c++) {
+            int slot = candidates[c];
+            if (best.size() >= limit && rank.compare(slot, best.peek()) >= 0) continue;
+            best.add(slot);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<SearchResult> results = new ArrayList<>(best.size());
+        for (int slot : best) {
+            results.add(documents.get(slot).result().withScore(scores[slot]));
+        }
+        results.sort(Comparator.comparingDouble(SearchResult::score).reversed()
+                .thenComparing(SearchResult::title, Comparator.nullsLast(Comparator.naturalOrder())));
+        return results;
+    }
+
+    private void removeUnlocked(String key) {
+        Integer slot = slotsByKey.remove(key);
+        if (slot == null) return;
+        Document previous = documents.get(slot);
+        for (String term : previous.terms().keySet()) {
+            Posting posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(slot);
+                if (posting.size == 0) postings.remove(term);
+            }
+        }
+        documents.set(slot, null);
+        freeSlots.push(slot);
+    }
+}
@@ -0,0 +1,234 @@
+package org.delcom.app.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.delcom.app.dto.SearchResult;
+import org.delcom.app.entities.Encyclopedia;
+import org.delcom.app.entities.Plant;
+import org.delcom.app.entities.PlantHealth;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.EncyclopediaRepository;
+import org.delcom.app.repositories.PlantHealthRepository;
+import org.delcom.app.repositories.PlantRepository;
+import org.delcom.app.services.SearchIndex.Field;
+import org.delcom.app.utils.IndonesianTokenizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pencarian teks di tanaman, catatan Plant Doctor dan ensiklopedia memakai
+ * SearchIndex in-process. Index per user baru dibangun dari database saat
+ * user itu pertama kali mencari, lalu diperbarui langsung oleh save/delete
+ * di PlantService, PlantHealthService dan EncyclopediaService. Hanya
+ * max-users index user yang disimpan (LRU); yang terbuang dibangun ulang
+ * saat dibutuhkan.
+ */
+@Service
+public class SearchService {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int SNIPPET_LENGTH = 120;
+
+    // Bobot field: nama/judul > spesies/keluhan > teks panjang
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float KEYWORD_WEIGHT = 2f;
+    private static final float TEXT_WEIGHT = 1f;
+
+    private final PlantRepository plantRepository;
+    private final PlantHealthRepository plantHealthRepository;
+    private final EncyclopediaRepository encyclopediaRepository;
+    private final int maxUsers;
+
+    // accessOrder = true agar index user yang paling lama tidak dipakai dibuang lebih dulu
+    private final LinkedHashMap<UUID, SearchIndex> userIndexes;
+    private SearchIndex encyclopediaIndex;
+
+    private final AtomicLong builds = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SearchService(PlantRepository plantRepository, PlantHealthRepository plantHealthRepository,
+                         EncyclopediaRepository encyclopediaRepository,
+                         @Value("${app.search.max-users:1000}") int maxUsers) {
+        this.plantRepository = plantRepository;
+        this.plantHealthRepository = plantHealthRepository;
+        this.encyclopediaRepository = encyclopediaRepository;
+        this.maxUsers = Math.max(1, maxUsers);
+        this.userIndexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, SearchIndex> eldest) {
+                if (size() > SearchService.this.maxUsers) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Data milik user + ensiklopedia, skor tertinggi dulu
+    public List<SearchResult> search(User user, String query, int limit) {
+        if (user == null || user.getId() == null || query == null) return List.of();
+        String text = query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+        List<String> tokens = IndonesianTokenizer.tokenize(text);
+        if (tokens.isEmpty()) return List.of();
+        int max = Math.max(1, Math.min(MAX_LIMIT, limit));
+
+        List<SearchResult> results = new ArrayList<>(userIndex(user).search(tokens, max));
+        results.addAll(encyclopediaIndex().search(tokens, max));
+        results.sort(Comparator.comparingDouble(SearchResult::score).reversed());
+        return results.size() > max ? results.subList(0, max) : results;
+    }
+
+    // --- Pembaruan dari service: hanya index yang sudah dimuat yang diubah ---
+
+    public void indexPlant(Plant plant) {
+        SearchIndex index = loadedIndex(ownerOf(plant.getUser()));
+        if (index != null && plant.getId() != null) index.put(toResult(plant), fields(plant));
+    }
+
+    public void removePlant(User owner, UUID plantId) {
+        SearchIndex index = loadedIndex(ownerOf(owner));
+        if (index != null) index.remove(SearchResult.PLANT, plantId);
+    }
+
+    public void indexHealthLog(PlantHealth log) {
+        SearchIndex index = loadedIndex(ownerOf(log.getUser()));
+        if (index != null && log.getId() != null) index.put(toResult(log), fields(log));
+    }
+
+    public void removeHealthLog(User owner, Long logId) {
+        SearchIndex index = loadedIndex(ownerOf(owner));
+        if (index != null) index.remove(SearchResult.HEALTH_LOG, logId);
+    }
+
+    public void indexEncyclopedia(Encyclopedia entry) {
+        SearchIndex index = loadedEncyclopediaIndex();
+        if (index != null && entry.getId() != null) index.put(toResult(entry), fields(entry));
+    }
+
+    public void removeEncyclopedia(Long entryId) {
+        SearchIndex index = loadedEncyclopediaIndex();
+        if (index != null) index.remove(SearchResult.ENCYCLOPEDIA, entryId);
+    }
+
+    public int getLoadedUsers() {
+        synchronized (userIndexes) {
+            return userIndexes.size();
+        }
+    }
+
+    public long getBuilds() { return builds.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    private SearchIndex userIndex(User user) {
+        SearchIndex index;
+        synchronized (userIndexes) {
+            index = userIndexes.get(user.getId());
+            if (index != null) return index;
+            // Dikunci sebelum terlihat: pencarian & update lain untuk user ini menunggu sampai terisi
+            index = new SearchIndex();
+            index.beginLoad();
+            userIndexes.put(user.getId(), index);
+        }
+        try {
+            for (Plant plant : plantRepository.findByUser(user)) {
+                index.put(toResult(plant), fields(plant));
+            }
+            for (PlantHealth log : plantHealthRepository.findByUser(user)) {
+                index.put(toResult(log), fields(log));
+            }
+            builds.incrementAndGet();
+        } catch (RuntimeException e) {
+            synchronized (userIndexes) {
+                userIndexes.remove(user.getId(), index);
+            }
+            throw e;
+        } finally {
+            index.endLoad();
+        }
+        return index;
+    }
+
+    private SearchIndex encyclopediaIndex() {
+        SearchIndex index;
+        synchronized (userIndexes) {
+            if (encyclopediaIndex != null) return encyclopediaIndex;
+            index = new SearchIndex();
+            index.beginLoad();
+            encyclopediaIndex = index;
+        }
+        try {
+            for (Encyclopedia entry : encyclopediaRepository.findAll()) {
+                index.put(toResult(entry), fields(entry));
+            }
+            builds.incrementAndGet();
+        } catch (RuntimeException e) {
+            synchronized (userIndexes) {
+                if (encyclopediaIndex == index) encyclopediaIndex = null;
+            }
+            throw e;
+        } finally {
+            index.endLoad();
+        }
+        return index;
+    }
+
+    private SearchIndex loadedIndex(UUID userId) {
+        if (userId == null) return null;
+        synchronized (userIndexes) {
+            return userIndexes.get(userId);
+        }
+    }
+
+    private SearchIndex loadedEncyclopediaIndex() {
+        synchronized (userIndexes) {
+            return encyclopediaIndex;
+        }
+    }
+
+    private static UUID ownerOf(User user) {
+        return user != null ? user.getId() : null;
+    }
+
+    private static SearchResult toResult(Plant plant) {
+        return new SearchResult(SearchResult.PLANT, String.valueOf(plant.getId()), plant.getName(),
+                snippet(plant.getSpecies()), "/plants/" + plant.getId(), 0);
+    }
+
+    private static List<Field> fields(Plant plant) {
+        return List.of(new Field(plant.getName(), TITLE_WEIGHT), new Field(plant.getSpecies(), KEYWORD_WEIGHT),
+                new Field(plant.getDescription(), TEXT_WEIGHT));
+    }
+
+    private static SearchResult toResult(PlantHealth log) {
+        return new SearchResult(SearchResult.HEALTH_LOG, String.valueOf(log.getId()), log.getPlantName(),
+                snippet(log.getIssue()), "/doctor/" + log.getId() + "/edit", 0);
+    }
+
+    private static List<Field> fields(PlantHealth log) {
+        return List.of(new Field(log.getPlantName(), TITLE_WEIGHT), new Field(log.getIssue(), KEYWORD_WEIGHT),
+                new Field(log.getDiagnosis(), TEXT_WEIGHT));
+    }
+
+    private static SearchResult toResult(Encyclopedia entry) {
+        return new SearchResult(SearchResult.ENCYCLOPEDIA, String.valueOf(entry.getId()), entry.getSpecies(),
+                snippet(entry.getDescription()), "/encyclopedia", 0);
+    }
+
+    private static List<Field> fields(Encyclopedia entry) {
+        return List.of(new Field(entry.getSpecies(), TITLE_WEIGHT), new Field(entry.getDescription(), TEXT_WEIGHT),
+                new Field(entry.getCareTips(), TEXT_WEIGHT));
+    }
+
+    private static String snippet(String text) {
+        if (text == null || text.length() <= SNIPPET_LENGTH) return text;
+        return text.substring(0, SNIPPET_LENGTH).stripTrailing() + "...";
+    }
+}
@@ -1,10 +1,13 @@
 package org.delcom.app.services;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,6 +20,25 @@ public class UserService implements UserDetailsService { // <--- PENTING: Implem
     
     private final UserRepository userRepository;
 
+    // Cache singkat user per email untuk halaman MVC (lihat CurrentUserResolver)
+    @Value("${app.auth.principal-cache.ttl-seconds:30}")
+    protected long principalCacheTtlSeconds = 30;
+
+    @Value("${app.auth.principal-cache.max-size:10000}")
+    protected int principalCacheMaxSize = 10000;
+
+    // LRU seperti AuthTokenCache: email yang tidak login lagi tidak menumpuk,
+    // entry kedaluwarsa yang tidak dicari lagi akhirnya terdorong keluar
+    private final LinkedHashMap<String, CachedPrincipal> principalCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+            return size() > principalCacheMaxSize;
+        }
+    };
+
+    private record CachedPrincipal(User user, long expiresAt) {
+    }
+
     public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
     }
@@ -47,6 +69,46 @@ public class UserService implements UserDetailsService { // <--- PENTING: Implem
         return userRepository.findFirstByEmail(email).orElse(null);
     }
 
+    /**
+     * Sama seperti getUserByEmail, tetapi hasilnya disimpan sebentar agar
+     * setiap page view tidak perlu query email. Mengembalikan salinan.
+     */
+    public User getPrincipalUser(String email) {
+        if (email == null) return null;
+
+        long now = System.currentTimeMillis();
+        synchronized (principalCache) {
+            CachedPrincipal cached = principalCache.get(email);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    return new User(cached.user());
+                }
+                principalCache.remove(email);
+            }
+        }
+
+        User user = getUserByEmail(email);
+        if (user != null && principalCacheTtlSeconds > 0 && principalCacheMaxSize > 0) {
+            synchronized (principalCache) {
+                principalCache.put(email, new CachedPrincipal(new User(user), now + principalCacheTtlSeconds * 1000));
+            }
+        }
+        return user;
+    }
+
+    public void evictPrincipal(String email) {
+        if (email == null) return;
+        synchronized (principalCache) {
+            principalCache.remove(email);
+        }
+    }
+
+    public int getPrincipalCacheSize() {
+        synchronized (principalCache) {
+            return principalCache.size();
+        }
+    }
+
     public User getUserById(UUID id) {
         return userRepository.findById(id).orElse(null);
     }
@@ -55,6 +117,8 @@ public class UserService implements UserDetailsService { // <--- PENTING: Implem
     public User updateUser(UUID id, String name, String email) {
         User user = userRepository.findById(id).orElse(null);
         if (user == null) return null;
+        evictPrincipal(user.getEmail()); // email lama
+        evictPrincipal(email);
         user.setName(name);
         user.setEmail(email);
         return userRepository.save(user);
@@ -64,6 +128,7 @@ public class UserService implements UserDetailsService { // <--- PENTING: Implem
     public User updatePassword(UUID id, String newPassword) {
         User user = userRepository.findById(id).orElse(null);
         if (user == null) return null;
+        evictPrincipal(user.getEmail());
         user.setPassword(newPassword);
         return userRepository.save(user);
     }
@@ -0,0 +1,417 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.delcom.app.entities.CareLog;
+import org.delcom.app.repositories.PlantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind untuk penyiraman (app.watering.write-behind.enabled). Klik
+ * "Siram" hanya dicatat di memori dan di journal lokal lalu langsung dijawab;
+ * siraman berulang pada tanaman yang sama digabung (waktu terakhir yang
+ * dipakai). Thread "watering-flush" menyimpan semuanya dalam satu transaksi:
+ * satu UPDATE per (user, tanggal) per 1000 id, setiap flush-interval-ms atau
+ * segera setelah flush-threshold tanaman menunggu.
+ *
+ * Journal: setiap siraman ditambahkan ke segmen aktif (fsync jika
+ * app.watering.write-behind.fsync). Saat flush segmen diganti; segmen lama
+ * baru dihapus setelah transaksinya commit. Saat startup segmen yang
+ * tertinggal (crash) dibaca ulang, jadi siraman yang sudah dijawab tidak
+ * hilang. Jika journal tidak bisa ditulis, add() mengembalikan false dan
+ * pemanggil menyimpan langsung.
+ *
+ * Segmen bisa diputar ulang walaupun batch-nya sudah commit (crash sebelum
+ * segmen terhapus, atau hapus gagal). Karena itu UPDATE hanya memajukan
+ * lastWatered yang lebih lama dari tanggal siraman, dan riwayat, statistik
+ * serta jadwal hanya diperbarui untuk baris yang benar-benar berubah.
+ * Akibatnya siraman kedua di hari yang sama setelah flush tidak dicatat lagi.
+ */
+@Component
+public class WateringBuffer {
+    private static final Logger log = LoggerFactory.getLogger(WateringBuffer.class);
+
+    private static final String SEGMENT_PREFIX = "watering-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private record Key(UUID userId, UUID plantId) {
+    }
+
+    private final PlantRepository plantRepository;
+    private final CareLogService careLogService;
+    private final DashboardService dashboardService;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduleGenerator scheduleGenerator;
+    private final boolean enabled;
+    private final Path journalDir;
+    private final long flushIntervalMillis;
+    private final int flushThreshold;
+    private final boolean fsync;
+
+    // pending, journal & segment hanya diakses dengan lock ini
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<Key, LocalDateTime> pending = new LinkedHashMap<>();
+    private FileChannel journal;
+    private Path segment;
+    private long nextSegment;
+
+    // Hanya diakses di dalam flushLock: segmen tertutup yang isinya belum commit
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final List<Path> closedSegments = new ArrayList<>();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+
+    public WateringBuffer(PlantRepository plantRepository, CareLogService careLogService,
+            DashboardService dashboardService, TransactionTemplate transactionTemplate,
+            ScheduleGenerator scheduleGenerator,
+            @Value("${app.watering.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.watering.write-behind.journal-dir:./data/watering}") String journalDir,
+            @Value("${app.watering.write-behind.flush-interval-ms:1000}") long flushIntervalMillis,
+            @Value("${app.watering.write-behind.flush-threshold:500}") int flushThreshold,
+            @Value("${app.watering.write-behind.fsync:true}") boolean fsync) {
+        this.plantRepository = plantRepository;
+        this.careLogService = careLogService;
+        this.dashboardService = dashboardService;
+        this.transactionTemplate = transactionTemplate;
+        this.scheduleGenerator = scheduleGenerator;
+        this.enabled = enabled;
+        this.journalDir = Paths.get(journalDir).toAbsolutePath().normalize();
+        this.flushIntervalMillis = Math.max(10, flushIntervalMillis);
+        this.flushThreshold = Math.max(1, flushThreshold);
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(journalDir);
+        int recovered = recover();
+        lock.lock();
+        try {
+            openSegment();
+        } finally {
+            lock.unlock();
+        }
+        if (recovered > 0) {
+            // Siraman yang sudah dijawab sebelum crash disimpan sebelum request baru masuk
+            log.info("WateringBuffer: {} siraman dipulihkan dari journal", recovered);
+            flushQuietly();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "watering-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        lock.lock();
+        try {
+            closeSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Catat siraman tanaman (yang sudah dipastikan milik userId) pada waktu
+     * at. Mengembalikan false jika journal gagal ditulis; tidak ada yang
+     * masuk antrean dan pemanggil harus menyimpan sendiri.
+     */
+    public boolean add(UUID userId, Collection<UUID> plantIds, LocalDateTime at) {
+        if (plantIds.isEmpty()) {
+            return true;
+        }
+        StringBuilder lines = new StringBuilder(plantIds.size() * 100);
+        for (UUID plantId : plantIds) {
+            lines.append(userId).append(',').append(plantId).append(',').append(at).append('\n');
+        }
+        int waiting;
+        lock.lock();
+        try {
+            journal.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII)));
+            if (fsync) {
+                journal.force(false);
+            }
+            for (UUID plantId : plantIds) {
+                if (pending.put(new Key(userId, plantId), at) != null) {
+                    coalesced.incrementAndGet();
+                }
+            }
+            waiting = pending.size();
+        } catch (IOException | RuntimeException e) {
+            log.warn("WateringBuffer: journal gagal ditulis, siraman disimpan langsung: {}", e.getMessage());
+            return false;
+        } finally {
+            lock.unlock();
+        }
+        accepted.addAndGet(plantIds.size());
+        if (waiting >= flushThreshold && flusher != null && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Sedang shutdown: flush terakhir di shutdown() yang menyimpannya
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Simpan semua siraman yang menunggu. Mengembalikan jumlah tanaman yang
+     * diperbarui; jika transaksi gagal, siraman dikembalikan ke antrean dan
+     * journal-nya tetap disimpan untuk percobaan berikutnya.
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            Map<Key, LocalDateTime> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                if (journal != null) {
+                    // Segmen baru dibuka dulu; jika gagal tidak ada yang berubah
+                    Path previous = segment;
+                    FileChannel previousJournal = journal;
+                    openSegment();
+                    close(previous, previousJournal);
+                    closedSegments.add(previous);
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            } finally {
+                lock.unlock();
+            }
+
+            Map<UUID, Map<UUID, LocalDateTime>> watered;
+            try {
+                watered = transactionTemplate.execute(status -> update(batch));
+            } catch (RuntimeException e) {
+                requeue(batch);
+                failedFlushes.incrementAndGet();
+                log.warn("WateringBuffer: {} siraman gagal disimpan, dicoba lagi: {}", batch.size(), e.getMessage());
+                return 0;
+            }
+            deleteClosedSegments();
+
+            int count = 0;
+            for (Map.Entry<UUID, Map<UUID, LocalDateTime>> user : watered.entrySet()) {
+                careLogService.recordAt(user.getValue(), CareLog.WATERING);
+                dashboardService.refreshPlantsById(user.getKey());
+                scheduleGenerator.regenerate(user.getValue().keySet());
+                count += user.getValue().size();
+            }
+            flushed.addAndGet(count);
+            return count;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Per (user, tanggal) per 1000 id: kunci baris yang masih lebih lama, lalu
+    // satu UPDATE; hasil: tanaman yang benar-benar disiram per user
+    private Map<UUID, Map<UUID, LocalDateTime>> update(Map<Key, LocalDateTime> batch) {
+        Map<UUID, Map<LocalDate, List<UUID>>> groups = new LinkedHashMap<>();
+        for (Map.Entry<Key, LocalDateTime> entry : batch.entrySet()) {
+            groups.computeIfAbsent(entry.getKey().userId(), userId -> new HashMap<>())
+                    .computeIfAbsent(entry.getValue().toLocalDate(), date -> new ArrayList<>())
+                    .add(entry.getKey().plantId());
+        }
+        Map<UUID, Map<UUID, LocalDateTime>> watered = new LinkedHashMap<>();
+        groups.forEach((userId, byDate) -> byDate.forEach((date, plantIds) -> {
+            for (List<UUID> chunk : PlantService.chunks(plantIds)) {
+                // Tanaman yang dihapus sebelum flush, atau yang sudah tersiram di
+                // tanggal ini/sesudahnya (journal diputar ulang, savePlant), dilewati
+                List<UUID> stale = plantRepository.lockIdsWateredBefore(userId, chunk, date);
+                if (stale.isEmpty()) {
+                    continue;
+                }
+                plantRepository.updateLastWateredIfOlder(userId, stale, date);
+                for (UUID plantId : stale) {
+                    watered.computeIfAbsent(userId, id -> new LinkedHashMap<>())
+                            .put(plantId, batch.get(new Key(userId, plantId)));
+                }
+            }
+        }));
+        return watered;
+    }
+
+    private void requeue(Map<Key, LocalDateTime> batch) {
+        lock.lock();
+        try {
+            // Siraman baru selama flush lebih mutakhir dari yang gagal
+            batch.forEach((key, at) -> pending.merge(key, at, (newer, older) -> newer.isAfter(older) ? newer : older));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("WateringBuffer: flush gagal", e);
+        }
+    }
+
+    // Baca segmen yang tertinggal dari proses sebelumnya; dihapus setelah flush pertama berhasil
+    private int recover() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(journalDir)) {
+            segments = files.filter(WateringBuffer::isSegment).sorted().toList();
+        }
+        int recovered = 0;
+        for (Path file : segments) {
+            nextSegment = Math.max(nextSegment, segmentNumber(file) + 1);
+            for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+                String[] parts = line.split(",");
+                try {
+                    Key key = new Key(UUID.fromString(parts[0]), UUID.fromString(parts[1]));
+                    pending.merge(key, LocalDateTime.parse(parts[2]),
+                            (older, newer) -> newer.isAfter(older) ? newer : older);
+                    recovered++;
+                } catch (RuntimeException e) {
+                    // Baris terakhir yang terpotong saat crash
+                    log.warn("WateringBuffer: baris journal rusak di {} dilewati", file.getFileName());
+                }
+            }
+            closedSegments.add(file);
+        }
+        return recovered;
+    }
+
+    private void deleteClosedSegments() {
+        for (Path file : closedSegments) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("WateringBuffer: segmen journal {} gagal dihapus: {}", file.getFileName(), e.getMessage());
+            }
+        }
+        closedSegments.clear();
+    }
+
+    private void openSegment() {
+        Path file = journalDir.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, nextSegment++, SEGMENT_SUFFIX));
+        try {
+            journal = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            segment = file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal penyiraman tidak bisa dibuka: " + file, e);
+        }
+    }
+
+    private void closeSegment() {
+        if (journal != null) {
+            close(segment, journal);
+            journal = null;
+        }
+    }
+
+    private static void close(Path file, FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("WateringBuffer: segmen journal {} gagal ditutup: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public int getPending() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getFlushed() {
+        return flushed.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+}
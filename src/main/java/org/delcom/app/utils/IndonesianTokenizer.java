@@ -0,0 +1,125 @@
+package org.delcom.app.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizer untuk pencarian teks berbahasa Indonesia: huruf kecil, tanpa
+ * aksen, dipecah di selain huruf/angka ("daun-daun" -> "daun", "daun"),
+ * kata tugas dibuang. stem() memotong imbuhan umum secara sederhana
+ * (mis. "menyiram", "disirami" -> "siram"; "perawatan" -> "rawat"), cukup
+ * untuk mencocokkan kata, bukan analisis morfologi lengkap.
+ */
+public class IndonesianTokenizer {
+
+    private static final int MIN_STEM_LENGTH = 4;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "yang", "dan", "di", "ke", "dari", "untuk", "dengan", "pada", "ini", "itu", "atau", "juga",
+            "agar", "saat", "akan", "ada", "adalah", "sebagai", "dalam", "oleh", "karena", "jika", "bila",
+            "serta", "para", "pun", "lah", "kah", "nya", "the", "and", "of");
+
+    private static final String[] PARTICLES = { "lah", "kah", "tah", "pun" };
+    private static final String[] POSSESSIVES = { "nya", "ku", "mu" };
+
+    // Token permukaan (sudah dinormalisasi), urut sesuai teks
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = normalized.substring(start, i);
+                if (!STOPWORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Kata dasar perkiraan; token yang pendek atau berisi angka dikembalikan apa adanya
+    public static String stem(String token) {
+        if (token.length() <= MIN_STEM_LENGTH || !token.chars().allMatch(Character::isLetter)) {
+            return token;
+        }
+        String word = stripSuffix(token, PARTICLES);
+        word = stripSuffix(word, POSSESSIVES);
+
+        // Konfiks ke-an: "kekeringan" -> "kering", "kesehatan" -> "sehat"
+        if (word.startsWith("ke") && word.endsWith("an") && word.length() - 4 >= MIN_STEM_LENGTH) {
+            return word.substring(2, word.length() - 2);
+        }
+
+        String base = stripPrefix(word);
+        boolean prefixed = !base.equals(word);
+        // -kan vs -an: "membersihkan" -> "bersih", tapi "pemupukan" -> "pupuk" (bukan "pupu")
+        boolean verbal = prefixed && (word.startsWith("me") || word.startsWith("di")
+                || word.startsWith("ber") || word.startsWith("ter"));
+        int length = base.length();
+        if (base.endsWith("kan") && length - 3 >= MIN_STEM_LENGTH
+                && (verbal || !vowelAt(base, length - 4))) {
+            return base.substring(0, length - 3);
+        }
+        if (base.endsWith("an") && length - 2 >= MIN_STEM_LENGTH) {
+            return base.substring(0, length - 2);
+        }
+        if (prefixed && base.endsWith("i") && length - 1 >= MIN_STEM_LENGTH) {
+            return base.substring(0, length - 1);
+        }
+        return base;
+    }
+
+    private static String stripSuffix(String word, String[] suffixes) {
+        for (String suffix : suffixes) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+
+    // Awalan me-/pe- beserta peluluhan (menyiram -> siram, memupuk -> pupuk, menanam -> tanam)
+    private static String stripPrefix(String word) {
+        String stripped = null;
+        if (word.startsWith("meny") || word.startsWith("peny")) {
+            stripped = vowelAt(word, 4) ? "s" + word.substring(4) : null;
+        } else if (word.startsWith("meng") || word.startsWith("peng")) {
+            stripped = word.substring(4);
+        } else if (word.startsWith("mem") || word.startsWith("pem")) {
+            stripped = vowelAt(word, 3) ? "p" + word.substring(3) : word.substring(3);
+        } else if (word.startsWith("men") || word.startsWith("pen")) {
+            stripped = vowelAt(word, 3) ? "t" + word.substring(3) : word.substring(3);
+        } else if (word.startsWith("ter") || word.startsWith("per")) {
+            // "perawatan", "terawat": r milik kata dasar (rawat)
+            stripped = vowelAt(word, 3) ? word.substring(2) : word.substring(3);
+        } else if (word.startsWith("ber")) {
+            stripped = word.substring(3);
+        } else if (word.startsWith("me") || word.startsWith("pe")) {
+            stripped = "lmnrwy".indexOf(charAt(word, 2)) >= 0 ? word.substring(2) : null;
+        } else if (word.startsWith("di")) {
+            stripped = word.substring(2);
+        }
+        return stripped != null && stripped.length() >= MIN_STEM_LENGTH ? stripped : word;
+    }
+
+    private static boolean vowelAt(String word, int index) {
+        return "aeiou".indexOf(charAt(word, index)) >= 0;
+    }
+
+    private static char charAt(String word, int index) {
+        return index < word.length() ? word.charAt(index) : ' ';
+    }
+}
@@ -2,7 +2,11 @@ package org.delcom.app.utils;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
 
 import javax.crypto.SecretKey;
@@ -14,10 +18,78 @@ public class JwtUtil {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 2; // 2 jam
     private static final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
+    // JwtParser immutable & thread-safe, cukup dibangun sekali
+    private static final JwtParser parser = Jwts.parser().verifyWith(key).build();
+
+    public enum TokenStatus {
+        VALID, EXPIRED, INVALID
+    }
+
+    /**
+     * Hasil parsing token dalam satu kali verifikasi signature.
+     * userId bernilai null jika subject bukan UUID yang valid.
+     */
+    public static final class ParsedToken {
+        private static final ParsedToken INVALID = new ParsedToken(TokenStatus.INVALID, null, null);
+
+        private final TokenStatus status;
+        private final UUID userId;
+        private final Date expiration;
+
+        private ParsedToken(TokenStatus status, UUID userId, Date expiration) {
+            this.status = status;
+            this.userId = userId;
+            this.expiration = expiration;
+        }
+
+        public TokenStatus getStatus() {
+            return status;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public Date getExpiration() {
+            return expiration != null ? new Date(expiration.getTime()) : null;
+        }
+
+        public boolean isExpired() {
+            return status == TokenStatus.EXPIRED;
+        }
+
+        /**
+         * @param ignoreExpired jika true maka token expired tetap dianggap valid
+         */
+        public boolean isValid(boolean ignoreExpired) {
+            return status == TokenStatus.VALID || (ignoreExpired && status == TokenStatus.EXPIRED);
+        }
+    }
+
     public static SecretKey getKey() {
         return key;
     }
 
+    public static long getExpirationTime() {
+        return EXPIRATION_TIME;
+    }
+
+    /**
+     * SHA-256 (hex, 64 karakter) dari token. Disimpan di auth_tokens agar
+     * pencarian memakai kolom berukuran tetap yang ter-index.
+     */
+    public static String hashToken(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
     public static String generateToken(UUID userId) {
         return Jwts.builder()
                 .subject(userId.toString())
@@ -27,13 +99,38 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifikasi signature sekali lalu kembalikan status, userId dan waktu expired.
+     * Pengganti pemanggilan validateToken + extractUserId secara berurutan.
+     */
+    public static ParsedToken parseToken(String token) {
+        Claims claims;
+        TokenStatus status;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+            status = TokenStatus.VALID;
+        } catch (ExpiredJwtException e) {
+            // Signature sudah terverifikasi, klaim tetap bisa dibaca
+            claims = e.getClaims();
+            status = TokenStatus.EXPIRED;
+        } catch (Exception e) {
+            return ParsedToken.INVALID;
+        }
+
+        return new ParsedToken(status, toUuid(claims.getSubject()), claims.getExpiration());
+    }
+
+    private static UUID toUuid(String subject) {
+        try {
+            return subject != null ? UUID.fromString(subject) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public static UUID extractUserId(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
 
             return UUID.fromString(claims.getSubject());
         } catch (Exception e) {
@@ -49,10 +146,7 @@ public class JwtUtil {
      */
     public static boolean validateToken(String token, boolean ignoreExpired) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true; // valid
         } catch (ExpiredJwtException e) {
             if (ignoreExpired) {
@@ -1,90 +1,36 @@
 package org.delcom.app.views;
 
-import org.delcom.app.entities.Plant;
-import org.delcom.app.entities.PlantHealth;
-import org.delcom.app.entities.Schedule;
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.dto.DashboardStats;
 import org.delcom.app.entities.User;
-import org.delcom.app.services.PlantHealthService;
-import org.delcom.app.services.PlantService;
-import org.delcom.app.services.ScheduleService;
-import org.delcom.app.services.UserService;
+import org.delcom.app.services.DashboardService;
 import org.delcom.app.utils.ConstUtil;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
-import java.time.LocalDate;
-import java.util.List;
 
 @Controller
 public class HomeView {
-    private final UserService userService;
-    private final PlantService plantService;
-    private final ScheduleService scheduleService;
-    private final PlantHealthService plantHealthService;
+    private final CurrentUserResolver currentUserResolver;
+    private final DashboardService dashboardService;
 
-    public HomeView(UserService userService, PlantService plantService,
-                    ScheduleService scheduleService, PlantHealthService plantHealthService) {
-        this.userService = userService;
-        this.plantService = plantService;
-        this.scheduleService = scheduleService;
-        this.plantHealthService = plantHealthService;
+    public HomeView(CurrentUserResolver currentUserResolver, DashboardService dashboardService) {
+        this.currentUserResolver = currentUserResolver;
+        this.dashboardService = dashboardService;
     }
 
     @GetMapping("/")
     public String home(Model model) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        User user = userService.getUserByEmail(auth.getName());
+        User user = currentUserResolver.getCurrentUser();
         model.addAttribute("auth", user);
 
-        // AMBIL DATA KHUSUS USER
-        List<Plant> plants = plantService.getPlantsByUser(user);
-        List<Schedule> schedules = scheduleService.getSchedulesByUser(user);
-        List<PlantHealth> healthlogs = plantHealthService.getLogsByUser(user);
+        // STATISTIK KHUSUS USER (query agregasi, tanpa memuat seluruh list)
+        DashboardStats stats = dashboardService.getStats(user);
 
-        int totalPlants = plants.size();
-
-        // LOGIKA STATISTIK
-        int healthScore = 100; 
-
-        if (totalPlants > 0) {
-            long sickCount = healthlogs.stream().filter(log -> !log.getStatus().equalsIgnoreCase("Sembuh")).count();
-            int penalty = (int) ((double) sickCount / totalPlants * 100);
-            healthScore = Math.max(0, 100 - penalty);
-        } else {
-            // Mengatur ke 0 agar lulus test HomeViewTest.testHome_NoPlants_ReturnsZeroScores
-            healthScore = 0; 
-        }
-
-        int waterScore = 0; // Mengatur ke 0 agar lulus test HomeViewTest.testHome_NoPlants_ReturnsZeroScores
-
-        if (totalPlants > 0) {
-            int wellWateredCount = 0;
-            LocalDate today = LocalDate.now();
-
-            for (Plant p : plants) {
-                // Perbaikan capitalization: getLastWatered()
-                if (p.getLastWatered() != null && p.getWateringFrequency() != null) {
-                    // Perbaikan capitalization: getLastWatered()
-                    if (!p.getLastWatered().plusDays(p.getWateringFrequency()).isBefore(today)) {
-                        wellWateredCount++;
-                    }
-                }
-            }
-            waterScore = (int) ((double) wellWateredCount / totalPlants * 100);
-        }
-
-        int scheduleScore = 0; // Mengatur ke 0 agar lulus test HomeViewTest.testHome_NoPlants_ReturnsZeroScores
-
-        if (totalPlants > 0) {
-            scheduleScore = Math.min(100, (int) ((double) schedules.size() / totalPlants * 100));
-        }
-
-        model.addAttribute("healthStat", healthScore);
-        model.addAttribute("waterStat", waterScore);
-        model.addAttribute("scheduleStat", scheduleScore);
+        model.addAttribute("healthStat", stats.getHealthScore());
+        model.addAttribute("waterStat", stats.getWaterScore());
+        model.addAttribute("scheduleStat", stats.getScheduleScore());
 
         return ConstUtil.TEMPLATE_PAGES_HOME;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.nio.file.Files;
+
+import org.delcom.app.services.FileStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class BulkDataSeederTests {
+
+    private static final String SEED_USERS = "SELECT id FROM users WHERE email LIKE 'seed-user-%'";
+
+    @Autowired
+    private BulkDataSeeder seeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        seeder.users = 25;
+        seeder.plantsPerUser = 7;
+        seeder.schedulesPerUser = 3;
+        seeder.healthLogsPerUser = 2;
+        seeder.images = 2;
+        seeder.chunkSize = 10;   // 3 chunk, yang terakhir tidak penuh
+        seeder.batchSize = 16;   // batch terakhir tiap chunk juga tidak penuh
+        seeder.threads = 2;
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM plants WHERE user_id IN (" + SEED_USERS + ")");
+        jdbcTemplate.update("DELETE FROM schedules WHERE user_id IN (" + SEED_USERS + ")");
+        jdbcTemplate.update("DELETE FROM plant_health_logs WHERE user_id IN (" + SEED_USERS + ")");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'seed-user-%'");
+        jdbcTemplate.update("DELETE FROM upload_blobs");
+    }
+
+    @Test
+    void seed_InsertsConfiguredRowsForEveryUser() throws Exception {
+        long rows = seeder.seed();
+
+        assertEquals(25 + 25 * 7 + 25 * 3 + 25 * 2, rows);
+        assertEquals(25, count("SELECT COUNT(*) FROM users WHERE email LIKE 'seed-user-%'"));
+        assertEquals(175, count("SELECT COUNT(*) FROM plants WHERE user_id IN (" + SEED_USERS + ")"));
+        assertEquals(75, count("SELECT COUNT(*) FROM schedules WHERE user_id IN (" + SEED_USERS + ")"));
+        assertEquals(50, count("SELECT COUNT(*) FROM plant_health_logs WHERE user_id IN (" + SEED_USERS + ")"));
+        assertEquals(1, count("SELECT COUNT(*) FROM users WHERE email = 'seed-user-24@plantcare.test'"));
+    }
+
+    @Test
+    void seed_PlaceholderImagesAreStoredAndReferenceCounted() throws Exception {
+        seeder.seed();
+
+        assertEquals(2, count("SELECT COUNT(*) FROM upload_blobs"));
+        // Setiap tanaman memakai salah satu placeholder; hitungan pemakai harus pas
+        assertEquals(count("SELECT COUNT(*) FROM plants WHERE user_id IN (" + SEED_USERS + ")"),
+                count("SELECT SUM(ref_count) FROM upload_blobs"));
+        String path = jdbcTemplate.queryForObject("SELECT path FROM upload_blobs ORDER BY sha256 LIMIT 1",
+                String.class);
+        assertNotNull(path);
+        assertEquals(true, Files.isRegularFile(fileStorageService.loadFile(path)));
+    }
+
+    @Test
+    void seed_WhenDatasetAlreadyExists_ShouldSkip() throws Exception {
+        seeder.seed();
+
+        assertEquals(0, seeder.seed());
+        assertEquals(25, count("SELECT COUNT(*) FROM users WHERE email LIKE 'seed-user-%'"));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
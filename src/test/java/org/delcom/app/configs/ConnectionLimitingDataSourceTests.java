@@ -0,0 +1,119 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionLimitingDataSourceTests {
+
+    private DataSource target;
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void getConnection_TakesPermitUntilClosed() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 2, 100);
+
+        Connection first = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        first.close();
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(connection).close();
+    }
+
+    @Test
+    void close_Twice_ReleasesPermitOnce() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 2, 100);
+
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void close_WhenDelegateFails_StillReleasesPermit() throws Exception {
+        doThrow(new SQLException("broken")).when(connection).close();
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 100);
+
+        Connection first = dataSource.getConnection();
+
+        assertThrows(SQLException.class, first::close);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void getConnection_WhenExhausted_TimesOut() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 50);
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void getConnection_WhenTargetFails_ReleasesPermit() throws Exception {
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 50);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void getConnection_WaiterProceedsWhenConnectionReturned() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 5000);
+        Connection first = dataSource.getConnection();
+        CountDownLatch acquired = new CountDownLatch(1);
+        AtomicReference<Connection> second = new AtomicReference<>();
+
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                second.set(dataSource.getConnection());
+                acquired.countDown();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertEquals(false, acquired.await(100, TimeUnit.MILLISECONDS));
+
+        first.close();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(0, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void unwrap_Connection_ReturnsProxy() throws Exception {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, 50);
+        Connection limited = dataSource.getConnection();
+
+        assertSame(limited, limited.unwrap(Connection.class));
+    }
+}
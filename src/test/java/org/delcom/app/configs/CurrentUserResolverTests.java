@@ -0,0 +1,70 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class CurrentUserResolverTests {
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("User hanya dimuat sekali dalam satu request")
+    void testLoadsOncePerRequest() {
+        UserService userService = Mockito.mock(UserService.class);
+        CurrentUserResolver resolver = new CurrentUserResolver(userService);
+
+        User user = new User("Name", "user@example.com", "hash");
+        when(userService.getPrincipalUser("user@example.com")).thenReturn(user);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals(user, resolver.getCurrentUser());
+        assertEquals(user, resolver.getCurrentUser());
+        verify(userService, times(1)).getPrincipalUser("user@example.com");
+
+        // Request baru memuat ulang
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        resolver.getCurrentUser();
+        verify(userService, times(2)).getPrincipalUser("user@example.com");
+    }
+
+    @Test
+    @DisplayName("Tanpa autentikasi atau tanpa request tetap aman")
+    void testWithoutAuthenticationOrRequest() {
+        UserService userService = Mockito.mock(UserService.class);
+        CurrentUserResolver resolver = new CurrentUserResolver(userService);
+
+        assertNull(resolver.getCurrentUser());
+
+        // Di luar request (mis. job) langsung ke UserService
+        User user = new User("Name", "user@example.com", "hash");
+        when(userService.getPrincipalUser("user@example.com")).thenReturn(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@example.com", null));
+
+        assertEquals(user, resolver.getCurrentUser());
+        assertEquals(user, resolver.getCurrentUser());
+        verify(userService, times(2)).getPrincipalUser("user@example.com");
+    }
+}
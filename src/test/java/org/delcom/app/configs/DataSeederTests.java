@@ -24,6 +24,9 @@ class DataSeederTests {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private BulkDataSeeder bulkDataSeeder;
+
     @InjectMocks
     private DataSeeder dataSeeder;
 
@@ -46,4 +49,23 @@ class DataSeederTests {
 
         verify(userRepository, never()).save(any(User.class));
     }
+
+    @Test
+    void run_WhenBulkSeedingEnabled_ShouldSeedBulkData() throws Exception {
+        when(userRepository.findFirstByEmail("admin@admin.com")).thenReturn(Optional.of(new User()));
+        when(bulkDataSeeder.isEnabled()).thenReturn(true);
+
+        dataSeeder.run();
+
+        verify(bulkDataSeeder).seed();
+    }
+
+    @Test
+    void run_WhenBulkSeedingDisabled_ShouldSkipBulkData() throws Exception {
+        when(userRepository.findFirstByEmail("admin@admin.com")).thenReturn(Optional.of(new User()));
+
+        dataSeeder.run();
+
+        verify(bulkDataSeeder, never()).seed();
+    }
 }
\ No newline at end of file
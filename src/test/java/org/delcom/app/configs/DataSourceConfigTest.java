@@ -0,0 +1,57 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+class DataSourceConfigTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+
+    @Test
+    void platformThreads_DataSourceLeftAlone() {
+        BeanPostProcessor processor = DataSourceConfig.connectionLimitingDataSourcePostProcessor(new MockEnvironment());
+
+        assertSame(dataSource, processor.postProcessAfterInitialization(dataSource, "dataSource"));
+    }
+
+    @Test
+    void virtualThreads_WrapsWithHikariPoolSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", "true")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "7");
+        BeanPostProcessor processor = DataSourceConfig.connectionLimitingDataSourcePostProcessor(environment);
+
+        Object wrapped = processor.postProcessAfterInitialization(dataSource, "dataSource");
+
+        ConnectionLimitingDataSource limited = assertInstanceOf(ConnectionLimitingDataSource.class, wrapped);
+        assertEquals(7, limited.getMaxConnections());
+        assertSame(limited, processor.postProcessAfterInitialization(limited, "dataSource"));
+    }
+
+    @Test
+    void explicitSetting_OverridesVirtualThreadDefault() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", "true")
+                .withProperty("app.datasource.connection-limit.enabled", "false");
+        BeanPostProcessor processor = DataSourceConfig.connectionLimitingDataSourcePostProcessor(environment);
+
+        assertSame(dataSource, processor.postProcessAfterInitialization(dataSource, "dataSource"));
+    }
+
+    @Test
+    void nonDataSourceBeans_Ignored() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+        BeanPostProcessor processor = DataSourceConfig.connectionLimitingDataSourcePostProcessor(environment);
+        Object bean = new Object();
+
+        assertSame(bean, processor.postProcessAfterInitialization(bean, "other"));
+    }
+}
@@ -0,0 +1,59 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTests {
+
+    @Test
+    @DisplayName("Bucket berurutan dan galat relatif maksimal ~3%")
+    void testBucketPrecision() {
+        int previous = -1;
+        for (long micros = 0; micros <= LatencyHistogram.MAX_TRACKABLE_MICROS; micros += 1 + micros / 97) {
+            int index = LatencyHistogram.indexOf(micros);
+            assertTrue(index >= previous, "index mundur pada " + micros);
+            previous = index;
+            long upper = LatencyHistogram.highestEquivalent(index);
+            assertTrue(upper >= micros, "batas atas lebih kecil dari " + micros);
+            assertTrue(upper - micros <= Math.max(1, micros / 32), "galat terlalu besar pada " + micros);
+        }
+        assertEquals(64, LatencyHistogram.indexOf(64));
+        assertEquals(65, LatencyHistogram.highestEquivalent(64));
+    }
+
+    @Test
+    @DisplayName("Persentil dari distribusi yang diketahui")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordNanos(i * 1_000_000L); // 1..1000 ms
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxMicros());
+        assertWithin(500_000, LatencyHistogram.percentileMicros(0.5, histogram));
+        assertWithin(950_000, LatencyHistogram.percentileMicros(0.95, histogram));
+        assertWithin(990_000, LatencyHistogram.percentileMicros(0.99, histogram));
+        assertEquals(1_000_000, LatencyHistogram.percentileMicros(1.0, histogram));
+    }
+
+    @Test
+    @DisplayName("Persentil gabungan beberapa histogram, nilai ekstrem dibatasi")
+    void testMergedAndClamped() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) fast.recordNanos(10_000);      // 10 µs
+        for (int i = 0; i < 10; i++) slow.recordNanos(-5);          // jam mundur -> 0
+        slow.recordNanos(Long.MAX_VALUE);                           // dibatasi 60 detik
+
+        assertEquals(10, LatencyHistogram.percentileMicros(0.5, fast, slow));
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_MICROS, slow.getMaxMicros());
+        assertEquals(0, LatencyHistogram.percentileMicros(0.5, new LatencyHistogram()));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 32, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,93 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogWriterTests {
+
+    private static RequestLogWriter.Event event(String uri) {
+        // 2026-01-01T00:00:00Z, 1.5 ms
+        return new RequestLogWriter.Event(1767225600000L, "GET", uri, "/plants", 200, 1_500_000L, null,
+                "127.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Format key=value, nilai berspasi diberi tanda kutip")
+    void testTextFormat() {
+        RequestLogWriter writer = new RequestLogWriter("text", 8, line -> { });
+
+        assertEquals("time=2026-01-01T00:00:00Z method=GET uri=/plants route=/plants status=200"
+                + " duration_us=1500 handler=- remote=127.0.0.1", writer.format(event("/plants")));
+        assertTrue(writer.format(event("/a b")).contains(" uri=\"/a b\" "));
+    }
+
+    @Test
+    @DisplayName("Format JSON dengan escape karakter khusus")
+    void testJsonFormat() {
+        RequestLogWriter writer = new RequestLogWriter("json", 8, line -> { });
+
+        assertEquals("{\"time\":\"2026-01-01T00:00:00Z\",\"method\":\"GET\",\"uri\":\"/p\\\"q\","
+                + "\"route\":\"/plants\",\"status\":200,\"duration_us\":1500,\"handler\":null,"
+                + "\"remote\":\"127.0.0.1\"}", writer.format(event("/p\"q")));
+    }
+
+    @Test
+    @DisplayName("Buffer penuh: event dibuang tanpa menunggu lalu dilaporkan")
+    void testDropWhenFull() {
+        List<String> lines = new ArrayList<>();
+        RequestLogWriter writer = new RequestLogWriter("text", 4, lines::add);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(writer.offer(event("/" + i)));
+        }
+        assertFalse(writer.offer(event("/4")));
+
+        assertEquals(4, writer.drain());
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(0).contains("uri=/0 "));
+        assertEquals("event=request_log_dropped count=1", lines.get(4));
+        // Slot yang sudah ditulis bisa dipakai lagi
+        assertTrue(writer.offer(event("/5")));
+    }
+
+    @Test
+    @DisplayName("Thread background menulis event dari banyak producer")
+    void testBackgroundWriter() throws Exception {
+        int producers = 4;
+        int perProducer = 500;
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(producers * perProducer);
+        RequestLogWriter writer = new RequestLogWriter("text", 4096, line -> {
+            lines.add(line);
+            done.countDown();
+        });
+        writer.start();
+        try {
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        writer.offer(event("/x"));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(producers * perProducer, lines.size());
+        } finally {
+            writer.shutdown();
+        }
+    }
+}
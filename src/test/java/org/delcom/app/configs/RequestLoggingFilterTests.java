@@ -5,125 +5,106 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class RequestLoggingFilterTests {
 
-    @Test
-    @DisplayName("Filter menampilkan log dengan warna cyan untuk status 100")
-    void testLogCyanFor100() throws ServletException, IOException {
-        // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
-        FilterChain chain = mock(FilterChain.class);
+    private final List<String> lines = new ArrayList<>();
+    private RequestLogWriter writer;
+    private RequestLoggingFilter filter;
 
-        when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/api/test");
-        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(response.getStatus()).thenReturn(100);
+    @BeforeEach
+    void setUp() {
+        // Writer tanpa thread background: event ditulis saat drain() dipanggil
+        writer = new RequestLogWriter("text", 16, lines::add);
+        filter = new RequestLoggingFilter(writer);
+    }
 
-        // Act
-        filter.doFilterInternal(request, response, chain);
+    private HttpServletRequest request(String method, String uri, String remoteAddr) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getRequestURI()).thenReturn(uri);
+        when(request.getRemoteAddr()).thenReturn(remoteAddr);
+        return request;
+    }
 
-        // Assert
-        verify(chain, times(1)).doFilter(request, response);
+    private HttpServletResponse response(int status) {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getStatus()).thenReturn(status);
+        return response;
     }
 
     @Test
-    @DisplayName("Filter menampilkan log dengan warna hijau untuk status 200")
-    void testLogGreenFor200() throws ServletException, IOException {
-        // Arrange
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
+    @DisplayName("Filter mencatat status 200 beserta handler dari atribut request")
+    void testLogWithHandler() throws Exception {
+        HttpServletRequest request = request("GET", "/plants/123", "127.0.0.1");
+        HttpServletResponse response = response(200);
+        HandlerMethod handler = new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)).thenReturn(handler);
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/plants/{id}");
         FilterChain chain = mock(FilterChain.class);
 
-        when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/api/test");
-        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(response.getStatus()).thenReturn(200);
-
-        // Act
         filter.doFilterInternal(request, response, chain);
 
-        // Assert
         verify(chain, times(1)).doFilter(request, response);
+        assertEquals(1, writer.drain());
+        String line = lines.get(0);
+        assertTrue(line.contains(" method=GET uri=/plants/123 route=/plants/{id} status=200 duration_us="), line);
+        assertTrue(line.endsWith(" handler=Object.toString remote=127.0.0.1"), line);
     }
 
     @Test
-    @DisplayName("Filter menampilkan log warna kuning untuk status 404")
-    void testLogYellowFor404() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
+    @DisplayName("Filter mencatat status 404 tanpa handler")
+    void testLogWithoutHandler() throws ServletException, IOException {
+        HttpServletRequest request = request("GET", "/notfound", "192.168.0.10");
+        HttpServletResponse response = response(404);
         FilterChain chain = mock(FilterChain.class);
 
-        when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/notfound");
-        when(request.getRemoteAddr()).thenReturn("192.168.0.10");
-        when(response.getStatus()).thenReturn(404);
-
         filter.doFilterInternal(request, response, chain);
 
         verify(chain, times(1)).doFilter(request, response);
+        writer.drain();
+        assertTrue(lines.get(0).contains(" route=- status=404 "), lines.get(0));
+        assertTrue(lines.get(0).contains(" handler=- remote=192.168.0.10"), lines.get(0));
     }
 
     @Test
-    @DisplayName("Filter menampilkan log warna merah untuk status 500")
-    void testLogRedFor500() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
+    @DisplayName("Filter tetap mencatat request yang melempar exception")
+    void testLogOnException() throws ServletException, IOException {
+        HttpServletRequest request = request("POST", "/api/error", "10.0.0.1");
+        HttpServletResponse response = response(500);
         FilterChain chain = mock(FilterChain.class);
+        doThrow(new ServletException("boom")).when(chain).doFilter(request, response);
 
-        when(request.getMethod()).thenReturn("POST");
-        when(request.getRequestURI()).thenReturn("/api/error");
-        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
-        when(response.getStatus()).thenReturn(500);
+        assertThrows(ServletException.class, () -> filter.doFilterInternal(request, response, chain));
 
-        filter.doFilterInternal(request, response, chain);
-
-        verify(chain, times(1)).doFilter(request, response);
+        writer.drain();
+        assertTrue(lines.get(0).contains(" method=POST uri=/api/error "), lines.get(0));
     }
 
     @Test
-    @DisplayName("Filter tidak menampilkan log untuk URI /.well-known")
+    @DisplayName("Filter tidak mencatat URI /.well-known")
     void testSkipWellKnown() throws ServletException, IOException {
-        RequestLoggingFilter filter = new RequestLoggingFilter();
-        ReflectionTestUtils.setField(filter, "port", 8080);
-        ReflectionTestUtils.setField(filter, "livereload", false);
-
-        HttpServletRequest request = mock(HttpServletRequest.class);
-        HttpServletResponse response = mock(HttpServletResponse.class);
+        HttpServletRequest request = request("GET", "/.well-known/acme-challenge", "127.0.0.1");
+        HttpServletResponse response = response(200);
         FilterChain chain = mock(FilterChain.class);
 
-        when(request.getMethod()).thenReturn("GET");
-        when(request.getRequestURI()).thenReturn("/.well-known/acme-challenge");
-        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(response.getStatus()).thenReturn(200);
-
         filter.doFilterInternal(request, response, chain);
 
         verify(chain, times(1)).doFilter(request, response);
+        assertEquals(0, writer.drain());
+        assertTrue(lines.isEmpty());
     }
 
 }
@@ -0,0 +1,106 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMetricsFilterTests {
+
+    private final AtomicLong clock = new AtomicLong();
+    private RequestMetrics metrics;
+    private RequestMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new RequestMetrics(Duration.ofSeconds(60), clock::get);
+        filter = new RequestMetricsFilter(metrics);
+    }
+
+    private String scrape() throws IOException {
+        StringWriter out = new StringWriter();
+        metrics.writePrometheus(out);
+        return out.toString();
+    }
+
+    private MockHttpServletRequest request(String method, String uri, String route) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (route != null) {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+        }
+        return request;
+    }
+
+    @Test
+    @DisplayName("Request dikelompokkan per pola route beserta jumlah query DB")
+    void testRecordsPerRoute() throws Exception {
+        FilterChain chain = (req, res) -> {
+            // Query yang dijalankan Hibernate selama request
+            new QueryCountInspector().inspect("select 1");
+            new QueryCountInspector().inspect("select 2");
+        };
+
+        filter.doFilterInternal(request("GET", "/plants/1", "/plants/{id}"), new MockHttpServletResponse(), chain);
+        filter.doFilterInternal(request("GET", "/plants/2", "/plants/{id}"), new MockHttpServletResponse(), chain);
+
+        String body = scrape();
+        assertTrue(body.contains("# TYPE plantcare_http_server_request_duration_seconds summary"), body);
+        assertTrue(body.contains(
+                "plantcare_http_server_request_duration_seconds_count{method=\"GET\",route=\"/plants/{id}\"} 2"), body);
+        assertTrue(body.contains(
+                "plantcare_http_server_request_duration_seconds{method=\"GET\",route=\"/plants/{id}\",quantile=\"0.99\"}"),
+                body);
+        assertTrue(body.contains(
+                "plantcare_http_server_requests_total{method=\"GET\",route=\"/plants/{id}\",status=\"2xx\"} 2"), body);
+        assertTrue(body.contains("plantcare_http_server_db_queries_total{method=\"GET\",route=\"/plants/{id}\"} 4"), body);
+        assertTrue(body.contains("plantcare_http_server_db_queries_max{method=\"GET\",route=\"/plants/{id}\"} 2"), body);
+        assertFalse(body.contains("/plants/1"), "URI mentah tidak boleh jadi label");
+        // Query di luar request tidak dihitung
+        assertEquals(0, QueryCountInspector.end());
+    }
+
+    @Test
+    @DisplayName("Status 5xx dan exception dihitung sebagai error")
+    void testErrors() throws Exception {
+        MockHttpServletResponse notFound = new MockHttpServletResponse();
+        notFound.setStatus(404);
+        filter.doFilterInternal(request("GET", "/nope", null), notFound, (req, res) -> { });
+
+        FilterChain failing = (req, res) -> {
+            throw new ServletException("boom");
+        };
+        assertThrows(ServletException.class, () -> filter.doFilterInternal(
+                request("POST", "/doctor", "/doctor"), new MockHttpServletResponse(), failing));
+
+        String body = scrape();
+        assertTrue(body.contains("requests_total{method=\"GET\",route=\"UNMATCHED\",status=\"4xx\"} 1"), body);
+        assertTrue(body.contains("errors_total{method=\"GET\",route=\"UNMATCHED\"} 0"), body);
+        assertTrue(body.contains("requests_total{method=\"POST\",route=\"/doctor\",status=\"5xx\"} 1"), body);
+        assertTrue(body.contains("errors_total{method=\"POST\",route=\"/doctor\"} 1"), body);
+    }
+
+    @Test
+    @DisplayName("Persentil hanya dari jendela terakhir, counter tetap kumulatif")
+    void testWindowRotation() throws Exception {
+        metrics.record("GET", "/", 200, 2_000_000_000L, 0);   // 2 detik, lama
+        clock.addAndGet(Duration.ofSeconds(121).toNanos());   // lewat dua jendela
+        metrics.record("GET", "/", 200, 1_000_000L, 0);       // 1 ms
+
+        String body = scrape();
+        assertTrue(body.contains("request_duration_seconds_max{method=\"GET\",route=\"/\"} 0.001"), body);
+        assertTrue(body.contains("request_duration_seconds_count{method=\"GET\",route=\"/\"} 2"), body);
+        assertTrue(body.contains("request_duration_seconds_sum{method=\"GET\",route=\"/\"} 2.001000"), body);
+    }
+}
@@ -1,6 +1,9 @@
 package org.delcom.app.configs;
 
+import org.delcom.app.dto.DashboardStats;
+import org.delcom.app.dto.PlantStats;
 import org.delcom.app.entities.User;
+import org.delcom.app.services.DashboardService;
 import org.delcom.app.services.PlantHealthService;
 import org.delcom.app.services.PlantService;
 import org.delcom.app.services.ScheduleService;
@@ -15,7 +18,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
@@ -50,6 +52,9 @@ class SecurityConfigTest {
     @MockitoBean
     private PlantHealthService plantHealthService;
 
+    @MockitoBean
+    private DashboardService dashboardService;
+
     @Test
     void testBeansExist() {
         PasswordEncoder encoder = securityConfig.passwordEncoder();
@@ -84,11 +89,9 @@ class SecurityConfigTest {
         User mockUser = new User();
         mockUser.setEmail("testuser");
         mockUser.setName("Test User");
-        when(userService.getUserByEmail("testuser")).thenReturn(mockUser);
+        when(userService.getPrincipalUser("testuser")).thenReturn(mockUser);
         
-        when(plantService.getPlantsByUser(any())).thenReturn(Collections.emptyList());
-        when(scheduleService.getSchedulesByUser(any())).thenReturn(Collections.emptyList());
-        when(plantHealthService.getLogsByUser(any())).thenReturn(Collections.emptyList());
+        when(dashboardService.getStats(any())).thenReturn(new DashboardStats(PlantStats.empty(), 0, 0));
 
         mockMvc.perform(get("/"))
                 .andExpect(status().isOk());
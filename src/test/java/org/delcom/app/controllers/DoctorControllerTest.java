@@ -1,11 +1,13 @@
 package org.delcom.app.controllers;
 
+import org.delcom.app.dto.PageSlice;
 import org.delcom.app.entities.PlantHealth;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.PlantHealthService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.CurrentUserResolver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -39,6 +42,9 @@ class DoctorControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private CurrentUserResolver currentUserResolver;
+
     @MockitoBean
     private AuthTokenService authTokenService;
 
@@ -53,7 +59,7 @@ class DoctorControllerTest {
         mockUser = new User();
         mockUser.setEmail("testuser@delcom.org");
         mockUser.setId(MOCK_USER_UUID);
-        when(userService.getUserByEmail("testuser@delcom.org")).thenReturn(mockUser);
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
     }
 
     @Test
@@ -62,12 +68,29 @@ class DoctorControllerTest {
         log.setId(1L);
         List<PlantHealth> mockLogs = Collections.singletonList(log);
 
-        when(plantHealthService.getLogsByUser(mockUser)).thenReturn(mockLogs);
+        when(plantHealthService.getLogsPage(mockUser, 0, PageSlice.DEFAULT_SIZE, null))
+                .thenReturn(new PageSlice<>(mockLogs, 0, PageSlice.DEFAULT_SIZE, false, null, false));
 
         mockMvc.perform(get("/doctor"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("pages/doctor"))
-                .andExpect(model().attributeExists("logs"));
+                .andExpect(model().attribute("logs", mockLogs))
+                .andExpect(model().attributeExists("pageData"));
+    }
+
+    @Test
+    void listDoctor_WithAfterAndSize_ShouldUseKeysetAndClampSize() throws Exception {
+        PlantHealth log = new PlantHealth();
+        log.setId(6L);
+        log.setImagePath("ab/cd/abcd.png");
+        when(plantHealthService.getLogsPage(mockUser, 0, PageSlice.MAX_SIZE, 5L))
+                .thenReturn(new PageSlice<>(Collections.singletonList(log), 0, PageSlice.MAX_SIZE, true, "6", true));
+
+        mockMvc.perform(get("/doctor").param("after", "5").param("size", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("after=6")))
+                // Path gambar ber-subfolder tidak boleh di-encode jadi %2F
+                .andExpect(content().string(containsString("src=\"/media/thumb/ab/cd/abcd.png\"")));
     }
 
     @Test
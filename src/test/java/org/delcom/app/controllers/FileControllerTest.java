@@ -0,0 +1,194 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.FileAccessService;
+import org.delcom.app.services.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FileControllerTest {
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private FileAccessService fileAccessService;
+
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    @TempDir
+    Path uploadDir;
+
+    private FileController fileController;
+    private final User user = new User();
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() {
+        fileController = new FileController(fileStorageService, fileAccessService, currentUserResolver,
+                Duration.ofDays(365));
+        content = new byte[100];
+        for (int i = 0; i < content.length; i++) content[i] = (byte) i;
+    }
+
+    // File milik user yang sedang login
+    private void ownedFile(String path, byte[] data) throws IOException {
+        Path file = uploadDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, data);
+        when(fileStorageService.resolveFile(path)).thenReturn(file);
+        when(currentUserResolver.getCurrentUser()).thenReturn(user);
+        when(fileAccessService.canRead(user, path)).thenReturn(true);
+    }
+
+    private MockHttpServletResponse get(String path, MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileController.download("/" + path, request, response);
+        return response;
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/uploads/x");
+    }
+
+    // --- TEST 1: File utuh dengan ETag, Last-Modified & Accept-Ranges ---
+    @Test
+    void testDownload_Full() throws IOException {
+        ownedFile("leaf.png", content);
+
+        MockHttpServletResponse response = get("leaf.png", request());
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+        assertEquals("image/png", response.getContentType());
+        assertEquals(100, response.getContentLengthLong());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("no-cache, private", response.getHeader("Cache-Control"));
+        assertNotNull(response.getHeader("ETag"));
+        assertNotNull(response.getHeader("Last-Modified"));
+    }
+
+    // --- TEST 2: Upload content-addressed boleh di-cache selamanya ---
+    @Test
+    void testDownload_ContentAddressed_Immutable() throws IOException {
+        String hash = "abcd" + "0".repeat(60);
+        String path = "ab/cd/" + hash + ".jpg";
+        ownedFile(path, content);
+
+        MockHttpServletResponse response = get(path, request());
+
+        assertEquals("max-age=31536000, private, immutable", response.getHeader("Cache-Control"));
+    }
+
+    // --- TEST 3: If-None-Match cocok -> 304 tanpa isi ---
+    @Test
+    void testDownload_NotModified() throws IOException {
+        ownedFile("leaf.png", content);
+        String etag = get("leaf.png", request()).getHeader("ETag");
+
+        MockHttpServletRequest conditional = request();
+        conditional.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = get("leaf.png", conditional);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    // --- TEST 4: Range -> 206 dengan potongan yang diminta ---
+    @Test
+    void testDownload_Range() throws IOException {
+        ownedFile("leaf.png", content);
+
+        MockHttpServletRequest ranged = request();
+        ranged.addHeader("Range", "bytes=10-19");
+        MockHttpServletResponse response = get("leaf.png", ranged);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/100", response.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(content, 10, 20), response.getContentAsByteArray());
+
+        MockHttpServletRequest suffix = request();
+        suffix.addHeader("Range", "bytes=-5");
+        MockHttpServletResponse tail = get("leaf.png", suffix);
+        assertEquals("bytes 95-99/100", tail.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(content, 95, 100), tail.getContentAsByteArray());
+    }
+
+    // --- TEST 5: Range di luar ukuran file -> 416 ---
+    @Test
+    void testDownload_RangeNotSatisfiable() throws IOException {
+        ownedFile("leaf.png", content);
+
+        MockHttpServletRequest ranged = request();
+        ranged.addHeader("Range", "bytes=500-600");
+        MockHttpServletResponse response = get("leaf.png", ranged);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */100", response.getHeader("Content-Range"));
+    }
+
+    // --- TEST 6: If-Range tidak cocok (file sudah berubah) -> kirim file utuh ---
+    @Test
+    void testDownload_IfRangeMismatch() throws IOException {
+        ownedFile("leaf.png", content);
+
+        MockHttpServletRequest ranged = request();
+        ranged.addHeader("Range", "bytes=10-19");
+        ranged.addHeader("If-Range", "\"stale\"");
+        MockHttpServletResponse response = get("leaf.png", ranged);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(100, response.getContentAsByteArray().length);
+    }
+
+    // --- TEST 7: Di Tomcat, file besar diserahkan ke sendfile ---
+    @Test
+    void testDownload_Sendfile() throws IOException {
+        ownedFile("big.jpg", new byte[(int) FileController.SENDFILE_MIN_BYTES + 1]);
+        MockHttpServletRequest request = request();
+        request.setAttribute(FileController.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader("Range", "bytes=1-");
+
+        MockHttpServletResponse response = get("big.jpg", request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length); // isi dikirim Tomcat, bukan oleh kita
+        assertEquals(uploadDir.resolve("big.jpg").toAbsolutePath().toString(),
+                request.getAttribute(FileController.SENDFILE_FILENAME));
+        assertEquals(1L, request.getAttribute(FileController.SENDFILE_START));
+        assertEquals(FileController.SENDFILE_MIN_BYTES + 1, request.getAttribute(FileController.SENDFILE_END));
+    }
+
+    // --- TEST 8: File milik user lain / tidak ada -> 404 ---
+    @Test
+    void testDownload_NotOwnerOrMissing() throws IOException {
+        Path file = Files.write(uploadDir.resolve("other.png"), content);
+        when(fileStorageService.resolveFile("other.png")).thenReturn(file);
+        when(currentUserResolver.getCurrentUser()).thenReturn(user);
+
+        assertEquals(404, get("other.png", request()).getStatus());
+
+        when(fileStorageService.resolveFile("../secret")).thenReturn(null);
+        assertEquals(404, get("../secret", request()).getStatus());
+        verify(fileAccessService, never()).canRead(any(), eq("../secret"));
+    }
+}
@@ -0,0 +1,113 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.FileAccessService;
+import org.delcom.app.services.ImageVariantService;
+import org.delcom.app.services.ImageVariantService.Variant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MediaControllerTest {
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private FileAccessService fileAccessService;
+
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
+    private MediaController mediaController;
+
+    private final User user = new User();
+
+    @BeforeEach
+    void setUp() {
+        mediaController = new MediaController(imageVariantService, fileAccessService, currentUserResolver,
+                Duration.ofDays(365));
+    }
+
+    private void allow(String path) {
+        when(currentUserResolver.getCurrentUser()).thenReturn(user);
+        when(fileAccessService.canRead(user, path)).thenReturn(true);
+    }
+
+    @Test
+    void testGetVariant_Ready(@TempDir Path dir) throws IOException {
+        Path thumb = Files.write(dir.resolve("x.thumb.jpg"), new byte[]{1});
+        allow("legacy.png");
+        when(imageVariantService.findVariant("legacy.png", Variant.THUMB)).thenReturn(thumb);
+
+        ResponseEntity<Resource> response = mediaController.getVariant("thumb", "/legacy.png");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
+        // Nama lama bisa berubah isinya: wajib revalidasi (Last-Modified -> 304)
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+        assertTrue(response.getHeaders().getLastModified() > 0);
+        verify(imageVariantService, never()).generateAsync(any());
+    }
+
+    @Test
+    void testGetVariant_ContentAddressed_IsImmutable(@TempDir Path dir) throws IOException {
+        String hash = "abcd" + "0".repeat(60);
+        String path = "ab/cd/" + hash + ".png";
+        Path thumb = Files.write(dir.resolve(hash + ".thumb.jpg"), new byte[]{1});
+        allow(path);
+        when(imageVariantService.findVariant(path, Variant.THUMB)).thenReturn(thumb);
+
+        ResponseEntity<Resource> response = mediaController.getVariant("thumb", "/" + path);
+
+        assertEquals("max-age=31536000, private, immutable", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testGetVariant_NotReady_RedirectsToOriginal() {
+        allow("legacy photo.jpg");
+        when(imageVariantService.findVariant("legacy photo.jpg", Variant.MEDIUM)).thenReturn(null);
+
+        ResponseEntity<Resource> response = mediaController.getVariant("medium", "/legacy photo.jpg");
+
+        assertEquals(HttpStatus.FOUND, response.getStatusCode());
+        assertEquals("/uploads/legacy%20photo.jpg", response.getHeaders().getLocation().toString());
+        assertEquals("no-store", response.getHeaders().getCacheControl());
+        verify(imageVariantService).generateAsync("legacy photo.jpg");
+    }
+
+    @Test
+    void testGetVariant_NotOwner_NotFound() {
+        when(currentUserResolver.getCurrentUser()).thenReturn(user);
+
+        ResponseEntity<Resource> response = mediaController.getVariant("thumb", "/someone-else.png");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(imageVariantService);
+    }
+
+    @Test
+    void testGetVariant_UnknownVariant() {
+        assertEquals(HttpStatus.NOT_FOUND, mediaController.getVariant("huge", "/x.png").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, mediaController.getVariant("thumb", "/").getStatusCode());
+        verifyNoInteractions(imageVariantService);
+    }
+}
@@ -0,0 +1,103 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.configs.RequestMetricsFilter;
+import org.delcom.app.configs.LatencyHistogram;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsControllerTest {
+
+    private final RequestMetricsFilter filter = new RequestMetricsFilter(Duration.ofSeconds(60));
+    private final AuthTokenService authTokenService = mock(AuthTokenService.class);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final LatencyHistogram hashLatency = new LatencyHistogram();
+
+    MetricsControllerTest() {
+        when(authTokenService.getCacheStats())
+                .thenReturn(Map.of("hits", 7L, "misses", 2L, "evictions", 1L, "size", 5L));
+        when(passwordHashingService.getLatencyHistogram()).thenReturn(hashLatency);
+    }
+
+    private MockHttpServletRequest request(String remoteAddr, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/metrics");
+        request.setRemoteAddr(remoteAddr);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    @Test
+    void testScrape_LocalhostWithoutToken() throws IOException {
+        filter.getRequestMetrics().record("GET", "/plants", 200, 5_000_000L, 3);
+        MetricsController controller = new MetricsController(filter, authTokenService, passwordHashingService, "");
+
+        ResponseEntity<String> response = controller.scrape(request("127.0.0.1", null));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MetricsController.PROMETHEUS_TEXT, response.getHeaders().getContentType());
+        assertTrue(response.getBody().contains("route=\"/plants\""));
+        assertEquals(HttpStatus.OK, controller.scrape(request("::1", null)).getStatusCode());
+    }
+
+    @Test
+    void testScrape_IncludesAuthTokenCacheCounters() throws IOException {
+        MetricsController controller = new MetricsController(filter, authTokenService, passwordHashingService, "");
+
+        String body = controller.scrape(request("127.0.0.1", null)).getBody();
+
+        assertTrue(body.contains("# TYPE plantcare_auth_token_cache_hits_total counter\n"));
+        assertTrue(body.contains("plantcare_auth_token_cache_hits_total 7\n"));
+        assertTrue(body.contains("plantcare_auth_token_cache_misses_total 2\n"));
+        assertTrue(body.contains("plantcare_auth_token_cache_evictions_total 1\n"));
+        assertTrue(body.contains("plantcare_auth_token_cache_size 5\n"));
+    }
+
+    @Test
+    void testScrape_IncludesPasswordHashingQueueAndLatency() throws IOException {
+        when(passwordHashingService.getQueueDepth()).thenReturn(3);
+        when(passwordHashingService.getRejectedCount()).thenReturn(4L);
+        when(passwordHashingService.getTotalLatencyMicros()).thenReturn(250_000L);
+        hashLatency.recordNanos(50_000_000L);
+        hashLatency.recordNanos(200_000_000L);
+        MetricsController controller = new MetricsController(filter, authTokenService, passwordHashingService, "");
+
+        String body = controller.scrape(request("127.0.0.1", null)).getBody();
+
+        assertTrue(body.contains("# TYPE plantcare_password_hash_queue_depth gauge\n"));
+        assertTrue(body.contains("plantcare_password_hash_queue_depth 3\n"));
+        assertTrue(body.contains("plantcare_password_hash_rejected_total 4\n"));
+        assertTrue(body.contains("# TYPE plantcare_password_hash_duration_seconds summary\n"));
+        assertTrue(body.contains("plantcare_password_hash_duration_seconds{quantile=\"0.99\"} 0.2"));
+        assertTrue(body.contains("plantcare_password_hash_duration_seconds_sum 0.250000\n"));
+        assertTrue(body.contains("plantcare_password_hash_duration_seconds_count 2\n"));
+    }
+
+    @Test
+    void testScrape_RemoteWithoutToken_NotFound() throws IOException {
+        MetricsController controller = new MetricsController(filter, authTokenService, passwordHashingService, "");
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.scrape(request("10.0.0.5", null)).getStatusCode());
+    }
+
+    @Test
+    void testScrape_Token() throws IOException {
+        MetricsController controller = new MetricsController(filter, authTokenService, passwordHashingService, "s3cret");
+
+        assertEquals(HttpStatus.OK, controller.scrape(request("10.0.0.5", "Bearer s3cret")).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.scrape(request("10.0.0.5", "Bearer wrong")).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.scrape(request("127.0.0.1", null)).getStatusCode());
+    }
+}
@@ -1,20 +1,20 @@
 package org.delcom.app.controllers;
 
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.dto.PageSlice;
+import org.delcom.app.dto.PlantStats;
+import org.delcom.app.dto.WaterPlantsRequest;
+import org.delcom.app.entities.CareLog;
 import org.delcom.app.entities.Plant;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.PlantService;
-import org.delcom.app.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -38,7 +38,7 @@ class PlantControllerTest {
     private PlantService plantService;
 
     @Mock
-    private UserService userService;
+    private CurrentUserResolver currentUserResolver;
 
     @Mock
     private Model model;
@@ -46,12 +46,6 @@ class PlantControllerTest {
     @Mock
     private MultipartFile multipartFile;
 
-    @Mock
-    private SecurityContext securityContext;
-
-    @Mock
-    private Authentication authentication;
-
     @InjectMocks
     private PlantController plantController;
 
@@ -67,12 +61,8 @@ class PlantControllerTest {
     @Test
     void testListPlants_Success_WithStats() {
         // Mock Security Static
-        try (MockedStatic<SecurityContextHolder> securityMock = Mockito.mockStatic(SecurityContextHolder.class)) {
-            securityMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            when(securityContext.getAuthentication()).thenReturn(authentication);
-            when(authentication.getName()).thenReturn("test@mail.com");
-
-            when(userService.getUserByEmail("test@mail.com")).thenReturn(mockUser);
+        {
+            when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
 
             // Setup Data Tanaman untuk Coverage Stream Logic
             // 1. Tanaman Normal, Butuh Air (Next watering < Today)
@@ -100,17 +90,20 @@ class PlantControllerTest {
             p4.setSpecies("Mawar"); // Duplicate species (case insensitive check)
 
             List<Plant> plants = Arrays.asList(p1, p2, p3, p4);
-            when(plantService.getPlantsByUser(mockUser)).thenReturn(plants);
+            when(plantService.getPlantsPage(mockUser, 0, PageSlice.DEFAULT_SIZE, null))
+                    .thenReturn(new PageSlice<>(plants, 0, PageSlice.DEFAULT_SIZE, false, null, false));
+            // Statistik dihitung oleh query agregasi di repository
+            when(plantService.getPlantStats(mockUser)).thenReturn(new PlantStats(4L, 1L, 1L, 3L));
 
             // Execute
-            String viewName = plantController.listPlants(model);
+            String viewName = plantController.listPlants(null, null, null, model);
 
             // Verify View
             assertEquals("pages/plants/list", viewName);
             
             // Verifikasi Statistik:
             // totalPlants = 4
-            verify(model).addAttribute("totalPlants", 4);
+            verify(model).addAttribute("totalPlants", 4L);
             
             // needsWater = 1 (Hanya p1. p3 & p4 gagal validasi null, p2 sehat)
             verify(model).addAttribute("needsWater", 1L);
@@ -122,20 +115,33 @@ class PlantControllerTest {
             verify(model).addAttribute("uniqueSpecies", 3L);
             
             verify(model).addAttribute(eq("plants"), anyList());
+            verify(model).addAttribute(eq("pageData"), any(PageSlice.class));
         }
     }
 
+    @Test
+    void testListPlants_DueSoonFromIndex() {
+        Plant due = new Plant();
+        due.setName("Monstera");
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+        when(plantService.getPlantsPage(mockUser, 0, PageSlice.DEFAULT_SIZE, null))
+                .thenReturn(new PageSlice<>(List.of(), 0, PageSlice.DEFAULT_SIZE, false, null, false));
+        when(plantService.getPlantStats(mockUser)).thenReturn(PlantStats.empty());
+        when(plantService.getDuePlants(mockUser, LocalDate.now().plusDays(7), 10)).thenReturn(List.of(due));
+
+        plantController.listPlants(null, null, null, model);
+
+        verify(model).addAttribute("dueSoon", List.of(due));
+    }
+
     // --- TEST 2: List Plants - Exception Handling (Catch Block) ---
     @Test
     void testListPlants_Exception() {
-        try (MockedStatic<SecurityContextHolder> securityMock = Mockito.mockStatic(SecurityContextHolder.class)) {
-            securityMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            when(securityContext.getAuthentication()).thenReturn(authentication);
-            
-            // Force Exception saat ambil nama user
-            when(authentication.getName()).thenThrow(new RuntimeException("DB Error"));
+        {
+            // Force Exception saat ambil user
+            when(currentUserResolver.getCurrentUser()).thenThrow(new RuntimeException("DB Error"));
 
-            String viewName = plantController.listPlants(model);
+            String viewName = plantController.listPlants(null, null, null, model);
 
             assertEquals("pages/plants/list", viewName);
             // Verifikasi masuk blok catch dan return empty list
@@ -154,11 +160,8 @@ class PlantControllerTest {
     // --- TEST 4: Save Plant - Success ---
     @Test
     void testSavePlant_Success() throws Exception {
-        try (MockedStatic<SecurityContextHolder> securityMock = Mockito.mockStatic(SecurityContextHolder.class)) {
-            securityMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            when(securityContext.getAuthentication()).thenReturn(authentication);
-            when(authentication.getName()).thenReturn("test@mail.com");
-            when(userService.getUserByEmail("test@mail.com")).thenReturn(mockUser);
+        {
+            when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
 
             Plant plant = new Plant();
             String result = plantController.savePlant(plant, multipartFile);
@@ -172,11 +175,8 @@ class PlantControllerTest {
     // --- TEST 5: Save Plant - Exception/Failure ---
     @Test
     void testSavePlant_Failure() throws Exception {
-        try (MockedStatic<SecurityContextHolder> securityMock = Mockito.mockStatic(SecurityContextHolder.class)) {
-            securityMock.when(SecurityContextHolder::getContext).thenReturn(securityContext);
-            when(securityContext.getAuthentication()).thenReturn(authentication);
-            when(authentication.getName()).thenReturn("test@mail.com");
-            when(userService.getUserByEmail("test@mail.com")).thenReturn(mockUser);
+        {
+            when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
 
             Plant plant = new Plant();
             // Force Exception di Service
@@ -200,6 +200,7 @@ class PlantControllerTest {
 
         assertEquals("pages/plants/detail", result);
         verify(model).addAttribute("plant", plant);
+        verify(model).addAttribute(eq("careLogs"), anyList());
     }
 
     // --- TEST 7: Detail Plant - Not Found ---
@@ -251,9 +252,107 @@ class PlantControllerTest {
     @Test
     void testWaterPlantNow() {
         UUID id = UUID.randomUUID();
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+        when(plantService.waterPlants(mockUser, List.of(id))).thenReturn(1);
+
         String result = plantController.waterPlantNow(id);
 
-        verify(plantService).waterPlantNow(id);
         assertTrue(result.contains("success="));
     }
+
+    // --- TEST 12: Water Plant Now - Bukan milik user / tidak ada ---
+    @Test
+    void testWaterPlantNow_NotOwned() {
+        UUID id = UUID.randomUUID();
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+        when(plantService.waterPlants(mockUser, List.of(id))).thenReturn(0);
+
+        String result = plantController.waterPlantNow(id);
+
+        assertTrue(result.contains("error="));
+    }
+
+    // --- TEST 13: Siram massal dari form ---
+    @Test
+    void testWaterPlants_SelectedIds() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+        when(plantService.waterPlants(mockUser, ids)).thenReturn(2);
+
+        String result = plantController.waterPlants(ids, false);
+
+        assertTrue(result.contains("success="));
+        assertTrue(result.contains("2 tanaman"));
+        verify(plantService, never()).waterDuePlants(any());
+    }
+
+    @Test
+    void testWaterPlants_Due() {
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+        when(plantService.waterDuePlants(mockUser)).thenReturn(7);
+
+        String result = plantController.waterPlants(null, true);
+
+        assertTrue(result.contains("7 tanaman"));
+        verify(plantService, never()).waterPlants(any(), any());
+    }
+
+    @Test
+    void testWaterPlants_NothingSelected() {
+        String result = plantController.waterPlants(Collections.emptyList(), false);
+
+        assertTrue(result.contains("error="));
+        verifyNoInteractions(plantService);
+    }
+
+    // --- TEST 14: Siram massal lewat JSON ---
+    @Test
+    void testWaterPlantsApi_Ids() {
+        WaterPlantsRequest request = new WaterPlantsRequest();
+        request.setIds(List.of(UUID.randomUUID()));
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+        when(plantService.waterPlants(mockUser, request.getIds())).thenReturn(1);
+
+        ResponseEntity<?> response = plantController.waterPlantsApi(request);
+
+        assertEquals(200, response.getStatusCode().value());
+    }
+
+    @Test
+    void testWaterPlantsApi_EmptyRequest() {
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+
+        ResponseEntity<?> response = plantController.waterPlantsApi(new WaterPlantsRequest());
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    void testWaterPlantsApi_NotLoggedIn() {
+        ResponseEntity<?> response = plantController.waterPlantsApi(new WaterPlantsRequest());
+
+        assertEquals(401, response.getStatusCode().value());
+    }
+
+    // --- TEST 15: Catat perawatan ---
+    @Test
+    void testLogCare() {
+        UUID id = UUID.randomUUID();
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+        when(plantService.logCare(mockUser, id, CareLog.FERTILIZING, "NPK")).thenReturn(true);
+
+        String result = plantController.logCare(id, CareLog.FERTILIZING, "NPK");
+
+        assertEquals("redirect:/plants/" + id + "?success=Perawatan berhasil dicatat", result);
+    }
+
+    @Test
+    void testLogCare_Rejected() {
+        UUID id = UUID.randomUUID();
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+
+        String result = plantController.logCare(id, "DANCING", null);
+
+        assertTrue(result.contains("error="));
+    }
 }
\ No newline at end of file
@@ -1,22 +1,31 @@
 package org.delcom.app.controllers;
 
+import org.delcom.app.dto.PageSlice;
 import org.delcom.app.entities.Schedule;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.ScheduleService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.CurrentUserResolver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -36,12 +45,18 @@ class ScheduleControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private CurrentUserResolver currentUserResolver;
+
     // WAJIB: Mock Interceptor Dependencies
     @MockitoBean
     private AuthTokenService authTokenService;
     @MockitoBean
     private AuthContext authContext;
 
+    private static final String BROWSER_ACCEPT =
+            "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,*/*;q=0.8";
+
     private User mockUser;
 
     @BeforeEach
@@ -49,23 +64,133 @@ class ScheduleControllerTest {
         mockUser = new User();
         mockUser.setEmail("testuser@delcom.org");
         mockUser.setId(UUID.randomUUID()); 
-        when(userService.getUserByEmail("testuser@delcom.org")).thenReturn(mockUser);
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
     }
 
     @Test
     void listSchedules_ShouldReturnScheduleViewAndList() throws Exception {
-        when(scheduleService.getSchedulesByUser(mockUser)).thenReturn(Collections.emptyList());
+        when(scheduleService.getSchedulesPage(mockUser, 0, PageSlice.DEFAULT_SIZE, null))
+                .thenReturn(new PageSlice<>(Collections.emptyList(), 0, PageSlice.DEFAULT_SIZE, false, null, false));
         mockMvc.perform(get("/schedule"))
                 .andExpect(status().isOk())
+                .andExpect(view().name("pages/schedule"))
+                .andExpect(model().attributeExists("scheduleList", "pageData"));
+    }
+
+    @Test
+    void listSchedules_WithPage_ShouldRenderPreviousLink() throws Exception {
+        when(scheduleService.getSchedulesPage(mockUser, 2, 10, null))
+                .thenReturn(new PageSlice<>(Collections.emptyList(), 2, 10, false, null, false));
+        mockMvc.perform(get("/schedule").param("page", "2").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("page=1")));
+    }
+
+    @Test
+    void listSchedules_WithRange_ShouldRenderOnlyWindow() throws Exception {
+        Schedule schedule = new Schedule();
+        schedule.setId(5L);
+        schedule.setDate(LocalDate.of(2026, 5, 6));
+        schedule.setPlantName("Monstera");
+        schedule.setActivity("Siram");
+        when(scheduleService.getSchedulesInRange(mockUser, LocalDate.of(2026, 5, 4), LocalDate.of(2026, 5, 10)))
+                .thenReturn(List.of(schedule));
+
+        mockMvc.perform(get("/schedule").param("from", "2026-05-04").param("to", "2026-05-10")
+                        .accept(MediaType.TEXT_HTML))
+                .andExpect(status().isOk())
+                .andExpect(view().name("pages/schedule"))
+                .andExpect(model().attribute("scheduleList", List.of(schedule)))
+                .andExpect(model().attributeDoesNotExist("pageData"))
+                .andExpect(model().attribute("prevFrom", LocalDate.of(2026, 4, 27)))
+                .andExpect(model().attribute("nextTo", LocalDate.of(2026, 5, 17)))
+                .andExpect(content().string(containsString("Monstera")));
+        verify(scheduleService, never()).getSchedulesPage(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void listSchedules_WithRangeAndBrowserAcceptHeader_ShouldRenderCalendar() throws Exception {
+        when(scheduleService.getSchedulesInRange(mockUser, LocalDate.of(2026, 10, 12), LocalDate.of(2026, 10, 18)))
+                .thenReturn(List.of());
+
+        // Link "Minggu Ini"/"Bulan Ini": Accept browser juga memuat */*
+        mockMvc.perform(get("/schedule").param("from", "2026-10-12").param("to", "2026-10-18")
+                        .header("Accept", BROWSER_ACCEPT))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
                 .andExpect(view().name("pages/schedule"));
     }
 
+    @Test
+    void listSchedules_WithLongRange_ShouldClampWindow() throws Exception {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate until = from.plusDays(ScheduleService.MAX_RANGE_DAYS - 1);
+
+        mockMvc.perform(get("/schedule").param("from", "2026-01-01").param("to", "2026-12-31")
+                        .accept(MediaType.TEXT_HTML))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("to", until));
+        verify(scheduleService).getSchedulesInRange(mockUser, from, until);
+    }
+
+    @Test
+    void listSchedules_WithReversedRange_ShouldRedirectWithError() throws Exception {
+        mockMvc.perform(get("/schedule").param("from", "2026-05-10").param("to", "2026-05-04")
+                        .accept(MediaType.TEXT_HTML))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/schedule?error=Rentang tanggal tidak valid"));
+    }
+
+    @Test
+    void listSchedulesApi_ShouldReturnJsonOrderedByService() throws Exception {
+        Schedule first = new Schedule();
+        first.setId(7L);
+        first.setDate(LocalDate.of(2026, 5, 4));
+        first.setActivity("Siram");
+        first.setPlantName("Sirih");
+        first.setGenerated(true);
+        Schedule second = new Schedule();
+        second.setId(3L);
+        second.setDate(LocalDate.of(2026, 5, 9));
+        second.setActivity("Pupuk");
+        when(scheduleService.getSchedulesInRange(mockUser, LocalDate.of(2026, 5, 1), LocalDate.of(2026, 5, 31)))
+                .thenReturn(List.of(first, second));
+
+        mockMvc.perform(get("/api/schedule").param("from", "2026-05-01").param("to", "2026-05-31")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data.to").value("2026-05-31"))
+                .andExpect(jsonPath("$.data.schedules[0].id").value(7))
+                .andExpect(jsonPath("$.data.schedules[0].date").value("2026-05-04"))
+                .andExpect(jsonPath("$.data.schedules[0].generated").value(true))
+                .andExpect(jsonPath("$.data.schedules[1].activity").value("Pupuk"));
+    }
+
+    @Test
+    void listSchedulesApi_ReversedRange_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/schedule").param("from", "2026-05-10").param("to", "2026-05-04")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("fail"));
+        verify(scheduleService, never()).getSchedulesInRange(any(), any(), any());
+    }
+
     @Test
     void saveSchedule_ShouldCallServiceAndRedirectWithSuccess() throws Exception {
+        when(scheduleService.saveSchedule(any(), eq(mockUser))).thenReturn(true);
         mockMvc.perform(post("/schedule/save").with(csrf()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/schedule?success=Jadwal berhasil disimpan"));
     }
+
+    @Test
+    void saveSchedule_WhenRefused_ShouldRedirectWithError() throws Exception {
+        when(scheduleService.saveSchedule(any(), eq(mockUser))).thenReturn(false);
+        mockMvc.perform(post("/schedule/save").with(csrf()).param("id", "7").param("activity", "Pupuk"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/schedule?error=Jadwal tidak dapat disimpan"));
+    }
     
     @Test
     void newScheduleForm_ShouldReturnFormView() throws Exception {
@@ -78,6 +203,38 @@ class ScheduleControllerTest {
         mockMvc.perform(get("/schedule/1/edit")).andExpect(status().isOk());
     }
     
+    @Test
+    void editScheduleForm_WhenGenerated_ShouldRedirectWithError() throws Exception {
+        Schedule generated = new Schedule();
+        generated.setId(7L);
+        generated.setGenerated(true);
+        when(scheduleService.getScheduleById(7L)).thenReturn(generated);
+        mockMvc.perform(get("/schedule/7/edit"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/schedule?error=Jadwal otomatis tidak dapat diubah"));
+    }
+
+    @Test
+    void listSchedules_GeneratedRow_HasNoEditLink() throws Exception {
+        Schedule generated = new Schedule();
+        generated.setId(7L);
+        generated.setDate(LocalDate.of(2026, 5, 6));
+        generated.setActivity("Siram");
+        generated.setGenerated(true);
+        Schedule manual = new Schedule();
+        manual.setId(8L);
+        manual.setDate(LocalDate.of(2026, 5, 7));
+        manual.setActivity("Pupuk");
+        when(scheduleService.getSchedulesInRange(mockUser, LocalDate.of(2026, 5, 4), LocalDate.of(2026, 5, 10)))
+                .thenReturn(List.of(generated, manual));
+
+        mockMvc.perform(get("/schedule").param("from", "2026-05-04").param("to", "2026-05-10")
+                        .accept(MediaType.TEXT_HTML))
+                .andExpect(content().string(not(containsString("/schedule/7/edit"))))
+                .andExpect(content().string(containsString("/schedule/8/edit")))
+                .andExpect(content().string(containsString("/schedule/7/delete")));
+    }
+
     @Test
     void editScheduleForm_WhenScheduleNotFound_ShouldRedirectWithError() throws Exception {
         when(scheduleService.getScheduleById(99L)).thenReturn(null);
@@ -0,0 +1,129 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.configs.CurrentUserResolver;
+import org.delcom.app.dto.SearchResult;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.SearchService;
+import org.delcom.app.services.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SearchController.class)
+@WithMockUser(username = "testuser@delcom.org")
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SearchService searchService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private CurrentUserResolver currentUserResolver;
+
+    @MockitoBean
+    private AuthTokenService authTokenService;
+    @MockitoBean
+    private AuthContext authContext;
+
+    private static final String BROWSER_ACCEPT =
+            "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,*/*;q=0.8";
+
+    private User mockUser;
+
+    private final SearchResult monstera = new SearchResult(SearchResult.PLANT, "p-1", "Monstera",
+            "Monstera deliciosa", "/plants/p-1", 4.2);
+    private final SearchResult tips = new SearchResult(SearchResult.ENCYCLOPEDIA, "3", "Teknik Penyiraman",
+            "Waktu terbaik menyiram...", "/encyclopedia", 1.1);
+
+    @BeforeEach
+    void setUp() {
+        mockUser = new User();
+        mockUser.setId(UUID.randomUUID());
+        when(currentUserResolver.getCurrentUser()).thenReturn(mockUser);
+    }
+
+    @Test
+    void search_WithoutQuery_ShowsEmptyForm() throws Exception {
+        mockMvc.perform(get("/search").accept(MediaType.TEXT_HTML))
+                .andExpect(status().isOk())
+                .andExpect(view().name("pages/search"))
+                .andExpect(model().attribute("results", List.of()));
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    void search_RendersResults() throws Exception {
+        when(searchService.search(mockUser, "mons", SearchService.DEFAULT_LIMIT)).thenReturn(List.of(monstera, tips));
+
+        mockMvc.perform(get("/search").param("q", "mons").accept(MediaType.TEXT_HTML))
+                .andExpect(status().isOk())
+                .andExpect(view().name("pages/search"))
+                .andExpect(content().string(containsString("Monstera deliciosa")))
+                .andExpect(content().string(containsString("/plants/p-1")))
+                .andExpect(content().string(containsString("Ensiklopedia")));
+    }
+
+    @Test
+    void search_WithBrowserAcceptHeader_RendersPage() throws Exception {
+        when(searchService.search(mockUser, "mons", SearchService.DEFAULT_LIMIT)).thenReturn(List.of(monstera));
+
+        // Form navbar: Accept browser juga memuat */*, tetap harus dapat halaman
+        mockMvc.perform(get("/search").param("q", "mons").header("Accept", BROWSER_ACCEPT))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(view().name("pages/search"));
+    }
+
+    @Test
+    void search_NoResults_ShowsMessage() throws Exception {
+        when(searchService.search(mockUser, "anggrek", 5)).thenReturn(List.of());
+
+        mockMvc.perform(get("/search").param("q", "anggrek").param("limit", "5").accept(MediaType.TEXT_HTML))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Tidak ada hasil")));
+    }
+
+    @Test
+    void searchApi_ReturnsRankedJson() throws Exception {
+        when(searchService.search(mockUser, "monstera", SearchService.DEFAULT_LIMIT))
+                .thenReturn(List.of(monstera, tips));
+
+        mockMvc.perform(get("/api/search").param("q", "monstera").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data.query").value("monstera"))
+                .andExpect(jsonPath("$.data.results[0].type").value("PLANT"))
+                .andExpect(jsonPath("$.data.results[0].url").value("/plants/p-1"))
+                .andExpect(jsonPath("$.data.results[1].title").value("Teknik Penyiraman"));
+    }
+
+    @Test
+    void searchApi_BlankQuery_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/search").param("q", " ").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("fail"));
+        verify(searchService, never()).search(any(), anyString(), anyInt());
+    }
+}
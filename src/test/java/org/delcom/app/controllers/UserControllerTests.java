@@ -6,12 +6,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
@@ -31,7 +33,10 @@ public class UserControllerTests {
         // Mock UserService
         UserService userService = Mockito.mock(UserService.class);
 
-        UserController userController = new UserController(userService, authTokenService);
+        PasswordHashingService passwordHashingService = new PasswordHashingService(
+                new BCryptPasswordEncoder(), 2, 16, 10000);
+
+        UserController userController = new UserController(userService, authTokenService, passwordHashingService);
         userController.authContext = new AuthContext();
 
         // Menguji method registerUser
@@ -387,4 +392,53 @@ public class UserControllerTests {
             }
         }
     }
+
+    @Test
+    @DisplayName("Pengujian UserController saat pool hashing password penuh")
+    public void testPasswordHashingBusy() {
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        UserService userService = Mockito.mock(UserService.class);
+        PasswordHashingService passwordHashingService = Mockito.mock(PasswordHashingService.class);
+
+        UserController userController = new UserController(userService, authTokenService, passwordHashingService);
+        userController.authContext = new AuthContext();
+
+        Mockito.when(passwordHashingService.encode(Mockito.anyString()))
+                .thenThrow(new RejectedExecutionException("penuh"));
+        Mockito.when(passwordHashingService.matches(Mockito.anyString(), Mockito.anyString()))
+                .thenThrow(new RejectedExecutionException("penuh"));
+
+        // Registrasi
+        {
+            Mockito.when(userService.getUserByEmail("new@example.com")).thenReturn(null);
+            ResponseEntity<ApiResponse<Map<String, UUID>>> result = userController
+                    .registerUser(new User("New User", "new@example.com", "password123"));
+            assertEquals(503, result.getStatusCode().value());
+            assertEquals("5", result.getHeaders().getFirst("Retry-After"));
+            Mockito.verify(userService, Mockito.never()).createUser(Mockito.any(), Mockito.any(), Mockito.any());
+        }
+
+        // Login
+        {
+            User existingUser = new User("User", "user@example.com", "hash");
+            existingUser.setId(UUID.randomUUID());
+            Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(existingUser);
+
+            ResponseEntity<ApiResponse<Map<String, String>>> result = userController
+                    .loginUser(new User("user@example.com", "password123"));
+            assertEquals(503, result.getStatusCode().value());
+        }
+
+        // Ganti password
+        {
+            User authUser = new User("User", "user@example.com", "hash");
+            authUser.setId(UUID.randomUUID());
+            userController.authContext.setAuthUser(authUser);
+
+            ResponseEntity<ApiResponse<Void>> result = userController
+                    .updateUserPassword(Map.of("password", "old", "newPassword", "new"));
+            assertEquals(503, result.getStatusCode().value());
+            Mockito.verify(userService, Mockito.never()).updatePassword(Mockito.any(), Mockito.any());
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package org.delcom.app.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageSliceTest {
+
+    @Test
+    @DisplayName("Ukuran dan nomor halaman dinormalisasi")
+    void normalize_MembatasiNilai() {
+        assertEquals(PageSlice.DEFAULT_SIZE, PageSlice.normalizeSize(null));
+        assertEquals(1, PageSlice.normalizeSize(0));
+        assertEquals(PageSlice.MAX_SIZE, PageSlice.normalizeSize(10_000));
+        assertEquals(0, PageSlice.normalizePage(null));
+        assertEquals(0, PageSlice.normalizePage(-3));
+        assertEquals(4, PageSlice.normalizePage(4));
+    }
+
+    @Test
+    @DisplayName("nextAfter diambil dari item terakhir jika masih ada halaman berikutnya")
+    void of_MengisiNextAfter() {
+        PageSlice<String> page = PageSlice.of(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(2, 2), true), false, s -> s.toUpperCase());
+
+        assertEquals(2, page.getPage());
+        assertEquals(2, page.getSize());
+        assertTrue(page.hasNext());
+        assertTrue(page.hasPrevious());
+        assertEquals("B", page.getNextAfter());
+        assertFalse(page.isKeyset());
+    }
+
+    @Test
+    @DisplayName("Halaman terakhir tidak punya nextAfter")
+    void of_HalamanTerakhir() {
+        PageSlice<String> page = PageSlice.of(
+                new SliceImpl<>(List.of("a"), PageRequest.of(0, 2), false), false, s -> s);
+
+        assertFalse(page.hasNext());
+        assertFalse(page.hasPrevious());
+        assertNull(page.getNextAfter());
+    }
+}
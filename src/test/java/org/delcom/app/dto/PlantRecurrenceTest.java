@@ -0,0 +1,43 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class PlantRecurrenceTest {
+
+    private static final LocalDate MAY_1 = LocalDate.of(2026, 5, 1);
+
+    private static PlantRecurrence recurrence(LocalDate next, int frequency) {
+        return new PlantRecurrence(UUID.randomUUID(), UUID.randomUUID(), "Sirih", next, frequency, null);
+    }
+
+    @Test
+    void occurrences_StepsByFrequencyUntilInclusive() {
+        assertEquals(List.of(MAY_1, MAY_1.plusDays(3), MAY_1.plusDays(6)),
+                recurrence(MAY_1, 3).occurrences(MAY_1, MAY_1.plusDays(6)));
+    }
+
+    @Test
+    void occurrences_OverdueStartsOnFirstDateInRange() {
+        // Jatuh tempo 10 hari lalu, tiap 4 hari: tanggal berikutnya dalam pola adalah +2
+        assertEquals(List.of(MAY_1.plusDays(2), MAY_1.plusDays(6)),
+                recurrence(MAY_1.minusDays(10), 4).occurrences(MAY_1, MAY_1.plusDays(7)));
+    }
+
+    @Test
+    void occurrences_NextAfterUntil_Empty() {
+        assertTrue(recurrence(MAY_1.plusDays(40), 7).occurrences(MAY_1, MAY_1.plusDays(30)).isEmpty());
+    }
+
+    @Test
+    void occurrences_WithoutScheduleOrFrequency_Empty() {
+        assertTrue(recurrence(null, 7).occurrences(MAY_1, MAY_1.plusDays(30)).isEmpty());
+        assertTrue(recurrence(MAY_1, 0).occurrences(MAY_1, MAY_1.plusDays(30)).isEmpty());
+    }
+}
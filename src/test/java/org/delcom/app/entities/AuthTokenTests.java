@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.UUID;
 
+import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -17,6 +18,7 @@ public class AuthTokenTests {
             AuthToken authToken = new AuthToken(UUID.randomUUID(), "token123");
 
             assertEquals("token123", authToken.getToken());
+            assertEquals(JwtUtil.hashToken("token123"), authToken.getTokenHash());
             assertTrue(authToken.getUserId() != null);
         }
 
@@ -42,6 +44,7 @@ public class AuthTokenTests {
             assertEquals(authToken.getId(), generatedId);
             assertEquals(authToken.getUserId(), generatedUserId);
             assertEquals(authToken.getToken(), "Set Token");
+            assertEquals(64, authToken.getTokenHash().length());
             assertTrue(authToken.getCreatedAt() != null);
         }
     }
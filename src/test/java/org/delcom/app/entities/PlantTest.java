@@ -57,4 +57,21 @@ class PlantTest {
         assertEquals(TEST_DATE, plant.getLastWatered());
         assertEquals(TEST_USER, plant.getUser());
     }
+
+    @Test
+    void onSave_ComputesNextWateringDate() {
+        Plant plant = new Plant();
+        plant.setLastWatered(TEST_DATE);
+        plant.setWateringFrequency(TEST_FREQ);
+
+        plant.onSave();
+
+        assertEquals(LocalDate.of(2023, 11, 22), plant.getNextWateringDate());
+
+        plant.setWateringFrequency(null);
+        plant.onSave();
+
+        assertNull(plant.getNextWateringDate());
+        assertNull(Plant.computeNextWateringDate(null, 3));
+    }
 }
@@ -5,13 +5,15 @@ package org.delcom.app.entities;
 import org.junit.jupiter.api.Test; // <-- Ini akan ter-resolve
 // import static org.mockito.Mockito.mock; // <-- Ini akan ter-resolve
 
+import java.time.LocalDate;
+
 import static org.junit.jupiter.api.Assertions.*; // <-- Ini akan ter-resolve
 import static org.mockito.Mockito.mock; // <-- Import ini sudah benar
 
 class ScheduleTest {
 
     private final Long TEST_ID = 1L;
-    private final String TEST_DATE = "2023-12-25";
+    private final LocalDate TEST_DATE = LocalDate.of(2023, 12, 25);
     private final String TEST_ACTIVITY = "Pemupukan Natal";
     private final String TEST_PLANT_NAME = "Semua Anggrek";
     private final User TEST_USER = mock(User.class); // Mock User untuk relasi
@@ -29,6 +31,8 @@ class ScheduleTest {
         assertNull(schedule.getActivity(), "Activity seharusnya null secara default");
         assertNull(schedule.getPlantName(), "PlantName seharusnya null secara default");
         assertNull(schedule.getUser(), "User seharusnya null secara default");
+        assertNull(schedule.getPlant(), "Plant seharusnya null secara default");
+        assertFalse(schedule.isGenerated(), "Jadwal manual secara default");
 
         // 2. Set semua nilai
         schedule.setId(TEST_ID);
@@ -36,6 +40,10 @@ class ScheduleTest {
         schedule.setActivity(TEST_ACTIVITY);
         schedule.setPlantName(TEST_PLANT_NAME);
         schedule.setUser(TEST_USER);
+        Plant plant = new Plant();
+        schedule.setPlant(plant);
+        schedule.setGenerated(true);
+        schedule.setDateNote("Besok Pagi");
 
         // 3. Test semua Getter
         assertEquals(TEST_ID, schedule.getId());
@@ -43,5 +51,8 @@ class ScheduleTest {
         assertEquals(TEST_ACTIVITY, schedule.getActivity());
         assertEquals(TEST_PLANT_NAME, schedule.getPlantName());
         assertEquals(TEST_USER, schedule.getUser());
+        assertSame(plant, schedule.getPlant());
+        assertTrue(schedule.isGenerated());
+        assertEquals("Besok Pagi", schedule.getDateNote());
     }
 }
\ No newline at end of file
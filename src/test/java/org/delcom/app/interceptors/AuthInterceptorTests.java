@@ -70,6 +70,20 @@ public class AuthInterceptorTests {
 
             boolean isPublic = authInterceptor.preHandle(request, response, null);
             assertTrue(isPublic);
+            Mockito.verify(authTokenService).cacheUser(Mockito.eq(bearerToken), Mockito.eq(user), Mockito.any(Date.class));
+        }
+
+        // Menguji method preHandle dengan token yang sudah ada di cache
+        {
+            when(authTokenService.findCachedUser(bearerToken)).thenReturn(user);
+            Mockito.clearInvocations(userService);
+
+            boolean isAuth = authInterceptor.preHandle(request, response, null);
+            assertTrue(isAuth);
+            Mockito.verify(userService, Mockito.never()).getUserById(Mockito.any(UUID.class));
+
+            // Kembalikan ke kondisi cache kosong untuk skenario berikutnya
+            when(authTokenService.findCachedUser(bearerToken)).thenReturn(null);
         }
 
         // Menguji method preHandle yang berhasil dengan path public
@@ -127,6 +141,22 @@ public class AuthInterceptorTests {
             assertEquals(false, isAuth);
         }
 
+        // Menguji method preHandle dengan token yang sudah expired
+        {
+            String expiredToken = Jwts.builder()
+                    .subject(userId.toString())
+                    .issuedAt(new Date(System.currentTimeMillis() - 1000 * 60 * 60 * 3))
+                    .expiration(new Date(System.currentTimeMillis() - 1000 * 60 * 60 * 1))
+                    .signWith(JwtUtil.getKey())
+                    .compact();
+
+            when(request.getRequestURI()).thenReturn("/api/users/me");
+            when(request.getHeader("Authorization")).thenReturn("Bearer " + expiredToken);
+
+            boolean isAuth = authInterceptor.preHandle(request, response, null);
+            assertEquals(false, isAuth);
+        }
+
         // Menguji method preHandle yang tidak valid dengan token tidak ditemukan
         {
             // Mocking behavior dari request
@@ -0,0 +1,113 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AuthTokenCacheTests {
+
+    private User newUser() {
+        User user = new User("User", "user@example.com", "hash");
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    @Test
+    @DisplayName("Hit dan miss tercatat, snapshot user tidak ikut berubah")
+    void testHitMissAndSnapshot() {
+        AuthTokenCache cache = new AuthTokenCache(300, 10);
+        User user = newUser();
+
+        assertNull(cache.get("token-a"));
+        cache.put("token-a", user);
+
+        AuthTokenCache.Entry entry = cache.get("token-a");
+        assertNotNull(entry);
+        assertEquals(user.getId(), entry.getUserId());
+
+        // Perubahan pada salinan tidak mempengaruhi isi cache
+        entry.getUser().setPassword(null);
+        assertEquals("hash", cache.get("token-a").getUser().getPassword());
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1L, cache.getStats().get("size"));
+    }
+
+    @Test
+    @DisplayName("Entry tertua dibuang saat cache penuh")
+    void testSizeEviction() {
+        AuthTokenCache cache = new AuthTokenCache(300, 2);
+        cache.put("t1", newUser());
+        cache.put("t2", newUser());
+        cache.get("t1"); // t1 jadi paling baru dipakai
+        cache.put("t3", newUser());
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("t2"));
+        assertNotNull(cache.get("t1"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("Entry yang melewati TTL dianggap miss")
+    void testTtlExpiry() {
+        AuthTokenCache cache = new AuthTokenCache(0, 10);
+        cache.put("token", newUser());
+
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("Entry tidak bertahan melewati waktu expired token")
+    void testTokenExpirationCapsTtl() {
+        AuthTokenCache cache = new AuthTokenCache(300, 10);
+        cache.put("expired", newUser(), new Date(System.currentTimeMillis() - 1000));
+        cache.put("valid", newUser(), new Date(System.currentTimeMillis() + 60_000));
+
+        assertNull(cache.get("expired"));
+        assertNotNull(cache.get("valid"));
+    }
+
+    @Test
+    @DisplayName("Invalidate menghapus semua token milik user")
+    void testInvalidate() {
+        AuthTokenCache cache = new AuthTokenCache(300, 10);
+        User user = newUser();
+        User other = newUser();
+        cache.put("t1", user);
+        cache.put("t2", user);
+        cache.put("t3", other);
+
+        cache.invalidate(user.getId());
+        cache.invalidate(null);
+
+        assertNull(cache.get("t1"));
+        assertNull(cache.get("t2"));
+        assertNotNull(cache.get("t3"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Cache dengan max-size 0 tidak menyimpan apa pun")
+    void testDisabled() {
+        AuthTokenCache cache = new AuthTokenCache(300, 0);
+        cache.put("token", newUser());
+        cache.put(null, newUser());
+
+        assertNull(cache.get("token"));
+        assertNull(cache.get(null));
+        assertEquals(0, cache.size());
+    }
+}
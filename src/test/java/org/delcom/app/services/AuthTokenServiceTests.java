@@ -1,15 +1,21 @@
 package org.delcom.app.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
+import org.delcom.app.entities.User;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
 
 public class AuthTokenServiceTests {
     @Test
@@ -22,7 +28,8 @@ public class AuthTokenServiceTests {
         AuthTokenRepository authTokenRepository = Mockito.mock(AuthTokenRepository.class);
 
         // Membuat instance AuthToken dengan repository palsu
-        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository);
+        AuthTokenCache authTokenCache = new AuthTokenCache(300, 100);
+        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository, authTokenCache);
         assertTrue(authTokenService != null);
 
         // Menguji createAuthToken
@@ -37,7 +44,8 @@ public class AuthTokenServiceTests {
 
         // Menguji findUserToken
         {
-            Mockito.when(authTokenRepository.findUserToken(userId, "token")).thenReturn(authToken);
+            Mockito.when(authTokenRepository.findUserTokenByHash(userId, JwtUtil.hashToken("token")))
+                    .thenReturn(authToken);
 
             AuthToken result = authTokenService.findUserToken(userId, "token");
             assertTrue(result != null);
@@ -47,10 +55,55 @@ public class AuthTokenServiceTests {
 
         // Menguji deleteAuthToken
         {
+            User user = new User("User", "user@example.com", "hash");
+            user.setId(userId);
+            authTokenCache.put("token", user);
+
             Mockito.doNothing().when(authTokenRepository).deleteByUserId(userId);
 
             authTokenService.deleteAuthToken(userId);
             Mockito.verify(authTokenRepository, Mockito.times(1)).deleteByUserId(userId);
+            assertNull(authTokenCache.get("token"));
+        }
+
+        // Menguji deleteExpiredTokens dalam batch
+        {
+            UUID id1 = UUID.randomUUID();
+            UUID id2 = UUID.randomUUID();
+            UUID id3 = UUID.randomUUID();
+            LocalDateTime cutoff = LocalDateTime.now();
+
+            Mockito.when(authTokenRepository.findExpiredIds(Mockito.eq(cutoff), Mockito.any(Pageable.class)))
+                    .thenReturn(List.of(id1, id2))
+                    .thenReturn(List.of(id3));
+            Mockito.when(authTokenRepository.deleteByIds(List.of(id1, id2))).thenReturn(2);
+            Mockito.when(authTokenRepository.deleteByIds(List.of(id3))).thenReturn(1);
+
+            assertEquals(3, authTokenService.deleteExpiredTokens(cutoff, 2, 10));
+
+            // Tidak ada lagi yang expired
+            Mockito.when(authTokenRepository.findExpiredIds(Mockito.eq(cutoff), Mockito.any(Pageable.class)))
+                    .thenReturn(List.of());
+            assertEquals(0, authTokenService.deleteExpiredTokens(cutoff, 2, 10));
+
+            // Berhenti setelah maxBatches
+            Mockito.when(authTokenRepository.findExpiredIds(Mockito.eq(cutoff), Mockito.any(Pageable.class)))
+                    .thenReturn(List.of(id1, id2));
+            assertEquals(2, authTokenService.deleteExpiredTokens(cutoff, 2, 1));
+        }
+
+        // Menguji cacheUser, findCachedUser dan invalidateCache
+        {
+            User user = new User("User", "user@example.com", "hash");
+            user.setId(userId);
+
+            assertNull(authTokenService.findCachedUser("token"));
+            authTokenService.cacheUser("token", user);
+            assertEquals(userId, authTokenService.findCachedUser("token").getId());
+            assertEquals(1L, authTokenService.getCacheStats().get("hits"));
+
+            authTokenService.invalidateCache(userId);
+            assertNull(authTokenService.findCachedUser("token"));
         }
     }
 }
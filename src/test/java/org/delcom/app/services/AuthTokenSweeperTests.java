@@ -0,0 +1,33 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class AuthTokenSweeperTests {
+    @Test
+    @DisplayName("Sweeper menghapus token yang lebih tua dari masa berlaku JWT")
+    void testSweep() {
+        AuthTokenService authTokenService = Mockito.mock(AuthTokenService.class);
+        AuthTokenSweeper sweeper = new AuthTokenSweeper(authTokenService, 500, 100);
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        Mockito.when(authTokenService.deleteExpiredTokens(cutoff.capture(), Mockito.eq(500), Mockito.eq(100)))
+                .thenReturn(3)
+                .thenReturn(0);
+
+        assertEquals(3, sweeper.sweep());
+        assertEquals(0, sweeper.sweep());
+
+        LocalDateTime expected = LocalDateTime.now().minus(Duration.ofMillis(JwtUtil.getExpirationTime()));
+        assertTrue(Math.abs(Duration.between(expected, cutoff.getValue()).toSeconds()) < 5);
+    }
+}
@@ -0,0 +1,83 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.CareLog;
+import org.delcom.app.repositories.CareLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class CareLogPartitionerTests {
+
+    @Autowired
+    private CareLogPartitioner partitioner;
+
+    @Autowired
+    private CareLogRepository careLogRepository;
+
+    @Test
+    void partitionStatements_OnePerMonthAcrossYearBoundary() {
+        List<String> statements = CareLogPartitioner.partitionStatements(YearMonth.of(2025, 11), 2);
+
+        assertEquals(3, statements.size());
+        assertTrue(statements.get(0).contains("care_logs_2025_11 PARTITION OF care_logs"));
+        assertTrue(statements.get(0).contains("FROM ('2025-11-01') TO ('2025-12-01')"));
+        assertTrue(statements.get(2).contains("care_logs_2026_01"));
+        assertTrue(statements.get(2).contains("FROM ('2026-01-01') TO ('2026-02-01')"));
+    }
+
+    @Test
+    void schemaStatements_PostgresIsPartitionedWithDefault() {
+        List<String> statements = CareLogPartitioner.schemaStatements(true);
+
+        assertTrue(statements.get(0).contains("PARTITION BY RANGE (log_date)"));
+        assertTrue(statements.get(0).contains("INCLUDE (activity_type, notes)"));
+        assertTrue(statements.get(1).contains("DEFAULT"));
+    }
+
+    @Test
+    void schemaStatements_OtherDatabasesGetPlainTable() {
+        List<String> statements = CareLogPartitioner.schemaStatements(false);
+
+        assertEquals(1, statements.size());
+        assertFalse(statements.get(0).contains("PARTITION"));
+    }
+
+    @Test
+    void ensurePartitions_NoOpOnH2() {
+        assertEquals(0, partitioner.ensurePartitions());
+    }
+
+    // Tabel dibuat saat startup; riwayat dibaca per rentang, terbaru dulu
+    @Test
+    void repository_FindByPlant_RangeAndOrder() {
+        UUID plantId = UUID.randomUUID();
+        LocalDateTime base = LocalDateTime.of(2025, 3, 10, 8, 0);
+        careLogRepository.insertAll(List.of(
+                new CareLog(plantId, CareLog.WATERING, null, base.minusMonths(2)),
+                new CareLog(plantId, CareLog.WATERING, null, base),
+                new CareLog(plantId, CareLog.FERTILIZING, "NPK", base.plusDays(1)),
+                new CareLog(UUID.randomUUID(), CareLog.WATERING, null, base)));
+
+        try {
+            List<CareLog> history = careLogRepository.findByPlant(plantId, base.minusDays(7), base.plusDays(7), 10);
+
+            assertEquals(2, history.size());
+            assertEquals(CareLog.FERTILIZING, history.get(0).getActivityType());
+            assertEquals("NPK", history.get(0).getNotes());
+            assertEquals(base, history.get(1).getLogDate());
+            assertEquals(1, careLogRepository.findByPlant(plantId, base.minusYears(1), base.plusDays(7), 1).size());
+        } finally {
+            assertEquals(3, careLogRepository.deleteByPlant(plantId));
+        }
+    }
+}
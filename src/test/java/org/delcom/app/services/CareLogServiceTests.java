@@ -0,0 +1,100 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.CareLog;
+import org.delcom.app.repositories.CareLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CareLogServiceTests {
+
+    @Mock
+    private CareLogWriter careLogWriter;
+
+    @Mock
+    private CareLogRepository careLogRepository;
+
+    private CareLogService careLogService;
+
+    @BeforeEach
+    void setUp() {
+        careLogService = new CareLogService(careLogWriter, careLogRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CareLog> captureWritten() {
+        ArgumentCaptor<List<CareLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(careLogWriter).writeAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void recordAll_OneLogPerPlantWithSameTimestamp() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        careLogService.recordAll(List.of(first, second), CareLog.WATERING, null);
+
+        List<CareLog> logs = captureWritten();
+        assertEquals(2, logs.size());
+        assertEquals(first, logs.get(0).getPlantId());
+        assertEquals(second, logs.get(1).getPlantId());
+        assertEquals(logs.get(0).getLogDate(), logs.get(1).getLogDate());
+        assertEquals(CareLog.WATERING, logs.get(0).getActivityType());
+    }
+
+    @Test
+    void record_TrimsAndCapsNotes() {
+        careLogService.record(UUID.randomUUID(), CareLog.FERTILIZING, "  " + "x".repeat(600) + "  ");
+
+        assertEquals(CareLogService.MAX_NOTES_LENGTH, captureWritten().get(0).getNotes().length());
+    }
+
+    @Test
+    void record_BlankNotesStoredAsNull() {
+        careLogService.record(UUID.randomUUID(), CareLog.REPOTTING, "   ");
+
+        assertNull(captureWritten().get(0).getNotes());
+    }
+
+    @Test
+    void recordAll_UnknownActivity_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> careLogService.record(UUID.randomUUID(), "DANCING", null));
+        verify(careLogWriter, never()).writeAll(any());
+    }
+
+    @Test
+    void recordAll_EmptyIds_DoesNothing() {
+        careLogService.recordAll(List.of(), CareLog.WATERING, null);
+
+        verify(careLogWriter, never()).writeAll(any());
+    }
+
+    @Test
+    void deleteHistory_DiscardsQueuedLogsFirst() {
+        UUID plantId = UUID.randomUUID();
+
+        careLogService.deleteHistory(plantId);
+
+        InOrder order = inOrder(careLogWriter, careLogRepository);
+        order.verify(careLogWriter).discard(plantId);
+        order.verify(careLogRepository).deleteByPlant(plantId);
+    }
+}
@@ -0,0 +1,110 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.CareLog;
+import org.delcom.app.repositories.CareLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Thread penulis tidak dijalankan; drain() dipanggil manual
+class CareLogWriterTests {
+
+    private CareLogRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CareLogRepository.class);
+    }
+
+    private static List<CareLog> logs(int count) {
+        List<CareLog> logs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            logs.add(new CareLog(UUID.randomUUID(), CareLog.WATERING, null, LocalDateTime.now()));
+        }
+        return logs;
+    }
+
+    @Test
+    void writeAll_QueuesUntilDrained() {
+        CareLogWriter writer = new CareLogWriter(repository, 100, 10);
+
+        writer.writeAll(logs(25));
+
+        assertEquals(25, writer.getQueued());
+        verify(repository, never()).insertAll(anyList());
+
+        writer.drain();
+
+        // 25 log dengan batch 10 -> 3 batch
+        verify(repository, times(3)).insertAll(anyList());
+        assertEquals(0, writer.getQueued());
+        assertEquals(25, writer.getWritten());
+    }
+
+    @Test
+    void writeAll_QueueFull_WritesOverflowInline() {
+        CareLogWriter writer = new CareLogWriter(repository, 4, 10);
+
+        writer.writeAll(logs(6));
+
+        assertEquals(4, writer.getQueued());
+        assertEquals(2, writer.getWrittenInline());
+        assertEquals(2, writer.getWritten());
+    }
+
+    @Test
+    void drain_RepositoryFails_CountsFailed() {
+        CareLogWriter writer = new CareLogWriter(repository, 100, 10);
+        doThrow(new IllegalStateException("db down")).when(repository).insertAll(anyList());
+
+        writer.writeAll(logs(3));
+        writer.drain();
+
+        assertEquals(3, writer.getFailed());
+        assertEquals(0, writer.getWritten());
+    }
+
+    @Test
+    void shutdown_FlushesRemainingLogs() {
+        CareLogWriter writer = new CareLogWriter(repository, 100, 10);
+        writer.start();
+
+        writer.write(logs(1).get(0));
+        writer.shutdown();
+
+        assertEquals(0, writer.getQueued());
+        assertEquals(1, writer.getWritten());
+    }
+
+    @Test
+    void discard_DropsQueuedAndLaterLogsOfDeletedPlant() {
+        CareLogWriter writer = new CareLogWriter(repository, 100, 10);
+        UUID deleted = UUID.randomUUID();
+        List<CareLog> batch = new ArrayList<>(logs(2));
+        batch.add(new CareLog(deleted, CareLog.WATERING, null, LocalDateTime.now()));
+        batch.add(new CareLog(deleted, CareLog.FERTILIZING, null, LocalDateTime.now()));
+        writer.writeAll(batch);
+
+        assertEquals(2, writer.discard(deleted));
+        // Request yang berpacu dengan delete: tetap tidak disimpan
+        writer.write(new CareLog(deleted, CareLog.WATERING, null, LocalDateTime.now()));
+        writer.drain();
+
+        verify(repository).insertAll(argThat(list -> list.size() == 2
+                && list.stream().noneMatch(careLog -> deleted.equals(careLog.getPlantId()))));
+        assertEquals(2, writer.getWritten());
+    }
+}
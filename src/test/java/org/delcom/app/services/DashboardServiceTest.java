@@ -0,0 +1,215 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.DashboardStats;
+import org.delcom.app.dto.PlantStats;
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.UserStats;
+import org.delcom.app.repositories.PlantHealthRepository;
+import org.delcom.app.repositories.PlantRepository;
+import org.delcom.app.repositories.ScheduleRepository;
+import org.delcom.app.repositories.UserStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private PlantHealthRepository plantHealthRepository;
+
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("User", "user@example.com", "hash");
+        user.setId(UUID.randomUUID());
+    }
+
+    private UserStats storedStats(LocalDate computedOn) {
+        UserStats stats = new UserStats(user.getId());
+        stats.setTotalPlants(4);
+        stats.setNeedsWater(1);
+        stats.setWellWatered(3);
+        stats.setUniqueSpecies(2);
+        stats.setSickLogs(1);
+        stats.setSchedules(2);
+        stats.setComputedOn(computedOn);
+        return stats;
+    }
+
+    @Test
+    void getStats_BarisHariIni_HanyaLookupPrimaryKey() {
+        when(userStatsRepository.findById(user.getId())).thenReturn(Optional.of(storedStats(LocalDate.now())));
+
+        DashboardStats stats = dashboardService.getStats(user);
+
+        assertEquals(4, stats.getPlantStats().getTotalPlants());
+        assertEquals(3, stats.getPlantStats().getHealthy());
+        assertEquals(75, stats.getHealthScore());   // 1 log sakit dari 4 tanaman
+        assertEquals(75, stats.getWaterScore());    // 3 dari 4 disiram baik
+        assertEquals(50, stats.getScheduleScore()); // 2 jadwal untuk 4 tanaman
+        verifyNoInteractions(plantRepository, scheduleRepository, plantHealthRepository);
+        verify(userStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void getStats_BarisBelumAda_DihitungLengkapLaluDisimpan() {
+        when(userStatsRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(plantRepository.getPlantStats(eq(user.getId()), any(LocalDate.class)))
+                .thenReturn(new PlantStats(2L, 1L, 1L, 2L));
+        when(plantHealthRepository.countSickByUser(user)).thenReturn(1L);
+        when(scheduleRepository.countByUser(user)).thenReturn(1L);
+
+        DashboardStats stats = dashboardService.getStats(user);
+
+        assertEquals(50, stats.getHealthScore());
+        ArgumentCaptor<UserStats> saved = ArgumentCaptor.forClass(UserStats.class);
+        verify(userStatsRepository).save(saved.capture());
+        assertEquals(user.getId(), saved.getValue().getUserId());
+        assertEquals(2, saved.getValue().getTotalPlants());
+        assertEquals(LocalDate.now(), saved.getValue().getComputedOn());
+    }
+
+    @Test
+    void getStats_BarisKemarin_HanyaStatistikTanamanDihitungUlang() {
+        when(userStatsRepository.findById(user.getId()))
+                .thenReturn(Optional.of(storedStats(LocalDate.now().minusDays(1))));
+        when(plantRepository.getPlantStats(eq(user.getId()), any(LocalDate.class)))
+                .thenReturn(new PlantStats(4L, 4L, 0L, 2L));
+
+        DashboardStats stats = dashboardService.getStats(user);
+
+        assertEquals(0, stats.getWaterScore());
+        assertEquals(2, stats.getSchedules());
+        verify(userStatsRepository).save(any(UserStats.class));
+        verifyNoInteractions(scheduleRepository, plantHealthRepository);
+    }
+
+    @Test
+    void getStats_GagalSimpan_TetapMengembalikanAngka() {
+        when(userStatsRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(plantRepository.getPlantStats(eq(user.getId()), any(LocalDate.class))).thenReturn(null);
+        when(userStatsRepository.save(any())).thenThrow(new RuntimeException("duplicate key"));
+
+        DashboardStats stats = dashboardService.getStats(user);
+
+        assertEquals(0, stats.getPlantStats().getTotalPlants());
+    }
+
+    @Test
+    void getStats_UserTanpaId_MengembalikanNol() {
+        DashboardStats stats = dashboardService.getStats(new User());
+
+        assertEquals(0, stats.getHealthScore());
+        verifyNoInteractions(userStatsRepository);
+    }
+
+    @Test
+    void refresh_HanyaKolomTerdampakDiperbarui() {
+        when(plantRepository.getPlantStats(eq(user.getId()), any(LocalDate.class)))
+                .thenReturn(new PlantStats(3L, 1L, 2L, 3L));
+        when(plantHealthRepository.countSickByUser(user)).thenReturn(2L);
+        when(scheduleRepository.countByUser(user)).thenReturn(5L);
+
+        dashboardService.refreshPlants(user);
+        dashboardService.refreshHealthLogs(user);
+        dashboardService.refreshSchedules(user);
+        dashboardService.refreshPlants(null);
+
+        verify(userStatsRepository).updatePlantStats(eq(user.getId()), eq(3L), eq(1L), eq(2L), eq(3L),
+                eq(LocalDate.now()), any(LocalDateTime.class));
+        verify(userStatsRepository).updateSickLogs(eq(user.getId()), eq(2L), any(LocalDateTime.class));
+        verify(userStatsRepository).updateSchedules(eq(user.getId()), eq(5L), any(LocalDateTime.class));
+        verify(userStatsRepository, never()).save(any());
+    }
+
+    @Test
+    void refresh_GagalUpdate_BarisDihapusAgarDihitungUlang() {
+        when(scheduleRepository.countByUser(user)).thenReturn(1L);
+        when(userStatsRepository.updateSchedules(eq(user.getId()), anyLong(), any()))
+                .thenThrow(new RuntimeException("db down"));
+
+        dashboardService.refreshSchedules(user);
+
+        verify(userStatsRepository).deleteById(user.getId());
+    }
+
+    @Test
+    void reconcile_MemprosesBarisBasiPerBatch() {
+        LocalDate today = LocalDate.now();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        when(userStatsRepository.findStaleUserIds(eq(today), any(Pageable.class))).thenReturn(List.of(a, b));
+        when(userStatsRepository.findStaleUserIdsAfter(eq(today), eq(b), any(Pageable.class)))
+                .thenReturn(List.of(c));
+        when(plantRepository.getPlantStats(any(UUID.class), eq(today))).thenReturn(PlantStats.empty());
+
+        assertEquals(3, dashboardService.reconcile(today, 2, 10));
+
+        verify(userStatsRepository, times(3)).updatePlantStats(any(UUID.class), anyLong(), anyLong(), anyLong(),
+                anyLong(), eq(today), any(LocalDateTime.class));
+        // Batch kedua lebih kecil dari batchSize, jadi tidak ada query ketiga
+        verify(userStatsRepository, times(1)).findStaleUserIds(eq(today), any(Pageable.class));
+        verify(userStatsRepository, times(1)).findStaleUserIdsAfter(eq(today), any(UUID.class), any(Pageable.class));
+    }
+
+    @Test
+    void reconcile_BatchYangTerusGagalDilewati() {
+        LocalDate today = LocalDate.now();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        // a dan b tetap basi karena selalu gagal; keyset melanjutkan setelah b
+        when(userStatsRepository.findStaleUserIds(eq(today), any(Pageable.class))).thenReturn(List.of(a, b));
+        when(userStatsRepository.findStaleUserIdsAfter(eq(today), eq(b), any(Pageable.class)))
+                .thenReturn(List.of(c));
+        when(plantRepository.getPlantStats(a, today)).thenThrow(new RuntimeException("db down"));
+        when(plantRepository.getPlantStats(b, today)).thenThrow(new RuntimeException("db down"));
+        when(plantRepository.getPlantStats(c, today)).thenReturn(PlantStats.empty());
+
+        assertEquals(1, dashboardService.reconcile(today, 2, 10));
+
+        verify(userStatsRepository).updatePlantStats(eq(c), anyLong(), anyLong(), anyLong(), anyLong(), eq(today),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void plantStats_NilaiSumNullMenjadiNol() {
+        PlantStats stats = new PlantStats(0L, null, null, 0L);
+
+        assertEquals(0, stats.getNeedsWater());
+        assertEquals(0, stats.getWellWatered());
+        assertEquals(0, stats.getHealthy());
+    }
+}
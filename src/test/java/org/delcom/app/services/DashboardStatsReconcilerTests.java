@@ -0,0 +1,25 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class DashboardStatsReconcilerTests {
+    @Test
+    @DisplayName("Reconciler memperbarui statistik untuk tanggal hari ini")
+    void testReconcile() {
+        DashboardService dashboardService = Mockito.mock(DashboardService.class);
+        DashboardStatsReconciler reconciler = new DashboardStatsReconciler(dashboardService, 200, 500);
+
+        Mockito.when(dashboardService.reconcile(LocalDate.now(), 200, 500))
+                .thenReturn(7)
+                .thenReturn(0);
+
+        assertEquals(7, reconciler.reconcile());
+        assertEquals(0, reconciler.reconcile());
+    }
+}
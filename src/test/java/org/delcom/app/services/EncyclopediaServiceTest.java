@@ -2,29 +2,23 @@ package org.delcom.app.services;
 
 import org.delcom.app.entities.Encyclopedia;
 import org.delcom.app.repositories.EncyclopediaRepository;
+import org.delcom.app.services.FileStorageService.ImageType;
+import org.delcom.app.services.FileStorageService.StoredFile;
+import org.delcom.app.services.FileStorageService.UploadRejectedException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,63 +27,53 @@ class EncyclopediaServiceTest {
     @Mock
     private EncyclopediaRepository repository;
 
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private SearchService searchService;
+
     private EncyclopediaService service;
 
-    // --- TEST 1: Constructor Success (Create Directory) ---
-    @Test
-    void testConstructor_Success() {
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            
-            service = new EncyclopediaService(repository);
-            
-            filesMock.verify(() -> Files.createDirectories(any(Path.class)));
-        }
+    @BeforeEach
+    void setUp() {
+        service = new EncyclopediaService(repository, fileStorageService, imageVariantService, searchService);
     }
 
-    // --- TEST 2: Constructor Exception (Catch Block Line 26) ---
-    @Test
-    void testConstructor_Exception() {
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            filesMock.when(() -> Files.createDirectories(any(Path.class)))
-                    .thenThrow(new IOException("Permission Denied"));
-            
-            // Assert no exception thrown to caller (handled in constructor)
-            assertDoesNotThrow(() -> new EncyclopediaService(repository));
-        }
+    // Data yang sudah ada di DB dengan gambar tersimpan
+    private Encyclopedia existing(String storedImage) {
+        Encyclopedia entry = new Encyclopedia();
+        entry.setId(5L);
+        Encyclopedia persisted = new Encyclopedia();
+        persisted.setImagePath(storedImage);
+        when(repository.findById(5L)).thenReturn(Optional.of(persisted));
+        return entry;
     }
 
-    // --- TEST 3: Get All Entries ---
+    private MultipartFile uploadedFile() {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        return file;
+    }
+
+    // --- TEST 1: Get All Entries ---
     @Test
     void testGetAllEntries() {
-        // Mock static Files/Paths just to instantiate service safely
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
         when(repository.findAll()).thenReturn(Collections.emptyList());
         List<Encyclopedia> result = service.getAllEntries();
         assertNotNull(result);
         verify(repository).findAll();
     }
 
-    // --- TEST 4: Get Entry By Id (Found & Not Found) ---
+    // --- TEST 2: Get Entry By Id (Found & Not Found) ---
     @Test
     void testGetEntryById() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
         Long id = 1L;
         Encyclopedia entry = new Encyclopedia();
-        
+
         // Case Found
         when(repository.findById(id)).thenReturn(Optional.of(entry));
         assertEquals(entry, service.getEntryById(id));
@@ -99,29 +83,21 @@ class EncyclopediaServiceTest {
         assertNull(service.getEntryById(99L));
     }
 
-    // --- TEST 5: Save Entry - File is Null (Line 34: False) ---
+    // --- TEST 3: Save Entry - File is Null ---
     @Test
     void testSaveEntry_FileIsNull() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
         Encyclopedia entry = new Encyclopedia();
         service.saveEntry(entry, null);
 
         verify(repository).save(entry);
+        verifyNoInteractions(fileStorageService);
         assertNull(entry.getImagePath());
+        verify(searchService).indexEncyclopedia(entry);
     }
 
-    // --- TEST 6: Save Entry - File is Empty (Line 34: False) ---
+    // --- TEST 4: Save Entry - File is Empty ---
     @Test
     void testSaveEntry_FileIsEmpty() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
         Encyclopedia entry = new Encyclopedia();
         MultipartFile file = mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(true);
@@ -129,214 +105,94 @@ class EncyclopediaServiceTest {
         service.saveEntry(entry, file);
 
         verify(repository).save(entry);
-        verify(file, never()).getOriginalFilename();
+        verifyNoInteractions(fileStorageService);
     }
 
-    // --- TEST 7: Save Entry - New File, No Old Image (Line 34: True, Line 40: False) ---
+    // --- TEST 5: Save Entry - New File, No Old Image ---
     @Test
     void testSaveEntry_NewFile_NoOldImage() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
         Encyclopedia entry = new Encyclopedia();
-        entry.setImagePath(null); // No old image
-        
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn("new.jpg");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
-
-        // Prepare UUID outside stubbing
-        UUID fixedUuid = UUID.fromString("00000000-0000-0000-0000-000000000000");
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenReturn(new StoredFile("monstera.webp", 4, "hash", ImageType.WEBP));
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class);
-             MockedStatic<UUID> uuidMock = Mockito.mockStatic(UUID.class, Mockito.CALLS_REAL_METHODS)) {
-
-            uuidMock.when(UUID::randomUUID).thenReturn(fixedUuid);
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class))).thenReturn(1L);
-
-            service.saveEntry(entry, file);
+        service.saveEntry(entry, file);
 
-            // Verify delete skipped
-            filesMock.verify(() -> Files.deleteIfExists(any()), never());
-            assertTrue(entry.getImagePath().contains("new.jpg"));
-            verify(repository).save(entry);
-        }
+        assertEquals("monstera.webp", entry.getImagePath());
+        verify(fileStorageService, never()).releaseFile(any());
+        verify(repository).save(entry);
+        verify(imageVariantService).generateAsync("monstera.webp");
     }
 
-    // --- TEST 8: Save Entry - New File, Old Image is Empty String (Line 40: False) ---
+    // --- TEST 6: Save Entry - New File, Old Image Empty ---
     @Test
     void testSaveEntry_NewFile_OldImageEmpty() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
-        Encyclopedia entry = new Encyclopedia();
-        entry.setImagePath(""); // Empty string
-        
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn("new.jpg");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
-
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
+        Encyclopedia entry = existing("");
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenReturn(new StoredFile("new.jpg", 4, "hash", ImageType.JPEG));
 
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class))).thenReturn(1L);
-
-            service.saveEntry(entry, file);
+        service.saveEntry(entry, file);
 
-            // Verify delete skipped because old image path was empty
-            filesMock.verify(() -> Files.deleteIfExists(any()), never());
-            assertTrue(entry.getImagePath().contains("new.jpg"));
-        }
+        verify(fileStorageService, never()).releaseFile(any());
+        assertEquals("new.jpg", entry.getImagePath());
     }
 
-    // --- TEST 9: Save Entry - Replace Old Image (Line 40: True) ---
+    // --- TEST 7: Save Entry - Replace Old Image ---
     @Test
     void testSaveEntry_ReplaceOldImage() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
-        Encyclopedia entry = new Encyclopedia();
-        entry.setImagePath("old.png"); // Exists
-        
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn("new.png");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
+        Encyclopedia entry = existing("old.jpg");
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenReturn(new StoredFile("new.jpg", 4, "hash", ImageType.JPEG));
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            filesMock.when(() -> Files.deleteIfExists(any(Path.class))).thenReturn(true);
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class))).thenReturn(1L);
-
-            service.saveEntry(entry, file);
+        service.saveEntry(entry, file);
 
-            // Verify delete executed
-            filesMock.verify(() -> Files.deleteIfExists(any(Path.class)));
-            assertTrue(entry.getImagePath().contains("new.png"));
-        }
+        verify(fileStorageService).releaseFile("old.jpg");
+        assertEquals("new.jpg", entry.getImagePath());
     }
 
-    // --- TEST 10: Save Entry - Delete Exception Ignored (Line 41 Catch) ---
+    // --- TEST 8: Save Entry - Upload ditolak ---
     @Test
-    void testSaveEntry_DeleteException() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
+    void testSaveEntry_UploadRejected() throws IOException {
         Encyclopedia entry = new Encyclopedia();
-        entry.setImagePath("old.png");
-        
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn("new.png");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
-
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenThrow(new UploadRejectedException("Format file tidak didukung"));
 
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            // Force Exception
-            filesMock.when(() -> Files.deleteIfExists(any(Path.class))).thenThrow(new IOException("Locked"));
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class))).thenReturn(1L);
-
-            assertDoesNotThrow(() -> service.saveEntry(entry, file));
-        }
+        assertThrows(UploadRejectedException.class, () -> service.saveEntry(entry, file));
+        verify(repository, never()).save(any());
     }
 
-    // --- TEST 11: Delete Entry - Not Found (Line 51: False) ---
+    // --- TEST 9: Delete Entry - Not Found ---
     @Test
     void testDeleteEntry_NotFound() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
         when(repository.findById(1L)).thenReturn(Optional.empty());
         service.deleteEntry(1L);
         verify(repository, never()).deleteById(any());
+        verifyNoInteractions(searchService);
     }
 
-    // --- TEST 12: Delete Entry - No Image (Line 52: False) ---
+    // --- TEST 10: Delete Entry - No Image ---
     @Test
     void testDeleteEntry_NoImage() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
         Encyclopedia entry = new Encyclopedia();
         entry.setImagePath(null);
         when(repository.findById(1L)).thenReturn(Optional.of(entry));
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            service.deleteEntry(1L);
-            
-            filesMock.verify(() -> Files.deleteIfExists(any()), never());
-            verify(repository).deleteById(1L);
-        }
+        service.deleteEntry(1L);
+
+        verify(fileStorageService, never()).releaseFile(any());
+        verify(repository).deleteById(1L);
+        verify(searchService).removeEncyclopedia(1L);
     }
 
-    // --- TEST 13: Delete Entry - With Image (Line 52: True) ---
+    // --- TEST 11: Delete Entry - With Image ---
     @Test
     void testDeleteEntry_WithImage() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
         Encyclopedia entry = new Encyclopedia();
         entry.setImagePath("img.jpg");
         when(repository.findById(1L)).thenReturn(Optional.of(entry));
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            
-            service.deleteEntry(1L);
-            
-            filesMock.verify(() -> Files.deleteIfExists(any(Path.class)));
-            verify(repository).deleteById(1L);
-        }
-    }
-
-    // --- TEST 14: Delete Entry - Exception Ignored (Line 54 Catch) ---
-    @Test
-    void testDeleteEntry_Exception() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            service = new EncyclopediaService(repository);
-        }
-
-        Encyclopedia entry = new Encyclopedia();
-        entry.setImagePath("img.jpg");
-        when(repository.findById(1L)).thenReturn(Optional.of(entry));
+        service.deleteEntry(1L);
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            filesMock.when(() -> Files.deleteIfExists(any())).thenThrow(new IOException("Fail"));
-            
-            service.deleteEntry(1L);
-            
-            verify(repository).deleteById(1L);
-        }
+        verify(fileStorageService).releaseFile("img.jpg");
+        verify(repository).deleteById(1L);
     }
-}
\ No newline at end of file
+}
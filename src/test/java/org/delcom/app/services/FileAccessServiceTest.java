@@ -0,0 +1,80 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.EncyclopediaRepository;
+import org.delcom.app.repositories.PlantHealthRepository;
+import org.delcom.app.repositories.PlantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FileAccessServiceTest {
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @Mock
+    private PlantHealthRepository plantHealthRepository;
+
+    @Mock
+    private EncyclopediaRepository encyclopediaRepository;
+
+    @InjectMocks
+    private FileAccessService fileAccessService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void testCanRead_OwnPlantPhoto() {
+        when(plantRepository.existsByUserAndImagePath(user, "a.png")).thenReturn(true);
+
+        assertTrue(fileAccessService.canRead(user, "a.png"));
+        verifyNoInteractions(encyclopediaRepository);
+    }
+
+    @Test
+    void testCanRead_OwnHealthLogPhoto() {
+        when(plantHealthRepository.existsByUserAndImagePath(user, "h.png")).thenReturn(true);
+
+        assertTrue(fileAccessService.canRead(user, "h.png"));
+    }
+
+    @Test
+    void testCanRead_EncyclopediaPhotoIsShared() {
+        when(encyclopediaRepository.existsByImagePath("e.png")).thenReturn(true);
+
+        assertTrue(fileAccessService.canRead(user, "e.png"));
+        assertTrue(fileAccessService.canRead(null, "e.png"));
+    }
+
+    @Test
+    void testCanRead_OtherUsersPhoto() {
+        assertFalse(fileAccessService.canRead(user, "other.png"));
+    }
+
+    @Test
+    void testCanRead_EmptyPath() {
+        assertFalse(fileAccessService.canRead(user, null));
+        assertFalse(fileAccessService.canRead(user, ""));
+        verify(plantRepository, never()).existsByUserAndImagePath(any(), anyString());
+        verifyNoInteractions(encyclopediaRepository);
+    }
+}
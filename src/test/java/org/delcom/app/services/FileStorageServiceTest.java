@@ -1,21 +1,29 @@
 package org.delcom.app.services;
 
+import org.delcom.app.entities.UploadBlob;
+import org.delcom.app.repositories.UploadBlobRepository;
+import org.delcom.app.services.FileStorageService.ImageType;
+import org.delcom.app.services.FileStorageService.StoredFile;
+import org.delcom.app.services.FileStorageService.UploadRejectedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,101 +35,184 @@ class FileStorageServiceTest {
     private FileStorageService service;
 
     @Mock
-    private MultipartFile multipartFile;
+    private UploadBlobRepository blobRepository;
 
     @BeforeEach
     void setUp() {
-        service = new FileStorageService();
+        service = new FileStorageService(blobRepository);
         // Set field protected secara manual karena tidak ada @Value di unit test
         service.uploadDir = "./test-uploads"; 
     }
 
-    // --- TEST 1: Store File - Directory Tidak Ada (Buat Baru) ---
-    // Coverage: Baris 21-23, 27-38
-    @Test
-    void testStoreFile_CreateDir_Success() throws IOException {
-        UUID todoId = UUID.randomUUID();
-        String originalName = "image.png";
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    private byte[] pngBytes(int size) {
+        byte[] data = new byte[size];
+        System.arraycopy(PNG_HEADER, 0, data, 0, PNG_HEADER.length);
+        return data;
+    }
 
-        when(multipartFile.getOriginalFilename()).thenReturn(originalName);
-        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("test".getBytes()));
+    private MockMultipartFile upload(byte[] content) {
+        // Nama & Content-Type sengaja menyesatkan: jenis file harus dari magic bytes
+        return new MockMultipartFile("imageFile", "../../evil.exe", "text/plain", content);
+    }
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class)) {
-            // Setup: Directory belum ada -> harus createDirectories
-            filesMock.when(() -> Files.exists(any(Path.class))).thenReturn(false);
-            filesMock.when(() -> Files.createDirectories(any(Path.class))).thenReturn(null);
-            
-            // Setup: Copy berhasil
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class)))
-                    .thenReturn(1L);
-
-            String result = service.storeFile(multipartFile, todoId);
-
-            // Verifikasi format nama file: cover_UUID.ext
-            assertNotNull(result);
-            assertTrue(result.startsWith("cover_" + todoId.toString()));
-            assertTrue(result.endsWith(".png"));
-
-            // Verifikasi createDirectories dipanggil
-            filesMock.verify(() -> Files.createDirectories(any(Path.class)));
+    private long filesIn(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
         }
     }
 
-    // --- TEST 2: Store File - Directory Sudah Ada ---
-    // Coverage: Baris 22 (False), lewati 23
+    // --- TEST 1: Store Image - Directory dibuat, hash & ekstensi dari isi ---
     @Test
-    void testStoreFile_DirExists() throws IOException {
-        UUID todoId = UUID.randomUUID();
-        when(multipartFile.getOriginalFilename()).thenReturn("test.jpg");
-        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
-
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class)) {
-            // Setup: Directory SUDAH ada
-            filesMock.when(() -> Files.exists(any(Path.class))).thenReturn(true);
-            
-            service.storeFile(multipartFile, todoId);
+    void testStoreImage_CreatesDirAndHashes(@TempDir Path tempDir) throws Exception {
+        Path uploadPath = tempDir.resolve("uploads");
+        service.uploadDir = uploadPath.toString();
+        byte[] content = pngBytes(20_000); // lebih dari satu blok buffer
+
+        StoredFile stored = service.storeImage(upload(content));
+
+        String expectedHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(expectedHash, stored.getSha256());
+        assertEquals(ImageType.PNG, stored.getType());
+        assertEquals(content.length, stored.getSize());
+        // Path content-addressed & di-shard: "ab/cd/<hash>.png"
+        assertEquals(expectedHash.substring(0, 2) + "/" + expectedHash.substring(2, 4) + "/" + expectedHash + ".png",
+                stored.getFilename());
+        assertArrayEquals(content, Files.readAllBytes(uploadPath.resolve(stored.getFilename())));
+        // Tidak ada file sementara yang tertinggal, hanya folder shard
+        assertEquals(1, filesIn(uploadPath));
+        verify(blobRepository).save(argThat(blob -> blob.getSha256().equals(expectedHash)
+                && blob.getRefCount() == 1 && blob.getPath().equals(stored.getFilename())));
+    }
 
-            // Verifikasi createDirectories TIDAK dipanggil
-            filesMock.verify(() -> Files.createDirectories(any(Path.class)), never());
+    // --- TEST 1b: Store Image - Isi sama disimpan sekali, hanya hitungan yang naik ---
+    @Test
+    void testStoreImage_Deduplicates(@TempDir Path tempDir) throws IOException {
+        service.uploadDir = tempDir.toString();
+        byte[] content = pngBytes(100);
+        when(blobRepository.incrementRefCount(anyString())).thenReturn(0, 1);
+
+        StoredFile first = service.storeImage(upload(content));
+        StoredFile second = service.storeImage(upload(content));
+
+        assertEquals(first.getFilename(), second.getFilename());
+        verify(blobRepository, times(1)).save(any(UploadBlob.class));
+        verify(blobRepository, times(2)).incrementRefCount(first.getSha256());
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
         }
     }
 
-    // --- TEST 3: Store File - Tanpa Extension / Nama Aneh ---
-    // Coverage: Baris 29 (False case) -> Baris 30 dilewati (fileExtension tetap kosong)
+    // --- TEST 1c: Release - file dihapus hanya jika tidak ada pemakai lagi ---
     @Test
-    void testStoreFile_NoExtension() throws IOException {
-        UUID todoId = UUID.randomUUID();
-        // Case: Filename tidak null tapi tidak ada titik
-        when(multipartFile.getOriginalFilename()).thenReturn("filenametitk"); 
-        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
+    void testReleaseFile_RefCounted(@TempDir Path tempDir) throws IOException {
+        service.uploadDir = tempDir.toString();
+        StoredFile stored = service.storeImage(upload(pngBytes(100)));
+        Path file = tempDir.resolve(stored.getFilename());
+        when(blobRepository.existsById(stored.getSha256())).thenReturn(true);
+        when(blobRepository.deleteIfUnreferenced(stored.getSha256())).thenReturn(0, 1);
+
+        // Masih dipakai data lain
+        assertTrue(service.releaseFile(stored.getFilename()));
+        assertTrue(Files.exists(file));
+
+        // Pemakai terakhir
+        assertTrue(service.releaseFile(stored.getFilename()));
+        assertFalse(Files.exists(file));
+        verify(blobRepository, times(2)).decrementRefCount(stored.getSha256());
+    }
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class)) {
-            filesMock.when(() -> Files.exists(any(Path.class))).thenReturn(true);
+    // --- TEST 1d: Release - path lama (bukan content-addressed) langsung dihapus ---
+    @Test
+    void testReleaseFile_LegacyPath(@TempDir Path tempDir) throws IOException {
+        service.uploadDir = tempDir.toString();
+        Files.write(tempDir.resolve("1234_foto.jpg"), new byte[]{1});
 
-            String result = service.storeFile(multipartFile, todoId);
+        assertTrue(service.releaseFile("1234_foto.jpg"));
+        assertFalse(Files.exists(tempDir.resolve("1234_foto.jpg")));
+        verifyNoInteractions(blobRepository);
+    }
 
-            // Result harusnya "cover_UUID" tanpa akhiran apa-apa
-            assertTrue(result.endsWith(todoId.toString())); 
-            assertFalse(result.contains("."));
-        }
+    // --- TEST 1d2: Release - thumbnail/varian ikut dihapus bersama file asli ---
+    @Test
+    void testReleaseFile_DeletesVariants(@TempDir Path tempDir) throws IOException {
+        service.uploadDir = tempDir.toString();
+        Files.write(tempDir.resolve("foto.png"), new byte[]{1});
+        Files.write(tempDir.resolve("foto.thumb.jpg"), new byte[]{1});
+        Files.write(tempDir.resolve("foto.medium.jpg"), new byte[]{1});
+
+        assertTrue(service.releaseFile("foto.png"));
+        assertEquals(0, filesIn(tempDir));
+    }
+
+    // --- TEST 1e: Parsing hash dari path ---
+    @Test
+    void testBlobHash() {
+        String hash = "ab" + "cd" + "0".repeat(60);
+        assertEquals(hash, FileStorageService.blobHash("ab/cd/" + hash + ".png"));
+        assertNull(FileStorageService.blobHash("zz/cd/" + hash + ".png")); // shard tidak cocok
+        assertNull(FileStorageService.blobHash(hash + ".png"));
+        assertNull(FileStorageService.blobHash("https://images.unsplash.com/photo.jpg"));
+        assertNull(FileStorageService.blobHash(null));
     }
 
-    // --- TEST 4: Store File - Filename Null ---
-    // Coverage: Baris 29 (Null checks)
+    // --- TEST 2: Store Image - Magic bytes bukan gambar ditolak ---
     @Test
-    void testStoreFile_NullFilename() throws IOException {
+    void testStoreImage_RejectsNonImage(@TempDir Path tempDir) throws IOException {
+        service.uploadDir = tempDir.toString();
+
+        assertThrows(UploadRejectedException.class,
+                () -> service.storeImage(upload("<?php echo 1; ?>".getBytes())));
+        assertEquals(0, filesIn(tempDir));
+    }
+
+    // --- TEST 3: Store Image - Melebihi batas ditolak, sebelum maupun saat streaming ---
+    @Test
+    void testStoreImage_RejectsOversize(@TempDir Path tempDir) throws IOException {
+        service.uploadDir = tempDir.toString();
+        service.maxImageBytes = 10_000;
+
+        // Ukuran yang dilaporkan sudah melebihi batas: stream tidak pernah dibuka
+        MultipartFile declared = mock(MultipartFile.class);
+        when(declared.isEmpty()).thenReturn(false);
+        when(declared.getSize()).thenReturn(10_001L);
+        assertThrows(UploadRejectedException.class, () -> service.storeImage(declared));
+        verify(declared, never()).getInputStream();
+
+        // Ukuran dilaporkan kecil tapi isi stream lebih besar: dibatalkan saat streaming
+        MultipartFile lying = mock(MultipartFile.class);
+        when(lying.isEmpty()).thenReturn(false);
+        when(lying.getSize()).thenReturn(10L);
+        when(lying.getInputStream()).thenReturn(new ByteArrayInputStream(pngBytes(50_000)));
+        assertThrows(UploadRejectedException.class, () -> service.storeImage(lying));
+
+        assertEquals(0, filesIn(tempDir));
+    }
+
+    // --- TEST 4: Store File (cover) memakai pipeline yang sama ---
+    @Test
+    void testStoreFile_CoverName(@TempDir Path tempDir) throws IOException {
+        service.uploadDir = tempDir.toString();
         UUID todoId = UUID.randomUUID();
-        when(multipartFile.getOriginalFilename()).thenReturn(null);
-        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0};
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class)) {
-            filesMock.when(() -> Files.exists(any(Path.class))).thenReturn(true);
-            
-            String result = service.storeFile(multipartFile, todoId);
-            
-            // Extension tetap kosong string ""
-            assertTrue(result.contains("cover_"));
-        }
+        String result = service.storeFile(upload(jpeg), todoId);
+
+        assertEquals("cover_" + todoId + ".jpg", result);
+        assertTrue(Files.exists(tempDir.resolve(result)));
+        assertThrows(UploadRejectedException.class, () -> service.storeFile(upload(new byte[0]), todoId));
+    }
+
+    // --- TEST 4b: Deteksi jenis gambar ---
+    @Test
+    void testImageTypeSniff() {
+        byte[] gif = "GIF89a".getBytes();
+        byte[] webp = "RIFF\0\0\0\0WEBPVP8 ".getBytes();
+        assertEquals(ImageType.GIF, ImageType.sniff(gif, gif.length));
+        assertEquals(ImageType.WEBP, ImageType.sniff(webp, webp.length));
+        assertNull(ImageType.sniff(PNG_HEADER, 4)); // terpotong
+        assertNull(ImageType.sniff("RIFF0000WAVE".getBytes(), 12));
     }
 
     // --- TEST 5: Delete File - Success ---
@@ -152,6 +243,24 @@ class FileStorageServiceTest {
         }
     }
 
+    // --- TEST 6b: Delete File - Tidak boleh keluar dari folder upload ---
+    @Test
+    void testDeleteFile_PathTraversal() {
+        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class)) {
+            assertFalse(service.deleteFile("../application.properties"));
+            assertFalse(service.deleteFile(null));
+            filesMock.verify(() -> Files.deleteIfExists(any(Path.class)), never());
+        }
+    }
+
+    // --- TEST 6c: Resolve File - dibatasi di folder upload ---
+    @Test
+    void testResolveFile() {
+        assertTrue(service.resolveFile("ab/cd/x.png").endsWith(Path.of("ab", "cd", "x.png")));
+        assertNull(service.resolveFile("../../etc/passwd"));
+        assertNull(service.resolveFile(""));
+    }
+
     // --- TEST 7: Load File ---
     // Coverage: Baris 51-52
     @Test
@@ -0,0 +1,124 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.delcom.app.repositories.UploadBlobRepository;
+import org.delcom.app.services.ImageVariantService.Variant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageVariantServiceTests {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageVariantService service;
+
+    @BeforeEach
+    void setUp() {
+        FileStorageService storage = new FileStorageService(mock(UploadBlobRepository.class));
+        storage.uploadDir = uploadDir.toString();
+        service = new ImageVariantService(storage, 1, 10, 0.8f);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private String writeImage(String path, int width, int height) throws IOException {
+        Path file = uploadDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(image, "png", file.toFile());
+        return path;
+    }
+
+    private BufferedImage readVariant(String path, Variant variant) throws IOException {
+        return ImageIO.read(uploadDir.resolve(ImageVariantService.variantPath(path, variant)).toFile());
+    }
+
+    @Test
+    void generate_CreatesFixedWidthJpegVariantsNextToOriginal() throws IOException {
+        String path = writeImage("ab/cd/plant.png", 1600, 900);
+        assertNull(service.findVariant(path, Variant.THUMB));
+
+        service.generate(path);
+
+        BufferedImage thumb = readVariant(path, Variant.THUMB);
+        BufferedImage medium = readVariant(path, Variant.MEDIUM);
+        assertEquals(320, thumb.getWidth());
+        assertEquals(180, thumb.getHeight());
+        assertEquals(800, medium.getWidth());
+        assertEquals(450, medium.getHeight());
+        assertNotNull(service.findVariant(path, Variant.THUMB));
+        assertTrue(Files.exists(uploadDir.resolve("ab/cd/plant.thumb.jpg")));
+    }
+
+    @Test
+    void generate_DoesNotUpscaleSmallImages() throws IOException {
+        String path = writeImage("small.png", 200, 100);
+
+        service.generate(path);
+
+        assertEquals(200, readVariant(path, Variant.THUMB).getWidth());
+        assertEquals(200, readVariant(path, Variant.MEDIUM).getWidth());
+    }
+
+    @Test
+    void generate_IgnoresMissingAndUndecodableFiles() throws IOException {
+        service.generate("missing.png");
+        Files.write(uploadDir.resolve("broken.jpg"), new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 0 });
+
+        service.generate("broken.jpg");
+
+        assertNull(service.findVariant("broken.jpg", Variant.THUMB));
+    }
+
+    @Test
+    void generateAsync_RunsInBackground() throws Exception {
+        String path = writeImage("async.png", 1000, 1000);
+
+        service.generateAsync(path);
+
+        Path thumb = uploadDir.resolve(ImageVariantService.variantPath(path, Variant.THUMB));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Files.exists(thumb) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(Files.exists(thumb));
+    }
+
+    @Test
+    void isSupported_OnlyLocalJpegAndPngOriginals() {
+        assertTrue(ImageVariantService.isSupported("ab/cd/x.jpg"));
+        assertTrue(ImageVariantService.isSupported("x.PNG"));
+        assertFalse(ImageVariantService.isSupported("x.gif"));
+        assertFalse(ImageVariantService.isSupported("x.webp"));
+        assertFalse(ImageVariantService.isSupported("x.thumb.jpg"));
+        assertFalse(ImageVariantService.isSupported("https://images.unsplash.com/a.jpg"));
+        assertFalse(ImageVariantService.isSupported(null));
+    }
+
+    @Test
+    void variantPath_KeepsDirectoryAndReplacesExtension() {
+        assertEquals("ab/cd/hash.medium.jpg", ImageVariantService.variantPath("ab/cd/hash.png", Variant.MEDIUM));
+        assertEquals("dir.v1/file.thumb.jpg", ImageVariantService.variantPath("dir.v1/file", Variant.THUMB));
+        assertEquals(Variant.THUMB, Variant.fromSlug("thumb"));
+        assertNull(Variant.fromSlug("huge"));
+    }
+}
@@ -0,0 +1,69 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.delcom.app.entities.Plant;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.PlantRepository;
+import org.delcom.app.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class NextWateringDateMigratorTests {
+
+    @Autowired
+    private NextWateringDateMigrator migrator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Plant plant(User user, LocalDate lastWatered) {
+        Plant plant = new Plant();
+        plant.setName("Sirih");
+        plant.setWateringFrequency(3);
+        plant.setLastWatered(lastWatered);
+        plant.setUser(user);
+        return plantRepository.save(plant);
+    }
+
+    private Date nextWatering(UUID plantId) {
+        return jdbcTemplate.queryForObject("SELECT next_watering_date FROM plants WHERE id = ?", Date.class,
+                plantId);
+    }
+
+    @Test
+    void migrate_FillsRowsSavedBeforeTheColumnExisted() {
+        User user = userRepository.save(new User("Migrasi", "backfill-" + UUID.randomUUID() + "@test.com", "secret"));
+        LocalDate watered = LocalDate.of(2026, 5, 1);
+        try {
+            Plant legacy = plant(user, watered);
+            Plant neverWatered = plant(user, null);
+            // Skema lama: kolom baru masih kosong
+            jdbcTemplate.update("UPDATE plants SET next_watering_date = NULL WHERE user_id = ?", user.getId());
+
+            assertEquals(1, migrator.migrate());
+            assertEquals(0, migrator.migrate());
+
+            assertEquals(Date.valueOf(watered.plusDays(3)), nextWatering(legacy.getId()));
+            assertNull(nextWatering(neverWatered.getId()));
+        } finally {
+            jdbcTemplate.update("DELETE FROM schedules WHERE user_id = ?", user.getId());
+            jdbcTemplate.update("DELETE FROM plants WHERE user_id = ?", user.getId());
+            userRepository.deleteById(user.getId());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class PasswordHashingServiceTests {
+
+    @Test
+    @DisplayName("Encode dan matches berjalan di pool dan tercatat di statistik")
+    void testEncodeAndMatches() {
+        PasswordHashingService service = new PasswordHashingService(new BCryptPasswordEncoder(4), 2, 4, 10000);
+        try {
+            String hash = service.encode("rahasia");
+            assertTrue(service.matches("rahasia", hash));
+            assertFalse(service.matches("salah", hash));
+
+            assertEquals(3L, service.getStats().get("completed"));
+            assertEquals(3L, service.getLatencyHistogram().getCount());
+            assertEquals(0L, service.getStats().get("rejected"));
+            assertEquals(0, service.getQueueDepth());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Pool penuh langsung ditolak dengan RejectedExecutionException")
+    void testSaturatedPoolRejects() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slowEncoder = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(slowEncoder.encode(Mockito.anyString())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+
+        PasswordHashingService service = new PasswordHashingService(slowEncoder, 1, 1, 10000);
+        try {
+            // Satu task berjalan, satu task mengantre
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("b"));
+            while (service.getQueueDepth() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(RejectedExecutionException.class, () -> service.encode("c"));
+            assertEquals(1, service.getRejectedCount());
+
+            release.countDown();
+            assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Menunggu melebihi batas waktu dianggap sibuk")
+    void testWaitTimeout() {
+        PasswordEncoder slowEncoder = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(slowEncoder.encode(Mockito.anyString())).thenAnswer(inv -> {
+            Thread.sleep(2000);
+            return "hash";
+        });
+
+        PasswordHashingService service = new PasswordHashingService(slowEncoder, 1, 1, 50);
+        try {
+            assertThrows(RejectedExecutionException.class, () -> service.encode("a"));
+            assertEquals(1, service.getRejectedCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Exception dari encoder diteruskan ke pemanggil")
+    void testEncoderExceptionPropagates() {
+        PasswordEncoder brokenEncoder = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(brokenEncoder.encode(Mockito.anyString())).thenThrow(new IllegalArgumentException("rusak"));
+
+        PasswordHashingService service = new PasswordHashingService(brokenEncoder, 1, 1, 1000);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> service.encode("a"));
+        } finally {
+            service.shutdown();
+        }
+    }
+}
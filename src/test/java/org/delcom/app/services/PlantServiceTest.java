@@ -1,24 +1,27 @@
 package org.delcom.app.services;
 
+import org.delcom.app.dto.DashboardStats;
+import org.delcom.app.dto.PageSlice;
+import org.delcom.app.dto.PlantStats;
+import org.delcom.app.entities.CareLog;
 import org.delcom.app.entities.Plant;
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.PlantRepository;
+import org.delcom.app.services.FileStorageService.ImageType;
+import org.delcom.app.services.FileStorageService.StoredFile;
+import org.delcom.app.services.FileStorageService.UploadRejectedException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -26,7 +29,6 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,61 +37,109 @@ class PlantServiceTest {
     @Mock
     private PlantRepository plantRepository;
 
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private CareLogService careLogService;
+
+    @Mock
+    private WateringBuffer wateringBuffer;
+
+    @Mock
+    private ScheduleGenerator scheduleGenerator;
+
+    @Mock
+    private SearchService searchService;
+
     private PlantService plantService;
 
-    // --- TEST 1: Constructor (Success) ---
-    @Test
-    void testConstructor_Success() {
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            filesMock.when(() -> Files.createDirectories(any(Path.class))).thenReturn(null);
-            
-            plantService = new PlantService(plantRepository);
-            
-            filesMock.verify(() -> Files.createDirectories(any(Path.class)));
-        }
+    @BeforeEach
+    void setUp() {
+        plantService = new PlantService(plantRepository, dashboardService, fileStorageService, imageVariantService,
+                careLogService, wateringBuffer, scheduleGenerator, searchService);
     }
 
-    // --- TEST 2: Constructor (Exception Catch) ---
-    @Test
-    void testConstructor_Exception() {
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mock(Path.class));
-            filesMock.when(() -> Files.createDirectories(any(Path.class)))
-                    .thenThrow(new IOException("Disk Error"));
-            
-            assertDoesNotThrow(() -> new PlantService(plantRepository));
-        }
+    private MultipartFile uploadedFile() {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        return file;
+    }
+
+    // Tanaman yang sudah ada di DB dengan gambar tersimpan
+    private Plant existingPlant(String storedImage) {
+        Plant plant = new Plant();
+        plant.setId(UUID.randomUUID());
+        Plant persisted = new Plant();
+        persisted.setImagePath(storedImage);
+        when(plantRepository.findById(plant.getId())).thenReturn(Optional.of(persisted));
+        return plant;
+    }
+
+    private StoredFile stored(String filename) {
+        return new StoredFile(filename, 4, "hash", ImageType.JPEG);
     }
 
-    // --- TEST 3: Get Plants By User ---
+    // --- TEST 1: Get Plants By User ---
     @Test
     void testGetPlantsByUser() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
-
         User user = new User();
         when(plantRepository.findByUser(user)).thenReturn(Collections.emptyList());
-        
+
         List<Plant> result = plantService.getPlantsByUser(user);
         assertNotNull(result);
         verify(plantRepository).findByUser(user);
     }
 
+    // --- TEST 2: Daftar tanaman per halaman (offset & keyset) ---
+    @Test
+    void testGetPlantsPage() {
+        User user = new User();
+        Plant anchor = new Plant();
+        anchor.setId(UUID.randomUUID());
+        anchor.setName("Aloe");
+        Plant next = new Plant();
+        next.setId(UUID.randomUUID());
+        next.setName("Bonsai");
+        UUID missing = UUID.randomUUID();
+
+        when(plantRepository.findById(anchor.getId())).thenReturn(Optional.of(anchor));
+        when(plantRepository.findById(missing)).thenReturn(Optional.empty());
+        when(plantRepository.findPageByUserAfter(user, "Aloe", anchor.getId(), PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(next), PageRequest.of(0, 1), true));
+        when(plantRepository.findPageByUser(user, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(anchor), PageRequest.of(0, 1), true));
+
+        PageSlice<Plant> keyset = plantService.getPlantsPage(user, 0, 1, anchor.getId());
+        assertTrue(keyset.isKeyset());
+        assertEquals(next.getId().toString(), keyset.getNextAfter());
+
+        // Acuan tidak ditemukan: kembali ke halaman pertama (offset)
+        PageSlice<Plant> fallback = plantService.getPlantsPage(user, 3, 1, missing);
+        assertFalse(fallback.isKeyset());
+        assertEquals(List.of(anchor), fallback.getContent());
+    }
+
+    // --- TEST 3: Statistik tanaman dibaca dari user_stats ---
+    @Test
+    void testGetPlantStats() {
+        User user = new User();
+        when(dashboardService.getStats(user))
+                .thenReturn(new DashboardStats(new PlantStats(2L, 1L, 1L, 2L), 0, 0));
+
+        assertEquals(2, plantService.getPlantStats(user).getTotalPlants());
+        verify(plantRepository, never()).findByUser(user);
+    }
+
     // --- TEST 4: Get Plant By Id ---
     @Test
     void testGetPlantById() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
-
         UUID id = UUID.randomUUID();
         Plant plant = new Plant();
         when(plantRepository.findById(id)).thenReturn(Optional.of(plant));
@@ -100,11 +150,6 @@ class PlantServiceTest {
     // --- TEST 5: Save Plant - File is NULL ---
     @Test
     void testSavePlant_FileIsNull() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
-
         Plant plant = new Plant();
         User user = new User();
 
@@ -112,211 +157,139 @@ class PlantServiceTest {
 
         assertEquals(user, plant.getUser());
         verify(plantRepository).save(plant);
+        verify(dashboardService).refreshPlants(user);
+        verifyNoInteractions(fileStorageService);
         assertNull(plant.getImagePath());
+        assertEquals(LocalDate.now(), plant.getLastWatered());
+        // Tanaman baru (mock save tidak memberi id): jadwal dibuat saat halaman Jadwal dibuka
+        verifyNoInteractions(scheduleGenerator);
     }
 
-    // --- TEST 6: Save Plant - File is EMPTY ---
     @Test
-    void testSavePlant_FileIsEmpty() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
+    void testSavePlant_Existing_RegeneratesSchedules() throws IOException {
+        Plant plant = existingPlant(null);
+
+        plantService.savePlant(plant, null, new User());
+
+        verify(scheduleGenerator).regenerate(List.of(plant.getId()));
+        verify(searchService).indexPlant(plant);
+    }
 
+    // --- TEST 6: Save Plant - File is Empty ---
+    @Test
+    void testSavePlant_FileIsEmpty() throws IOException {
         Plant plant = new Plant();
         User user = new User();
         MultipartFile file = mock(MultipartFile.class);
-        
+
         when(file.isEmpty()).thenReturn(true);
 
         plantService.savePlant(plant, file, user);
 
         verify(plantRepository).save(plant);
         verify(file).isEmpty();
+        verifyNoInteractions(fileStorageService);
     }
 
     // --- TEST 7: Save Plant - With New File ---
     @Test
     void testSavePlant_WithNewFile() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
-
         Plant plant = new Plant();
         User user = new User();
-        
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn("bunga.jpg");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
-
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mockPath);
-
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class)))
-                    .thenReturn(1L);
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenReturn(stored("abc.jpg"));
 
-            plantService.savePlant(plant, file, user);
+        plantService.savePlant(plant, file, user);
 
-            assertNotNull(plant.getImagePath());
-            assertTrue(plant.getImagePath().contains("bunga.jpg"));
-            filesMock.verify(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class)));
-            verify(plantRepository).save(plant);
-        }
+        assertEquals("abc.jpg", plant.getImagePath());
+        verify(fileStorageService, never()).releaseFile(any());
+        verify(plantRepository).save(plant);
+        verify(imageVariantService).generateAsync("abc.jpg");
     }
 
     // --- TEST 8: Save Plant - Replace Old File ---
     @Test
     void testSavePlant_ReplaceOldFile() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
-
-        Plant plant = new Plant();
-        plant.setImagePath("old-image.jpg"); 
-        User user = new User();
-        
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn("new-image.jpg");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
+        Plant plant = existingPlant("old-image.jpg");
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenReturn(stored("new-image.png"));
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
+        plantService.savePlant(plant, file, new User());
 
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mockPath);
-            filesMock.when(() -> Files.deleteIfExists(any(Path.class))).thenReturn(true);
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class)))
-                    .thenReturn(1L);
-
-            plantService.savePlant(plant, file, user);
-
-            filesMock.verify(() -> Files.deleteIfExists(any(Path.class))); 
-            assertTrue(plant.getImagePath().contains("new-image.jpg"));
-        }
+        verify(fileStorageService).releaseFile("old-image.jpg");
+        assertEquals("new-image.png", plant.getImagePath());
     }
 
     // --- TEST 9: Save Plant - Old Image is Empty String ---
     @Test
     void testSavePlant_OldImageIsEmptyString() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
+        Plant plant = existingPlant("");
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenReturn(stored("new.jpg"));
 
-        Plant plant = new Plant();
-        plant.setImagePath(""); 
-        User user = new User();
-        
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn("new.jpg");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
-
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mockPath);
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class)))
-                    .thenReturn(1L);
-
-            plantService.savePlant(plant, file, user);
+        plantService.savePlant(plant, file, new User());
 
-            filesMock.verify(() -> Files.deleteIfExists(any(Path.class)), never());
-            assertTrue(plant.getImagePath().contains("new.jpg"));
-        }
+        verify(fileStorageService, never()).releaseFile(any());
+        assertEquals("new.jpg", plant.getImagePath());
     }
 
-    // --- TEST 10: Save Plant - Same Filename (Coverage Line 40) ---
+    // --- TEST 10: Save Plant - Foto yang sama diupload ulang ---
     @Test
-    void testSavePlant_SameFilename_UUIDMock() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
+    void testSavePlant_SameFilename() throws IOException {
+        Plant plant = existingPlant("ab/cd/same.jpg");
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenReturn(stored("ab/cd/same.jpg"));
 
-        Plant plant = new Plant();
-        User user = new User();
-        
-        UUID fixedUuid = UUID.fromString("00000000-0000-0000-0000-000000000000");
-        String originalFilename = "test.jpg";
-        String expectedFilename = fixedUuid.toString() + "_" + originalFilename;
+        plantService.savePlant(plant, file, new User());
 
-        plant.setImagePath(expectedFilename);
+        // storeImage menambah satu pemakai, pemakaian lama dilepas: hitungan tetap
+        verify(fileStorageService).releaseFile("ab/cd/same.jpg");
+        assertEquals("ab/cd/same.jpg", plant.getImagePath());
+    }
 
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn(originalFilename);
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
+    // --- TEST 11: Save Plant - Upload ditolak, data tidak disimpan ---
+    @Test
+    void testSavePlant_UploadRejected() throws IOException {
+        Plant plant = existingPlant("old.jpg");
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenThrow(new UploadRejectedException("Format file tidak didukung"));
 
-        // PENTING: Gunakan CALLS_REAL_METHODS pada UUID agar toString() berfungsi normal
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class);
-             MockedStatic<UUID> uuidMock = Mockito.mockStatic(UUID.class, Mockito.CALLS_REAL_METHODS)) {
-            
-            uuidMock.when(UUID::randomUUID).thenReturn(fixedUuid);
+        assertThrows(UploadRejectedException.class, () -> plantService.savePlant(plant, file, new User()));
 
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mockPath);
+        verify(fileStorageService, never()).releaseFile(any());
+        verify(plantRepository, never()).save(any());
+    }
 
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class)))
-                    .thenReturn(1L);
+    // --- TEST 11b: Save Plant - Tanpa file baru, path gambar dari form diabaikan ---
+    @Test
+    void testSavePlant_KeepsStoredImagePath() throws IOException {
+        Plant plant = existingPlant("mine.jpg");
+        plant.setImagePath("someone-else.jpg"); // nilai hidden field yang diubah klien
 
-            plantService.savePlant(plant, file, user);
+        plantService.savePlant(plant, null, new User());
 
-            // VERIFY: never() karena logika code: if (!equals) delete.
-            // Karena equals == true, maka delete di-skip.
-            filesMock.verify(() -> Files.deleteIfExists(any(Path.class)), never());
-            
-            assertEquals(expectedFilename, plant.getImagePath());
-        }
+        assertEquals("mine.jpg", plant.getImagePath());
+        verifyNoInteractions(fileStorageService);
     }
 
-    // --- TEST 11: Save Plant - Exception Ignored (Coverage Line 41) ---
+    // --- TEST 11c: Save Plant - Gagal simpan ke DB, gambar baru dilepas lagi ---
     @Test
-    void testSavePlant_ReplaceOldFile_Exception() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
+    void testSavePlant_SaveFailsReleasesNewImage() throws IOException {
+        Plant plant = existingPlant("old.jpg");
+        MultipartFile file = uploadedFile();
+        when(fileStorageService.storeImage(file)).thenReturn(stored("new.jpg"));
+        when(plantRepository.save(plant)).thenThrow(new IllegalStateException("db down"));
 
-        Plant plant = new Plant();
-        plant.setImagePath("old.jpg");
-        User user = new User();
-        
-        MultipartFile file = mock(MultipartFile.class);
-        when(file.isEmpty()).thenReturn(false);
-        when(file.getOriginalFilename()).thenReturn("new.jpg");
-        when(file.getInputStream()).thenReturn(new ByteArrayInputStream("data".getBytes()));
-
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mockPath);
-
-            filesMock.when(() -> Files.deleteIfExists(any(Path.class))).thenThrow(new IOException("Locked"));
-            filesMock.when(() -> Files.copy(any(InputStream.class), any(Path.class), any(StandardCopyOption.class)))
-                    .thenReturn(1L);
-            
-            assertDoesNotThrow(() -> plantService.savePlant(plant, file, user));
-        }
+        assertThrows(IllegalStateException.class, () -> plantService.savePlant(plant, file, new User()));
+
+        verify(fileStorageService).releaseFile("new.jpg");
+        verify(fileStorageService, never()).releaseFile("old.jpg");
+        verifyNoInteractions(imageVariantService);
     }
 
     // --- TEST 12: Delete Plant - Not Found ---
     @Test
     void testDeletePlant_NotFound() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
         UUID id = UUID.randomUUID();
         when(plantRepository.findById(id)).thenReturn(Optional.empty());
         plantService.deletePlant(id);
@@ -326,89 +299,228 @@ class PlantServiceTest {
     // --- TEST 13: Delete Plant - Success ---
     @Test
     void testDeletePlant_SuccessWithFile() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
-
         UUID id = UUID.randomUUID();
         Plant plant = new Plant();
         plant.setImagePath("img.jpg");
         when(plantRepository.findById(id)).thenReturn(Optional.of(plant));
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mockPath);
+        plantService.deletePlant(id);
 
-            plantService.deletePlant(id);
-            filesMock.verify(() -> Files.deleteIfExists(any(Path.class)));
-            verify(plantRepository).deleteById(id);
-        }
+        verify(fileStorageService).releaseFile("img.jpg");
+        verify(plantRepository).deleteById(id);
     }
 
-    // --- TEST 14: Delete Plant - Exception Ignored (Coverage Line 53) ---
+    // --- Delete Plant - jadwal otomatis dihapus sebelum tanamannya (FK plant_id) ---
     @Test
-    void testDeletePlant_Exception() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
+    void testDeletePlant_RemovesGeneratedSchedulesFirst() {
+        UUID id = UUID.randomUUID();
+        User owner = owner();
+        Plant plant = new Plant();
+        plant.setUser(owner);
+        when(plantRepository.findById(id)).thenReturn(Optional.of(plant));
+        when(scheduleGenerator.deleteForPlant(id)).thenReturn(3);
 
+        plantService.deletePlant(id);
+
+        var order = inOrder(scheduleGenerator, plantRepository);
+        order.verify(scheduleGenerator).deleteForPlant(id);
+        order.verify(plantRepository).deleteById(id);
+        verify(dashboardService).refreshSchedules(owner);
+        verify(searchService).removePlant(owner, id);
+    }
+
+    // --- TEST 14: Delete Plant - File gagal dihapus, data tetap dihapus ---
+    @Test
+    void testDeletePlant_FileDeleteFails() {
         UUID id = UUID.randomUUID();
         Plant plant = new Plant();
         plant.setImagePath("img.jpg");
         when(plantRepository.findById(id)).thenReturn(Optional.of(plant));
+        when(fileStorageService.releaseFile("img.jpg")).thenReturn(false);
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            Path mockPath = mock(Path.class);
-            pathsMock.when(() -> Paths.get(anyString())).thenReturn(mockPath);
+        plantService.deletePlant(id);
+        verify(plantRepository).deleteById(id);
+    }
 
-            filesMock.when(() -> Files.deleteIfExists(any(Path.class))).thenThrow(new IOException("Error"));
-            plantService.deletePlant(id);
-            verify(plantRepository).deleteById(id);
-        }
+    private User owner() {
+        User owner = new User();
+        owner.setId(UUID.randomUUID());
+        return owner;
     }
 
-    // --- TEST 15: Water Plant - Not Found ---
+    // --- TEST 15: Water Plants - Bukan milik user / tidak ada ---
     @Test
-    void testWaterPlantNow_NotFound() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
+    void testWaterPlants_NoneOwned() {
+        User owner = owner();
         UUID id = UUID.randomUUID();
-        when(plantRepository.findById(id)).thenReturn(Optional.empty());
-        plantService.waterPlantNow(id);
+        when(plantRepository.updateLastWatered(owner.getId(), List.of(id), LocalDate.now())).thenReturn(0);
+
+        assertEquals(0, plantService.waterPlants(owner, List.of(id)));
+
+        verify(plantRepository, never()).save(any());
+        verifyNoInteractions(careLogService);
+        verify(dashboardService, never()).refreshPlants(any());
+    }
+
+    // --- TEST 16: Water Plants - Satu UPDATE, tanpa findById + save ---
+    @Test
+    void testWaterPlants_AllOwned() {
+        User owner = owner();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(plantRepository.updateLastWatered(owner.getId(), ids, LocalDate.now())).thenReturn(2);
+
+        assertEquals(2, plantService.waterPlants(owner, ids));
+
+        verify(plantRepository, never()).findById(any());
         verify(plantRepository, never()).save(any());
+        verify(plantRepository, never()).findIdsByUserAndIdIn(any(), any());
+        verify(careLogService).recordAll(ids, CareLog.WATERING, null);
+        verify(dashboardService).refreshPlants(owner);
+        verify(scheduleGenerator).regenerate(ids);
+    }
+
+    @Test
+    void testWaterPlants_PartlyOwned_LogsOnlyOwned() {
+        User owner = owner();
+        UUID mine = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        when(plantRepository.updateLastWatered(owner.getId(), List.of(mine, other), LocalDate.now())).thenReturn(1);
+        when(plantRepository.findIdsByUserAndIdIn(owner.getId(), List.of(mine, other))).thenReturn(List.of(mine));
+
+        assertEquals(1, plantService.waterPlants(owner, List.of(mine, other, mine)));
+
+        verify(careLogService).recordAll(List.of(mine), CareLog.WATERING, null);
     }
 
-    // --- TEST 16: Water Plant - Success ---
     @Test
-    void testWaterPlantNow_Success() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
+    void testWaterPlants_LargeSelection_ChunkedStatements() {
+        User owner = owner();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < PlantService.MAX_IDS_PER_STATEMENT + 5; i++) {
+            ids.add(UUID.randomUUID());
         }
+        when(plantRepository.updateLastWatered(eq(owner.getId()), anyList(), eq(LocalDate.now())))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(1)).size());
+
+        assertEquals(ids.size(), plantService.waterPlants(owner, ids));
+
+        verify(plantRepository, times(2)).updateLastWatered(eq(owner.getId()), anyList(), eq(LocalDate.now()));
+    }
+
+    @Test
+    void testWaterPlants_NoUser() {
+        assertEquals(0, plantService.waterPlants(null, List.of(UUID.randomUUID())));
+        verifyNoInteractions(plantRepository);
+    }
+
+    @Test
+    void testWaterDuePlants() {
+        User owner = owner();
+        List<UUID> due = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(plantRepository.findDueIdsByUser(owner.getId(), LocalDate.now())).thenReturn(due);
+
+        assertEquals(3, plantService.waterDuePlants(owner));
+
+        verify(plantRepository).updateLastWatered(owner.getId(), due, LocalDate.now());
+        verify(careLogService).recordAll(due, CareLog.WATERING, null);
+        verify(dashboardService).refreshPlants(owner);
+    }
+
+    @Test
+    void testWaterDuePlants_NothingDue() {
+        User owner = owner();
+        when(plantRepository.findDueIdsByUser(owner.getId(), LocalDate.now())).thenReturn(List.of());
+
+        assertEquals(0, plantService.waterDuePlants(owner));
+
+        verify(plantRepository, never()).updateLastWatered(any(), any(), any());
+        verify(dashboardService, never()).refreshPlants(any());
+    }
+
+    @Test
+    void testWaterPlants_WriteBehind_OnlyChecksOwnership() {
+        User owner = owner();
+        UUID mine = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        when(wateringBuffer.isEnabled()).thenReturn(true);
+        when(plantRepository.findIdsByUserAndIdIn(owner.getId(), List.of(mine, other))).thenReturn(List.of(mine));
+        when(wateringBuffer.add(eq(owner.getId()), eq(List.of(mine)), any())).thenReturn(true);
+
+        assertEquals(1, plantService.waterPlants(owner, List.of(mine, other)));
+
+        verify(plantRepository, never()).updateLastWatered(any(), any(), any());
+        verifyNoInteractions(careLogService);
+        verify(dashboardService, never()).refreshPlants(any());
+    }
+
+    @Test
+    void testWaterPlants_WriteBehind_JournalFails_WritesDirectly() {
+        User owner = owner();
+        UUID mine = UUID.randomUUID();
+        when(wateringBuffer.isEnabled()).thenReturn(true);
+        when(plantRepository.findIdsByUserAndIdIn(owner.getId(), List.of(mine))).thenReturn(List.of(mine));
+        when(plantRepository.updateLastWatered(owner.getId(), List.of(mine), LocalDate.now())).thenReturn(1);
+
+        assertEquals(1, plantService.waterPlants(owner, List.of(mine)));
+
+        verify(careLogService).recordAll(List.of(mine), CareLog.WATERING, null);
+    }
+
+    @Test
+    void testWaterDuePlants_WriteBehind() {
+        User owner = owner();
+        List<UUID> due = List.of(UUID.randomUUID());
+        when(wateringBuffer.isEnabled()).thenReturn(true);
+        when(plantRepository.findDueIdsByUser(owner.getId(), LocalDate.now())).thenReturn(due);
+        when(wateringBuffer.add(eq(owner.getId()), eq(due), any())).thenReturn(true);
+
+        assertEquals(1, plantService.waterDuePlants(owner));
+
+        verify(plantRepository, never()).updateLastWatered(any(), any(), any());
+    }
+
+    @Test
+    void testGetDuePlants() {
+        User owner = owner();
+        LocalDate until = LocalDate.now().plusDays(7);
+        List<Plant> due = List.of(new Plant());
+        when(plantRepository.findDueByUser(owner, until, PageRequest.of(0, 10))).thenReturn(due);
+
+        assertSame(due, plantService.getDuePlants(owner, until, 10));
+        assertTrue(plantService.getDuePlants(null, until, 10).isEmpty());
+    }
+
+    @Test
+    void testLogCare_Fertilizing() {
+        User owner = owner();
         UUID id = UUID.randomUUID();
-        Plant plant = new Plant();
-        when(plantRepository.findById(id)).thenReturn(Optional.of(plant));
-        plantService.waterPlantNow(id);
-        assertEquals(LocalDate.now(), plant.getLastWatered());
-        verify(plantRepository).save(plant);
+        when(plantRepository.existsByIdAndUserId(id, owner.getId())).thenReturn(true);
+
+        assertTrue(plantService.logCare(owner, id, CareLog.FERTILIZING, "NPK"));
+
+        verify(careLogService).record(id, CareLog.FERTILIZING, "NPK");
     }
 
-    // --- TEST 17: Save Plant - Date Already Exists (Coverage Line 45: ELSE branch) ---
     @Test
-    void testSavePlant_DateAlreadyExists() throws IOException {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
+    void testLogCare_NotOwned() {
+        User owner = owner();
+        UUID id = UUID.randomUUID();
+        when(plantRepository.existsByIdAndUserId(id, owner.getId())).thenReturn(false);
+
+        assertFalse(plantService.logCare(owner, id, CareLog.REPOTTING, null));
+
+        verify(careLogService, never()).record(any(), any(), any());
+    }
+
+    @Test
+    void testLogCare_UnknownType() {
+        assertFalse(plantService.logCare(owner(), UUID.randomUUID(), "DANCING", null));
+        verifyNoInteractions(plantRepository, careLogService);
+    }
 
+    // --- TEST 17: Save Plant - Date Already Exists ---
+    @Test
+    void testSavePlant_DateAlreadyExists() throws IOException {
         Plant plant = new Plant();
         LocalDate oldDate = LocalDate.of(2020, 1, 1);
         plant.setLastWatered(oldDate); // Set existing date
@@ -421,27 +533,19 @@ class PlantServiceTest {
         verify(plantRepository).save(plant);
     }
 
-    // --- TEST 18: Delete Plant - No Image (Coverage Line 52: ELSE branch) ---
+    // --- TEST 18: Delete Plant - No Image ---
     @Test
     void testDeletePlant_NoImage() {
-        try (MockedStatic<Files> f = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> p = Mockito.mockStatic(Paths.class)) {
-            plantService = new PlantService(plantRepository);
-        }
-
         UUID id = UUID.randomUUID();
         Plant plant = new Plant();
         plant.setImagePath(null); // No image
         when(plantRepository.findById(id)).thenReturn(Optional.of(plant));
 
-        try (MockedStatic<Files> filesMock = Mockito.mockStatic(Files.class);
-             MockedStatic<Paths> pathsMock = Mockito.mockStatic(Paths.class)) {
-            
-            plantService.deletePlant(id);
-            
-            // Verify delete logic SKIPPED
-            filesMock.verify(() -> Files.deleteIfExists(any()), never());
-            verify(plantRepository).deleteById(id);
-        }
+        plantService.deletePlant(id);
+
+        // Verify delete logic SKIPPED
+        verify(fileStorageService, never()).releaseFile(any());
+        verify(plantRepository).deleteById(id);
+        verify(careLogService).deleteHistory(id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class ScheduleDateMigratorTests {
+
+    @Autowired
+    private ScheduleDateMigrator migrator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parseLegacyDate_KnownFormats() {
+        LocalDate expected = LocalDate.of(2024, 12, 12);
+
+        assertEquals(expected, ScheduleDateMigrator.parseLegacyDate("2024-12-12"));
+        assertEquals(expected, ScheduleDateMigrator.parseLegacyDate("12/12/2024"));
+        assertEquals(expected, ScheduleDateMigrator.parseLegacyDate("12-12-2024"));
+        assertEquals(expected, ScheduleDateMigrator.parseLegacyDate(" 12 Des 2024 "));
+        assertEquals(expected, ScheduleDateMigrator.parseLegacyDate("12 Desember 2024"));
+        assertEquals(expected, ScheduleDateMigrator.parseLegacyDate("12 dec 2024"));
+        assertEquals(LocalDate.of(2024, 5, 3), ScheduleDateMigrator.parseLegacyDate("3 Mei 2024"));
+        assertEquals(expected, ScheduleDateMigrator.parseLegacyDate("2024-12-12T08:30"));
+    }
+
+    @Test
+    void parseLegacyDate_FreeText_ReturnsNull() {
+        assertNull(ScheduleDateMigrator.parseLegacyDate("Besok Pagi"));
+        assertNull(ScheduleDateMigrator.parseLegacyDate("31/02/2024"));
+        assertNull(ScheduleDateMigrator.parseLegacyDate(" "));
+        assertNull(ScheduleDateMigrator.parseLegacyDate(null));
+    }
+
+    @Test
+    void migrate_NoLegacyColumn_NoOp() {
+        assertEquals(0, migrator.migrate());
+    }
+
+    @Test
+    void migrate_MovesLegacyTextColumn() {
+        User user = userRepository.save(new User("Migrasi", "migrate-" + UUID.randomUUID() + "@test.com", "secret"));
+        // Skema lama: tanggal disimpan sebagai teks bebas di kolom "date"
+        jdbcTemplate.execute("ALTER TABLE schedules ADD COLUMN date VARCHAR(255)");
+        try {
+            jdbcTemplate.update("INSERT INTO schedules (date, activity, plant_name, user_id, is_generated)"
+                    + " VALUES ('12 Des 2024', 'Pupuk', 'Sirih', ?, FALSE)", user.getId());
+            jdbcTemplate.update("INSERT INTO schedules (date, activity, plant_name, user_id, is_generated)"
+                    + " VALUES ('Besok Pagi', 'Siram', 'Sirih', ?, FALSE)", user.getId());
+
+            assertEquals(2, migrator.migrate());
+            assertEquals(0, migrator.migrate());
+
+            Map<String, Object> parsed = jdbcTemplate.queryForMap(
+                    "SELECT schedule_date, date_note FROM schedules WHERE user_id = ? AND activity = 'Pupuk'",
+                    user.getId());
+            assertEquals(Date.valueOf(LocalDate.of(2024, 12, 12)), parsed.get("SCHEDULE_DATE"));
+            assertNull(parsed.get("DATE_NOTE"));
+            Map<String, Object> note = jdbcTemplate.queryForMap(
+                    "SELECT schedule_date, date_note FROM schedules WHERE user_id = ? AND activity = 'Siram'",
+                    user.getId());
+            assertNull(note.get("SCHEDULE_DATE"));
+            assertEquals("Besok Pagi", note.get("DATE_NOTE"));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE schedules DROP COLUMN date");
+            jdbcTemplate.update("DELETE FROM schedules WHERE user_id = ?", user.getId());
+            userRepository.deleteById(user.getId());
+        }
+    }
+}
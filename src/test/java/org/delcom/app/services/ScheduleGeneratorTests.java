@@ -0,0 +1,237 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.entities.Plant;
+import org.delcom.app.entities.Schedule;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.PlantRepository;
+import org.delcom.app.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class ScheduleGeneratorTests {
+
+    @Autowired
+    private ScheduleGenerator generator;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("Generator", "generator-" + UUID.randomUUID() + "@test.com", "secret"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Jadwal menunjuk plant_id, jadi dihapus lebih dulu
+        jdbcTemplate.update("DELETE FROM schedules WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM plants WHERE user_id = ?", user.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    // Disiram 3 hari lalu, tiap 7 hari: jatuh tempo today+4, +11, +18, +25 dalam horizon 30 hari
+    private Plant weeklyPlant() {
+        Plant plant = new Plant();
+        plant.setName("Monstera");
+        plant.setWateringFrequency(7);
+        plant.setLastWatered(today.minusDays(3));
+        plant.setUser(user);
+        return plantRepository.save(plant);
+    }
+
+    private List<LocalDate> generatedDates(UUID plantId) {
+        return jdbcTemplate.queryForList("SELECT schedule_date FROM schedules WHERE plant_id = ?"
+                + " AND is_generated = TRUE ORDER BY schedule_date", Date.class, plantId)
+                .stream().map(Date::toLocalDate).toList();
+    }
+
+    private LocalDate generatedUntil(UUID plantId) {
+        return jdbcTemplate.queryForObject("SELECT schedules_generated_until FROM plants WHERE id = ?",
+                Date.class, plantId).toLocalDate();
+    }
+
+    @Test
+    void regenerate_CreatesOccurrencesUpToHorizon() {
+        Plant plant = weeklyPlant();
+
+        assertEquals(4, generator.regenerate(List.of(plant.getId())));
+
+        assertEquals(List.of(today.plusDays(4), today.plusDays(11), today.plusDays(18), today.plusDays(25)),
+                generatedDates(plant.getId()));
+        assertEquals(today.plusDays(30), generatedUntil(plant.getId()));
+        assertEquals("Siram", jdbcTemplate.queryForObject(
+                "SELECT DISTINCT activity FROM schedules WHERE plant_id = ?", String.class, plant.getId()));
+    }
+
+    @Test
+    void regenerate_AfterWatering_ReplacesFutureOccurrences() {
+        Plant plant = weeklyPlant();
+        generator.regenerate(List.of(plant.getId()));
+
+        plantRepository.updateLastWatered(user.getId(), List.of(plant.getId()), today);
+        generator.regenerate(List.of(plant.getId()));
+
+        assertEquals(List.of(today.plusDays(7), today.plusDays(14), today.plusDays(21), today.plusDays(28)),
+                generatedDates(plant.getId()));
+    }
+
+    @Test
+    void regenerate_KeepsManualSchedules() {
+        Plant plant = weeklyPlant();
+        jdbcTemplate.update("INSERT INTO schedules (schedule_date, activity, plant_name, user_id, is_generated)"
+                + " VALUES (?, 'Pupuk', 'Monstera', ?, FALSE)", Date.valueOf(today.plusDays(4)), user.getId());
+
+        generator.regenerate(List.of(plant.getId()));
+        generator.regenerate(List.of(plant.getId()));
+
+        assertEquals(5L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schedules WHERE user_id = ?",
+                Long.class, user.getId()));
+    }
+
+    @Test
+    void saveSchedule_EditGeneratedThenRegenerate_NoDuplicateOccurrence() {
+        Plant plant = weeklyPlant();
+        generator.regenerate(List.of(plant.getId()));
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM schedules WHERE plant_id = ? AND schedule_date = ?",
+                Long.class, plant.getId(), Date.valueOf(today.plusDays(4)));
+
+        // Seperti form edit: hanya id, tanggal, nama tanaman, dan aktivitas yang dikirim
+        Schedule form = new Schedule();
+        form.setId(id);
+        form.setDate(today.plusDays(4));
+        form.setPlantName("Monstera");
+        form.setActivity("Siram sedikit");
+        assertFalse(scheduleService.saveSchedule(form, user));
+        generator.regenerate(List.of(plant.getId()));
+
+        assertEquals(List.of(today.plusDays(4), today.plusDays(11), today.plusDays(18), today.plusDays(25)),
+                generatedDates(plant.getId()));
+        assertEquals(4L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schedules WHERE user_id = ?",
+                Long.class, user.getId()));
+    }
+
+    @Test
+    void extend_OnlyAddsNewDays() {
+        Plant plant = weeklyPlant();
+        generator.regenerate(List.of(plant.getId()));
+
+        // Seminggu kemudian horizon bergeser ke today+37: hanya today+32 yang baru
+        generator.extend(today.plusDays(7));
+        generator.extend(today.plusDays(7));
+
+        assertEquals(List.of(today.plusDays(4), today.plusDays(11), today.plusDays(18), today.plusDays(25),
+                today.plusDays(32)), generatedDates(plant.getId()));
+        assertEquals(today.plusDays(37), generatedUntil(plant.getId()));
+    }
+
+    @Test
+    void ensureGenerated_FillsPlantsNeverGenerated() {
+        Plant plant = weeklyPlant();
+
+        assertEquals(4, generator.ensureGenerated(user.getId()));
+        assertEquals(0, generator.ensureGenerated(user.getId()));
+
+        assertEquals(4, generatedDates(plant.getId()).size());
+    }
+
+    @Test
+    void getSchedulesInRange_WindowBeyondHorizon_GeneratesWindow() {
+        Plant plant = weeklyPlant();
+        generator.regenerate(List.of(plant.getId()));
+
+        // Minggu yang dimulai 40 hari lagi, di luar horizon 30 hari
+        List<Schedule> window = scheduleService.getSchedulesInRange(user, today.plusDays(40), today.plusDays(46));
+
+        assertEquals(List.of(today.plusDays(46)), window.stream().map(Schedule::getDate).toList());
+        assertEquals(today.plusDays(46), generatedUntil(plant.getId()));
+        assertEquals(List.of(today.plusDays(4), today.plusDays(11), today.plusDays(18), today.plusDays(25),
+                today.plusDays(32), today.plusDays(39), today.plusDays(46)), generatedDates(plant.getId()));
+    }
+
+    @Test
+    void ensureGenerated_CappedAtMaxAheadDays() {
+        Plant plant = weeklyPlant();
+
+        generator.ensureGenerated(user.getId(), today.plusYears(5));
+
+        assertEquals(today.plusDays(366), generatedUntil(plant.getId()));
+    }
+
+    @Test
+    void deleteForPlant_RemovesAllSchedulesOfPlant() {
+        Plant plant = weeklyPlant();
+        generator.regenerate(List.of(plant.getId()));
+
+        assertEquals(4, generator.deleteForPlant(plant.getId()));
+
+        plantRepository.deleteById(plant.getId());
+        assertEquals(List.of(), generatedDates(plant.getId()));
+    }
+
+    @Test
+    void regenerate_Concurrent_NoDuplicateOccurrences() throws Exception {
+        Plant plant = weeklyPlant();
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> runs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            runs.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return generator.regenerate(List.of(plant.getId()));
+            }));
+        }
+        start.countDown();
+        for (CompletableFuture<Integer> run : runs) {
+            run.get(30, TimeUnit.SECONDS);
+        }
+        generator.extend(today);
+
+        assertEquals(List.of(today.plusDays(4), today.plusDays(11), today.plusDays(18), today.plusDays(25)),
+                generatedDates(plant.getId()));
+    }
+
+    @Test
+    void uniqueIndex_RejectsSecondGeneratedRowForSameDate() {
+        Plant plant = weeklyPlant();
+        generator.regenerate(List.of(plant.getId()));
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO schedules (schedule_date, activity, plant_name, user_id, plant_id, is_generated)"
+                        + " VALUES (?, 'Siram', 'Monstera', ?, ?, TRUE)",
+                Date.valueOf(today.plusDays(4)), user.getId(), plant.getId()));
+    }
+}
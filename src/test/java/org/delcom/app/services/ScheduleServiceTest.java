@@ -1,5 +1,6 @@
 package org.delcom.app.services;
 
+import org.delcom.app.dto.PageSlice;
 import org.delcom.app.entities.Schedule;
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.ScheduleRepository;
@@ -9,10 +10,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +28,12 @@ class ScheduleServiceTest {
     @Mock
     private ScheduleRepository repository;
 
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private ScheduleGenerator scheduleGenerator;
+
     @Mock
     private User mockUser;
 
@@ -52,11 +63,126 @@ class ScheduleServiceTest {
 
     @Test
     void saveSchedule_ShouldSetUserAndSaveToRepository() {
+        Schedule schedule = new Schedule();
+        schedule.setActivity("Pupuk");
+
         // Method main: saveSchedule
-        scheduleService.saveSchedule(mockSchedule, mockUser);
+        assertTrue(scheduleService.saveSchedule(schedule, mockUser));
         
-        assertEquals(mockUser, mockSchedule.getUser());
-        verify(repository, times(1)).save(mockSchedule);
+        assertEquals(mockUser, schedule.getUser());
+        verify(repository, times(1)).save(schedule);
+        verify(dashboardService).refreshSchedules(mockUser);
+    }
+
+    @Test
+    void saveSchedule_Edit_CopiesOnlyFormFields() {
+        Schedule existing = new Schedule();
+        existing.setId(TEST_ID);
+        existing.setDateNote("Besok Pagi");
+        existing.setActivity("Siram");
+        when(repository.findById(TEST_ID)).thenReturn(Optional.of(existing));
+        // Form hanya mengirim id, tanggal, nama tanaman, dan aktivitas
+        mockSchedule.setDate(LocalDate.of(2026, 5, 4));
+        mockSchedule.setPlantName("Sirih");
+        mockSchedule.setActivity("Pupuk");
+
+        assertTrue(scheduleService.saveSchedule(mockSchedule, mockUser));
+
+        verify(repository).save(existing);
+        assertEquals(LocalDate.of(2026, 5, 4), existing.getDate());
+        assertEquals("Sirih", existing.getPlantName());
+        assertEquals("Pupuk", existing.getActivity());
+        assertEquals("Besok Pagi", existing.getDateNote());
+    }
+
+    @Test
+    void saveSchedule_EditGenerated_IsRefused() {
+        Schedule generated = new Schedule();
+        generated.setId(TEST_ID);
+        generated.setGenerated(true);
+        when(repository.findById(TEST_ID)).thenReturn(Optional.of(generated));
+        mockSchedule.setActivity("Pupuk");
+
+        assertFalse(scheduleService.saveSchedule(mockSchedule, mockUser));
+
+        verify(repository, never()).save(any());
+        assertEquals(null, generated.getActivity());
+    }
+
+    @Test
+    void getSchedulesPage_OffsetDanKeyset() {
+        Schedule next = new Schedule();
+        next.setId(2L);
+        when(repository.findByUserOrderByIdAsc(mockUser, PageRequest.of(1, 1)))
+                .thenReturn(new SliceImpl<>(List.of(mockSchedule), PageRequest.of(1, 1), true));
+        when(repository.findByUserAndIdGreaterThanOrderByIdAsc(mockUser, TEST_ID, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(next), PageRequest.of(0, 1), false));
+
+        PageSlice<Schedule> offset = scheduleService.getSchedulesPage(mockUser, 1, 1, null);
+        assertEquals(1, offset.getPage());
+        assertEquals(String.valueOf(TEST_ID), offset.getNextAfter());
+
+        PageSlice<Schedule> keyset = scheduleService.getSchedulesPage(mockUser, 0, 1, TEST_ID);
+        assertTrue(keyset.isKeyset());
+        assertFalse(keyset.hasNext());
+        assertEquals(List.of(next), keyset.getContent());
+    }
+
+    @Test
+    void getSchedulesPage_HalamanPertama_MelengkapiJadwalOtomatis() {
+        UUID userId = UUID.randomUUID();
+        when(mockUser.getId()).thenReturn(userId);
+        when(repository.findByUserOrderByIdAsc(mockUser, PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of(mockSchedule), PageRequest.of(0, 10), false));
+
+        scheduleService.getSchedulesPage(mockUser, 0, 10, null);
+
+        verify(scheduleGenerator).ensureGenerated(userId);
+    }
+
+    @Test
+    void getSchedulesPage_HalamanBerikutnya_TidakMembuatJadwal() {
+        when(repository.findByUserAndIdGreaterThanOrderByIdAsc(mockUser, TEST_ID, PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+
+        scheduleService.getSchedulesPage(mockUser, 0, 10, TEST_ID);
+
+        verifyNoInteractions(scheduleGenerator);
+    }
+
+    @Test
+    void getSchedulesInRange_ClampsWindowAndQueriesRange() {
+        UUID userId = UUID.randomUUID();
+        when(mockUser.getId()).thenReturn(userId);
+        LocalDate from = LocalDate.now();
+        LocalDate until = from.plusDays(ScheduleService.MAX_RANGE_DAYS - 1);
+        when(repository.findByUserAndDateBetweenOrderByDateAscIdAsc(mockUser, from, until))
+                .thenReturn(List.of(mockSchedule));
+
+        assertEquals(List.of(mockSchedule), scheduleService.getSchedulesInRange(mockUser, from, from.plusYears(3)));
+
+        verify(scheduleGenerator).ensureGenerated(userId, until);
+        verify(repository, never()).findByUser(any());
+    }
+
+    @Test
+    void getSchedulesInRange_PastWindow_DoesNotGenerate() {
+        LocalDate from = LocalDate.of(2020, 1, 1);
+        LocalDate to = LocalDate.of(2020, 1, 7);
+
+        scheduleService.getSchedulesInRange(mockUser, from, to);
+
+        verify(repository).findByUserAndDateBetweenOrderByDateAscIdAsc(mockUser, from, to);
+        verifyNoInteractions(scheduleGenerator);
+    }
+
+    @Test
+    void getSchedulesInRange_ReversedRange_Empty() {
+        LocalDate from = LocalDate.of(2026, 5, 10);
+
+        assertTrue(scheduleService.getSchedulesInRange(mockUser, from, from.minusDays(1)).isEmpty());
+
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -71,5 +197,17 @@ class ScheduleServiceTest {
         // Method main: deleteSchedule
         scheduleService.deleteSchedule(TEST_ID);
         verify(repository, times(1)).deleteById(TEST_ID);
+        verify(dashboardService, never()).refreshSchedules(any());
+    }
+
+    @Test
+    void deleteSchedule_Found_MemperbaruiStatistikPemilik() {
+        mockSchedule.setUser(mockUser);
+        when(repository.findById(TEST_ID)).thenReturn(Optional.of(mockSchedule));
+
+        scheduleService.deleteSchedule(TEST_ID);
+
+        verify(repository).deleteById(TEST_ID);
+        verify(dashboardService).refreshSchedules(mockUser);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.delcom.app.dto.SearchResult;
+import org.delcom.app.services.SearchIndex.Field;
+import org.delcom.app.utils.IndonesianTokenizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SearchIndexTests {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        put("1", "Monstera", "Monstera deliciosa", "Daun besar, suka cahaya terang");
+        put("2", "Sirih Gading", "Epipremnum aureum", "Cukup disiram seminggu sekali");
+        put("3", "Kaktus Mini", "Cactaceae", "Jangan terlalu sering menyiram, monstera tetangga lebih haus");
+    }
+
+    private void put(String id, String name, String species, String description) {
+        index.put(new SearchResult(SearchResult.PLANT, id, name, species, "/plants/" + id, 0),
+                List.of(new Field(name, 3f), new Field(species, 2f), new Field(description, 1f)));
+    }
+
+    private List<String> ids(String query) {
+        return index.search(IndonesianTokenizer.tokenize(query), 10).stream().map(SearchResult::id).toList();
+    }
+
+    @Test
+    void search_TitleMatchRanksAboveDescription() {
+        assertEquals(List.of("1", "3"), ids("monstera"));
+    }
+
+    @Test
+    void search_MatchesByStem() {
+        // "siram" cocok dengan "disiram" dan "menyiram"
+        assertEquals(2, ids("siram").size());
+        assertTrue(ids("penyiraman").containsAll(List.of("2", "3")));
+    }
+
+    @Test
+    void search_PrefixWhileTyping() {
+        assertEquals(List.of("1", "3"), ids("mons"));
+        assertEquals(List.of("2"), ids("epiprem"));
+    }
+
+    @Test
+    void search_PrefixOnlyForLastWord() {
+        // Kata sebelum kata terakhir sudah selesai diketik: harus utuh
+        assertTrue(ids("mons daun").isEmpty());
+        assertEquals(List.of("1"), ids("daun mons"));
+    }
+
+    @Test
+    void search_AllTermsMustMatch() {
+        assertEquals(List.of("2"), ids("sirih siram"));
+        assertTrue(ids("sirih kaktus").isEmpty());
+        assertTrue(ids("anggrek").isEmpty());
+    }
+
+    @Test
+    void search_RespectsLimit() {
+        assertEquals(1, index.search(List.of("monstera"), 1).size());
+    }
+
+    @Test
+    void search_TenThousandDocumentsStaysFast() {
+        SearchIndex large = new SearchIndex();
+        String[] names = { "Monstera", "Sirih Gading", "Lidah Mertua", "Kaktus", "Anggrek Bulan" };
+        for (int i = 0; i < 10_000; i++) {
+            String name = names[i % names.length] + " " + i;
+            large.put(new SearchResult(SearchResult.PLANT, String.valueOf(i), name, null, "/plants/" + i, 0),
+                    List.of(new Field(name, 3f), new Field("Daun menguning karena terlalu sering disiram", 1f)));
+        }
+        List<List<String>> queries = List.of(List.of("monstera"), List.of("siram"), List.of("daun", "mengu"),
+                List.of("ang"));
+        for (int i = 0; i < 200; i++) {
+            queries.forEach(q -> large.search(q, 20));
+        }
+
+        int rounds = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            queries.forEach(q -> assertEquals(20, large.search(q, 20).size()));
+        }
+        long micros = (System.nanoTime() - start) / 1000 / (rounds * queries.size());
+
+        // Batas longgar agar tidak flaky di CI; angka sebenarnya lihat SearchIndexBenchmark
+        assertTrue(micros < 20_000, "rata-rata pencarian " + micros + "us");
+    }
+
+    @Test
+    void put_ReplacesPreviousTerms() {
+        put("1", "Anggrek Bulan", "Phalaenopsis", null);
+
+        assertEquals(List.of("3"), ids("monstera"));
+        assertEquals(List.of("1"), ids("anggrek"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_DropsDocumentAndEmptyTerms() {
+        index.remove(SearchResult.PLANT, "2");
+
+        assertTrue(ids("sirih").isEmpty());
+        assertTrue(ids("epipremnum").isEmpty());
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,186 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.SearchResult;
+import org.delcom.app.entities.Encyclopedia;
+import org.delcom.app.entities.Plant;
+import org.delcom.app.entities.PlantHealth;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.EncyclopediaRepository;
+import org.delcom.app.repositories.PlantHealthRepository;
+import org.delcom.app.repositories.PlantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SearchServiceTests {
+
+    private PlantRepository plantRepository;
+    private PlantHealthRepository plantHealthRepository;
+    private EncyclopediaRepository encyclopediaRepository;
+    private SearchService searchService;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        plantRepository = mock(PlantRepository.class);
+        plantHealthRepository = mock(PlantHealthRepository.class);
+        encyclopediaRepository = mock(EncyclopediaRepository.class);
+        searchService = new SearchService(plantRepository, plantHealthRepository, encyclopediaRepository, 2);
+
+        alice = user();
+        bob = user();
+        when(plantRepository.findByUser(alice)).thenReturn(new ArrayList<>(List.of(plant(alice, "Monstera"))));
+        when(plantRepository.findByUser(bob)).thenReturn(new ArrayList<>(List.of(plant(bob, "Monstera Adansonii"))));
+        when(plantHealthRepository.findByUser(alice)).thenReturn(List.of(healthLog(alice)));
+        when(encyclopediaRepository.findAll()).thenReturn(List.of(encyclopedia()));
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private static Plant plant(User owner, String name) {
+        Plant plant = new Plant();
+        plant.setId(UUID.randomUUID());
+        plant.setName(name);
+        plant.setSpecies("Araceae");
+        plant.setUser(owner);
+        return plant;
+    }
+
+    private static PlantHealth healthLog(User owner) {
+        PlantHealth log = new PlantHealth();
+        log.setId(10L);
+        log.setPlantName("Monstera");
+        log.setIssue("Daun menguning");
+        log.setDiagnosis("Terlalu sering disiram");
+        log.setUser(owner);
+        return log;
+    }
+
+    private static Encyclopedia encyclopedia() {
+        Encyclopedia entry = new Encyclopedia();
+        entry.setId(1L);
+        entry.setSpecies("Teknik Penyiraman");
+        entry.setDescription("Waktu terbaik menyiram tanaman adalah pagi hari.");
+        entry.setCareTips("Siram tanahnya, bukan daunnya.");
+        return entry;
+    }
+
+    private List<String> types(List<SearchResult> results) {
+        return results.stream().map(SearchResult::type).toList();
+    }
+
+    @Test
+    void search_OwnDataAndEncyclopediaOnly() {
+        List<SearchResult> monstera = searchService.search(alice, "monstera", 10);
+
+        assertEquals(List.of(SearchResult.HEALTH_LOG, SearchResult.PLANT), types(monstera).stream().sorted().toList());
+        assertTrue(monstera.stream().anyMatch(result -> result.url().equals("/doctor/10/edit")));
+
+        assertEquals(List.of(SearchResult.ENCYCLOPEDIA, SearchResult.HEALTH_LOG),
+                types(searchService.search(alice, "siram", 10)).stream().sorted().toList());
+        assertEquals(List.of("Monstera Adansonii"),
+                searchService.search(bob, "monstera", 10).stream().map(SearchResult::title).toList());
+    }
+
+    @Test
+    void search_BuildsUserIndexOnce() {
+        searchService.search(alice, "monstera", 10);
+        searchService.search(alice, "daun", 10);
+
+        verify(plantRepository, times(1)).findByUser(alice);
+        verify(encyclopediaRepository, times(1)).findAll();
+        assertEquals(1, searchService.getLoadedUsers());
+        assertEquals(2, searchService.getBuilds());
+    }
+
+    @Test
+    void search_BlankOrStopwordsOnly_NoLookup() {
+        assertTrue(searchService.search(alice, "  ", 10).isEmpty());
+        assertTrue(searchService.search(alice, "yang dan", 10).isEmpty());
+        assertTrue(searchService.search(null, "monstera", 10).isEmpty());
+
+        verify(plantRepository, never()).findByUser(any());
+    }
+
+    @Test
+    void indexPlant_UpdatesLoadedIndex() {
+        searchService.search(alice, "monstera", 10);
+        Plant added = plant(alice, "Kaktus Bintang");
+
+        searchService.indexPlant(added);
+
+        assertEquals(List.of("Kaktus Bintang"),
+                searchService.search(alice, "kaktus", 10).stream().map(SearchResult::title).toList());
+        searchService.removePlant(alice, added.getId());
+        assertTrue(searchService.search(alice, "kaktus", 10).isEmpty());
+    }
+
+    @Test
+    void indexPlant_UserNotLoaded_SkippedUntilFirstSearch() {
+        searchService.indexPlant(plant(bob, "Kaktus"));
+
+        assertEquals(0, searchService.getLoadedUsers());
+        verify(plantRepository, never()).findByUser(any());
+    }
+
+    @Test
+    void removeHealthLog_And_Encyclopedia() {
+        searchService.search(alice, "siram", 10);
+
+        searchService.removeHealthLog(alice, 10L);
+        searchService.removeEncyclopedia(1L);
+
+        assertTrue(searchService.search(alice, "siram", 10).isEmpty());
+    }
+
+    @Test
+    void userIndexes_LeastRecentlyUsedEvicted() {
+        User carol = user();
+        when(plantRepository.findByUser(carol)).thenReturn(List.of());
+
+        searchService.search(alice, "monstera", 10);
+        searchService.search(bob, "monstera", 10);
+        searchService.search(alice, "monstera", 10);
+        searchService.search(carol, "monstera", 10);
+
+        assertEquals(2, searchService.getLoadedUsers());
+        assertEquals(1, searchService.getEvictions());
+        // bob yang dibuang: dibangun ulang saat mencari lagi
+        searchService.search(bob, "monstera", 10);
+        verify(plantRepository, times(2)).findByUser(bob);
+        verify(plantRepository, times(1)).findByUser(alice);
+    }
+
+    @Test
+    void search_LoadFailure_RetriedNextTime() {
+        User dave = user();
+        when(plantRepository.findByUser(dave)).thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of(plant(dave, "Lidah Mertua")));
+
+        try {
+            searchService.search(dave, "lidah", 10);
+        } catch (IllegalStateException expected) {
+            // index tidak disimpan setengah jadi
+        }
+
+        assertEquals(1, searchService.search(dave, "lidah", 10).size());
+    }
+}
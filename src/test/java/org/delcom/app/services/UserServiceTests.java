@@ -187,4 +187,64 @@ class UserServiceTest {
         assertNull(result);
         verify(userRepository, never()).save(any());
     }
-}
\ No newline at end of file
+
+    // --- 7. Test getPrincipalUser (cache per email) ---
+
+    @Test
+    void testGetPrincipalUser_CachedUntilEmailChanges() {
+        UUID id = UUID.randomUUID();
+        User existingUser = new User("Name", "old@email.com", "hash");
+        existingUser.setId(id);
+
+        when(userRepository.findFirstByEmail("old@email.com")).thenReturn(Optional.of(existingUser));
+
+        // Query hanya sekali, panggilan kedua dari cache
+        User first = userService.getPrincipalUser("old@email.com");
+        User second = userService.getPrincipalUser("old@email.com");
+        assertEquals(id, first.getId());
+        assertEquals(id, second.getId());
+        verify(userRepository, times(1)).findFirstByEmail("old@email.com");
+
+        // Update email membuang cache untuk email lama
+        when(userRepository.findById(id)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.updateUser(id, "Name", "new@email.com");
+
+        when(userRepository.findFirstByEmail("old@email.com")).thenReturn(Optional.empty());
+        assertNull(userService.getPrincipalUser("old@email.com"));
+        verify(userRepository, times(2)).findFirstByEmail("old@email.com");
+    }
+
+    @Test
+    void testGetPrincipalUser_NullAndDisabled() {
+        assertNull(userService.getPrincipalUser(null));
+
+        userService.principalCacheTtlSeconds = 0;
+        User mockUser = new User("Name", "a@email.com", "hash");
+        when(userRepository.findFirstByEmail("a@email.com")).thenReturn(Optional.of(mockUser));
+
+        userService.getPrincipalUser("a@email.com");
+        userService.getPrincipalUser("a@email.com");
+        verify(userRepository, times(2)).findFirstByEmail("a@email.com");
+    }
+
+    @Test
+    void testGetPrincipalUser_CacheBoundedLeastRecentlyUsed() {
+        userService.principalCacheMaxSize = 2;
+        for (String email : new String[] { "a@email.com", "b@email.com", "c@email.com" }) {
+            when(userRepository.findFirstByEmail(email)).thenReturn(Optional.of(new User("Name", email, "hash")));
+        }
+
+        userService.getPrincipalUser("a@email.com");
+        userService.getPrincipalUser("b@email.com");
+        userService.getPrincipalUser("a@email.com");
+        userService.getPrincipalUser("c@email.com");
+
+        assertEquals(2, userService.getPrincipalCacheSize());
+        // b paling lama tidak dipakai sehingga dibuang; a masih dari cache
+        userService.getPrincipalUser("a@email.com");
+        userService.getPrincipalUser("b@email.com");
+        verify(userRepository, times(1)).findFirstByEmail("a@email.com");
+        verify(userRepository, times(2)).findFirstByEmail("b@email.com");
+    }
+}
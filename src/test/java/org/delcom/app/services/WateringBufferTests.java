@@ -0,0 +1,252 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.delcom.app.entities.CareLog;
+import org.delcom.app.repositories.PlantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class WateringBufferTests {
+
+    @TempDir
+    Path journalDir;
+
+    private PlantRepository plantRepository;
+    private CareLogService careLogService;
+    private DashboardService dashboardService;
+    private TransactionTemplate transactionTemplate;
+    private ScheduleGenerator scheduleGenerator;
+    private WateringBuffer buffer;
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDateTime morning = LocalDateTime.of(2026, 5, 4, 7, 30);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        plantRepository = mock(PlantRepository.class);
+        careLogService = mock(CareLogService.class);
+        dashboardService = mock(DashboardService.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        scheduleGenerator = mock(ScheduleGenerator.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        // Semua id dianggap masih ada dan belum disiram di tanggal itu
+        when(plantRepository.lockIdsWateredBefore(any(), anyList(), any()))
+                .thenAnswer(invocation -> List.copyOf((List<?>) invocation.getArgument(1)));
+        when(plantRepository.updateLastWateredIfOlder(any(), anyList(), any()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(1)).size());
+        buffer = newBuffer();
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.shutdown();
+    }
+
+    // Interval & threshold besar: flush hanya saat dipanggil test
+    private WateringBuffer newBuffer() {
+        return new WateringBuffer(plantRepository, careLogService, dashboardService, transactionTemplate,
+                scheduleGenerator, true, journalDir.toString(), 60_000, 10_000, true);
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void add_AcknowledgesWithoutTouchingDatabase() {
+        UUID plant = UUID.randomUUID();
+
+        assertTrue(buffer.add(userId, List.of(plant), morning));
+
+        assertEquals(1, buffer.getPending());
+        verify(plantRepository, never()).updateLastWateredIfOlder(any(), any(), any());
+    }
+
+    @Test
+    void flush_CoalescesRepeatedWateringIntoOneUpdate() throws IOException {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        buffer.add(userId, List.of(first), morning);
+        buffer.add(userId, List.of(first, second), morning.plusSeconds(5));
+        buffer.add(userId, List.of(first), morning.plusSeconds(9));
+
+        assertEquals(2, buffer.getPending());
+        assertEquals(2, buffer.getCoalesced());
+
+        assertEquals(2, buffer.flush());
+
+        verify(plantRepository, times(1)).updateLastWateredIfOlder(userId, List.of(first, second), morning.toLocalDate());
+        verify(careLogService).recordAt(
+                Map.of(first, morning.plusSeconds(9), second, morning.plusSeconds(5)), CareLog.WATERING);
+        verify(dashboardService).refreshPlantsById(userId);
+        verify(scheduleGenerator).regenerate(Set.of(first, second));
+        assertEquals(0, buffer.getPending());
+        // Hanya segmen aktif yang tersisa
+        assertEquals(1, segments());
+    }
+
+    @Test
+    void flush_GroupsByUserAndDate() {
+        UUID otherUser = UUID.randomUUID();
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        buffer.add(userId, List.of(a), morning);
+        buffer.add(userId, List.of(b), morning.plusDays(1));
+        buffer.add(otherUser, List.of(c), morning);
+
+        assertEquals(3, buffer.flush());
+
+        verify(plantRepository).updateLastWateredIfOlder(userId, List.of(a), morning.toLocalDate());
+        verify(plantRepository).updateLastWateredIfOlder(userId, List.of(b), morning.toLocalDate().plusDays(1));
+        verify(plantRepository).updateLastWateredIfOlder(otherUser, List.of(c), morning.toLocalDate());
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void flush_PlantDeletedMeanwhile_NotLogged() {
+        UUID kept = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        when(plantRepository.lockIdsWateredBefore(eq(userId), anyList(), any())).thenReturn(List.of(kept));
+        buffer.add(userId, List.of(kept, deleted), morning);
+
+        assertEquals(1, buffer.flush());
+
+        verify(plantRepository).updateLastWateredIfOlder(userId, List.of(kept), morning.toLocalDate());
+        verify(careLogService).recordAt(Map.of(kept, morning), CareLog.WATERING);
+    }
+
+    @Test
+    void start_ReplayOfCommittedSegment_ChangesNothing() throws IOException {
+        // lastWatered di "database": UPDATE hanya memajukan tanggal yang lebih lama
+        Map<UUID, LocalDate> lastWatered = new HashMap<>();
+        when(plantRepository.lockIdsWateredBefore(eq(userId), anyList(), any())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(1);
+            LocalDate date = invocation.getArgument(2);
+            return ids.stream().filter(id -> lastWatered.get(id) == null || lastWatered.get(id).isBefore(date))
+                    .toList();
+        });
+        when(plantRepository.updateLastWateredIfOlder(eq(userId), anyList(), any())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(1);
+            ids.forEach(id -> lastWatered.put(id, invocation.getArgument(2)));
+            return ids.size();
+        });
+        UUID plant = UUID.randomUUID();
+        UUID editedLater = UUID.randomUUID();
+        buffer.add(userId, List.of(plant, editedLater), morning);
+        Path segment;
+        try (Stream<Path> files = Files.list(journalDir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        byte[] content = Files.readAllBytes(segment);
+
+        assertEquals(2, buffer.flush());
+        // Crash setelah commit tetapi sebelum segmen terhapus; lalu savePlant
+        // memajukan lastWatered salah satu tanaman
+        Files.write(segment, content);
+        lastWatered.put(editedLater, morning.toLocalDate().plusDays(2));
+
+        WateringBuffer restarted = newBuffer();
+        restarted.start();
+        try {
+            assertEquals(0, restarted.getPending());
+            assertEquals(0, restarted.getFlushed());
+            verify(careLogService, times(1)).recordAt(any(), eq(CareLog.WATERING));
+            verify(scheduleGenerator, times(1)).regenerate(any());
+            assertEquals(morning.toLocalDate(), lastWatered.get(plant));
+            assertEquals(morning.toLocalDate().plusDays(2), lastWatered.get(editedLater));
+            // Segmen yang sudah diputar ulang dihapus
+            assertFalse(Files.exists(segment));
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void flush_Failure_RequeuesAndKeepsJournal() throws IOException {
+        UUID plant = UUID.randomUUID();
+        buffer.add(userId, List.of(plant), morning);
+        doThrow(new IllegalStateException("db down")).when(transactionTemplate).execute(any());
+
+        assertEquals(0, buffer.flush());
+
+        assertEquals(1, buffer.getPending());
+        assertEquals(1, buffer.getFailedFlushes());
+        assertEquals(2, segments());
+        verify(careLogService, never()).recordAt(any(), any());
+        verify(scheduleGenerator, never()).regenerate(any());
+    }
+
+    @Test
+    void start_ReplaysJournalLeftByCrash() throws IOException {
+        UUID plant = UUID.randomUUID();
+        buffer.add(userId, List.of(plant), morning);
+        buffer.add(userId, List.of(plant), morning.plusMinutes(1));
+
+        // Proses baru di folder yang sama, tanpa shutdown/flush proses lama
+        WateringBuffer restarted = newBuffer();
+        restarted.start();
+        try {
+            verify(plantRepository).updateLastWateredIfOlder(userId, List.of(plant), LocalDate.of(2026, 5, 4));
+            verify(careLogService).recordAt(Map.of(plant, morning.plusMinutes(1)), CareLog.WATERING);
+            assertEquals(0, restarted.getPending());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void start_SkipsTornJournalLine() throws IOException {
+        UUID plant = UUID.randomUUID();
+        Files.writeString(journalDir.resolve("watering-0000000000000000099.journal"),
+                userId + "," + plant + "," + morning + "\n" + userId + ",abc");
+
+        WateringBuffer restarted = newBuffer();
+        restarted.start();
+        try {
+            verify(plantRepository).updateLastWateredIfOlder(userId, List.of(plant), morning.toLocalDate());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    void add_AfterShutdown_ReturnsFalse() {
+        buffer.shutdown();
+
+        assertFalse(buffer.add(userId, List.of(UUID.randomUUID()), morning));
+    }
+}
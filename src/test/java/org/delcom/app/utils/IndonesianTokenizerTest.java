@@ -0,0 +1,67 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndonesianTokenizerTest {
+
+    @Test
+    void testTokenize_LowercaseSplitAndStopwords() {
+        assertEquals(List.of("daun", "daun", "monstera", "menguning", "2"),
+                IndonesianTokenizer.tokenize("Daun-daun Monstera yang menguning (2)"));
+    }
+
+    @Test
+    void testTokenize_StripsAccents() {
+        assertEquals(List.of("cafe", "creme"), IndonesianTokenizer.tokenize("Café CRÈME"));
+    }
+
+    @Test
+    void testTokenize_EmptyOrNull() {
+        assertTrue(IndonesianTokenizer.tokenize(null).isEmpty());
+        assertTrue(IndonesianTokenizer.tokenize(" - ").isEmpty());
+        assertTrue(IndonesianTokenizer.tokenize("yang dan di").isEmpty());
+    }
+
+    @Test
+    void testStem_PrefixesWithSoundChange() {
+        assertEquals("siram", IndonesianTokenizer.stem("menyiram"));
+        assertEquals("siram", IndonesianTokenizer.stem("disirami"));
+        assertEquals("siram", IndonesianTokenizer.stem("menyiramnya"));
+        assertEquals("pupuk", IndonesianTokenizer.stem("memupuk"));
+        assertEquals("pupuk", IndonesianTokenizer.stem("pemupukan"));
+        assertEquals("tanam", IndonesianTokenizer.stem("menanam"));
+        assertEquals("tanam", IndonesianTokenizer.stem("tanaman"));
+        assertEquals("rawat", IndonesianTokenizer.stem("merawat"));
+        assertEquals("rawat", IndonesianTokenizer.stem("perawatan"));
+        assertEquals("bersih", IndonesianTokenizer.stem("membersihkan"));
+        assertEquals("bunga", IndonesianTokenizer.stem("berbunga"));
+        assertEquals("bakar", IndonesianTokenizer.stem("terbakar"));
+    }
+
+    @Test
+    void testStem_KanVersusAn() {
+        assertEquals("guna", IndonesianTokenizer.stem("menggunakan"));
+        assertEquals("letak", IndonesianTokenizer.stem("letakkan"));
+        assertEquals("masak", IndonesianTokenizer.stem("masakan"));
+        assertEquals("siram", IndonesianTokenizer.stem("penyiraman"));
+    }
+
+    @Test
+    void testStem_ConfixKeAn() {
+        assertEquals("kering", IndonesianTokenizer.stem("kekeringan"));
+        assertEquals("sehat", IndonesianTokenizer.stem("kesehatan"));
+    }
+
+    @Test
+    void testStem_LeavesShortAndBaseWordsAlone() {
+        assertEquals("kering", IndonesianTokenizer.stem("kering"));
+        assertEquals("daun", IndonesianTokenizer.stem("daun"));
+        assertEquals("taman", IndonesianTokenizer.stem("taman"));
+        assertEquals("pestisida", IndonesianTokenizer.stem("pestisida"));
+        assertEquals("npk10", IndonesianTokenizer.stem("npk10"));
+    }
+}
@@ -114,4 +114,67 @@ class JwtUtilTest {
         boolean isValid = JwtUtil.validateToken(expiredToken, true);
         assertTrue(isValid);
     }
-}
\ No newline at end of file
+
+    // --- TEST 9: Parse Token - Valid ---
+    @Test
+    void testParseToken_Valid() {
+        UUID userId = UUID.randomUUID();
+        String token = JwtUtil.generateToken(userId);
+
+        JwtUtil.ParsedToken parsed = JwtUtil.parseToken(token);
+        assertEquals(JwtUtil.TokenStatus.VALID, parsed.getStatus());
+        assertEquals(userId, parsed.getUserId());
+        assertNotNull(parsed.getExpiration());
+        assertFalse(parsed.isExpired());
+        assertTrue(parsed.isValid(false));
+    }
+
+    // --- TEST 10: Parse Token - Expired, klaim tetap terbaca ---
+    @Test
+    void testParseToken_Expired() {
+        UUID userId = UUID.randomUUID();
+        String expiredToken = Jwts.builder()
+                .subject(userId.toString())
+                .issuedAt(new Date(System.currentTimeMillis() - 100000))
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(JwtUtil.getKey())
+                .compact();
+
+        JwtUtil.ParsedToken parsed = JwtUtil.parseToken(expiredToken);
+        assertEquals(JwtUtil.TokenStatus.EXPIRED, parsed.getStatus());
+        assertEquals(userId, parsed.getUserId());
+        assertTrue(parsed.isExpired());
+        assertFalse(parsed.isValid(false));
+        assertTrue(parsed.isValid(true));
+    }
+
+    // --- TEST 11: Parse Token - Invalid & subject bukan UUID ---
+    @Test
+    void testParseToken_InvalidAndBadSubject() {
+        JwtUtil.ParsedToken invalid = JwtUtil.parseToken("ini.bukan.token.valid");
+        assertEquals(JwtUtil.TokenStatus.INVALID, invalid.getStatus());
+        assertNull(invalid.getUserId());
+        assertNull(invalid.getExpiration());
+        assertFalse(invalid.isValid(true));
+
+        String badSubject = Jwts.builder()
+                .subject("bukan-uuid")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(JwtUtil.getKey())
+                .compact();
+        JwtUtil.ParsedToken parsed = JwtUtil.parseToken(badSubject);
+        assertEquals(JwtUtil.TokenStatus.VALID, parsed.getStatus());
+        assertNull(parsed.getUserId());
+    }
+
+    // --- TEST 12: Hash Token ---
+    @Test
+    void testHashToken() {
+        String hash = JwtUtil.hashToken("token");
+        assertEquals(64, hash.length());
+        assertEquals(hash, JwtUtil.hashToken("token"));
+        assertNotEquals(hash, JwtUtil.hashToken("token2"));
+        assertNull(JwtUtil.hashToken(null));
+        assertTrue(JwtUtil.getExpirationTime() > 0);
+    }
+}